@@ -0,0 +1,3 @@
+# Runs the JMH benchmarks in src/jmh/java from the project folder; arguments are passed to JMH, e.g.
+#   ./benchmarks.sh QueryBenchmark -p data=cars.csv,1000000x10 -rf json -rff query.json
+cd "$(dirname "$0")/.." && mvn -B -P benchmarks compile exec:exec@run-benchmarks -Djmh.args="$*"
@@ -1 +0,0 @@
-java -Xmx1024m -Xverify:none -cp ../target/edenfx-1.1.1-jar-with-dependencies.jar gov.ornl.pcpview.PCPViewTest
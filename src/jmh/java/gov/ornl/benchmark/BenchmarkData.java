@@ -0,0 +1,107 @@
+package gov.ornl.benchmark;
+
+import gov.ornl.datatable.Column;
+import gov.ornl.datatable.DataTable;
+import gov.ornl.datatable.DoubleColumn;
+import gov.ornl.datatable.IOUtilities;
+import gov.ornl.datatable.Tuple;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Data for the benchmarks, named by their data parameter: either a file in the
+ * data/csv folder (e.g. cars.csv) or synthetic rows x columns of random doubles
+ * (e.g. 100000x10). The data folder can be changed with -Dcrossvis.data.dir.
+ * Synthetic data uses a fixed seed so every run measures the same values.
+ */
+final class BenchmarkData {
+    private static final Pattern SYNTHETIC_PATTERN = Pattern.compile("(\\d+)x(\\d+)");
+    private static final long SEED = 1L;
+
+    private BenchmarkData() { }
+
+    // data table of the data parameter
+    static DataTable load(String data) throws IOException {
+        Matcher matcher = SYNTHETIC_PATTERN.matcher(data);
+        if (matcher.matches()) {
+            return createSyntheticDataTable(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+        }
+        return readCSV(getCSVFile(data));
+    }
+
+    // csv file of the data parameter (synthetic data is written to a temporary file)
+    static File getCSVFile(String data) throws IOException {
+        Matcher matcher = SYNTHETIC_PATTERN.matcher(data);
+        if (matcher.matches()) {
+            return writeSyntheticCSV(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+        }
+
+        File csvFile = new File(System.getProperty("crossvis.data.dir", "data/csv"), data);
+        if (!csvFile.canRead()) {
+            throw new IOException("Can't read benchmark data file " + csvFile.getAbsolutePath());
+        }
+        return csvFile;
+    }
+
+    // every column read as a double column
+    static DataTable readCSV(File csvFile) throws IOException {
+        DataTable dataTable = new DataTable();
+        IOUtilities.readCSV(csvFile, null, null, null, null, null, null, dataTable);
+        return dataTable;
+    }
+
+    static DataTable createSyntheticDataTable(int rowCount, int columnCount) {
+        DataTable dataTable = new DataTable();
+
+        ArrayList<Column> columns = new ArrayList<>();
+        for (int icolumn = 0; icolumn < columnCount; icolumn++) {
+            columns.add(new DoubleColumn("x" + icolumn));
+        }
+
+        Random random = new Random(SEED);
+        ArrayList<Tuple> tuples = new ArrayList<>(rowCount);
+        for (int irow = 0; irow < rowCount; irow++) {
+            Tuple tuple = new Tuple(dataTable);
+            for (int icolumn = 0; icolumn < columnCount; icolumn++) {
+                tuple.addElement(syntheticValue(random, icolumn));
+            }
+            tuples.add(tuple);
+        }
+
+        dataTable.setData(tuples, columns);
+        return dataTable;
+    }
+
+    private static File writeSyntheticCSV(int rowCount, int columnCount) throws IOException {
+        File csvFile = File.createTempFile("crossvis-benchmark-" + rowCount + "x" + columnCount + "-", ".csv");
+        csvFile.deleteOnExit();
+
+        Random random = new Random(SEED);
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(csvFile))) {
+            for (int icolumn = 0; icolumn < columnCount; icolumn++) {
+                writer.write((icolumn > 0 ? "," : "") + "x" + icolumn);
+            }
+            writer.newLine();
+
+            for (int irow = 0; irow < rowCount; irow++) {
+                for (int icolumn = 0; icolumn < columnCount; icolumn++) {
+                    writer.write((icolumn > 0 ? "," : "") + syntheticValue(random, icolumn));
+                }
+                writer.newLine();
+            }
+        }
+        return csvFile;
+    }
+
+    // normal values with a different mean and spread in each column
+    private static double syntheticValue(Random random, int columnIndex) {
+        return columnIndex * 10. + random.nextGaussian() * (columnIndex + 1);
+    }
+}
@@ -0,0 +1,62 @@
+package gov.ornl.benchmark;
+
+import gov.ornl.datatable.Column;
+import gov.ornl.datatable.DataTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Column order and enable changes of the data table. Moving the first column to the
+ * end keeps the table the same size on every call; the disabled column is enabled
+ * again outside the measured time before each call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ColumnBenchmark {
+    @Param({"cars.csv", "titan-performance-epochified.csv", "100000x10", "100000x50"})
+    public String data;
+
+    private DataTable dataTable;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dataTable = BenchmarkData.load(data);
+    }
+
+    @Setup(Level.Invocation)
+    public void enableColumns() {
+        for (Column column : new ArrayList<>(dataTable.getDisabledColumns())) {
+            dataTable.enableColumn(column);
+        }
+    }
+
+    @Benchmark
+    public DataTable changeColumnOrder() {
+        dataTable.changeColumnOrder(dataTable.getColumn(0), dataTable.getColumnCount());
+        return dataTable;
+    }
+
+    @Benchmark
+    public DataTable disableColumn() {
+        dataTable.disableColumn(dataTable.getColumn(0));
+        return dataTable;
+    }
+}
@@ -0,0 +1,90 @@
+package gov.ornl.benchmark;
+
+import gov.ornl.datatable.DataTable;
+import gov.ornl.datatableview.Axis;
+import gov.ornl.datatableview.DataTableView;
+import gov.ornl.datatableview.TuplePolyline;
+import javafx.application.Platform;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Laying out the polylines of every tuple with TuplePolyline.layout() for the axes
+ * of a data table view sized to 1600x900. The axes are JavaFX nodes, so this needs
+ * the JavaFX toolkit (and a display) to set up the view.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PolylineLayoutBenchmark {
+    @Param({"cars.csv", "titan-performance-epochified.csv", "100000x10", "100000x50"})
+    public String data;
+
+    private ArrayList<Axis> axisList;
+    private ArrayList<TuplePolyline> tuplePolylines;
+
+    @Setup
+    public void setup() throws Exception {
+        DataTable dataTable = BenchmarkData.load(data);
+
+        try {
+            Platform.startup(() -> { });
+        } catch (IllegalStateException ex) {
+            // toolkit already running
+        }
+
+        // the view is built and sized on the JavaFX thread
+        CountDownLatch viewLatch = new CountDownLatch(1);
+        AtomicReference<Throwable> viewError = new AtomicReference<>();
+        axisList = new ArrayList<>();
+        Platform.runLater(() -> {
+            try {
+                DataTableView dataTableView = new DataTableView();
+                dataTableView.setDataTable(dataTable);
+                dataTableView.resize(1600, 900);
+                for (int i = 0; i < dataTableView.getAxisCount(); i++) {
+                    axisList.add(dataTableView.getAxis(i));
+                }
+            } catch (Throwable t) {
+                viewError.set(t);
+            } finally {
+                viewLatch.countDown();
+            }
+        });
+        viewLatch.await();
+        if (viewError.get() != null) {
+            throw new IllegalStateException("Can't set up the data table view", viewError.get());
+        }
+
+        tuplePolylines = new ArrayList<>(dataTable.getTupleCount());
+        for (int row = 0; row < dataTable.getTupleCount(); row++) {
+            tuplePolylines.add(new TuplePolyline(dataTable.getTuple(row), row));
+        }
+    }
+
+    @Benchmark
+    public void layout(Blackhole blackhole) {
+        for (TuplePolyline tuplePolyline : tuplePolylines) {
+            tuplePolyline.layout(axisList);
+            blackhole.consume(tuplePolyline.getYPoints());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package gov.ornl.benchmark;
+
+import gov.ornl.datatable.ColumnSelection;
+import gov.ornl.datatable.DataTable;
+import gov.ornl.datatable.DoubleColumn;
+import gov.ornl.datatable.DoubleColumnSelectionRange;
+import gov.ornl.datatable.Query;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluating the active query with Query.setQueriedTuples() when the middle half of
+ * the value range of the first selectedColumns double columns is selected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class QueryBenchmark {
+    @Param({"cars.csv", "titan-performance-epochified.csv", "100000x10", "1000000x10", "100000x50"})
+    public String data;
+
+    @Param({"1", "4"})
+    public int selectedColumns;
+
+    private Query query;
+
+    @Setup
+    public void setup() throws IOException {
+        DataTable dataTable = BenchmarkData.load(data);
+
+        ArrayList<ColumnSelection> columnSelections = new ArrayList<>();
+        List<DoubleColumn> doubleColumns = dataTable.getEnabledDoubleColumns();
+        for (int i = 0; i < Math.min(selectedColumns, doubleColumns.size()); i++) {
+            DoubleColumn column = doubleColumns.get(i);
+            double minValue = column.getStatistics().getMinValue();
+            double maxValue = column.getStatistics().getMaxValue();
+            double quarterRange = (maxValue - minValue) / 4.;
+            columnSelections.add(new DoubleColumnSelectionRange(column, minValue + quarterRange,
+                    maxValue - quarterRange));
+        }
+        dataTable.addColumnSelectionsToActiveQuery(columnSelections);
+
+        query = dataTable.getActiveQuery();
+    }
+
+    @Benchmark
+    public int setQueriedTuples() {
+        query.setQueriedTuples();
+        return query.getQueriedTupleCount();
+    }
+}
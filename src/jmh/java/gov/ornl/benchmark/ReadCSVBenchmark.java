@@ -0,0 +1,45 @@
+package gov.ornl.benchmark;
+
+import gov.ornl.datatable.DataTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loading a csv file with IOUtilities.readCSV(), which includes setting up the data
+ * table (statistics, query and context rows) for the new tuples.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReadCSVBenchmark {
+    @Param({"cars.csv", "tracks_1980_to_2006.csv", "titan-performance-epochified.csv", "100000x10", "100000x50"})
+    public String data;
+
+    private File csvFile;
+
+    @Setup
+    public void setup() throws IOException {
+        csvFile = BenchmarkData.getCSVFile(data);
+    }
+
+    @Benchmark
+    public DataTable readCSV() throws IOException {
+        return BenchmarkData.readCSV(csvFile);
+    }
+}
@@ -0,0 +1,60 @@
+package gov.ornl.benchmark;
+
+import gov.ornl.datatable.DataTable;
+import gov.ornl.datatable.DoubleColumn;
+import gov.ornl.datatable.DoubleColumnSummaryStats;
+import gov.ornl.datatable.DoubleHistogram;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summary statistics and histogram binning of the first double column.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StatisticsBenchmark {
+    @Param({"cars.csv", "titan-performance-epochified.csv", "100000x10", "1000000x10"})
+    public String data;
+
+    @Param({"50", "100"})
+    public int numHistogramBins;
+
+    private DoubleColumnSummaryStats summaryStats;
+    private double values[];
+
+    @Setup
+    public void setup() throws IOException {
+        DataTable dataTable = BenchmarkData.load(data);
+        DoubleColumn column = dataTable.getEnabledDoubleColumns().get(0);
+        values = column.getValues();
+        summaryStats = column.getStatistics();
+        summaryStats.setValues(values, numHistogramBins);
+    }
+
+    @Benchmark
+    public DoubleColumnSummaryStats calculateStatistics() {
+        summaryStats.calculateStatistics();
+        return summaryStats;
+    }
+
+    @Benchmark
+    public DoubleHistogram doubleHistogram() {
+        return new DoubleHistogram("benchmark", values, numHistogramBins);
+    }
+}
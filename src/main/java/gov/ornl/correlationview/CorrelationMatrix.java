@@ -0,0 +1,44 @@
+package gov.ornl.correlationview;
+
+import gov.ornl.datatable.CorrelationMeasure;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Square matrix of pairwise column correlations stored in a single row-major array.
+ *
+ * Row r and column c of the matrix hold the correlation of the column named
+ * getColumnName(r) with the column named getColumnName(c).
+ */
+public class CorrelationMatrix {
+    private ArrayList<String> columnNames;
+    private double values[];
+    private CorrelationMeasure measure;
+
+    public CorrelationMatrix(List<String> columnNames, double values[]) {
+        this(columnNames, values, CorrelationMeasure.PEARSON);
+    }
+
+    public CorrelationMatrix(List<String> columnNames, double values[], CorrelationMeasure measure) {
+        if (values.length != columnNames.size() * columnNames.size()) {
+            throw new IllegalArgumentException("Correlation matrix needs " + (columnNames.size() * columnNames.size()) +
+                    " values but " + values.length + " were given");
+        }
+        this.columnNames = new ArrayList<>(columnNames);
+        this.values = values;
+        this.measure = measure;
+    }
+
+    public CorrelationMeasure getMeasure() { return measure; }
+
+    public int getSize() { return columnNames.size(); }
+
+    public String getColumnName(int index) { return columnNames.get(index); }
+
+    public double getCorrelation(int row, int column) {
+        return values[(row * columnNames.size()) + column];
+    }
+
+    public double[] getValues() { return values; }
+}
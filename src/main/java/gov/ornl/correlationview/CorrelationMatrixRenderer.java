@@ -0,0 +1,138 @@
+package gov.ornl.correlationview;
+
+import gov.ornl.util.GraphicsUtil;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.util.stream.IntStream;
+
+/**
+ * Draws a block of a correlation matrix on a canvas.
+ *
+ * Cells large enough to show a border are filled individually. Smaller cells are
+ * written to a pixel buffer where each pixel takes the strongest correlation of the
+ * cells it covers, so a matrix with more columns than pixels still shows its strong
+ * correlations instead of averaging them away.
+ */
+public class CorrelationMatrixRenderer {
+    // smallest cell size (in pixels) that is drawn as a bordered rectangle
+    public final static double MIN_CELL_BORDER_SIZE = 6.;
+    public final static Color CELL_BORDER_COLOR = Color.gray(0.4);
+
+    private Color zeroColor;
+    private Color positiveColor;
+    private Color negativeColor;
+    private Color diagonalColor;
+
+    private WritableImage image;
+    private int pixels[];
+
+    public CorrelationMatrixRenderer(Color zeroColor, Color positiveColor, Color negativeColor, Color diagonalColor) {
+        setColors(zeroColor, positiveColor, negativeColor, diagonalColor);
+    }
+
+    public void setColors(Color zeroColor, Color positiveColor, Color negativeColor, Color diagonalColor) {
+        this.zeroColor = zeroColor;
+        this.positiveColor = positiveColor;
+        this.negativeColor = negativeColor;
+        this.diagonalColor = diagonalColor;
+    }
+
+    public Color getCellColor(double correlation, boolean diagonal) {
+        if (diagonal) {
+            return diagonalColor;
+        } else if (Double.isNaN(correlation)) {
+            return zeroColor;
+        } else if (correlation > 0) {
+            return GraphicsUtil.lerpColorFX(zeroColor, positiveColor, Math.min(correlation, 1.));
+        } else {
+            return GraphicsUtil.lerpColorFX(zeroColor, negativeColor, Math.min(correlation * -1., 1.));
+        }
+    }
+
+    // draws rowCount x columnCount cells starting at (firstRow, firstColumn) with the top left cell at (0, 0)
+    public void render(Canvas canvas, CorrelationMatrix matrix, int firstRow, int firstColumn, int rowCount,
+                       int columnCount, double cellSize) {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        if (matrix == null || rowCount <= 0 || columnCount <= 0 || cellSize <= 0.) {
+            return;
+        }
+
+        if (cellSize >= MIN_CELL_BORDER_SIZE) {
+            gc.setStroke(CELL_BORDER_COLOR);
+            gc.setLineWidth(1.);
+            for (int row = 0; row < rowCount; row++) {
+                for (int column = 0; column < columnCount; column++) {
+                    int matrixRow = firstRow + row;
+                    int matrixColumn = firstColumn + column;
+                    gc.setFill(getCellColor(matrix.getCorrelation(matrixRow, matrixColumn), matrixRow == matrixColumn));
+                    gc.fillRect(column * cellSize, row * cellSize, cellSize, cellSize);
+                    gc.strokeRect(column * cellSize, row * cellSize, cellSize, cellSize);
+                }
+            }
+        } else {
+            renderPixels(canvas, matrix, firstRow, firstColumn, rowCount, columnCount, cellSize);
+        }
+    }
+
+    private void renderPixels(Canvas canvas, CorrelationMatrix matrix, int firstRow, int firstColumn, int rowCount,
+                              int columnCount, double cellSize) {
+        int width = (int)Math.ceil(columnCount * cellSize);
+        int height = (int)Math.ceil(rowCount * cellSize);
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+
+        if (image == null || (int)image.getWidth() != width || (int)image.getHeight() != height) {
+            image = new WritableImage(width, height);
+            pixels = new int[width * height];
+        }
+
+        int diagonalPixel = GraphicsUtil.toArgb(diagonalColor);
+        IntStream.range(0, height).parallel().forEach(py -> {
+            int startRow = Math.min((int)(py / cellSize), rowCount - 1);
+            int endRow = Math.min(Math.max((int)((py + 1) / cellSize), startRow + 1), rowCount);
+
+            for (int px = 0; px < width; px++) {
+                int startColumn = Math.min((int)(px / cellSize), columnCount - 1);
+                int endColumn = Math.min(Math.max((int)((px + 1) / cellSize), startColumn + 1), columnCount);
+
+                // strongest off diagonal correlation in the block of cells covered by the pixel
+                double strongestCorrelation = Double.NaN;
+                boolean offDiagonal = false;
+                for (int row = firstRow + startRow; row < firstRow + endRow; row++) {
+                    for (int column = firstColumn + startColumn; column < firstColumn + endColumn; column++) {
+                        if (row == column) {
+                            continue;
+                        }
+                        offDiagonal = true;
+                        double correlation = matrix.getCorrelation(row, column);
+                        if (Double.isNaN(strongestCorrelation) || Math.abs(correlation) > Math.abs(strongestCorrelation)) {
+                            strongestCorrelation = correlation;
+                        }
+                    }
+                }
+
+                pixels[(py * width) + px] = offDiagonal ?
+                        GraphicsUtil.toArgb(getCellColor(strongestCorrelation, false)) : diagonalPixel;
+            }
+        });
+
+        image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        canvas.getGraphicsContext2D().drawImage(image, 0, 0);
+    }
+
+    // index of the cell at the given pixel offset from the top left cell or -1 if it is outside the cell count
+    public static int getCellIndex(double offset, double cellSize, int cellCount) {
+        if (offset < 0. || cellSize <= 0.) {
+            return -1;
+        }
+        int index = (int)(offset / cellSize);
+        return index < cellCount ? index : -1;
+    }
+}
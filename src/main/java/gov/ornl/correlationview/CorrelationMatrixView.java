@@ -5,6 +5,8 @@ import gov.ornl.util.GraphicsUtil;
 import javafx.beans.property.*;
 import javafx.geometry.*;
 import javafx.scene.Group;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.control.Tooltip;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.CycleMethod;
@@ -19,7 +21,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Logger;
 
-public class CorrelationMatrixView extends Region implements DataTableListener {
+public class CorrelationMatrixView extends Region implements DataTableBatchListener {
     public final static Color DEFAULT_TEXT_COLOR = Color.BLACK;
     public final static Color DEFAULT_BACKGROUND_COLOR = Color.WHITE;
     public final static Color DEFAULT_ZERO_COLOR = Color.GHOSTWHITE;
@@ -29,6 +31,8 @@ public class CorrelationMatrixView extends Region implements DataTableListener {
     public final static double DEFAULT_TEXT_SIZE = 10.;
     public final static double DEFAULT_MAX_AXIS_SIZE = 80.;
     public final static double DEFAULT_COLOR_SCALE_SIZE = 30;
+    // column titles are only shown when cells are at least this many pixels tall
+    public final static double MIN_TITLE_CELL_SIZE = DEFAULT_TEXT_SIZE;
 
     private final static Logger log = Logger.getLogger(CorrelationMatrixView.class.getName());
 
@@ -61,15 +65,21 @@ public class CorrelationMatrixView extends Region implements DataTableListener {
     private ObjectProperty<Color> diagonalColor = new SimpleObjectProperty<>(DEFAULT_DIAGONAL_COLOR);
     private DoubleProperty maxAxisSize = new SimpleDoubleProperty(DEFAULT_MAX_AXIS_SIZE);
     private BooleanProperty showQueryCorrelations = new SimpleBooleanProperty(false);
+    private ObjectProperty<CorrelationMeasure> correlationMeasure = new SimpleObjectProperty<>(CorrelationMeasure.PEARSON);
 
     private ArrayList<Text> yColumnTitles = new ArrayList<>();
     private ArrayList<Text> xColumnTitles = new ArrayList<>();
-    private ArrayList<ArrayList<CorrelationMatrixCell>> cellRows = new ArrayList<>();
     private ArrayList<DoubleColumn> doubleColumns = new ArrayList<>();
+    private CorrelationMatrix correlationMatrix;
+    private CorrelationMatrixRenderer cellRenderer;
 
-    Group cellGraphics = new Group();
+    private Canvas cellCanvas = new Canvas();
+    private Tooltip cellTooltip = new Tooltip();
     Group titleGraphics = new Group();
 
+    // used to measure column titles without creating a text node per column
+    private Text titleMeasureText = new Text();
+
     private ObjectProperty<Orientation> colorScaleOrientation = new SimpleObjectProperty<>(Orientation.VERTICAL);
     private BooleanProperty showColorScale = new SimpleBooleanProperty(true);
 
@@ -115,10 +125,20 @@ public class CorrelationMatrixView extends Region implements DataTableListener {
 
     public boolean isShowingQueryCorrelations() { return showQueryCorrelations.get(); }
 
+    public CorrelationMeasure getCorrelationMeasure() { return correlationMeasure.get(); }
+
+    public void setCorrelationMeasure(CorrelationMeasure measure) {
+        if (getCorrelationMeasure() != measure) {
+            correlationMeasure.set(measure);
+        }
+    }
+
+    public ObjectProperty<CorrelationMeasure> correlationMeasureProperty() { return correlationMeasure; }
+
     public void setDataTable(DataTable dataTable) {
         clearView();
         this.dataTable = dataTable;
-        dataTable.addDataTableListener(this);
+        dataTable.addDataTableBatchListener(this);
         initView();
         resizeView();
     }
@@ -157,17 +177,6 @@ public class CorrelationMatrixView extends Region implements DataTableListener {
         colorScaleRectangle = new Rectangle();
         colorScaleRectangle.setStroke(Color.gray(0.3));
         colorScaleRectangle.setMouseTransparent(true);
-        colorScaleGradientStops = new Stop[]{new Stop(0, negativeColor.get()),
-                new Stop(0.5, zeroColor.get()),
-                new Stop(1, positiveColor.get())};
-        if (getColorScaleOrientation() == Orientation.HORIZONTAL) {
-            colorScaleRectangle.setFill(new LinearGradient(0, 0, 1, 0, true,
-                    CycleMethod.NO_CYCLE, colorScaleGradientStops));
-        } else {
-            colorScaleRectangle.setFill(new LinearGradient(0, 1, 0, 0, true,
-                    CycleMethod.NO_CYCLE, colorScaleGradientStops));
-        }
-
         colorScaleNegativeText = new Text("-1");
         colorScaleNegativeText.setFont(Font.font(DEFAULT_TEXT_SIZE));
         colorScaleNegativeText.setFill(textColor.get());
@@ -182,10 +191,14 @@ public class CorrelationMatrixView extends Region implements DataTableListener {
 
         colorScaleGraphicsGroup.getChildren().addAll(colorScaleRectangle, colorScaleNegativeText, colorScalePositiveText,
                 colorScaleZeroText);
+        setColorScale();
+
+        titleMeasureText.setFont(Font.font(DEFAULT_TEXT_SIZE));
+        cellRenderer = new CorrelationMatrixRenderer(getZeroColor(), getPositiveColor(), getNegativeColor(), getDiagonal());
 
         pane = new Pane();
         this.setBackground(new Background(new BackgroundFill(backgroundColor.get(), new CornerRadii(0), Insets.EMPTY)));
-        pane.getChildren().addAll(cellGraphics, titleGraphics);
+        pane.getChildren().addAll(cellCanvas, titleGraphics);
 
         if (isShowingColorScale()) { pane.getChildren().add(colorScaleGraphicsGroup); }
 
@@ -210,13 +223,7 @@ public class CorrelationMatrixView extends Region implements DataTableListener {
         });
 
         colorScaleOrientation.addListener(observable -> {
-            if (getColorScaleOrientation() == Orientation.HORIZONTAL) {
-                colorScaleRectangle.setFill(new LinearGradient(0, 0, 1, 0, true,
-                        CycleMethod.NO_CYCLE, colorScaleGradientStops));
-            } else {
-                colorScaleRectangle.setFill(new LinearGradient(0, 1, 0, 0, true,
-                        CycleMethod.NO_CYCLE, colorScaleGradientStops));
-            }
+            setColorScaleFill();
 
             if (isShowingColorScale()) {
                 resizeView();
@@ -237,6 +244,33 @@ public class CorrelationMatrixView extends Region implements DataTableListener {
             initView();
             resizeView();
         });
+
+        correlationMeasure.addListener(observable -> {
+            setColorScale();
+            clearView();
+            initView();
+            resizeView();
+        });
+
+        zeroColor.addListener(observable -> setCellColors());
+        positiveColor.addListener(observable -> setCellColors());
+        negativeColor.addListener(observable -> setCellColors());
+        diagonalColor.addListener(observable -> setCellColors());
+
+        // one tooltip for the whole matrix, updated with the cell under the mouse
+        Tooltip.install(cellCanvas, cellTooltip);
+        cellCanvas.setOnMouseMoved(event -> {
+            if (correlationMatrix == null) {
+                return;
+            }
+            double cellSize = cellCanvas.getWidth() / correlationMatrix.getSize();
+            int row = CorrelationMatrixRenderer.getCellIndex(event.getY(), cellSize, correlationMatrix.getSize());
+            int column = CorrelationMatrixRenderer.getCellIndex(event.getX(), cellSize, correlationMatrix.getSize());
+            if (row != -1 && column != -1) {
+                cellTooltip.setText(correlationMatrix.getMeasure().getSymbol() + " (" + correlationMatrix.getColumnName(row) + ", " +
+                        correlationMatrix.getColumnName(column) + ") = " + correlationMatrix.getCorrelation(row, column));
+            }
+        });
 //
 //        this.setOnZoomStarted(event -> {
 //
@@ -269,25 +303,44 @@ public class CorrelationMatrixView extends Region implements DataTableListener {
 //        });
     }
 
-    private void setCellColors() {
-        for (int icol = 0; icol < doubleColumns.size(); icol++) {
-            ArrayList<CorrelationMatrixCell> cells = cellRows.get(icol);
-            for (int irow = 0; irow < doubleColumns.size(); irow++) {
-                CorrelationMatrixCell cell = cells.get(irow);
-                if (icol == irow) {
-                    cell.getCellRectangle().setFill(getDiagonal());
-                } else {
-                    double correlation = cell.getCorrelation();
-                    if (correlation > 0) {
-                        cell.getCellRectangle().setFill(GraphicsUtil.lerpColorFX(getZeroColor(), getPositiveColor(), correlation));
-                    } else {
-                        cell.getCellRectangle().setFill(GraphicsUtil.lerpColorFX(getZeroColor(), getNegativeColor(), correlation * -1.));
-                    }
-                }
-            }
+    // signed measures get a negative to positive scale from -1 to 1, unsigned ones a zero to positive scale from 0 to 1
+    private void setColorScale() {
+        if (getCorrelationMeasure().isSigned()) {
+            colorScaleGradientStops = new Stop[]{new Stop(0, negativeColor.get()),
+                    new Stop(0.5, zeroColor.get()),
+                    new Stop(1, positiveColor.get())};
+            colorScaleNegativeText.setText("-1");
+        } else {
+            colorScaleGradientStops = new Stop[]{new Stop(0, zeroColor.get()),
+                    new Stop(1, positiveColor.get())};
+            colorScaleNegativeText.setText("0");
         }
+        colorScaleZeroText.setVisible(getCorrelationMeasure().isSigned());
+        setColorScaleFill();
+    }
+
+    private void setColorScaleFill() {
+        if (getColorScaleOrientation() == Orientation.HORIZONTAL) {
+            colorScaleRectangle.setFill(new LinearGradient(0, 0, 1, 0, true,
+                    CycleMethod.NO_CYCLE, colorScaleGradientStops));
+        } else {
+            colorScaleRectangle.setFill(new LinearGradient(0, 1, 0, 0, true,
+                    CycleMethod.NO_CYCLE, colorScaleGradientStops));
+        }
+    }
+
+    private void setCellColors() {
+        cellRenderer.setColors(getZeroColor(), getPositiveColor(), getNegativeColor(), getDiagonal());
+        drawCells();
+    }
+
+    private void drawCells() {
+        int size = correlationMatrix == null ? 0 : correlationMatrix.getSize();
+        cellRenderer.render(cellCanvas, correlationMatrix, 0, 0, size, size, size == 0 ? 0. : cellCanvas.getWidth() / size);
     }
 
+    public CorrelationMatrix getCorrelationMatrix() { return correlationMatrix; }
+
     public Color getDiagonal() { return diagonalColor.get(); }
     public void setDiagonalColor(Color color) { diagonalColor.set(color); }
     public ObjectProperty<Color> diagonalColorProperty() { return diagonalColor; }
@@ -307,61 +360,66 @@ public class CorrelationMatrixView extends Region implements DataTableListener {
     private void initView() {
         if (dataTable != null && !dataTable.isEmpty()) {
             doubleColumns = dataTable.getEnabledDoubleColumns();
+            if (doubleColumns == null) {
+                doubleColumns = new ArrayList<>();
+                return;
+            }
+
+            boolean useQueryCorrelations = isShowingQueryCorrelations() && dataTable.getActiveQuery().hasSelections();
+            int size = doubleColumns.size();
+            ArrayList<String> columnNames = new ArrayList<>();
+            for (DoubleColumn column : doubleColumns) {
+                columnNames.add(column.getName());
+            }
+
+            if (getCorrelationMeasure() != CorrelationMeasure.PEARSON) {
+                ArrayList<DoubleColumnSummaryStats> statsList = new ArrayList<>();
+                for (DoubleColumn column : doubleColumns) {
+                    statsList.add(useQueryCorrelations ?
+                            (DoubleColumnSummaryStats)dataTable.getActiveQuery().getColumnQuerySummaryStats(column) :
+                            column.getStatistics());
+                }
+                correlationMatrix = new CorrelationMatrix(columnNames,
+                        CorrelationCalculator.computeMatrix(statsList, getCorrelationMeasure()), getCorrelationMeasure());
+                return;
+            }
 
-            for (int yColumnIndex = 0; yColumnIndex < doubleColumns.size(); yColumnIndex++) {
+            // pearson correlations are already computed with the column statistics
+            double values[] = new double[size * size];
+            for (int yColumnIndex = 0; yColumnIndex < size; yColumnIndex++) {
                 DoubleColumn yColumn = doubleColumns.get(yColumnIndex);
 
-                Text yColumnTitleText = new Text(yColumn.getName());
-                yColumnTitleText.setFont(Font.font(DEFAULT_TEXT_SIZE));
-                yColumnTitleText.setTextOrigin(VPos.CENTER);
-                yColumnTitles.add(yColumnTitleText);
-                titleGraphics.getChildren().add(yColumnTitleText);
-
-                ArrayList<CorrelationMatrixCell> cells = new ArrayList<>();
-
-                for (int xColumnIndex = 0; xColumnIndex < doubleColumns.size(); xColumnIndex++) {
-                    DoubleColumn xColumn = doubleColumns.get(xColumnIndex);
-
-                    if (yColumnIndex == 0) {
-                        Text xColumnTitleText = new Text(xColumn.getName());
-                        xColumnTitleText.setFont(Font.font(DEFAULT_TEXT_SIZE));
-                        xColumnTitleText.setTextOrigin(VPos.TOP);
-                        xColumnTitleText.getTransforms().add(new Rotate(-90.));
-                        xColumnTitles.add(xColumnTitleText);
-                        titleGraphics.getChildren().add(xColumnTitleText);
-                    }
-
-                    double correlation = 0;
-                    if (isShowingQueryCorrelations() && dataTable.getActiveQuery().hasColumnSelections()) {
-                        correlation = ((DoubleColumnSummaryStats)dataTable.getActiveQuery().getColumnQuerySummaryStats(yColumn)).getCorrelationCoefficientList().get(dataTable.getColumnIndex(xColumn));
-                    } else {
-                        correlation = yColumn.getStatistics().getCorrelationCoefficientList().get(dataTable.getColumnIndex(xColumn));
-                    }
-
-                    CorrelationMatrixCell cell = new CorrelationMatrixCell(xColumn, yColumn, correlation);
-                    cellGraphics.getChildren().add(cell.getCellRectangle());
-                    cells.add(cell);
+                List<Double> correlationCoefficients;
+                if (useQueryCorrelations) {
+                    correlationCoefficients = ((DoubleColumnSummaryStats)dataTable.getActiveQuery().getColumnQuerySummaryStats(yColumn)).getCorrelationCoefficientList();
+                } else {
+                    correlationCoefficients = yColumn.getStatistics().getCorrelationCoefficientList();
+                }
+
+                for (int xColumnIndex = 0; xColumnIndex < size; xColumnIndex++) {
+                    values[(yColumnIndex * size) + xColumnIndex] =
+                            correlationCoefficients.get(dataTable.getColumnIndex(doubleColumns.get(xColumnIndex)));
                 }
-                cellRows.add(cells);
             }
 
-            setCellColors();
+            correlationMatrix = new CorrelationMatrix(columnNames, values);
         }
     }
 
     private void clearView() {
-        cellRows.clear();
+        correlationMatrix = null;
+        doubleColumns = new ArrayList<>();
         xColumnTitles.clear();
         yColumnTitles.clear();
-        cellGraphics.getChildren().clear();
         titleGraphics.getChildren().clear();
     }
 
     private double findLongestColumnTitle() {
         double longestTitle = 0.;
-        for (Text xColumnTitleText : xColumnTitles) {
-            if (xColumnTitleText.getLayoutBounds().getWidth() > longestTitle) {
-                longestTitle = xColumnTitleText.getLayoutBounds().getWidth() + 4.;
+        for (DoubleColumn column : doubleColumns) {
+            titleMeasureText.setText(column.getName());
+            if (titleMeasureText.getLayoutBounds().getWidth() + 4. > longestTitle) {
+                longestTitle = titleMeasureText.getLayoutBounds().getWidth() + 4.;
             }
         }
 
@@ -501,40 +559,53 @@ public class CorrelationMatrixView extends Region implements DataTableListener {
 //        colorScaleNegativeText.setX(colorScaleRegionBounds.getMinX() + 2);
 //        colorScaleNegativeText.setY(colorScaleZeroText.getY());
 
+        cellCanvas.setLayoutX(plotRegionBounds.getMinX());
+        cellCanvas.setLayoutY(plotRegionBounds.getMinY());
+        cellCanvas.setWidth(plotRegionBounds.getWidth());
+        cellCanvas.setHeight(plotRegionBounds.getHeight());
+        drawCells();
+
+        layoutColumnTitles();
+    }
+
+    // titles are only created when the cells are tall enough to keep them from overlapping
+    private void layoutColumnTitles() {
+        xColumnTitles.clear();
+        yColumnTitles.clear();
+        titleGraphics.getChildren().clear();
+
+        if (doubleColumns.isEmpty()) {
+            return;
+        }
+
         double cellSize = plotRegionBounds.getWidth() / doubleColumns.size();
+        if (cellSize < MIN_TITLE_CELL_SIZE) {
+            return;
+        }
 
-        for (int irow = 0; irow < cellRows.size(); irow++) {
-            ArrayList<CorrelationMatrixCell> cells = cellRows.get(irow);
-            double cellY = plotRegionBounds.getMinY() + (irow * cellSize);
+        for (int i = 0; i < doubleColumns.size(); i++) {
+            double cellPosition = i * cellSize;
 
-            Text yColumnTitleText = yColumnTitles.get(irow);
-            yColumnTitleText.setText(doubleColumns.get(irow).getName());
+            Text yColumnTitleText = new Text(doubleColumns.get(i).getName());
+            yColumnTitleText.setFont(Font.font(DEFAULT_TEXT_SIZE));
+            yColumnTitleText.setTextOrigin(VPos.CENTER);
             fitColumnTitleToAxisSize(yColumnTitleText, yAxisRegionBounds.getWidth());
             yColumnTitleText.setX(yAxisRegionBounds.getMaxX() - 2. - yColumnTitleText.getLayoutBounds().getWidth());
-            yColumnTitleText.setY(cellY + (cellSize / 2.));
-
-            for (int icol = 0; icol < cells.size(); icol++) {
-                double cellX = plotRegionBounds.getMinX() + (icol * cellSize);
-
-                if (irow == 0) {
-                    Text xColumnTitleText = xColumnTitles.get(icol);
-                    xColumnTitleText.setText(doubleColumns.get(icol).getName());
-                    fitColumnTitleToAxisSize(xColumnTitleText, xAxisRegionBounds.getHeight());
-                    xColumnTitleText.relocate(cellX + (cellSize / 2.) - (xColumnTitleText.getLayoutBounds().getHeight() / 2.),
-                            xAxisRegionBounds.getMaxY() - 2.);
-//                    xColumnTitleText.setY(xAxisRegionBounds.getMaxY());
-//                    xColumnTitleText.setX(cellX);
-//                    xColumnTitleText.setX(cellX + (cellSize / 2.));
-//                    xColumnTitleText.setY(xAxisRegionBounds.getMinY());
-                }
-
-                CorrelationMatrixCell cell = cells.get(icol);
-                cell.getCellRectangle().setX(cellX);
-                cell.getCellRectangle().setY(cellY);
-                cell.getCellRectangle().setWidth(cellSize);
-                cell.getCellRectangle().setHeight(cellSize);
-            }
+            yColumnTitleText.setY(plotRegionBounds.getMinY() + cellPosition + (cellSize / 2.));
+            yColumnTitles.add(yColumnTitleText);
+
+            Text xColumnTitleText = new Text(doubleColumns.get(i).getName());
+            xColumnTitleText.setFont(Font.font(DEFAULT_TEXT_SIZE));
+            xColumnTitleText.setTextOrigin(VPos.TOP);
+            xColumnTitleText.getTransforms().add(new Rotate(-90.));
+            fitColumnTitleToAxisSize(xColumnTitleText, xAxisRegionBounds.getHeight());
+            xColumnTitleText.relocate(plotRegionBounds.getMinX() + cellPosition + (cellSize / 2.) -
+                    (xColumnTitleText.getLayoutBounds().getHeight() / 2.), xAxisRegionBounds.getMaxY() - 2.);
+            xColumnTitles.add(xColumnTitleText);
         }
+
+        titleGraphics.getChildren().addAll(yColumnTitles);
+        titleGraphics.getChildren().addAll(xColumnTitles);
     }
 
     public Color getBackgroundColor() {
@@ -562,137 +633,14 @@ public class CorrelationMatrixView extends Region implements DataTableListener {
         return textColor;
     }
 
+    // changes are batched per pulse so a dragged selection rebuilds the matrix once per frame
     @Override
-    public void dataTableReset(DataTable dataModel) {
-        clearView();
-        initView();
-        resizeView();
-    }
-
-    @Override
-    public void dataTableStatisticsChanged(DataTable dataModel) {
-        clearView();
-        initView();
-        resizeView();
-    }
-
-    @Override
-    public void dataTableColumnExtentsChanged(DataTable dataTable) {
-
-    }
-
-    @Override
-    public void dataTableColumnFocusExtentsChanged(DataTable dataTable) {
-
-    }
-
-    @Override
-    public void dataTableNumHistogramBinsChanged(DataTable dataModel) {
-
-    }
-
-    @Override
-    public void dataTableAllColumnSelectionsRemoved(DataTable dataModel) {
-        clearView();
-        initView();
-        resizeView();
-    }
-
-    @Override
-    public void dataTableAllColumnSelectionsForColumnRemoved(DataTable dataModel, Column column) {
-        clearView();
-        initView();
-        resizeView();
-    }
-
-    @Override
-    public void dataTableColumnSelectionAdded(DataTable dataModel, ColumnSelection columnSelectionRange) {
-        clearView();
-        initView();
-        resizeView();
-    }
-
-    @Override
-    public void dataTableColumnSelectionRemoved(DataTable dataModel, ColumnSelection columnSelectionRange) {
-        clearView();
-        initView();
-        resizeView();
-    }
-
-    @Override
-    public void dataTableColumnSelectionsRemoved(DataTable dataTable, List<ColumnSelection> removedColumnSelections) {
-        clearView();
-        initView();
-        resizeView();
-    }
-
-    @Override
-    public void dataTableColumnSelectionChanged(DataTable dataModel, ColumnSelection columnSelectionRange) {
-        clearView();
-        initView();
-        resizeView();
-    }
-
-    @Override
-    public void dataTableHighlightedColumnChanged(DataTable dataModel, Column oldHighlightedColumn, Column newHighlightedColumn) {
-        clearView();
-        initView();
-        resizeView();
-    }
-
-    @Override
-    public void dataTableTuplesAdded(DataTable dataModel, ArrayList<Tuple> newTuples) {
-        clearView();
-        initView();
-        resizeView();
-    }
-
-    @Override
-    public void dataTableTuplesRemoved(DataTable dataModel, int numTuplesRemoved) {
-        clearView();
-        initView();
-        resizeView();
-    }
-
-    @Override
-    public void dataTableColumnDisabled(DataTable dataModel, Column disabledColumn) {
-        clearView();
-        initView();
-        resizeView();
-    }
-
-    @Override
-    public void dataTableColumnsDisabled(DataTable dataModel, ArrayList<Column> disabledColumns) {
-        clearView();
-        initView();
-        resizeView();
-    }
-
-    @Override
-    public void dataTableColumnEnabled(DataTable dataModel, Column enabledColumn) {
-        clearView();
-        initView();
-        resizeView();
-    }
-
-    @Override
-    public void dataTableBivariateColumnAdded(DataTable dataTable, BivariateColumn bivariateColumn, int index) {
-        clearView();
-        initView();
-        resizeView();
-    }
-
-    @Override
-    public void dataTableColumnOrderChanged(DataTable dataModel) {
-        clearView();
-        initView();
-        resizeView();
-    }
-
-    @Override
-    public void dataTableColumnNameChanged(DataTable dataModel, Column column) {
-        clearView();
-        initView();
-        resizeView();
+    public void dataTableChanged(DataTable dataTable, DataTableChange change) {
+        if (change.isReset() || change.isStatisticsChanged() || change.isQueryChanged() ||
+                change.isHighlightedColumnChanged() || change.isTuplesChanged() || change.isColumnsChanged()) {
+            clearView();
+            initView();
+            resizeView();
+        }
     }
 }
@@ -1,32 +1,56 @@
 package gov.ornl.correlationview;
 
-import javafx.geometry.Bounds;
 import javafx.geometry.Point2D;
+import javafx.geometry.VPos;
 import javafx.scene.Group;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.control.Tooltip;
 import javafx.scene.layout.Background;
 import javafx.scene.layout.BackgroundFill;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.Region;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.scene.transform.Rotate;
 
 import java.util.logging.Logger;
 
+/**
+ * Detail view of a square block of a correlation matrix.
+ *
+ * Only the visible block is drawn and only its rows and columns get titles and
+ * tooltips, so the view stays responsive for matrices with hundreds of columns.
+ * Dragging pans the block by whole cells and scrolling changes the number of
+ * visible cells.
+ */
 public class ZoomCorrelationMatrixView extends Region {
     private final static Logger log = Logger.getLogger(ZoomCorrelationMatrixView.class.getName());
 
+    public final static double DEFAULT_TEXT_SIZE = 10.;
+    public final static double DEFAULT_AXIS_SIZE = 80.;
+    public final static int DEFAULT_VISIBLE_CELL_COUNT = 10;
+
     private Pane pane;
 
-    private Bounds viewBounds;
+    private CorrelationMatrix correlationMatrix;
+    private CorrelationMatrixRenderer cellRenderer = new CorrelationMatrixRenderer(CorrelationMatrixView.DEFAULT_ZERO_COLOR,
+            CorrelationMatrixView.DEFAULT_POSITIVE_COLOR, CorrelationMatrixView.DEFAULT_NEGATIVE_COLOR,
+            CorrelationMatrixView.DEFAULT_DIAGONAL_COLOR);
 
-    private Group cellGroup = new Group();
+    private Canvas cellCanvas = new Canvas();
+    private Group titleGroup = new Group();
+    private Tooltip cellTooltip = new Tooltip();
 
-    private int numRows = 4;
-    private int numCols = 4;
+    private int firstVisibleRow = 0;
+    private int firstVisibleColumn = 0;
+    private int visibleCellCount = DEFAULT_VISIBLE_CELL_COUNT;
+    private double cellSize;
 
     private boolean dragging = false;
     private Point2D dragStartPoint;
-    private Point2D dragEndPoint;
+    private int dragStartRow;
+    private int dragStartColumn;
 
     public ZoomCorrelationMatrixView () {
         initialize();
@@ -36,45 +60,131 @@ public class ZoomCorrelationMatrixView extends Region {
     private void initialize() {
         pane = new Pane();
         this.setBackground(new Background(new BackgroundFill(Color.GHOSTWHITE, null, null)));
-        pane.getChildren().add(cellGroup);
+        pane.getChildren().addAll(cellCanvas, titleGroup);
+        Tooltip.install(cellCanvas, cellTooltip);
 
         this.getChildren().add(pane);
-//        initView();
     }
 
     private void registerListeners() {
         widthProperty().addListener(o -> resizeView());
         heightProperty().addListener(o -> resizeView());
 
-        pane.setOnMouseDragged(event -> {
+        cellCanvas.setOnMouseDragged(event -> {
+            if (correlationMatrix == null || cellSize <= 0.) {
+                return;
+            }
+
             if (!dragging) {
                 dragging = true;
                 dragStartPoint = new Point2D(event.getX(), event.getY());
+                dragStartRow = firstVisibleRow;
+                dragStartColumn = firstVisibleColumn;
             }
 
-            dragEndPoint = new Point2D(event.getX(), event.getY());
+            int rowOffset = (int)Math.round((event.getY() - dragStartPoint.getY()) / cellSize);
+            int columnOffset = (int)Math.round((event.getX() - dragStartPoint.getX()) / cellSize);
+            setVisibleRegion(dragStartRow - rowOffset, dragStartColumn - columnOffset, visibleCellCount);
+        });
+
+        cellCanvas.setOnMouseReleased(event -> dragging = false);
 
-            pane.setTranslateX(dragEndPoint.getX() - dragStartPoint.getX());
-            pane.setTranslateY(dragEndPoint.getY() - dragStartPoint.getY());
+        setOnScroll(event -> {
+            if (correlationMatrix != null && event.getDeltaY() != 0.) {
+                setVisibleRegion(firstVisibleRow, firstVisibleColumn,
+                        event.getDeltaY() > 0. ? visibleCellCount - 1 : visibleCellCount + 1);
+            }
+        });
+
+        cellCanvas.setOnMouseMoved(event -> {
+            if (correlationMatrix == null) {
+                return;
+            }
+            int row = CorrelationMatrixRenderer.getCellIndex(event.getY(), cellSize, getVisibleRowCount());
+            int column = CorrelationMatrixRenderer.getCellIndex(event.getX(), cellSize, getVisibleColumnCount());
+            if (row != -1 && column != -1) {
+                row += firstVisibleRow;
+                column += firstVisibleColumn;
+                cellTooltip.setText(correlationMatrix.getMeasure().getSymbol() + " (" + correlationMatrix.getColumnName(row) + ", " +
+                        correlationMatrix.getColumnName(column) + ") = " + correlationMatrix.getCorrelation(row, column));
+            }
         });
     }
 
+    public CorrelationMatrix getCorrelationMatrix() { return correlationMatrix; }
+
+    public void setCorrelationMatrix(CorrelationMatrix correlationMatrix) {
+        this.correlationMatrix = correlationMatrix;
+        setVisibleRegion(firstVisibleRow, firstVisibleColumn, visibleCellCount);
+    }
+
+    public int getFirstVisibleRow() { return firstVisibleRow; }
+
+    public int getFirstVisibleColumn() { return firstVisibleColumn; }
+
+    public int getVisibleCellCount() { return visibleCellCount; }
+
+    // shows cellCount x cellCount cells starting at (firstRow, firstColumn), clamped to the matrix
+    public void setVisibleRegion(int firstRow, int firstColumn, int cellCount) {
+        int size = correlationMatrix == null ? 0 : correlationMatrix.getSize();
+        visibleCellCount = Math.max(1, Math.min(cellCount, Math.max(size, 1)));
+        firstVisibleRow = Math.max(0, Math.min(firstRow, size - visibleCellCount));
+        firstVisibleColumn = Math.max(0, Math.min(firstColumn, size - visibleCellCount));
+        resizeView();
+    }
+
+    private int getVisibleRowCount() {
+        return correlationMatrix == null ? 0 : Math.min(visibleCellCount, correlationMatrix.getSize() - firstVisibleRow);
+    }
+
+    private int getVisibleColumnCount() {
+        return correlationMatrix == null ? 0 : Math.min(visibleCellCount, correlationMatrix.getSize() - firstVisibleColumn);
+    }
+
     public void resizeView() {
-        double cellWidth = getWidth() / numCols;
-        double cellHeight = getHeight() / numRows;
-
-        cellGroup.getChildren().clear();
-        for (int i = 0; i < numCols; i++) {
-            for (int j = 0; j < numRows; j++) {
-                Rectangle rect = new Rectangle(i*cellWidth, j*cellHeight, cellWidth, cellHeight);
-                rect.setStroke(Color.SLATEGRAY);
-                rect.setFill(Color.CORAL);
-                cellGroup.getChildren().add(rect);
-            }
+        titleGroup.getChildren().clear();
+
+        double left = getInsets().getLeft() + DEFAULT_AXIS_SIZE;
+        double top = getInsets().getTop() + DEFAULT_AXIS_SIZE;
+        double plotSize = Math.min(getWidth() - (left + getInsets().getRight()),
+                getHeight() - (top + getInsets().getBottom()));
+        cellSize = plotSize > 0. ? plotSize / visibleCellCount : 0.;
+
+        cellCanvas.setLayoutX(left);
+        cellCanvas.setLayoutY(top);
+        cellCanvas.setWidth(Math.max(plotSize, 0.));
+        cellCanvas.setHeight(Math.max(plotSize, 0.));
+        cellRenderer.render(cellCanvas, correlationMatrix, firstVisibleRow, firstVisibleColumn, getVisibleRowCount(),
+                getVisibleColumnCount(), cellSize);
+
+        if (correlationMatrix == null || cellSize < DEFAULT_TEXT_SIZE) {
+            return;
+        }
+
+        for (int i = 0; i < getVisibleRowCount(); i++) {
+            Text rowTitle = createTitle(correlationMatrix.getColumnName(firstVisibleRow + i));
+            rowTitle.setTextOrigin(VPos.CENTER);
+            rowTitle.setX(left - 2. - rowTitle.getLayoutBounds().getWidth());
+            rowTitle.setY(top + (i * cellSize) + (cellSize / 2.));
+            titleGroup.getChildren().add(rowTitle);
+        }
+
+        for (int i = 0; i < getVisibleColumnCount(); i++) {
+            Text columnTitle = createTitle(correlationMatrix.getColumnName(firstVisibleColumn + i));
+            columnTitle.setTextOrigin(VPos.TOP);
+            columnTitle.getTransforms().add(new Rotate(-90.));
+            columnTitle.relocate(left + (i * cellSize) + (cellSize / 2.) - (columnTitle.getLayoutBounds().getHeight() / 2.),
+                    top - 2.);
+            titleGroup.getChildren().add(columnTitle);
         }
     }
 
-//    public void resizeView() {
-//
-//    }
+    private Text createTitle(String name) {
+        Text title = new Text(name);
+        title.setFont(Font.font(DEFAULT_TEXT_SIZE));
+        while (title.getText().length() > 0 && title.getLayoutBounds().getWidth() > DEFAULT_AXIS_SIZE - 4.) {
+            title.setText(title.getText().substring(0, title.getText().length() - 1));
+        }
+        return title;
+    }
 }
@@ -7,6 +7,9 @@ import javafx.scene.SceneAntialiasing;
 import javafx.scene.layout.BorderPane;
 import javafx.stage.Stage;
 
+import java.util.ArrayList;
+import java.util.Random;
+
 public class ZoomCorrelationMatrixViewTest extends Application {
 
     public static void main(String[] args) {
@@ -18,6 +21,22 @@ public class ZoomCorrelationMatrixViewTest extends Application {
         ZoomCorrelationMatrixView view = new ZoomCorrelationMatrixView();
         view.setPadding(new Insets(10));
 
+        // random symmetric matrix with enough columns to need panning
+        int size = 400;
+        Random random = new Random(1);
+        ArrayList<String> columnNames = new ArrayList<>();
+        double values[] = new double[size * size];
+        for (int i = 0; i < size; i++) {
+            columnNames.add("Column " + i);
+            values[(i * size) + i] = 1.;
+            for (int j = 0; j < i; j++) {
+                double correlation = (random.nextDouble() * 2.) - 1.;
+                values[(i * size) + j] = correlation;
+                values[(j * size) + i] = correlation;
+            }
+        }
+        view.setCorrelationMatrix(new CorrelationMatrix(columnNames, values));
+
         BorderPane rootPane = new BorderPane();
         rootPane.setCenter(view);
 
@@ -5,6 +5,8 @@ import gov.ornl.datatable.*;
 import gov.ornl.datatableview.DataTableView;
 import gov.ornl.datatableview.DoubleAxis;
 import gov.ornl.datatableview.NumberTextField;
+import gov.ornl.geoview.GeoPointLayer;
+import gov.ornl.geoview.MapView;
 import gov.ornl.imageview.ImageGridWindow;
 import javafx.application.Application;
 import javafx.application.Platform;
@@ -29,6 +31,7 @@ import javafx.scene.control.Menu;
 import javafx.scene.control.MenuBar;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.ScrollPane;
+import javafx.scene.control.TextField;
 import javafx.scene.control.cell.CheckBoxTableCell;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.control.cell.TextFieldTableCell;
@@ -51,9 +54,11 @@ import java.awt.*;
 import java.io.File;
 import java.io.IOException;
 import java.text.DecimalFormat;
+import java.text.ParseException;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.logging.Logger;
@@ -86,6 +91,8 @@ public class CrossVis extends Application implements DataTableListener {
     private TableView<ColumnSelection> categoricalQueryTableView;
 
     private TableView<Tuple> tupleTableView;
+    private RowSorter tupleTableSorter;
+    private boolean sortingTupleTable = false;
 
     private ProgressBar percentSelectedProgress;
     private DecimalFormat decimalFormat;
@@ -98,6 +105,7 @@ public class CrossVis extends Application implements DataTableListener {
     private CheckMenuItem enableDataTableUpdatesCheckMenuItem;
     private MenuItem removeAllQueriesMI;
     private MenuItem openImageGridViewMenuItem;
+    private MenuItem openMapViewMenuItem;
 
     private Stage crossVisStage;
 
@@ -107,6 +115,8 @@ public class CrossVis extends Application implements DataTableListener {
     private ImageGridWindow imageGridWindow = null;
     private Stage imageGridWindowStage = null;
 
+    private Stage mapViewStage = null;
+
     private BooleanProperty dataTableUpdatesEnabled = new SimpleBooleanProperty(false);
 
     @Override
@@ -119,6 +129,7 @@ public class CrossVis extends Application implements DataTableListener {
 
         dataTable = new DataTable();
         dataTable.addDataTableListener(this);
+        tupleTableSorter = new RowSorter(dataTable);
     }
 
     private void createColumnTableViews() {
@@ -514,6 +525,9 @@ public class CrossVis extends Application implements DataTableListener {
                 if (imageGridWindowStage != null && imageGridWindowStage.isShowing()) {
                     imageGridWindowStage.close();
                 }
+                if (mapViewStage != null && mapViewStage.isShowing()) {
+                    mapViewStage.close();
+                }
             });
 
             dataTableView = new DataTableView();
@@ -542,6 +556,15 @@ public class CrossVis extends Application implements DataTableListener {
             createColumnTableViews();
 
             tupleTableView = new TableView<>();
+            // sorting replaces the items with a list in the order of the cached row sort for the column
+            tupleTableView.setSortPolicy(table -> {
+                if (!sortingTupleTable) {
+                    sortingTupleTable = true;
+                    setDataTableItems();
+                    sortingTupleTable = false;
+                }
+                return true;
+            });
             CheckBox dataTableUpdatesCB = new CheckBox("Enable Data Table Updates");
             dataTableUpdatesCB.selectedProperty().bindBidirectional(dataTableUpdatesEnabled);
             VBox tupleTableViewNode = new VBox(dataTableUpdatesCB, tupleTableView);
@@ -656,6 +679,10 @@ public class CrossVis extends Application implements DataTableListener {
             imageGridWindowStage.close();
         }
 
+        if (mapViewStage != null && mapViewStage.isShowing()) {
+            mapViewStage.close();
+        }
+
         System.exit(0);
     }
 
@@ -898,6 +925,21 @@ public class CrossVis extends Application implements DataTableListener {
             }
         });
 
+        Menu correlationMeasureMenu = new Menu("Correlation Measure");
+        ToggleGroup correlationMeasureMenuGroup = new ToggleGroup();
+        for (CorrelationMeasure measure : CorrelationMeasure.values()) {
+            RadioMenuItem correlationMeasureMI = new RadioMenuItem(measure.getDisplayName());
+            correlationMeasureMI.setToggleGroup(correlationMeasureMenuGroup);
+            correlationMeasureMI.setSelected(dataTableView.getCorrelationMeasure() == measure);
+            correlationMeasureMI.setOnAction(event -> {
+                dataTableView.setCorrelationMeasure(measure);
+                if (correlationMatrixView != null) {
+                    correlationMatrixView.setCorrelationMeasure(measure);
+                }
+            });
+            correlationMeasureMenu.getItems().add(correlationMeasureMI);
+        }
+
         Menu polylineDisplayMenu = new Menu("Polyline Display Preferences");
 
         CheckMenuItem showPolylinesMI = new CheckMenuItem("Show Polylines");
@@ -916,12 +958,15 @@ public class CrossVis extends Application implements DataTableListener {
         CheckMenuItem showContextLineSegmentsCB = new CheckMenuItem("Show Context Data Line Segments");
         showContextLineSegmentsCB.selectedProperty().bindBidirectional(dataTableView.getShowContextPolylineSegmentsProperty());
 
+        CheckMenuItem showPolylineDensityMI = new CheckMenuItem("Show Polyline Density");
+        showPolylineDensityMI.selectedProperty().bindBidirectional(dataTableView.showPolylineDensityProperty());
+
         MenuItem polylineWidthMI = new MenuItem("Set Polyline Width...");
         polylineWidthMI.setOnAction(event -> {
             showPolylineWidthDialog();
         });
         polylineDisplayMenu.getItems().addAll(showPolylinesMI, showSelectedPolylinesMI, showUnselectedPolylinesMI,
-                showContextSegmentsMI, showContextLineSegmentsCB, polylineWidthMI);
+                showContextSegmentsMI, showContextLineSegmentsCB, showPolylineDensityMI, polylineWidthMI);
 
         Menu axisLayoutMenu = new Menu("Axis Layout");
 
@@ -950,7 +995,15 @@ public class CrossVis extends Application implements DataTableListener {
             changeAxisSpacingMI.setDisable(true);
         }
 
-        axisLayoutMenu.getItems().addAll(fitPCPAxesToWidthCheckMI, changeAxisSpacingMI);
+        MenuItem orderAxesByCorrelationMI = new MenuItem("Order Axes by Correlation");
+        orderAxesByCorrelationMI.setOnAction(event -> {
+            if (dataTable != null && !dataTable.isEmpty()) {
+                CorrelationColumnOrderTask.start(dataTable, correlationMatrixView != null &&
+                        correlationMatrixView.isShowingQueryCorrelations());
+            }
+        });
+
+        axisLayoutMenu.getItems().addAll(fitPCPAxesToWidthCheckMI, changeAxisSpacingMI, orderAxesByCorrelationMI);
 
         MenuItem setNumericalAxisExtentsMenuItem = new MenuItem("Sync Ranges of Numerical Axes...");
         setNumericalAxisExtentsMenuItem.setOnAction(event -> {
@@ -988,6 +1041,9 @@ public class CrossVis extends Application implements DataTableListener {
 //            dataTableView.setShowScatterplotMarginValues(showScattplotMarginValuesCheckMenuItem.isSelected());
 //        });
 
+        CheckMenuItem showScatterplotDensityMI = new CheckMenuItem("Show Scatterplot Density");
+        showScatterplotDensityMI.selectedProperty().bindBidirectional(dataTableView.showScatterplotDensityProperty());
+
         openImageGridViewMenuItem = new MenuItem("Open Image Grid View");
         openImageGridViewMenuItem.setDisable(true);
         openImageGridViewMenuItem.setOnAction(event -> {
@@ -995,9 +1051,16 @@ public class CrossVis extends Application implements DataTableListener {
             openImageGridWindow();
         });
 
-        viewMenu.getItems().addAll(showScatterplotsMI, showScattplotMarginValuesCheckMenuItem, showHistogramsMI, showSummaryStatsMI, showCorrelationsMI,
-                polylineDisplayMenu, summaryStatsDisplayModeMenu, axisLayoutMenu, setNumericalAxisExtentsMenuItem,
-                changeHistogramBinCountMenuItem, enableDataTableUpdatesCheckMenuItem, openImageGridViewMenuItem);
+        openMapViewMenuItem = new MenuItem("Open Map View");
+        openMapViewMenuItem.setDisable(true);
+        openMapViewMenuItem.setOnAction(event -> {
+            openMapViewWindow();
+        });
+
+        viewMenu.getItems().addAll(showScatterplotsMI, showScattplotMarginValuesCheckMenuItem, showScatterplotDensityMI, showHistogramsMI, showSummaryStatsMI, showCorrelationsMI,
+                correlationMeasureMenu, polylineDisplayMenu, summaryStatsDisplayModeMenu, axisLayoutMenu, setNumericalAxisExtentsMenuItem,
+                changeHistogramBinCountMenuItem, enableDataTableUpdatesCheckMenuItem, openImageGridViewMenuItem,
+                openMapViewMenuItem);
 
 
         // Data Menu
@@ -1013,9 +1076,36 @@ public class CrossVis extends Application implements DataTableListener {
         removeUnselectedDataMenuItem.setOnAction(event -> {
             removeUnselectedData();
         });
-        removeDataMenu.getItems().addAll(removeSelectedDataMenuItem, removeUnselectedDataMenuItem);
 
-        dataMenu.getItems().addAll(removeDataMenu);
+        // removals only hide data, so they can be undone until the removed data is discarded
+        MenuItem undoRemoveDataMenuItem = new MenuItem("Undo Data Removal");
+        undoRemoveDataMenuItem.setOnAction(event -> {
+            dataTable.undoTupleRemoval();
+        });
+
+        MenuItem redoRemoveDataMenuItem = new MenuItem("Redo Data Removal");
+        redoRemoveDataMenuItem.setOnAction(event -> {
+            dataTable.redoTupleRemoval();
+        });
+
+        MenuItem discardRemovedDataMenuItem = new MenuItem("Discard Removed Data");
+        discardRemovedDataMenuItem.setOnAction(event -> {
+            dataTable.compactTuples();
+        });
+
+        removeDataMenu.setOnShowing(event -> {
+            undoRemoveDataMenuItem.setDisable(!dataTable.canUndoTupleRemoval());
+            redoRemoveDataMenuItem.setDisable(!dataTable.canRedoTupleRemoval());
+            discardRemovedDataMenuItem.setDisable(dataTable.getHiddenTupleCount() == 0);
+        });
+
+        removeDataMenu.getItems().addAll(removeSelectedDataMenuItem, removeUnselectedDataMenuItem, new SeparatorMenuItem(),
+                undoRemoveDataMenuItem, redoRemoveDataMenuItem, discardRemovedDataMenuItem);
+
+        MenuItem addDerivedColumnMenuItem = new MenuItem("Add Derived Column...");
+        addDerivedColumnMenuItem.setOnAction(event -> showDerivedColumnDialog("", ""));
+
+        dataMenu.getItems().addAll(removeDataMenu, addDerivedColumnMenuItem);
 
         // Query Menu
         CheckMenuItem showQueryStatisticsCheckMI = new CheckMenuItem("Show Selected Data Statistics");
@@ -1038,7 +1128,31 @@ public class CrossVis extends Application implements DataTableListener {
             dataTableView.clearQuery();
         });
 
-        queryMenu.getItems().addAll(showQueryStatisticsCheckMI, showNonQueryStatisticsCheckMI, removeAllQueriesMI);
+        MenuItem saveQueryMI = new MenuItem("Save Active Query");
+        saveQueryMI.setOnAction(event -> {
+            dataTable.saveActiveQuery();
+        });
+
+        // one submenu per saved query to show it, combine its result with the active query, or delete it
+        Menu savedQueriesMenu = new Menu("Saved Queries");
+        savedQueriesMenu.getItems().add(new MenuItem());
+        savedQueriesMenu.setOnShowing(event -> {
+            savedQueriesMenu.getItems().clear();
+            for (Query savedQuery : dataTable.getSavedQueryList()) {
+                savedQueriesMenu.getItems().add(createSavedQueryMenu(savedQuery));
+            }
+            if (savedQueriesMenu.getItems().isEmpty()) {
+                MenuItem noQueriesMI = new MenuItem("No Saved Queries");
+                noQueriesMI.setDisable(true);
+                savedQueriesMenu.getItems().add(noQueriesMI);
+            }
+        });
+
+        MenuItem filterQueryMI = new MenuItem("Query by Filter Expression...");
+        filterQueryMI.setOnAction(event -> showFilterExpressionDialog(""));
+
+        queryMenu.getItems().addAll(showQueryStatisticsCheckMI, showNonQueryStatisticsCheckMI, removeAllQueriesMI,
+                new SeparatorMenuItem(), filterQueryMI, saveQueryMI, savedQueriesMenu);
 
         return menuBar;
     }
@@ -1078,6 +1192,52 @@ public class CrossVis extends Application implements DataTableListener {
         });
     }
 
+    // first enabled double column with one of the given names (ignoring case)
+    private DoubleColumn findDoubleColumn(String... names) {
+        ArrayList<DoubleColumn> doubleColumns = dataTable.getEnabledDoubleColumns();
+        if (doubleColumns != null) {
+            for (DoubleColumn column : doubleColumns) {
+                for (String name : names) {
+                    if (column.getName().trim().equalsIgnoreCase(name)) {
+                        return column;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private DoubleColumn findLatitudeColumn() {
+        return findDoubleColumn("lat", "latitude");
+    }
+
+    private DoubleColumn findLongitudeColumn() {
+        return findDoubleColumn("lon", "long", "lng", "longitude");
+    }
+
+    private void openMapViewWindow() {
+        if (mapViewStage == null) {
+            DoubleColumn latitudeColumn = findLatitudeColumn();
+            DoubleColumn longitudeColumn = findLongitudeColumn();
+            if (latitudeColumn == null || longitudeColumn == null) {
+                return;
+            }
+
+            GeoPointLayer pointLayer = new GeoPointLayer(dataTable, latitudeColumn, longitudeColumn);
+            pointLayer.selectedPointColorProperty().bind(dataTableView.selectedItemsColorProperty());
+            pointLayer.unselectedPointColorProperty().bind(dataTableView.unselectedItemsColorProperty());
+
+            MapView mapView = new MapView();
+            mapView.setPadding(new Insets(10));
+            mapView.setPointLayer(pointLayer);
+
+            mapViewStage = new Stage();
+            mapViewStage.setTitle("CrossVis Map View");
+            mapViewStage.setScene(new Scene(mapView, 800, 450));
+        }
+        mapViewStage.show();
+    }
+
     private void openImageGridWindow() {
         if (imageGridWindow == null) {
             imageGridWindow = new ImageGridWindow(dataTable);
@@ -1327,6 +1487,117 @@ public class CrossVis extends Application implements DataTableListener {
         }
     }
 
+    private Menu createSavedQueryMenu(Query savedQuery) {
+        Menu menu = new Menu(savedQuery.getID());
+
+        MenuItem showMI = new MenuItem("Make Active");
+        showMI.setOnAction(event -> dataTable.setActiveQuery(savedQuery.getID()));
+
+        MenuItem unionMI = new MenuItem("Union with Active Query");
+        unionMI.setOnAction(event -> activateCombinedQuery(savedQuery, Query.SetOperation.UNION));
+
+        MenuItem intersectionMI = new MenuItem("Intersection with Active Query");
+        intersectionMI.setOnAction(event -> activateCombinedQuery(savedQuery, Query.SetOperation.INTERSECTION));
+
+        MenuItem differenceMI = new MenuItem("Subtract from Active Query");
+        differenceMI.setOnAction(event -> activateCombinedQuery(savedQuery, Query.SetOperation.DIFFERENCE));
+
+        MenuItem deleteMI = new MenuItem("Delete");
+        deleteMI.setOnAction(event -> dataTable.removeSavedQuery(savedQuery.getID()));
+
+        menu.getItems().addAll(showMI, unionMI, intersectionMI, differenceMI, new SeparatorMenuItem(), deleteMI);
+        return menu;
+    }
+
+    // shows the active query combined with a saved query as a new query (the active query is saved)
+    private void activateCombinedQuery(Query savedQuery, Query.SetOperation operation) {
+        Query combinedQuery = dataTable.combineQueries(dataTable.getActiveQuery(), savedQuery, operation);
+        dataTable.setActiveQuery(combinedQuery.getID());
+    }
+
+    // asks for a derived column name and expression and adds the column, asking again if the expression can't be
+    // parsed or the name is empty or taken
+    private void showDerivedColumnDialog(String name, String expressionText) {
+        Dialog<Pair<String, String>> dialog = new Dialog<>();
+        dialog.setTitle("Add Derived Column");
+        dialog.setHeaderText("Enter an expression over the numerical and temporal columns, e.g. log10(x) or (a - b) / b");
+
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        TextField nameTextField = new TextField(name);
+        TextField expressionTextField = new TextField(expressionText);
+        expressionTextField.setPrefColumnCount(40);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(10);
+        grid.setVgap(10);
+        grid.setPadding(new Insets(10));
+        grid.add(new Label("Column Name:"), 0, 0);
+        grid.add(nameTextField, 1, 0);
+        grid.add(new Label("Expression:"), 0, 1);
+        grid.add(expressionTextField, 1, 1);
+
+        dialog.getDialogPane().setContent(grid);
+
+        Platform.runLater(() -> nameTextField.requestFocus());
+
+        dialog.setResultConverter(dialogButton -> {
+            if (dialogButton == ButtonType.OK) {
+                return new Pair<>(nameTextField.getText().trim(), expressionTextField.getText());
+            }
+            return null;
+        });
+
+        Optional<Pair<String, String>> result = dialog.showAndWait();
+        if (!result.isPresent() || result.get().getValue().trim().isEmpty()) {
+            return;
+        }
+
+        String columnName = result.get().getKey().isEmpty() ? result.get().getValue().trim() : result.get().getKey();
+        try {
+            dataTable.addDerivedColumn(columnName, result.get().getValue());
+        } catch (ParseException | IllegalArgumentException ex) {
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("Derived Column Error");
+            alert.setHeaderText(null);
+            alert.setContentText(ex.getMessage());
+            alert.showAndWait();
+            showDerivedColumnDialog(result.get().getKey(), result.get().getValue());
+        }
+    }
+
+    // asks for a filter expression and makes it the active query, asking again with the same text if it can't be parsed
+    private void showFilterExpressionDialog(String filterText) {
+        TextInputDialog dialog = new TextInputDialog(filterText);
+        dialog.setTitle("Query by Filter Expression");
+        dialog.setHeaderText("Enter a filter over the column names, e.g. x > 2.5 and name in ('a', 'b')");
+        dialog.setContentText("Filter:");
+        dialog.getEditor().setPrefColumnCount(40);
+
+        Optional<String> result = dialog.showAndWait();
+        if (!result.isPresent() || result.get().trim().isEmpty()) {
+            return;
+        }
+
+        FilterExpression filterExpression;
+        try {
+            filterExpression = FilterExpression.parse(result.get(), dataTable);
+        } catch (ParseException ex) {
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("Filter Expression Error");
+            alert.setHeaderText(null);
+            alert.setContentText(ex.getMessage());
+            alert.showAndWait();
+            showFilterExpressionDialog(result.get());
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        dataTable.setActiveQueryFilter(filterExpression);
+        log.info("filter '" + filterExpression + "' selected " + dataTable.getActiveQuery().getQueriedTupleCount() +
+                " tuples in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
     private void removeSelectedData() {
         int removedTuples = dataTable.removeSelectedTuples();
 
@@ -1433,18 +1704,20 @@ public class CrossVis extends Application implements DataTableListener {
 
     private void setDataTableItems() {
         if (dataTableUpdatesEnabled.get()) {
-            ObservableList<Tuple> tableTuples;
-            tupleTableView.getItems().clear();
-
-            if (dataTable.getActiveQuery().hasColumnSelections()) {
-                tableTuples = FXCollections.observableArrayList(dataTable.getActiveQuery().getQueriedTuples());
+            BitSet rows = dataTable.getActiveQuery().hasSelections() ?
+                    dataTable.getActiveQuery().getQueriedRows() : null;
+
+            // the list reads tuples through the query row set instead of copying them
+            if (!tupleTableView.getSortOrder().isEmpty() && tupleTableView.getSortOrder().get(0).getUserData() instanceof Column) {
+                TableColumn<Tuple, ?> sortColumn = tupleTableView.getSortOrder().get(0);
+                int sortedRows[] = tupleTableSorter.getSortedRows((Column)sortColumn.getUserData());
+                tupleTableView.setItems(new QueryTupleList(dataTable, rows, sortedRows,
+                        sortColumn.getSortType() == TableColumn.SortType.DESCENDING));
             } else {
-                tableTuples = FXCollections.observableArrayList(dataTable.getTuples());
+                tupleTableView.setItems(new QueryTupleList(dataTable, rows));
             }
-
-            tupleTableView.setItems(tableTuples);
         } else {
-            tupleTableView.getItems().clear();
+            tupleTableView.setItems(FXCollections.observableArrayList());
         }
     }
 
@@ -1455,42 +1728,35 @@ public class CrossVis extends Application implements DataTableListener {
         if (!dataTable.isEmpty()) {
             for (int icol = 0; icol < dataTable.getColumnCount(); icol++) {
                 Column column = dataTable.getColumn(icol);
+                // columns are rebuilt when the column order changes so the index can be resolved once
+                int columnIndex = icol;
                 if (column instanceof TemporalColumn) {
                     TemporalColumn temporalColumn = (TemporalColumn)column;
                     TableColumn<Tuple, Instant> tableColumn = new TableColumn<Tuple, Instant>(temporalColumn.getName());
                     tableColumn.setCellValueFactory(new Callback<TableColumn.CellDataFeatures<Tuple, Instant>, ObservableValue<Instant>>() {
                         public ObservableValue<Instant> call(TableColumn.CellDataFeatures<Tuple, Instant> t) {
-                            int columnIndex = dataTable.getColumnIndex(column);
-                            if (columnIndex == -1) {
-                                log.info("Weird!");
-                            }
                             return new ReadOnlyObjectWrapper((Instant)t.getValue().getElement(columnIndex));
 
                         }
                     });
+                    tableColumn.setUserData(column);
                     tupleTableView.getColumns().add(tableColumn);
                 } else if (column instanceof DoubleColumn) {
                     TableColumn<Tuple, Double> tableColumn = new TableColumn<>(column.getName());
                     tableColumn.setCellValueFactory(new Callback<TableColumn.CellDataFeatures<Tuple, Double>, ObservableValue<Double>>() {
                         public ObservableValue<Double> call(TableColumn.CellDataFeatures<Tuple, Double> t) {
-                            int columnIndex = dataTable.getColumnIndex(column);
-                            if (columnIndex == -1) {
-                                log.info("Weird!");
-                            }
                             return new ReadOnlyObjectWrapper((Double)t.getValue().getElement(columnIndex));
 
                         }
                     });
+                    tableColumn.setUserData(column);
                     tupleTableView.getColumns().add(tableColumn);
                 } else if (column instanceof CategoricalColumn) {
                     TableColumn<Tuple, String> tableColumn = new TableColumn<>(column.getName());
                     tableColumn.setCellValueFactory(param -> {
-                        int columnIndex = dataTable.getColumnIndex(column);
-                        if (columnIndex == -1) {
-                            log.info("Weird!");
-                        }
                         return new ReadOnlyObjectWrapper<>((String)param.getValue().getElement(columnIndex));
                     });
+                    tableColumn.setUserData(column);
                     tupleTableView.getColumns().add(tableColumn);
                 } else if (column instanceof ImageColumn) {
 //                    TableColumn<Tuple, Pair<File, Image>> tableColumn = new TableColumn<>(column.getName());
@@ -1503,9 +1769,9 @@ public class CrossVis extends Application implements DataTableListener {
 //                    });
                     TableColumn<Tuple, String> tableColumn = new TableColumn<>(column.getName());
                     tableColumn.setCellValueFactory(param -> {
-                        int columnIndex = dataTable.getColumnIndex(column);
-                        return new ReadOnlyObjectWrapper<>(((Pair<File,Image>)param.getValue().getElement(columnIndex)).getKey().getName());
+                        return new ReadOnlyObjectWrapper<>(((File)param.getValue().getElement(columnIndex)).getName());
                     });
+                    tableColumn.setUserData(column);
                     tupleTableView.getColumns().add(tableColumn);
                 }
             }
@@ -1514,7 +1780,8 @@ public class CrossVis extends Application implements DataTableListener {
 
     @Override
     public void dataTableReset(DataTable dataTable) {
-        removeAllQueriesMI.setDisable(!dataTable.getActiveQuery().hasColumnSelections());
+        tupleTableSorter.clear();
+        removeAllQueriesMI.setDisable(!dataTable.getActiveQuery().hasSelections());
 
         if (dataTable.getImageColumn() != null) {
             openImageGridViewMenuItem.setDisable(false);
@@ -1522,6 +1789,8 @@ public class CrossVis extends Application implements DataTableListener {
             openImageGridViewMenuItem.setDisable(true);
         }
 
+        openMapViewMenuItem.setDisable(findLatitudeColumn() == null || findLongitudeColumn() == null);
+
         temporalColumnTableView.getItems().clear();
         ArrayList<TemporalColumn> temporalColumns = dataTable.getTemporalColumns();
         if (temporalColumns != null && !temporalColumns.isEmpty()) {
@@ -1558,7 +1827,7 @@ public class CrossVis extends Application implements DataTableListener {
 
     @Override
     public void dataTableAllColumnSelectionsRemoved(DataTable dataTable) {
-        removeAllQueriesMI.setDisable(!dataTable.getActiveQuery().hasColumnSelections());
+        removeAllQueriesMI.setDisable(!dataTable.getActiveQuery().hasSelections());
         setDataTableItems();
         updatePercentSelected();
         doubleQueryTableView.setItems(dataTable.getActiveQuery().columnSelectionsProperty().filtered(selection -> selection instanceof DoubleColumnSelectionRange));
@@ -1568,35 +1837,35 @@ public class CrossVis extends Application implements DataTableListener {
 
     @Override
     public void dataTableAllColumnSelectionsForColumnRemoved(DataTable dataTable, Column column) {
-        removeAllQueriesMI.setDisable(!dataTable.getActiveQuery().hasColumnSelections());
+        removeAllQueriesMI.setDisable(!dataTable.getActiveQuery().hasSelections());
         setDataTableItems();
         updatePercentSelected();
     }
 
     @Override
     public void dataTableColumnSelectionAdded(DataTable dataTable, ColumnSelection columnSelectionRange) {
-        removeAllQueriesMI.setDisable(!dataTable.getActiveQuery().hasColumnSelections());
+        removeAllQueriesMI.setDisable(!dataTable.getActiveQuery().hasSelections());
         setDataTableItems();
         updatePercentSelected();
     }
 
     @Override
     public void dataTableColumnSelectionRemoved(DataTable dataTable, ColumnSelection columnSelectionRange) {
-        removeAllQueriesMI.setDisable(!dataTable.getActiveQuery().hasColumnSelections());
+        removeAllQueriesMI.setDisable(!dataTable.getActiveQuery().hasSelections());
         setDataTableItems();
         updatePercentSelected();
     }
 
     @Override
     public void dataTableColumnSelectionsRemoved(DataTable dataTable, List<ColumnSelection> removedColumnSelections) {
-        removeAllQueriesMI.setDisable(!dataTable.getActiveQuery().hasColumnSelections());
+        removeAllQueriesMI.setDisable(!dataTable.getActiveQuery().hasSelections());
         setDataTableItems();
         updatePercentSelected();
     }
 
     @Override
     public void dataTableColumnSelectionChanged(DataTable dataTable, ColumnSelection columnSelectionRange) {
-        removeAllQueriesMI.setDisable(!dataTable.getActiveQuery().hasColumnSelections());
+        removeAllQueriesMI.setDisable(!dataTable.getActiveQuery().hasSelections());
         queryTableView.refresh();
         doubleQueryTableView.refresh();
         temporalQueryTableView.refresh();
@@ -1607,6 +1876,13 @@ public class CrossVis extends Application implements DataTableListener {
         updatePercentSelected();
     }
 
+    @Override
+    public void dataTableRowSelectionChanged(DataTable dataTable) {
+        removeAllQueriesMI.setDisable(!dataTable.getActiveQuery().hasSelections());
+        setDataTableItems();
+        updatePercentSelected();
+    }
+
     @Override
     public void dataTableHighlightedColumnChanged(DataTable dataTable, Column oldHighlightedColumn, Column newHighlightedColumn) {
         if (newHighlightedColumn != null) {
@@ -1623,11 +1899,15 @@ public class CrossVis extends Application implements DataTableListener {
 
     @Override
     public void dataTableTuplesAdded(DataTable dataTable, ArrayList<Tuple> newTuples) {
+        tupleTableSorter.clear();
+        setDataTableItems();
         updatePercentSelected();
     }
 
     @Override
     public void dataTableTuplesRemoved(DataTable dataTable, int numTuplesRemoved) {
+        tupleTableSorter.clear();
+        setDataTableItems();
         updatePercentSelected();
     }
 
@@ -1646,8 +1926,6 @@ public class CrossVis extends Application implements DataTableListener {
     @Override
     public void dataTableColumnDisabled(DataTable dataTable, Column disabledColumn) {
         // reset the data datamodel columns
-        tupleTableView.getItems().clear();
-        tupleTableView.getColumns().clear();
         setDataTableColumns();
         setDataTableItems();
 
@@ -1658,22 +1936,25 @@ public class CrossVis extends Application implements DataTableListener {
 
     @Override
     public void dataTableColumnsDisabled(DataTable dataTable, ArrayList<Column> disabledColumns) {
-
+        setDataTableColumns();
+        setDataTableItems();
     }
 
     @Override
     public void dataTableColumnEnabled(DataTable dataTable, Column enabledColumn) {
-
+        setDataTableColumns();
+        setDataTableItems();
     }
 
     @Override
     public void dataTableBivariateColumnAdded(DataTable dataTable, BivariateColumn bivariateColumn, int index) {
-
+        setDataTableColumns();
     }
 
     @Override
     public void dataTableColumnOrderChanged(DataTable dataTable) {
-
+        // table columns read tuple elements by index, so they follow the new order
+        setDataTableColumns();
     }
 
     @Override
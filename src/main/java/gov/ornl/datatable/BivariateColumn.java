@@ -13,8 +13,7 @@ public class BivariateColumn extends Column {
         this.column2 = column2;
     }
 
-    public boolean setFocusContext(Tuple tuple, int elementIdx) {
-        getFocusTuples().add(tuple);
+    public boolean setFocusContext(Tuple tuple, int elementIdx, int row) {
         return true;
     }
 
@@ -14,8 +14,7 @@ public class CategoricalColumn extends Column {
         }
     }
 
-    public boolean setFocusContext(Tuple tuple, int elementIdx) {
-        getFocusTuples().add(tuple);
+    public boolean setFocusContext(Tuple tuple, int elementIdx, int row) {
         return true;
     }
 
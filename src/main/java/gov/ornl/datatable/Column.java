@@ -5,30 +5,69 @@ import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Arrays;
 
 public abstract class Column {
+    // focus / context states of a row
+    public final static int FOCUS = 0;
+    public final static int LOWER_CONTEXT = 1;
+    public final static int UPPER_CONTEXT = 2;
+
     protected DataTable dataModel;
     private StringProperty name;
     private BooleanProperty enabled;
 
-    private HashSet<Tuple> focusTuples = new HashSet<>();
-    private HashSet<Tuple> lowerContextTuples = new HashSet<>();
-    private HashSet<Tuple> upperContextTuples = new HashSet<>();
+    // focus / context state of each row packed as 2 bits per row (32 rows per long)
+    private long focusContextStates[] = new long[0];
+    private int focusRowCount = 0;
 
     public Column(String name) {
         setName(name);
         setEnabled(true);
     }
 
-    public abstract boolean setFocusContext(Tuple tuple, int elementIdx);
+    // sets the focus / context state of the row and returns true if the row is in focus
+    public abstract boolean setFocusContext(Tuple tuple, int elementIdx, int row);
+
+    // puts all rows in focus
+    protected void resetFocusContext(int rowCount) {
+        int numWords = (rowCount + 31) >>> 5;
+        if (focusContextStates.length == numWords) {
+            Arrays.fill(focusContextStates, 0L);
+        } else {
+            focusContextStates = new long[numWords];
+        }
+        focusRowCount = rowCount;
+    }
+
+    protected void setFocusContextState(int row, int state) {
+        int word = row >>> 5;
+        int shift = (row & 31) << 1;
+        int oldState = (int)((focusContextStates[word] >>> shift) & 3L);
+        focusContextStates[word] = (focusContextStates[word] & ~(3L << shift)) | ((long)state << shift);
+
+        if (oldState == FOCUS && state != FOCUS) {
+            focusRowCount--;
+        } else if (oldState != FOCUS && state == FOCUS) {
+            focusRowCount++;
+        }
+    }
+
+    public final int getFocusContextState(int row) {
+        int word = row >>> 5;
+        if (word >= focusContextStates.length) {
+            return FOCUS;
+        }
+        return (int)((focusContextStates[word] >>> ((row & 31) << 1)) & 3L);
+    }
+
+    public final boolean isRowInFocus(int row) { return getFocusContextState(row) == FOCUS; }
 
-    public Set<Tuple> getFocusTuples() { return focusTuples; }
+    public final boolean isRowInLowerContext(int row) { return getFocusContextState(row) == LOWER_CONTEXT; }
 
-    public Set<Tuple> getLowerContextTuples() { return lowerContextTuples; }
+    public final boolean isRowInUpperContext(int row) { return getFocusContextState(row) == UPPER_CONTEXT; }
 
-    public Set<Tuple> getUpperContextTuples() { return upperContextTuples; }
+    public int getFocusRowCount() { return focusRowCount; }
 
     protected void setDataModel(DataTable dataModel) {
         this.dataModel = dataModel;
@@ -0,0 +1,185 @@
+package gov.ornl.datatable;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Normalized form of the selections of one column, built once per query evaluation.
+ *
+ * Double and temporal ranges are sorted and merged into disjoint intervals that a
+ * value is looked up in by binary search, and categorical and image selections are
+ * merged into one set, so testing a row costs log(ranges) or one hash lookup no
+ * matter how many selections are stacked on the column. A row passes when its value
+ * is in any of the selections, the same as testing the selections one by one.
+ */
+abstract class ColumnSelectionFilter {
+    private final int columnIndex;
+
+    private ColumnSelectionFilter(int columnIndex) {
+        this.columnIndex = columnIndex;
+    }
+
+    // filter for the selections of the column at columnIndex, or null if there are none
+    static ColumnSelectionFilter create(Column column, int columnIndex, List<ColumnSelection> columnSelections) {
+        if (columnSelections == null || columnSelections.isEmpty()) {
+            return null;
+        }
+
+        if (column instanceof DoubleColumn) {
+            return new DoubleFilter(columnIndex, columnSelections);
+        } else if (column instanceof TemporalColumn) {
+            return new TemporalFilter(columnIndex, columnSelections);
+        } else if (column instanceof CategoricalColumn) {
+            HashSet<Object> values = new HashSet<>();
+            for (ColumnSelection columnSelection : columnSelections) {
+                values.addAll(((CategoricalColumnSelection)columnSelection).getSelectedCategories());
+            }
+            return new SetFilter(columnIndex, values);
+        } else if (column instanceof ImageColumn) {
+            HashSet<Object> values = new HashSet<>();
+            for (ColumnSelection columnSelection : columnSelections) {
+                values.addAll(((ImageColumnSelection)columnSelection).getSelectedImageFiles());
+            }
+            return new SetFilter(columnIndex, values);
+        }
+        return null;
+    }
+
+    boolean accepts(Tuple tuple) {
+        return accepts(tuple.getElement(columnIndex));
+    }
+
+    abstract boolean accepts(Object value);
+
+    private static class DoubleFilter extends ColumnSelectionFilter {
+        private double minValues[];
+        private double maxValues[];
+
+        private DoubleFilter(int columnIndex, List<ColumnSelection> columnSelections) {
+            super(columnIndex);
+
+            ArrayList<double[]> ranges = new ArrayList<>();
+            for (ColumnSelection columnSelection : columnSelections) {
+                DoubleColumnSelectionRange range = (DoubleColumnSelectionRange)columnSelection;
+                ranges.add(new double[] {range.getMinValue(), range.getMaxValue()});
+            }
+            ranges.sort(Comparator.comparingDouble(range -> range[0]));
+
+            // merge overlapping and touching ranges
+            ArrayList<double[]> merged = new ArrayList<>();
+            for (double range[] : ranges) {
+                double last[] = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+                if (last != null && range[0] <= last[1]) {
+                    last[1] = Math.max(last[1], range[1]);
+                } else {
+                    merged.add(range);
+                }
+            }
+
+            minValues = new double[merged.size()];
+            maxValues = new double[merged.size()];
+            for (int i = 0; i < merged.size(); i++) {
+                minValues[i] = merged.get(i)[0];
+                maxValues[i] = merged.get(i)[1];
+            }
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            if (value == null) {
+                return false;
+            }
+            double doubleValue = (Double)value;
+
+            // last interval whose minimum is at or below the value (NaN never matches)
+            int low = 0;
+            int high = minValues.length - 1;
+            int found = -1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (minValues[middle] <= doubleValue) {
+                    found = middle;
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return found != -1 && doubleValue <= maxValues[found];
+        }
+    }
+
+    private static class TemporalFilter extends ColumnSelectionFilter {
+        private Instant startInstants[];
+        private Instant endInstants[];
+
+        private TemporalFilter(int columnIndex, List<ColumnSelection> columnSelections) {
+            super(columnIndex);
+
+            ArrayList<Instant[]> ranges = new ArrayList<>();
+            for (ColumnSelection columnSelection : columnSelections) {
+                TemporalColumnSelectionRange range = (TemporalColumnSelectionRange)columnSelection;
+                ranges.add(new Instant[] {range.getStartInstant(), range.getEndInstant()});
+            }
+            ranges.sort(Comparator.comparing(range -> range[0]));
+
+            ArrayList<Instant[]> merged = new ArrayList<>();
+            for (Instant range[] : ranges) {
+                Instant last[] = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+                if (last != null && !range[0].isAfter(last[1])) {
+                    if (range[1].isAfter(last[1])) {
+                        last[1] = range[1];
+                    }
+                } else {
+                    merged.add(range);
+                }
+            }
+
+            startInstants = new Instant[merged.size()];
+            endInstants = new Instant[merged.size()];
+            for (int i = 0; i < merged.size(); i++) {
+                startInstants[i] = merged.get(i)[0];
+                endInstants[i] = merged.get(i)[1];
+            }
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            if (value == null) {
+                return false;
+            }
+            Instant instant = (Instant)value;
+
+            // last interval starting at or before the value
+            int low = 0;
+            int high = startInstants.length - 1;
+            int found = -1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (!startInstants[middle].isAfter(instant)) {
+                    found = middle;
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return found != -1 && !instant.isAfter(endInstants[found]);
+        }
+    }
+
+    private static class SetFilter extends ColumnSelectionFilter {
+        private HashSet<Object> values;
+
+        private SetFilter(int columnIndex, HashSet<Object> values) {
+            super(columnIndex);
+            this.values = values;
+        }
+
+        @Override
+        boolean accepts(Object value) {
+            return values.contains(value);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package gov.ornl.datatable;
+
+import java.util.stream.IntStream;
+
+/**
+ * Linear ordering of items from a symmetric distance matrix.
+ *
+ * The order is the shortest open path found by greedy nearest neighbour tours from
+ * every start item (run in parallel) refined with 2-opt segment reversals. Both
+ * steps are O(n^2) per start or pass, so several hundred columns order in well
+ * under a second.
+ */
+public class ColumnSeriation {
+    // stop refining once a 2-opt pass improves the path length by less than this
+    private static final double MIN_IMPROVEMENT = 1e-9;
+    private static final int MAX_2OPT_PASSES = 1000;
+
+    // distance between two columns with the given correlation; strong positive and negative correlations are close
+    public static double correlationDistance(double correlation) {
+        return Double.isNaN(correlation) ? 1. : 1. - Math.min(Math.abs(correlation), 1.);
+    }
+
+    // distances is a row-major size x size matrix; returns the item indices in their new order
+    public static int[] computeOrder(double distances[], int size) {
+        if (size < 3) {
+            return IntStream.range(0, size).toArray();
+        }
+
+        int bestPath[] = IntStream.range(0, size).parallel()
+                .mapToObj(start -> nearestNeighbourPath(distances, size, start))
+                .min((path1, path2) -> Double.compare(pathLength(distances, size, path1), pathLength(distances, size, path2)))
+                .get();
+
+        improvePath(distances, size, bestPath);
+        return bestPath;
+    }
+
+    public static double pathLength(double distances[], int size, int path[]) {
+        double length = 0.;
+        for (int i = 1; i < path.length; i++) {
+            length += distances[(path[i - 1] * size) + path[i]];
+        }
+        return length;
+    }
+
+    private static int[] nearestNeighbourPath(double distances[], int size, int start) {
+        int path[] = new int[size];
+        boolean visited[] = new boolean[size];
+        path[0] = start;
+        visited[start] = true;
+
+        for (int i = 1; i < size; i++) {
+            int current = path[i - 1];
+            int nearest = -1;
+            double nearestDistance = Double.POSITIVE_INFINITY;
+            for (int candidate = 0; candidate < size; candidate++) {
+                if (!visited[candidate] && distances[(current * size) + candidate] < nearestDistance) {
+                    nearestDistance = distances[(current * size) + candidate];
+                    nearest = candidate;
+                }
+            }
+            path[i] = nearest;
+            visited[nearest] = true;
+        }
+
+        return path;
+    }
+
+    // 2-opt for an open path: reversing path[i + 1..j] replaces edges (i, i + 1) and (j, j + 1)
+    // with (i, j) and (i + 1, j + 1); an end of the path has no edge to replace
+    private static void improvePath(double distances[], int size, int path[]) {
+        for (int pass = 0; pass < MAX_2OPT_PASSES; pass++) {
+            double passImprovement = 0.;
+
+            for (int i = -1; i < path.length - 2; i++) {
+                for (int j = i + 2; j < path.length; j++) {
+                    double removed = 0.;
+                    double added = 0.;
+                    if (i >= 0) {
+                        removed += distances[(path[i] * size) + path[i + 1]];
+                        added += distances[(path[i] * size) + path[j]];
+                    }
+                    if (j < path.length - 1) {
+                        removed += distances[(path[j] * size) + path[j + 1]];
+                        added += distances[(path[i + 1] * size) + path[j + 1]];
+                    }
+
+                    if (removed - added > MIN_IMPROVEMENT) {
+                        reverse(path, i + 1, j);
+                        passImprovement += removed - added;
+                    }
+                }
+            }
+
+            if (passImprovement <= MIN_IMPROVEMENT) {
+                break;
+            }
+        }
+    }
+
+    private static void reverse(int path[], int start, int end) {
+        while (start < end) {
+            int item = path[start];
+            path[start] = path[end];
+            path[end] = item;
+            start++;
+            end--;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package gov.ornl.datatable;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Pairwise correlation measures between double columns.
+ *
+ * Per-column work (ranks, standardization, histogram bin indices) is done once per
+ * column and reused for every pair, and the pairs of a matrix are computed in
+ * parallel. Ranks and bin indices are cached by DoubleColumnSummaryStats, so the
+ * same summary stats objects are cheap to pass in again.
+ */
+public class CorrelationCalculator {
+
+    // row-major matrix of the measure between every pair of columns in the list
+    public static double[] computeMatrix(List<DoubleColumnSummaryStats> statsList, CorrelationMeasure measure) {
+        int size = statsList.size();
+        double matrix[] = new double[size * size];
+
+        if (measure == CorrelationMeasure.MUTUAL_INFORMATION) {
+            int binIndices[][] = statsList.parallelStream()
+                    .map(DoubleColumnSummaryStats::getHistogramBinIndices).toArray(int[][]::new);
+            int binCounts[] = statsList.stream().mapToInt(stats -> stats.getHistogram().getNumBins()).toArray();
+            IntStream.range(0, size * size).parallel().forEach(cell -> {
+                int row = cell / size;
+                int column = cell % size;
+                if (column >= row) {
+                    double value = row == column ? 1. : normalizedMutualInformation(binIndices[row], binCounts[row],
+                            binIndices[column], binCounts[column]);
+                    matrix[cell] = value;
+                    matrix[(column * size) + row] = value;
+                }
+            });
+        } else {
+            double standardized[][] = statsList.parallelStream()
+                    .map(stats -> standardize(measure == CorrelationMeasure.SPEARMAN ? stats.getRanks() : stats.getValues()))
+                    .toArray(double[][]::new);
+            IntStream.range(0, size * size).parallel().forEach(cell -> {
+                int row = cell / size;
+                int column = cell % size;
+                if (column >= row) {
+                    double value = row == column ? 1. : dotProduct(standardized[row], standardized[column]);
+                    matrix[cell] = value;
+                    matrix[(column * size) + row] = value;
+                }
+            });
+        }
+
+        return matrix;
+    }
+
+    public static double compute(DoubleColumnSummaryStats stats1, DoubleColumnSummaryStats stats2,
+                                 CorrelationMeasure measure) {
+        if (stats1 == stats2) {
+            return 1.;
+        }
+
+        switch (measure) {
+            case MUTUAL_INFORMATION:
+                return normalizedMutualInformation(stats1.getHistogramBinIndices(), stats1.getHistogram().getNumBins(),
+                        stats2.getHistogramBinIndices(), stats2.getHistogram().getNumBins());
+            case SPEARMAN:
+                return dotProduct(standardize(stats1.getRanks()), standardize(stats2.getRanks()));
+            default:
+                return dotProduct(standardize(stats1.getValues()), standardize(stats2.getValues()));
+        }
+    }
+
+    // centers the values and scales them to unit length, so the dot product of two results is their correlation
+    // returns null if there are fewer than two values or all values are equal
+    private static double[] standardize(double values[]) {
+        if (values == null || values.length < 2) {
+            return null;
+        }
+
+        double mean = 0.;
+        for (double value : values) {
+            mean += value;
+        }
+        mean /= values.length;
+
+        double sumSquares = 0.;
+        double standardized[] = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            standardized[i] = values[i] - mean;
+            sumSquares += standardized[i] * standardized[i];
+        }
+
+        if (sumSquares == 0.) {
+            return null;
+        }
+
+        double length = Math.sqrt(sumSquares);
+        for (int i = 0; i < standardized.length; i++) {
+            standardized[i] /= length;
+        }
+        return standardized;
+    }
+
+    private static double dotProduct(double standardized1[], double standardized2[]) {
+        if (standardized1 == null || standardized2 == null || standardized1.length != standardized2.length) {
+            return Double.NaN;
+        }
+
+        double sum = 0.;
+        for (int i = 0; i < standardized1.length; i++) {
+            sum += standardized1[i] * standardized2[i];
+        }
+        return Math.max(-1., Math.min(1., sum));
+    }
+
+    // mutual information of the binned values divided by the geometric mean of their entropies, in [0, 1]
+    private static double normalizedMutualInformation(int binIndices1[], int binCount1, int binIndices2[], int binCount2) {
+        if (binIndices1 == null || binIndices2 == null || binIndices1.length != binIndices2.length ||
+                binIndices1.length == 0) {
+            return Double.NaN;
+        }
+
+        int jointCounts[] = new int[binCount1 * binCount2];
+        int counts1[] = new int[binCount1];
+        int counts2[] = new int[binCount2];
+        for (int i = 0; i < binIndices1.length; i++) {
+            jointCounts[(binIndices1[i] * binCount2) + binIndices2[i]]++;
+            counts1[binIndices1[i]]++;
+            counts2[binIndices2[i]]++;
+        }
+
+        double total = binIndices1.length;
+        double entropy1 = entropy(counts1, total);
+        double entropy2 = entropy(counts2, total);
+        if (entropy1 == 0. || entropy2 == 0.) {
+            return 0.;
+        }
+
+        double mutualInformation = 0.;
+        for (int bin1 = 0; bin1 < binCount1; bin1++) {
+            if (counts1[bin1] == 0) {
+                continue;
+            }
+            for (int bin2 = 0; bin2 < binCount2; bin2++) {
+                int jointCount = jointCounts[(bin1 * binCount2) + bin2];
+                if (jointCount > 0) {
+                    mutualInformation += (jointCount / total) *
+                            Math.log((jointCount * total) / ((double)counts1[bin1] * counts2[bin2]));
+                }
+            }
+        }
+
+        return Math.max(0., Math.min(1., mutualInformation / Math.sqrt(entropy1 * entropy2)));
+    }
+
+    private static double entropy(int counts[], double total) {
+        double entropy = 0.;
+        for (int count : counts) {
+            if (count > 0) {
+                double probability = count / total;
+                entropy -= probability * Math.log(probability);
+            }
+        }
+        return entropy;
+    }
+}
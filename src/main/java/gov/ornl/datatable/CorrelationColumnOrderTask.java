@@ -0,0 +1,91 @@
+package gov.ornl.datatable;
+
+import javafx.concurrent.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Orders the enabled double columns of a data table so that strongly correlated
+ * columns are adjacent.
+ *
+ * The columns are read from a data table snapshot and the correlation matrix is
+ * copied when the task is created (on the JavaFX thread), the order is computed by
+ * ColumnSeriation when the task runs on a worker thread, and the new order is applied
+ * with DataTable.changeColumnOrder() when the task succeeds.
+ * Double columns are rearranged among the positions they already occupy, so other
+ * column types keep their positions.
+ */
+public class CorrelationColumnOrderTask extends Task<ArrayList<Column>> {
+    private final static Logger log = Logger.getLogger(CorrelationColumnOrderTask.class.getName());
+
+    private DataTable dataTable;
+    private DataTableSnapshot snapshot;
+    private ArrayList<Column> originalColumnOrder;
+    private ArrayList<DoubleColumn> doubleColumns;
+    private double distances[];
+
+    public CorrelationColumnOrderTask(DataTable dataTable, boolean useQueryCorrelations) {
+        this.dataTable = dataTable;
+        snapshot = dataTable.getSnapshot();
+        originalColumnOrder = new ArrayList<>(snapshot.getColumns());
+        doubleColumns = new ArrayList<>();
+        for (Column column : originalColumnOrder) {
+            if (column instanceof DoubleColumn) {
+                doubleColumns.add((DoubleColumn)column);
+            }
+        }
+
+        useQueryCorrelations = useQueryCorrelations && snapshot.hasSelections();
+        int size = doubleColumns.size();
+        distances = new double[size * size];
+        for (int row = 0; row < size; row++) {
+            DoubleColumn rowColumn = doubleColumns.get(row);
+            List<Double> correlationCoefficients = useQueryCorrelations ?
+                    ((DoubleColumnSummaryStats)dataTable.getActiveQuery().getColumnQuerySummaryStats(rowColumn)).getCorrelationCoefficientList() :
+                    rowColumn.getStatistics().getCorrelationCoefficientList();
+            for (int column = 0; column < size; column++) {
+                distances[(row * size) + column] = ColumnSeriation.correlationDistance(
+                        correlationCoefficients.get(snapshot.getColumnIndex(doubleColumns.get(column))));
+            }
+        }
+    }
+
+    @Override
+    protected ArrayList<Column> call() {
+        long start = System.currentTimeMillis();
+        int order[] = ColumnSeriation.computeOrder(distances, doubleColumns.size());
+
+        ArrayList<Column> newColumnOrder = new ArrayList<>(originalColumnOrder);
+        int orderIndex = 0;
+        for (int i = 0; i < newColumnOrder.size(); i++) {
+            if (newColumnOrder.get(i) instanceof DoubleColumn) {
+                newColumnOrder.set(i, doubleColumns.get(order[orderIndex++]));
+            }
+        }
+
+        log.info("Ordering " + doubleColumns.size() + " columns by correlation took " +
+                (System.currentTimeMillis() - start) + " ms");
+        return newColumnOrder;
+    }
+
+    @Override
+    protected void succeeded() {
+        // skip the new order if columns were moved, enabled, or disabled while it was computed
+        if (!dataTable.getSnapshot().getColumns().equals(snapshot.getColumns())) {
+            log.info("Columns changed while ordering by correlation; new order not applied");
+            return;
+        }
+        dataTable.changeColumnOrder(getValue());
+    }
+
+    // runs the task on a daemon worker thread
+    public static CorrelationColumnOrderTask start(DataTable dataTable, boolean useQueryCorrelations) {
+        CorrelationColumnOrderTask task = new CorrelationColumnOrderTask(dataTable, useQueryCorrelations);
+        Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        thread.start();
+        return task;
+    }
+}
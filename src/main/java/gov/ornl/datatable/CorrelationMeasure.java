@@ -0,0 +1,28 @@
+package gov.ornl.datatable;
+
+/**
+ * Pairwise measures of dependence between double columns.
+ */
+public enum CorrelationMeasure {
+    PEARSON("Pearson Correlation", "r"),
+    SPEARMAN("Spearman Rank Correlation", "ρ"),
+    MUTUAL_INFORMATION("Normalized Mutual Information", "NMI");
+
+    private String displayName;
+    private String symbol;
+
+    CorrelationMeasure(String displayName, String symbol) {
+        this.displayName = displayName;
+        this.symbol = symbol;
+    }
+
+    public String getDisplayName() { return displayName; }
+
+    public String getSymbol() { return symbol; }
+
+    // true if the measure ranges from -1 to 1, false if it ranges from 0 to 1
+    public boolean isSigned() { return this != MUTUAL_INFORMATION; }
+
+    @Override
+    public String toString() { return displayName; }
+}
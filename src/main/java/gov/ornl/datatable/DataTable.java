@@ -3,29 +3,46 @@ package gov.ornl.datatable;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.collections.SetChangeListener;
-import javafx.scene.image.Image;
-import javafx.util.Pair;
 
 import java.io.File;
+import java.text.ParseException;
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.logging.Logger;
 
 public class DataTable {
     private static final int DEFAULT_NUM_HISTOGRAM_BINS = 50;
     private static final int MAX_NUM_HISTOGRAM_BINS = 100;
 
+    // source of the row selection of a query combined from two others
+    private static final Object COMBINED_QUERY_ROW_SELECTION = new Object();
+
+    // source of the row selection of a filter expression that column selections can't express
+    private static final Object FILTER_ROW_SELECTION = new Object();
+
     private final static Logger log = Logger.getLogger(DataTable.class.getName());
 
     // List of enabled tuples
     protected ArrayList<Tuple> tuples;
 
-    protected HashSet<Tuple> focusTuples = new HashSet<>();
+    // Every tuple of the data, including those hidden by removals (tuples lists the visible ones)
+    private ArrayList<Tuple> allTuples = new ArrayList<>();
+
+    // Visible rows of allTuples after each removal, latest on top (all rows are visible when empty)
+    private ArrayDeque<BitSet> visibilityMasks = new ArrayDeque<>();
+
+    // Masks of undone removals, latest on top
+    private ArrayDeque<BitSet> undoneVisibilityMasks = new ArrayDeque<>();
 
-    protected HashSet<Tuple> contextTuples = new HashSet<>();
+    // Rows that are in the context region of at least one column
+    protected BitSet contextRows = new BitSet();
 
     // List of enabled columns
     protected ArrayList<Column> columns;
@@ -33,17 +50,37 @@ public class DataTable {
     // List of disabled columns
     protected ArrayList<Column> disabledColumns;
 
-    // List of tuple elements for disabled columns
-    protected ArrayList<Tuple> disabledColumnTuples;
+    // Stored tuple element index of every enabled and disabled column
+    private HashMap<Column, Integer> elementIndexMap = new HashMap<>();
+
+    // Enabled column index to stored element index mapping shared by the tuples
+    private TupleLayout tupleLayout = new TupleLayout();
+
+    // Derived columns in the order they were added (enabled and disabled)
+    private ArrayList<DerivedColumn> derivedColumns = new ArrayList<>();
+
+    // Counts the changes to the rows, so a column enabled again knows whether its statistics are stale
+    private long rowsVersion = 0;
+
+    // Rows version of each disabled column when it was disabled
+    private HashMap<Column, Long> disabledColumnRowsVersions = new HashMap<>();
 
     // List of active listeners
     private ArrayList<DataTableListener> listeners;
 
+    // Merges changes for the batch listeners and delivers them once per pulse
+    private DataTableChangeDispatcher changeDispatcher = new DataTableChangeDispatcher(this);
+
+    // Latest immutable copy of the table for readers on other threads, rebuilt on demand once a change makes it stale
+    private DataTableSnapshot snapshot = DataTableSnapshot.empty();
+    private boolean snapshotStale = false;
+    private boolean snapshotRowsChanged = false;
+
     // Special columns
     private Column highlightedColumn = null;
 
     // List of saved queries
-    private ArrayList<Query> savedQueryList;
+    private ArrayList<Query> savedQueryList = new ArrayList<>();
 
     // Current active query
     private Query activeQuery;
@@ -66,41 +103,78 @@ public class DataTable {
     public DataTable() {
         tuples = new ArrayList<>();
         columns = new ArrayList<>();
-        disabledColumnTuples = new ArrayList<>();
         disabledColumns = new ArrayList<>();
 
         activeQuery = new Query("Q1", this);
         listeners = new ArrayList<>();
     }
 
-    public Set<Tuple> getContextTuples() { return contextTuples; }
+    public boolean isRowInContext(int row) { return contextRows.get(row); }
 
-    public Set<Tuple> getFocusTuples() { return focusTuples; }
+    public int getContextRowCount() { return contextRows.cardinality(); }
+
+    public int getFocusRowCount() { return tuples.size() - contextRows.cardinality(); }
 
     private void setContextTuples() {
-        focusTuples.clear();
-        contextTuples.clear();
+        contextRows.clear();
 
         for (Column column : columns) {
-            column.getFocusTuples().clear();
-            column.getLowerContextTuples().clear();
-            column.getUpperContextTuples().clear();
+            column.resetFocusContext(tuples.size());
         }
 
-        for (Tuple tuple : tuples) {
-            boolean isContext = false;
+        for (int irow = 0; irow < tuples.size(); irow++) {
+            Tuple tuple = tuples.get(irow);
             for (int i = 0; i < tuple.getElementCount(); i++) {
-                if (!columns.get(i).setFocusContext(tuple, i)) {
-                    isContext = true;
+                if (!columns.get(i).setFocusContext(tuple, i, irow)) {
+                    contextRows.set(irow);
                 }
             }
+        }
+    }
 
-            if (isContext) {
-                contextTuples.add(tuple);
-            } else {
-                focusTuples.add(tuple);
+    // focus / context states of one enabled column, adding its context rows to the context rows of the table
+    private void setContextTuples(Column column) {
+        int columnIndex = columns.indexOf(column);
+        column.resetFocusContext(tuples.size());
+        for (int irow = 0; irow < tuples.size(); irow++) {
+            if (!column.setFocusContext(tuples.get(irow), columnIndex, irow)) {
+                contextRows.set(irow);
+            }
+        }
+    }
+
+    // adds the context rows of an enabled column whose focus / context states are current
+    private void addContextRows(Column column) {
+        if (column.getFocusRowCount() == tuples.size()) {
+            return;
+        }
+        for (int irow = 0; irow < tuples.size(); irow++) {
+            if (!column.isRowInFocus(irow)) {
+                contextRows.set(irow);
+            }
+        }
+    }
+
+    // removes the context rows of a disabled column that no enabled column has in context
+    private void removeContextRows(Column column) {
+        if (column.getFocusRowCount() == tuples.size()) {
+            return;
+        }
+        for (int irow = contextRows.nextSetBit(0); irow >= 0; irow = contextRows.nextSetBit(irow + 1)) {
+            if (!column.isRowInFocus(irow) && isRowInFocusOfEveryColumn(irow)) {
+                contextRows.clear(irow);
+            }
+        }
+    }
+
+    // true if every enabled column has the row in focus
+    private boolean isRowInFocusOfEveryColumn(int row) {
+        for (Column column : columns) {
+            if (!column.isRowInFocus(row)) {
+                return false;
             }
         }
+        return true;
     }
 
 //	public DataTable getDuplicate() {
@@ -160,6 +234,7 @@ public class DataTable {
             }
 
             activeQuery.setNumHistogramBins(numHistogramBins);
+            invalidateSavedQueries(false);
 
             fireNumHistogramBinsChanged();
         }
@@ -289,6 +364,7 @@ public class DataTable {
 
         if (tuples != null && !tuples.isEmpty()) {
             this.tuples.addAll(tuples);
+            allTuples.addAll(tuples);
             numHistogramBins = (int)Math.floor(Math.sqrt(tuples.size()));
             if (numHistogramBins > MAX_NUM_HISTOGRAM_BINS) {
                 numHistogramBins = MAX_NUM_HISTOGRAM_BINS;
@@ -298,6 +374,11 @@ public class DataTable {
         this.columns.addAll(columns);
         for (Column column : this.columns) {
             column.setDataModel(this);
+            elementIndexMap.put(column, elementIndexMap.size());
+        }
+        updateTupleLayout();
+        for (Tuple tuple : this.tuples) {
+            tuple.setLayout(tupleLayout);
         }
 
         calculateStatistics();
@@ -307,8 +388,29 @@ public class DataTable {
     }
 
     public void addTuples(ArrayList<Tuple> newTuples) {
+        for (Tuple tuple : newTuples) {
+            tuple.setLayout(tupleLayout);
+        }
+        addDerivedElementPlaceholders(newTuples);
+
+        // new tuples are visible in every removal state
+        int firstNewRow = allTuples.size();
+        allTuples.addAll(newTuples);
+        for (BitSet mask : visibilityMasks) {
+            mask.set(firstNewRow, allTuples.size());
+        }
+        for (BitSet mask : undoneVisibilityMasks) {
+            mask.set(firstNewRow, allTuples.size());
+        }
+
         this.tuples.addAll(newTuples);
+        for (DerivedColumn derivedColumn : derivedColumns) {
+            if (derivedColumn.getEnabled()) {
+                updateDerivedColumn(derivedColumn);
+            }
+        }
         setContextTuples();
+        invalidateSavedQueries(false);
         calculateStatistics();
 
         fireTuplesAdded(newTuples);
@@ -321,11 +423,19 @@ public class DataTable {
 
     private void clearDataModel() {
         tuples.clear();
-        disabledColumnTuples.clear();
+        allTuples = new ArrayList<>();
+        visibilityMasks.clear();
+        undoneVisibilityMasks.clear();
+        elementIndexMap.clear();
+        derivedColumns.clear();
+        // tuples of the previous data keep the old layout
+        tupleLayout = new TupleLayout();
         activeQuery = new Query("Q" + (nextQueryNumber++), this);
+        savedQueryList.clear();
 //		removeColumnSelectionsFromActiveQuery();
         columns.clear();
         disabledColumns.clear();
+        disabledColumnRowsVersions.clear();
         highlightedColumn = null;
     }
 
@@ -388,12 +498,36 @@ public class DataTable {
         return listeners.remove(listener);
     }
 
-    public Tuple getTuple(int idx) {
-        return tuples.get(idx);
+    public void addDataTableBatchListener(DataTableBatchListener listener) {
+        changeDispatcher.addListener(listener);
+    }
+
+    public boolean removeDataTableBatchListener(DataTableBatchListener listener) {
+        return changeDispatcher.removeListener(listener);
     }
 
-    public Tuple getDisabledTuple(int idx) {
-        return disabledColumnTuples.get(idx);
+    // snapshot of the current state, built if the table changed since the last one; call this on the thread that
+    // changes the table (the JavaFX thread) and hand the snapshot to the background work that reads it
+    public DataTableSnapshot getSnapshot() {
+        if (snapshotStale) {
+            snapshot = DataTableSnapshot.create(this, snapshot, snapshotRowsChanged);
+            snapshotStale = false;
+            snapshotRowsChanged = false;
+        }
+        return snapshot;
+    }
+
+    // marks the snapshot stale before listeners hear about a change
+    private void invalidateSnapshot(boolean rowsChanged) {
+        snapshotStale = true;
+        snapshotRowsChanged |= rowsChanged;
+        if (rowsChanged) {
+            rowsVersion++;
+        }
+    }
+
+    public Tuple getTuple(int idx) {
+        return tuples.get(idx);
     }
 
     public Column getColumn(int idx) {
@@ -413,6 +547,26 @@ public class DataTable {
         return columns.indexOf(column);
     }
 
+    // index of the column element in the stored tuple elements, for enabled and disabled columns (-1 if not in the table)
+    public int getElementIndex(Column column) {
+        Integer elementIndex = elementIndexMap.get(column);
+        return elementIndex == null ? -1 : elementIndex;
+    }
+
+    // points the tuples at the stored elements of the enabled columns in their current order
+    private void updateTupleLayout() {
+        int elementIndices[] = new int[columns.size()];
+        for (int i = 0; i < elementIndices.length; i++) {
+            elementIndices[i] = elementIndexMap.get(columns.get(i));
+        }
+        tupleLayout.setElementIndices(elementIndices);
+    }
+
+    // changes whenever rows are added, removed, or restored
+    long getRowsVersion() {
+        return rowsVersion;
+    }
+
     public int getTupleCount() {
         return tuples.size();
     }
@@ -423,7 +577,6 @@ public class DataTable {
 
     public void disableColumn(Column disabledColumn) {
         if (!disabledColumns.contains(disabledColumn)) {
-            removeTupleElementsForColumn(disabledColumn);
             disabledColumn.setEnabled(false);
 
             if (disabledColumn == this.highlightedColumn) {
@@ -432,21 +585,27 @@ public class DataTable {
             }
 
             disabledColumns.add(disabledColumn);
+            disabledColumnRowsVersions.put(disabledColumn, rowsVersion);
             columns.remove(disabledColumn);
-
-            calculateStatistics();
-
-            getActiveQuery().removeColumnSelections(disabledColumn);
-            getActiveQuery().setQueriedTuples();
+            updateTupleLayout();
+            removeContextRows(disabledColumn);
+            removeSavedQuerySelections(disabledColumn);
+
+            // the statistics of the other columns don't change, and the query results only do if the
+            // column had selections
+            ArrayList<ColumnSelection> removedSelections = getActiveQuery().removeColumnSelections(disabledColumn);
+            if (removedSelections != null && !removedSelections.isEmpty()) {
+                getActiveQuery().setQueriedTuples();
+            }
 
             fireColumnDisabled(disabledColumn);
         }
     }
 
-    public void disableColumns(ArrayList<Column> columns) {
-        for (Column column : columns) {
+    public void disableColumns(ArrayList<Column> columnsToDisable) {
+        ArrayList<Column> clearedColumns = new ArrayList<>();
+        for (Column column : columnsToDisable) {
             if (!disabledColumns.contains(column)) {
-                removeTupleElementsForColumn(column);
                 column.setEnabled(false);
 
                 if (column == this.highlightedColumn) {
@@ -455,21 +614,36 @@ public class DataTable {
                 }
 
                 disabledColumns.add(column);
+                disabledColumnRowsVersions.put(column, rowsVersion);
                 columns.remove(column);
-                removeColumnSelectionsFromActiveQuery(column);
+                removeContextRows(column);
+                removeSavedQuerySelections(column);
+                ArrayList<ColumnSelection> removedSelections = getActiveQuery().removeColumnSelections(column);
+                if (removedSelections != null && !removedSelections.isEmpty()) {
+                    clearedColumns.add(column);
+                }
             }
         }
+        updateTupleLayout();
 
-        calculateStatistics();
+        // the query is evaluated once, and only if a disabled column had selections
+        if (!clearedColumns.isEmpty()) {
+            getActiveQuery().setQueriedTuples();
+            for (Column column : clearedColumns) {
+                fireQueryColumnCleared(column);
+            }
+        }
 
-        fireColumnsDisabled(columns);
+        fireColumnsDisabled(columnsToDisable);
     }
 
     private void fireBivariateColumnAdded(BivariateColumn bivariateColumn) {
+        invalidateSnapshot(false);
         int idx = columns.indexOf(bivariateColumn);
         for (DataTableListener listener : listeners) {
             listener.dataTableBivariateColumnAdded(this, bivariateColumn, idx);
         }
+        changeDispatcher.record(DataTableChange::recordColumnsChanged);
     }
 
     public void addBivariateColumn(Column column1, Column column2, int columnIndex) {
@@ -479,16 +653,19 @@ public class DataTable {
 
         int idx = columnIndex < 0 ? 0 : columnIndex > columns.size() ? columns.size() : columnIndex;
 
-        int col1Index = columns.indexOf(column1);
-        int col2Index = columns.indexOf(column2);
+        int col1ElementIndex = getElementIndex(column1);
+        int col2ElementIndex = getElementIndex(column2);
 
-        // add bivariate pair to tuples
-        for (Tuple tuple : tuples) {
-            Object biValues[] = {tuple.getElement(col1Index), tuple.getElement(col2Index)};
-            tuple.addElement(idx, biValues);
+        // append bivariate pair to the stored tuple elements (hidden tuples too, so they have it when restored)
+        for (Tuple tuple : allTuples) {
+            Object biValues[] = {tuple.getStoredElement(col1ElementIndex), tuple.getStoredElement(col2ElementIndex)};
+            tuple.addElement(biValues);
         }
 
+        elementIndexMap.put(biColumn, elementIndexMap.size());
         columns.add(idx, biColumn);
+        updateTupleLayout();
+        invalidateSavedQueries(false);
 
         calculateStatistics();
         getActiveQuery().calculateStatistics();
@@ -496,6 +673,103 @@ public class DataTable {
         fireBivariateColumnAdded(biColumn);
     }
 
+    // adds an enabled double column computed from the expression over the enabled double and temporal columns
+    public DerivedColumn addDerivedColumn(String name, String expressionText) throws ParseException {
+        // names identify columns in filters, expressions, and saved files, so they must be unique among the
+        // enabled and disabled columns
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("A derived column needs a name");
+        }
+        for (Column column : elementIndexMap.keySet()) {
+            if (column.getName().equals(name)) {
+                throw new IllegalArgumentException("There is already a column named '" + name + "'");
+            }
+        }
+
+        DerivedColumnExpression expression = DerivedColumnExpression.parse(expressionText, this);
+        DerivedColumn derivedColumn = new DerivedColumn(name, expression);
+        derivedColumn.setDataModel(this);
+
+        elementIndexMap.put(derivedColumn, elementIndexMap.size());
+        derivedColumns.add(derivedColumn);
+        addDerivedElementPlaceholders(allTuples);
+        updateDerivedColumn(derivedColumn);
+
+        columns.add(derivedColumn);
+        updateTupleLayout();
+        invalidateSavedQueries(false);
+        calculateStatistics();
+        getActiveQuery().calculateStatistics();
+        setContextTuples();
+
+        fireColumnEnabled(derivedColumn);
+        return derivedColumn;
+    }
+
+    public List<DerivedColumn> getDerivedColumns() {
+        return derivedColumns;
+    }
+
+    // gives the tuples a NaN element for each derived column they don't have yet (tuples are built with the
+    // loaded columns only)
+    private void addDerivedElementPlaceholders(List<Tuple> tuples) {
+        for (DerivedColumn derivedColumn : derivedColumns) {
+            int elementIndex = elementIndexMap.get(derivedColumn);
+            for (Tuple tuple : tuples) {
+                while (tuple.getStoredElementCount() < elementIndex) {
+                    tuple.addElement(null);
+                }
+                if (tuple.getStoredElementCount() == elementIndex) {
+                    tuple.addElement(Double.NaN);
+                }
+            }
+        }
+    }
+
+    // computes the derived column values of the tuples added since it was last computed, after bringing the
+    // derived columns it reads up to date
+    private void updateDerivedColumn(DerivedColumn derivedColumn) {
+        int firstRow = derivedColumn.getFirstStaleRow();
+        int rowCount = allTuples.size() - firstRow;
+        if (rowCount <= 0) {
+            return;
+        }
+
+        HashMap<Column, double[]> inputValues = new HashMap<>();
+        for (Column inputColumn : derivedColumn.getInputColumns()) {
+            if (inputColumn instanceof DerivedColumn) {
+                updateDerivedColumn((DerivedColumn)inputColumn);
+            }
+            inputValues.put(inputColumn, getStoredDoubleValues(inputColumn, firstRow));
+        }
+
+        double values[] = derivedColumn.getExpression().evaluate(inputValues, rowCount);
+
+        // each row writes its own tuple
+        int elementIndex = getElementIndex(derivedColumn);
+        IntStream.range(0, rowCount).parallel().forEach(row ->
+                allTuples.get(firstRow + row).setStoredElement(elementIndex, values[row]));
+        derivedColumn.setFirstStaleRow(allTuples.size());
+    }
+
+    // values of a double or temporal column (in seconds) for allTuples from firstRow on, NaN where missing
+    private double[] getStoredDoubleValues(Column column, int firstRow) {
+        int elementIndex = getElementIndex(column);
+        double values[] = new double[allTuples.size() - firstRow];
+        IntStream.range(0, values.length).parallel().forEach(row -> {
+            Object value = allTuples.get(firstRow + row).getStoredElement(elementIndex);
+            if (value instanceof Double) {
+                values[row] = (Double)value;
+            } else if (value instanceof Instant) {
+                Instant instant = (Instant)value;
+                values[row] = instant.getEpochSecond() + instant.getNano() / 1e9;
+            } else {
+                values[row] = Double.NaN;
+            }
+        });
+        return values;
+    }
+
     public void setDoubleColumnScaleExtents(ArrayList<DoubleColumn> columns, double minValue, double maxValue,
                                             boolean setFocusExtents) {
         for (DoubleColumn column : columns) {
@@ -581,13 +855,27 @@ public class DataTable {
 
     public void enableColumn(Column column) {
         if (disabledColumns.contains(column)) {
-            // move elements from disable column tuples to active tuples list
-            addTupleElementsForDisabledColumn(column);
             disabledColumns.remove(column);
+            Long disabledRowsVersion = disabledColumnRowsVersions.remove(column);
             column.setEnabled(true);
             columns.add(column);
-            calculateStatistics();
-            getActiveQuery().calculateStatistics();
+            updateTupleLayout();
+            invalidateSavedQueries(false);
+
+            // only the enabled column needs work: its values, statistics, and focus / context states are
+            // stale if rows changed while it was disabled, and its query statistics weren't kept up
+            if (disabledRowsVersion == null || disabledRowsVersion != rowsVersion) {
+                if (column instanceof DerivedColumn) {
+                    updateDerivedColumn((DerivedColumn)column);
+                }
+                column.calculateStatistics();
+                setContextTuples(column);
+            } else {
+                addContextRows(column);
+            }
+            if (getActiveQuery().hasSelections()) {
+                getActiveQuery().calculateStatistics(column);
+            }
             // fireDataModelChanged();
             fireColumnEnabled(column);
         }
@@ -607,46 +895,137 @@ public class DataTable {
         fireColumnSelectionRemoved(selectionRange);
     }
 
+    // hides the nonqueried tuples (undoable with undoTupleRemoval())
     public int removeUnselectedTuples() {
+        return hideTuples(false);
+    }
+
+    // hides the queried tuples (undoable with undoTupleRemoval())
+    public int removeSelectedTuples() {
+        return hideTuples(true);
+    }
+
+    // pushes a visibility mask without the queried (or nonqueried) tuples and returns the number hidden
+    private int hideTuples(boolean queried) {
+        if (!getActiveQuery().hasSelections()) {
+            return 0;
+        }
+
+        BitSet queriedRows = getActiveQuery().getQueriedRows();
+        BitSet mask = getVisibilityMask();
+        int row = 0;
         int tuplesRemoved = 0;
+        for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1), row++) {
+            if (queriedRows.get(row) == queried) {
+                mask.clear(i);
+                tuplesRemoved++;
+            }
+        }
 
-        if (getActiveQuery().hasColumnSelections()) {
-            tuplesRemoved = getActiveQuery().getNonQueriedTuples().size();
-            removeTuples(getActiveQuery().getNonQueriedTuples(), getActiveQuery().getQueriedTuples());
-//			tuplesRemoved = getActiveQuery().getNonQueriedTuples().size();
-//			tuples.clear();
-//			tuples.addAll(getActiveQuery().getQueriedTuples());
-//			getActiveQuery().clear();
-//			calculateStatistics();
-//			for (Column column : columns) {
-//				if (column instanceof DoubleColumn) {
-//					((DoubleColumn)column).setMinimumScaleValue(((DoubleColumn)column).getStatistics().getMinValue());
-//					((DoubleColumn)column).setMaximumScaleValue(((DoubleColumn)column).getStatistics().getMaxValue());
-//				} else if (column instanceof TemporalColumn) {
-//					((TemporalColumn)column).setStartScaleValue(((TemporalColumn)column).getStatistics().getStartInstant());
-//					((TemporalColumn)column).setEndScaleValue(((TemporalColumn)column).getStatistics().getEndInstant());
-//				}
-//			}
-//			getActiveQuery().setQueriedTuples();
+        if (tuplesRemoved > 0) {
+            visibilityMasks.push(mask);
+            undoneVisibilityMasks.clear();
+            applyVisibilityMask();
             fireTuplesRemoved(tuplesRemoved);
         }
 
         return tuplesRemoved;
     }
 
-    private void removeTuples(Set<Tuple> tuplesToRemove, Set<Tuple> tuplesToKeep) {
+    public boolean canUndoTupleRemoval() {
+        return !visibilityMasks.isEmpty();
+    }
+
+    public boolean canRedoTupleRemoval() {
+        return !undoneVisibilityMasks.isEmpty();
+    }
+
+    // shows the tuples hidden by the last removal again and returns the number restored
+    public int undoTupleRemoval() {
+        if (visibilityMasks.isEmpty()) {
+            return 0;
+        }
+
+        BitSet undoneMask = visibilityMasks.pop();
+        undoneVisibilityMasks.push(undoneMask);
+        applyVisibilityMask();
+
+        BitSet restoredRows = getVisibilityMask();
+        restoredRows.andNot(undoneMask);
+        ArrayList<Tuple> restoredTuples = restoredRows.stream().mapToObj(allTuples::get)
+                .collect(Collectors.toCollection(ArrayList::new));
+        fireTuplesAdded(restoredTuples);
+        return restoredTuples.size();
+    }
+
+    // hides the tuples of the last undone removal again and returns the number hidden
+    public int redoTupleRemoval() {
+        if (undoneVisibilityMasks.isEmpty()) {
+            return 0;
+        }
+
+        int tupleCount = tuples.size();
+        visibilityMasks.push(undoneVisibilityMasks.pop());
+        applyVisibilityMask();
+
+        int tuplesRemoved = tupleCount - tuples.size();
+        fireTuplesRemoved(tuplesRemoved);
+        return tuplesRemoved;
+    }
+
+    public int getHiddenTupleCount() {
+        return allTuples.size() - tuples.size();
+    }
+
+    // drops the hidden tuples for good (freeing them) and clears the undo and redo history
+    public int compactTuples() {
+        int tuplesDropped = getHiddenTupleCount();
+        // stale rows are tracked by position in allTuples
+        for (DerivedColumn derivedColumn : derivedColumns) {
+            updateDerivedColumn(derivedColumn);
+        }
+        allTuples = new ArrayList<>(tuples);
+        for (DerivedColumn derivedColumn : derivedColumns) {
+            derivedColumn.setFirstStaleRow(allTuples.size());
+        }
+        visibilityMasks.clear();
+        undoneVisibilityMasks.clear();
+        return tuplesDropped;
+    }
+
+    // copy of the current visibility mask over allTuples
+    private BitSet getVisibilityMask() {
+        if (visibilityMasks.isEmpty()) {
+            BitSet mask = new BitSet(allTuples.size());
+            mask.set(0, allTuples.size());
+            return mask;
+        }
+        return (BitSet)visibilityMasks.peek().clone();
+    }
+
+    // lists the visible tuples of the current mask and updates categories, statistics, and the query for them
+    private void applyVisibilityMask() {
+        BitSet mask = getVisibilityMask();
         tuples.clear();
-        tuples.addAll(tuplesToKeep);
+        tuples.ensureCapacity(mask.cardinality());
+        for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1)) {
+            tuples.add(allTuples.get(i));
+        }
+
         getActiveQuery().clear();
-        for (Column column : columns) {
-            if (column instanceof CategoricalColumn) {
-                ((CategoricalColumn)column).getCategories().clear();
-                int columnIndex = columns.indexOf(column);
-                for (Tuple tuple : tuples) {
-                    ((CategoricalColumn)column).addCategory((String)tuple.getElement(columnIndex));
-                }
+
+        // category lists are plain lists, so each column can be rebuilt on its own thread
+        columns.parallelStream().filter(column -> column instanceof CategoricalColumn).forEach(column -> {
+            CategoricalColumn categoricalColumn = (CategoricalColumn)column;
+            int columnIndex = columns.indexOf(column);
+            LinkedHashSet<String> categories = new LinkedHashSet<>();
+            for (Tuple tuple : tuples) {
+                categories.add((String)tuple.getElement(columnIndex));
             }
-        }
+            categoricalColumn.getCategories().clear();
+            categoricalColumn.getCategories().addAll(categories);
+        });
+
         calculateStatistics();
         for (Column column : columns) {
             if (column instanceof DoubleColumn) {
@@ -658,61 +1037,116 @@ public class DataTable {
             }
         }
         getActiveQuery().setQueriedTuples();
+        setContextTuples();
+        invalidateSavedQueries(true);
     }
 
-    public int removeSelectedTuples() {
-        int tuplesRemoved = 0;
+    // keeps the active query (with its cached results) in the saved queries and starts a new empty active query
+    public Query saveActiveQuery() {
+        Query savedQuery = activeQuery;
+        savedQueryList.add(savedQuery);
+        activeQuery = new Query("Q" + (nextQueryNumber++), this);
+        activeQuery.setQueriedTuples();
+        fireQueryCleared();
+        return savedQuery;
+    }
 
-        if (getActiveQuery().hasColumnSelections()) {
-            tuplesRemoved = getActiveQuery().getQueriedTuples().size();
-            removeTuples(getActiveQuery().getQueriedTuples(), getActiveQuery().getNonQueriedTuples());
-//			tuples.clear();
-//			tuples.addAll(getActiveQuery().getNonQueriedTuples());
-//			getActiveQuery().clear();
-//			for (Column column : columns) {
-//				if (column instanceof CategoricalColumn) {
-//					((CategoricalColumn)column).getCategories().clear();
-//					int columnIndex = columns.indexOf(column);
-//					for (Tuple tuple : tuples) {
-//						((CategoricalColumn)column).addCategory((String)tuple.getElement(columnIndex));
-//					}
-//				}
-//			}
-//			calculateStatistics();
-//			for (Column column : columns) {
-//				if (column instanceof DoubleColumn) {
-//					((DoubleColumn)column).setMinimumScaleValue(((DoubleColumn)column).getStatistics().getMinValue());
-//					((DoubleColumn)column).setMaximumScaleValue(((DoubleColumn)column).getStatistics().getMaxValue());
-//				} else if (column instanceof TemporalColumn) {
-//					((TemporalColumn)column).setStartScaleValue(((TemporalColumn)column).getStatistics().getStartInstant());
-//					((TemporalColumn)column).setEndScaleValue(((TemporalColumn)column).getStatistics().getEndInstant());
-//				}
-//			}
-//			getActiveQuery().setQueriedTuples();
-            fireTuplesRemoved(tuplesRemoved);
+    // makes a saved query active (saving the current one if it has selections), using its cached results if they
+    // are still valid and evaluating it and its statistics otherwise
+    public boolean setActiveQuery(String queryID) {
+        Query query = getSavedQuery(queryID);
+        if (query == null) {
+            return false;
         }
 
-        return tuplesRemoved;
+        savedQueryList.remove(query);
+        if (activeQuery.hasSelections()) {
+            savedQueryList.add(activeQuery);
+        }
+        activeQuery = query;
+
+        if (activeQuery.isResultsValid()) {
+            activeQuery.applyQueryFlags();
+        } else {
+            activeQuery.setQueriedTuples();
+        }
+
+        // views drop the selections of the old query and add those of the new one
+        fireQueryCleared();
+        for (ColumnSelection columnSelection : new ArrayList<>(activeQuery.getColumnSelections())) {
+            fireColumnSelectionAdded(columnSelection);
+        }
+        if (activeQuery.hasRowSelection()) {
+            fireRowSelectionChanged();
+        }
+        return true;
     }
 
-//	public void saveActiveQuery() {
-//		savedQueryList.add(activeQuery);
-//		activeQuery = new Query("Q"+(nextQueryNumber++));
-//	}
+    public ArrayList<Query> getSavedQueryList() {
+        return savedQueryList;
+    }
 
-//	public Query getActiveQuery() {
-//		return activeQuery;
-//	}
+    public Query getSavedQuery(String queryID) {
+        for (Query query : savedQueryList) {
+            if (query.getID().equals(queryID)) {
+                return query;
+            }
+        }
+        return null;
+    }
 
-//	public void setActiveQuery(String queryID) {
-//		for (Query query : savedQueryList) {
-//			if (query.getID().equals(queryID)) {
-//				activeQuery = query;
-//				savedQueryList.remove(query);
-//				return;
-//			}
-//		}
-//	}
+    public Query getQueryByID(String queryID) {
+        if (activeQuery.getID().equals(queryID)) {
+            return activeQuery;
+        }
+        return getSavedQuery(queryID);
+    }
+
+    public boolean removeSavedQuery(String queryID) {
+        return savedQueryList.remove(getSavedQuery(queryID));
+    }
+
+    // saves a new query whose row selection is the set operation of the result rows of two queries; its
+    // statistics are calculated when it is first made active
+    public Query combineQueries(Query query1, Query query2, Query.SetOperation operation) {
+        BitSet resultRows = query1.getResultRows();
+        BitSet otherRows = query2.getResultRows();
+        switch (operation) {
+            case UNION:
+                resultRows.or(otherRows);
+                break;
+            case INTERSECTION:
+                resultRows.and(otherRows);
+                break;
+            case DIFFERENCE:
+                resultRows.andNot(otherRows);
+                break;
+        }
+
+        Query query = new Query("Q" + (nextQueryNumber++), this);
+        query.setRowSelection(COMBINED_QUERY_ROW_SELECTION, resultRows);
+        savedQueryList.add(query);
+        return query;
+    }
+
+    // drops the selections of a disabled column from the saved queries
+    private void removeSavedQuerySelections(Column column) {
+        for (Query query : savedQueryList) {
+            query.removeColumnSelections(column);
+        }
+        invalidateSavedQueries(false);
+    }
+
+    // saved query results go stale when rows or columns change; row selections no longer match the rows if
+    // rows were removed or restored, so those queries are dropped
+    private void invalidateSavedQueries(boolean rowsMoved) {
+        if (rowsMoved) {
+            savedQueryList.removeIf(Query::hasRowSelection);
+        }
+        for (Query query : savedQueryList) {
+            query.invalidateResults();
+        }
+    }
 
     public void removeColumnSelectionsFromActiveQuery() {
         activeQuery = new Query("Q" + (nextQueryNumber++), this);
@@ -731,29 +1165,72 @@ public class DataTable {
         }
     }
 
-//	public ArrayList<Query> getSavedQueryList() {
-//		return savedQueryList;
-//	}
+    // replaces the rows the source (e.g., a scatterplot) restricts the active query to, keeping the row selections
+    // of other sources (null removes the source's restriction)
+    public void setActiveQueryRowSelection(Object source, BitSet rowSelection) {
+        getActiveQuery().setRowSelection(source, rowSelection);
+        getActiveQuery().setQueriedTuples();
+        fireRowSelectionChanged();
+    }
 
-//	public Query getQueryByID(String ID) {
-//		if (activeQuery.getID().equals(ID)) {
-//			return activeQuery;
-//		} else {
-//			for (Query query : savedQueryList) {
-//				if (query.getID().equals(ID)) {
-//					return query;
-//				}
-//			}
-//		}
-//
-//		return null;
-//	}
+    // replaces the active query with the filter, as column selections if a query can express it or else as a row
+    // selection of the rows that pass; that row selection has its own source, so the row selections the views make
+    // afterwards narrow it instead of replacing it
+    public void setActiveQueryFilter(FilterExpression filterExpression) {
+        List<ColumnSelection> columnSelections = filterExpression.toColumnSelections();
+        BitSet rowSelection = columnSelections == null ? filterExpression.evaluate(getSnapshot()) : null;
+
+        removeColumnSelectionsFromActiveQuery();
+        if (columnSelections != null) {
+            addColumnSelectionsToActiveQuery(columnSelections);
+        } else {
+            setActiveQueryRowSelection(FILTER_ROW_SELECTION, rowSelection);
+        }
+    }
 
     public void addColumnSelectionToActiveQuery(ColumnSelection newColumnSelectionRange) {
         getActiveQuery().addColumnSelection(newColumnSelectionRange);
         getActiveQuery().setQueriedTuples();
         fireColumnSelectionAdded(newColumnSelectionRange);
+        registerColumnSelectionListener(newColumnSelectionRange);
+    }
+
+    // adds several selections (e.g., the ranges of a filter expression) with one query update
+    public void addColumnSelectionsToActiveQuery(List<ColumnSelection> newColumnSelections) {
+        for (ColumnSelection columnSelection : newColumnSelections) {
+            getActiveQuery().addColumnSelection(columnSelection);
+        }
+        getActiveQuery().setQueriedTuples();
+        for (ColumnSelection columnSelection : newColumnSelections) {
+            fireColumnSelectionAdded(columnSelection);
+            registerColumnSelectionListener(columnSelection);
+        }
+    }
+
+    // adds range selections (e.g., the latitude and longitude ranges of a map rectangle) along with rows that
+    // include every row passing them (e.g., from a spatial index; null if unknown), so the query only tests those rows
+    public void addColumnSelectionsToActiveQuery(List<DoubleColumnSelectionRange> newColumnSelections, BitSet candidateRows) {
+        for (ColumnSelection columnSelection : newColumnSelections) {
+            getActiveQuery().addColumnSelection(columnSelection);
+        }
+        if (candidateRows != null) {
+            getActiveQuery().setCandidateRows(newColumnSelections, candidateRows);
+        }
+        getActiveQuery().setQueriedTuples();
+        for (ColumnSelection columnSelection : newColumnSelections) {
+            fireColumnSelectionAdded(columnSelection);
+            registerColumnSelectionListener(columnSelection);
+        }
+    }
+
+    public void removeColumnSelectionsFromActiveQuery(List<ColumnSelection> columnSelections) {
+        if (getActiveQuery().removeColumnSelections(columnSelections)) {
+            getActiveQuery().setQueriedTuples();
+            fireColumnSelectionsRemoved(columnSelections);
+        }
+    }
 
+    private void registerColumnSelectionListener(ColumnSelection newColumnSelectionRange) {
         if (newColumnSelectionRange instanceof DoubleColumnSelectionRange) {
             ((DoubleColumnSelectionRange)newColumnSelectionRange).rangeValuesProperty().addListener((observable, oldValue, newValue) -> {
                 getActiveQuery().setQueriedTuples();
@@ -777,8 +1254,8 @@ public class DataTable {
 //                fireColumnSelectionChanged(newColumnSelectionRange);
 //            });
         } else if (newColumnSelectionRange instanceof ImageColumnSelection) {
-            ((ImageColumnSelection)newColumnSelectionRange).selectedImagePairSetProperty().addListener((SetChangeListener<Pair<File, Image>>) change -> {
-                if (((ImageColumnSelection)newColumnSelectionRange).getSelectedImagePairs().isEmpty()) {
+            ((ImageColumnSelection)newColumnSelectionRange).selectedImageFileSetProperty().addListener((SetChangeListener<File>) change -> {
+                if (((ImageColumnSelection)newColumnSelectionRange).getSelectedImageFiles().isEmpty()) {
                     getActiveQuery().removeColumnSelection(newColumnSelectionRange);
                 }
                 getActiveQuery().setQueriedTuples();
@@ -893,6 +1370,8 @@ public class DataTable {
 
         // reset columns array
         columns = newColumnOrder;
+        updateTupleLayout();
+        invalidateSavedQueries(false);
 
         // rearrange column correlation coefficients
         for (int iColumn = 0; iColumn < columns.size(); iColumn++) {
@@ -907,19 +1386,8 @@ public class DataTable {
             }
         }
 
-        // move tuple elements to reflect new column order
-        for (int iTuple = 0; iTuple < tuples.size(); iTuple++) {
-            Tuple tuple = tuples.get(iTuple);
-            Object elements[] = tuple.getElementsAsArray();
-            tuple.removeAllElements();
-
-            for (int iElement = 0; iElement < elements.length; iElement++) {
-                tuple.addElement(elements[dstColumnIndices[iElement]]);
-            }
-        }
-
         // move query statistics to reflect new column order
-		if (getActiveQuery().hasColumnSelections()) {
+		if (getActiveQuery().hasSelections()) {
             for (int iColumn = 0; iColumn < columns.size(); iColumn++) {
                 Column column = columns.get(iColumn);
                 if (column instanceof DoubleColumn) {
@@ -946,47 +1414,6 @@ public class DataTable {
         fireColumnOrderChanged();
     }
 
-    // get index of column and remove all tuple elements at this index
-    // add the tuple elements to a list of disabledColumnTuples for later enabling
-    private void removeTupleElementsForColumn(Column column) {
-        int columnIndex = columns.indexOf(column);
-
-        for (int iTuple = 0; iTuple < tuples.size(); iTuple++) {
-            Tuple tuple = tuples.get(iTuple);
-            Object elementValue = tuple.getElement(columnIndex);
-            tuple.removeElement(columnIndex);
-
-            if (disabledColumnTuples.size() != tuples.size()) {
-                Tuple disabledTuple = new Tuple(this);
-                disabledTuple.addElement(elementValue);
-                disabledColumnTuples.add(disabledTuple);
-            } else {
-                Tuple disabledTuple = disabledColumnTuples.get(iTuple);
-                disabledTuple.addElement(elementValue);
-            }
-        }
-    }
-
-    private void addTupleElementsForDisabledColumn(Column column) {
-        int columnIndex = disabledColumns.indexOf(column);
-        if (columnIndex != -1) {
-            for (int iTuple = 0; iTuple < disabledColumnTuples.size(); iTuple++) {
-                Tuple disabledTuple = disabledColumnTuples.get(iTuple);
-                Object elementValue = disabledTuple.getElement(columnIndex);
-                disabledTuple.removeElement(columnIndex);
-
-                if (disabledColumnTuples.size() != tuples.size()) {
-                    Tuple tuple = new Tuple(this);
-                    tuple.addElement(elementValue);
-                    tuples.add(tuple);
-                } else {
-                    Tuple tuple = tuples.get(iTuple);
-                    tuple.addElement(elementValue);
-                }
-            }
-        }
-    }
-
     private void calculateStatistics() {
         long start = System.currentTimeMillis();
         for (Column column : columns) {
@@ -1001,113 +1428,159 @@ public class DataTable {
         for (DataTableListener listener : listeners) {
             listener.dataTableNumHistogramBinsChanged(this);
         }
+        changeDispatcher.record(DataTableChange::recordNumHistogramBinsChanged);
     }
 
     private void fireColumnDisabled(Column column) {
+        invalidateSnapshot(false);
         for (DataTableListener listener : listeners) {
             listener.dataTableColumnDisabled(this, column);
         }
+        changeDispatcher.record(DataTableChange::recordColumnsChanged);
     }
 
     private void fireColumnsDisabled(ArrayList<Column> disabledColumns) {
+        invalidateSnapshot(false);
         for (DataTableListener listener : listeners) {
             listener.dataTableColumnsDisabled(this, disabledColumns);
         }
+        changeDispatcher.record(DataTableChange::recordColumnsChanged);
     }
 
     private void fireColumnEnabled(Column column) {
+        invalidateSnapshot(false);
         for (DataTableListener listener : listeners) {
             listener.dataTableColumnEnabled(this, column);
         }
+        changeDispatcher.record(DataTableChange::recordColumnsChanged);
     }
 
     private void fireDataTableColumnFocusExtentsChanged() {
+        invalidateSnapshot(false);
         for (DataTableListener listener : listeners) {
             listener.dataTableColumnFocusExtentsChanged(this);
         }
+        changeDispatcher.record(DataTableChange::recordColumnFocusExtentsChanged);
     }
 
     private void fireDataTableColumnExtentsChanged() {
+        invalidateSnapshot(false);
         for (DataTableListener listener : listeners) {
             listener.dataTableColumnExtentsChanged(this);
         }
+        changeDispatcher.record(DataTableChange::recordColumnExtentsChanged);
     }
 
     private void fireDataTableStatisticsChanged() {
         for (DataTableListener listener : listeners) {
             listener.dataTableStatisticsChanged(this);
         }
+        changeDispatcher.record(DataTableChange::recordStatisticsChanged);
     }
 
     private void fireColumnOrderChanged() {
+        invalidateSnapshot(false);
         for (DataTableListener listener : listeners) {
             listener.dataTableColumnOrderChanged(this);
         }
+        changeDispatcher.record(DataTableChange::recordColumnsChanged);
     }
 
     private void fireColumnNameChanged(Column column) {
         for (DataTableListener listener : listeners) {
             listener.dataTableColumnNameChanged(this, column);
         }
+        changeDispatcher.record(DataTableChange::recordColumnsChanged);
     }
 
     private void fireDataModelReset() {
+        invalidateSnapshot(true);
         for (DataTableListener listener : listeners) {
             listener.dataTableReset(this);
         }
+        changeDispatcher.record(DataTableChange::recordReset);
     }
 
     private void fireTuplesAdded(ArrayList<Tuple> newTuples) {
+        invalidateSnapshot(true);
         for (DataTableListener listener : listeners) {
             listener.dataTableTuplesAdded(this, newTuples);
         }
+        changeDispatcher.record(DataTableChange::recordTuplesChanged);
     }
 
     private void fireTuplesRemoved(int numTuplesRemoved) {
+        invalidateSnapshot(true);
         for (DataTableListener listener : listeners) {
             listener.dataTableTuplesRemoved(this, numTuplesRemoved);
         }
+        changeDispatcher.record(DataTableChange::recordTuplesChanged);
     }
 
     public void fireHighlightedColumnChanged(Column oldHighlightedColumn) {
         for (DataTableListener listener : listeners) {
             listener.dataTableHighlightedColumnChanged(this, oldHighlightedColumn, highlightedColumn);
         }
+        changeDispatcher.record(DataTableChange::recordHighlightedColumnChanged);
     }
 
     public void fireColumnSelectionAdded(ColumnSelection columnSelectionRange) {
+        invalidateSnapshot(false);
         for (DataTableListener listener : listeners) {
             listener.dataTableColumnSelectionAdded(this, columnSelectionRange);
         }
+        changeDispatcher.record(change -> change.recordColumnSelectionAdded(columnSelectionRange));
     }
 
     public void fireColumnSelectionRemoved(ColumnSelection columnSelectionRange) {
+        invalidateSnapshot(false);
         for (DataTableListener listener : listeners) {
             listener.dataTableColumnSelectionRemoved(this, columnSelectionRange);
         }
+        changeDispatcher.record(change -> change.recordColumnSelectionRemoved(columnSelectionRange));
     }
 
     public void fireColumnSelectionsRemoved(List<ColumnSelection> columnSelections) {
+        invalidateSnapshot(false);
         for (DataTableListener listener : listeners) {
             listener.dataTableColumnSelectionsRemoved(this, columnSelections);
         }
+        changeDispatcher.record(change -> {
+            for (ColumnSelection columnSelection : columnSelections) {
+                change.recordColumnSelectionRemoved(columnSelection);
+            }
+        });
     }
 
     public void fireColumnSelectionChanged(ColumnSelection columnSelectionRange) {
+        invalidateSnapshot(false);
         for (DataTableListener listener : listeners) {
             listener.dataTableColumnSelectionChanged(this, columnSelectionRange);
         }
+        changeDispatcher.record(change -> change.recordColumnSelectionChanged(columnSelectionRange));
     }
 
     public void fireQueryCleared() {
+        invalidateSnapshot(false);
         for (DataTableListener listener : listeners) {
             listener.dataTableAllColumnSelectionsRemoved(this);
         }
+        changeDispatcher.record(DataTableChange::recordAllColumnSelectionsRemoved);
+    }
+
+    public void fireRowSelectionChanged() {
+        invalidateSnapshot(false);
+        for (DataTableListener listener : listeners) {
+            listener.dataTableRowSelectionChanged(this);
+        }
+        changeDispatcher.record(DataTableChange::recordQueryChanged);
     }
 
     public void fireQueryColumnCleared(Column column) {
+        invalidateSnapshot(false);
         for (DataTableListener listener : listeners) {
             listener.dataTableAllColumnSelectionsForColumnRemoved(this, column);
         }
+        changeDispatcher.record(DataTableChange::recordQueryChanged);
     }
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package gov.ornl.datatable;
+
+// Listener that gets the changes of a data table merged into one change set per JavaFX pulse,
+// for views that rebuild on any change and do not need to react inside each mutation
+public interface DataTableBatchListener {
+    // Called once per pulse with everything that changed since the last call
+    public void dataTableChanged(DataTable dataTable, DataTableChange change);
+}
@@ -0,0 +1,164 @@
+package gov.ornl.datatable;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Changes made to a data table between two JavaFX pulses, merged.
+ *
+ * Repeated changes collapse into one record: ten changes to a selection range are
+ * one changed selection, a selection added and then changed is only added, and a
+ * selection added and then removed is not reported at all. A reset subsumes every
+ * other change, so listeners only need to check isReset() before anything else.
+ */
+public class DataTableChange {
+    private boolean reset = false;
+    private boolean statisticsChanged = false;
+    private boolean columnExtentsChanged = false;
+    private boolean columnFocusExtentsChanged = false;
+    private boolean numHistogramBinsChanged = false;
+    private boolean highlightedColumnChanged = false;
+    private boolean tuplesChanged = false;
+    private boolean columnsChanged = false;
+
+    private boolean queryChanged = false;
+    private boolean allColumnSelectionsRemoved = false;
+    private LinkedHashSet<ColumnSelection> addedColumnSelections = new LinkedHashSet<>();
+    private LinkedHashSet<ColumnSelection> removedColumnSelections = new LinkedHashSet<>();
+    private LinkedHashSet<ColumnSelection> changedColumnSelections = new LinkedHashSet<>();
+
+    public boolean isEmpty() {
+        return !(reset || statisticsChanged || columnExtentsChanged || columnFocusExtentsChanged ||
+                numHistogramBinsChanged || highlightedColumnChanged || tuplesChanged || columnsChanged || queryChanged);
+    }
+
+    // the tuples and columns were replaced; every other record is dropped
+    public boolean isReset() { return reset; }
+
+    public boolean isStatisticsChanged() { return statisticsChanged; }
+
+    public boolean isColumnExtentsChanged() { return columnExtentsChanged; }
+
+    public boolean isColumnFocusExtentsChanged() { return columnFocusExtentsChanged; }
+
+    public boolean isNumHistogramBinsChanged() { return numHistogramBinsChanged; }
+
+    public boolean isHighlightedColumnChanged() { return highlightedColumnChanged; }
+
+    // tuples were added or removed
+    public boolean isTuplesChanged() { return tuplesChanged; }
+
+    // columns were enabled, disabled, added, renamed, or reordered
+    public boolean isColumnsChanged() { return columnsChanged; }
+
+    // the queried rows of the active query may have changed
+    public boolean isQueryChanged() { return queryChanged; }
+
+    // the active query was replaced with an empty one
+    public boolean isAllColumnSelectionsRemoved() { return allColumnSelectionsRemoved; }
+
+    public Set<ColumnSelection> getAddedColumnSelections() { return Collections.unmodifiableSet(addedColumnSelections); }
+
+    public Set<ColumnSelection> getRemovedColumnSelections() { return Collections.unmodifiableSet(removedColumnSelections); }
+
+    // selections whose values changed that were neither added nor removed in this change set
+    public Set<ColumnSelection> getChangedColumnSelections() { return Collections.unmodifiableSet(changedColumnSelections); }
+
+    void recordReset() {
+        clear();
+        reset = true;
+    }
+
+    void recordStatisticsChanged() {
+        statisticsChanged = !reset;
+    }
+
+    void recordColumnExtentsChanged() {
+        columnExtentsChanged = !reset;
+    }
+
+    void recordColumnFocusExtentsChanged() {
+        columnFocusExtentsChanged = !reset;
+    }
+
+    void recordNumHistogramBinsChanged() {
+        numHistogramBinsChanged = !reset;
+    }
+
+    void recordHighlightedColumnChanged() {
+        highlightedColumnChanged = !reset;
+    }
+
+    void recordTuplesChanged() {
+        tuplesChanged = !reset;
+    }
+
+    void recordColumnsChanged() {
+        columnsChanged = !reset;
+    }
+
+    void recordQueryChanged() {
+        queryChanged = !reset;
+    }
+
+    void recordAllColumnSelectionsRemoved() {
+        if (reset) {
+            return;
+        }
+        queryChanged = true;
+        allColumnSelectionsRemoved = true;
+        addedColumnSelections.clear();
+        removedColumnSelections.clear();
+        changedColumnSelections.clear();
+    }
+
+    void recordColumnSelectionAdded(ColumnSelection columnSelection) {
+        if (reset) {
+            return;
+        }
+        queryChanged = true;
+        if (!removedColumnSelections.remove(columnSelection)) {
+            addedColumnSelections.add(columnSelection);
+        } else {
+            changedColumnSelections.add(columnSelection);
+        }
+    }
+
+    void recordColumnSelectionRemoved(ColumnSelection columnSelection) {
+        if (reset) {
+            return;
+        }
+        queryChanged = true;
+        changedColumnSelections.remove(columnSelection);
+        if (!addedColumnSelections.remove(columnSelection) && !allColumnSelectionsRemoved) {
+            removedColumnSelections.add(columnSelection);
+        }
+    }
+
+    void recordColumnSelectionChanged(ColumnSelection columnSelection) {
+        if (reset) {
+            return;
+        }
+        queryChanged = true;
+        if (!addedColumnSelections.contains(columnSelection)) {
+            changedColumnSelections.add(columnSelection);
+        }
+    }
+
+    private void clear() {
+        reset = false;
+        statisticsChanged = false;
+        columnExtentsChanged = false;
+        columnFocusExtentsChanged = false;
+        numHistogramBinsChanged = false;
+        highlightedColumnChanged = false;
+        tuplesChanged = false;
+        columnsChanged = false;
+        queryChanged = false;
+        allColumnSelectionsRemoved = false;
+        addedColumnSelections.clear();
+        removedColumnSelections.clear();
+        changedColumnSelections.clear();
+    }
+}
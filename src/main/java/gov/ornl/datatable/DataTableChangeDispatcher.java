@@ -0,0 +1,86 @@
+package gov.ornl.datatable;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Collects the changes of a data table and delivers them to batch listeners once
+ * per JavaFX pulse.
+ *
+ * The first change after a delivery starts an animation timer, whose handler runs
+ * on the next pulse, hands the merged change set to every batch listener, and stops
+ * the timer again. Nothing is recorded while there are no batch listeners.
+ */
+class DataTableChangeDispatcher {
+    private DataTable dataTable;
+    private ArrayList<DataTableBatchListener> listeners = new ArrayList<>();
+
+    private DataTableChange pendingChange = new DataTableChange();
+    private AnimationTimer pulseTimer;
+    private boolean scheduled = false;
+
+    DataTableChangeDispatcher(DataTable dataTable) {
+        this.dataTable = dataTable;
+    }
+
+    synchronized void addListener(DataTableBatchListener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+    }
+
+    synchronized boolean removeListener(DataTableBatchListener listener) {
+        return listeners.remove(listener);
+    }
+
+    synchronized void record(Consumer<DataTableChange> recorder) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+
+        recorder.accept(pendingChange);
+
+        if (!scheduled) {
+            scheduled = true;
+            if (Platform.isFxApplicationThread()) {
+                getPulseTimer().start();
+            } else {
+                Platform.runLater(() -> getPulseTimer().start());
+            }
+        }
+    }
+
+    private AnimationTimer getPulseTimer() {
+        if (pulseTimer == null) {
+            pulseTimer = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    deliver();
+                }
+            };
+        }
+        return pulseTimer;
+    }
+
+    private void deliver() {
+        pulseTimer.stop();
+
+        DataTableChange change;
+        ArrayList<DataTableBatchListener> deliveryListeners;
+        synchronized (this) {
+            change = pendingChange;
+            pendingChange = new DataTableChange();
+            scheduled = false;
+            deliveryListeners = new ArrayList<>(listeners);
+        }
+
+        if (!change.isEmpty()) {
+            for (DataTableBatchListener listener : deliveryListeners) {
+                listener.dataTableChanged(dataTable, change);
+            }
+        }
+    }
+}
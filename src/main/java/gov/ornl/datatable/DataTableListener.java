@@ -35,6 +35,9 @@ public interface DataTableListener {
     // Called when a selection from the active query is modified (min/max range)
     public void dataTableColumnSelectionChanged(DataTable dataTable, ColumnSelection columnSelectionRange);
 
+    // Called when the row selection of the active query is set or removed
+    public void dataTableRowSelectionChanged(DataTable dataTable);
+
     // Methods affecting the highlighted column
     // Called when the highlighted column changes
     public void dataTableHighlightedColumnChanged(DataTable dataTable, Column oldHighlightedColumn, Column newHighlightedColumn);
@@ -53,7 +56,7 @@ public interface DataTableListener {
     // Called when a set of columns are disabled
     public void dataTableColumnsDisabled(DataTable dataTable, ArrayList<Column> disabledColumns);
 
-    // Called when a column is enabled (previously disabled)
+    // Called when a column is enabled (previously disabled) or a derived column is added
     public void dataTableColumnEnabled(DataTable dataTable, Column enabledColumn);
 
     // Called when a new bivariate column is added (combination of two enabled columns)
@@ -0,0 +1,177 @@
+package gov.ornl.datatable;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, versioned copy of the data table state for reading on other threads.
+ *
+ * A snapshot holds the enabled columns in order, a value array for each column,
+ * the queried and context rows, and the column focus extents. Changes only mark the
+ * data table's snapshot stale; DataTable.getSnapshot() builds a new one (with the
+ * next version number) when it is asked for one on the JavaFX thread, and background
+ * work given that snapshot reads a consistent version without locking while the
+ * table keeps changing. Value arrays are shared between snapshots until the rows
+ * change, so column order, enable and query changes only copy the small parts that
+ * changed.
+ */
+public final class DataTableSnapshot {
+    private final long version;
+    // version of the snapshot that copied the current rows
+    private final long rowsVersion;
+    private final int rowCount;
+    private final List<Column> columns;
+    // double[] for double columns (missing values are NaN), Object[] of tuple elements otherwise
+    private final Map<Column, Object> columnValues;
+    private final BitSet queriedRows;
+    private final BitSet contextRows;
+    private final boolean hasSelections;
+    private final Map<Column, double[]> doubleFocusExtents;
+    private final Map<Column, Instant[]> temporalFocusExtents;
+
+    private DataTableSnapshot(long version, long rowsVersion, int rowCount, List<Column> columns, Map<Column, Object> columnValues,
+                              BitSet queriedRows, BitSet contextRows, boolean hasSelections,
+                              Map<Column, double[]> doubleFocusExtents, Map<Column, Instant[]> temporalFocusExtents) {
+        this.version = version;
+        this.rowsVersion = rowsVersion;
+        this.rowCount = rowCount;
+        this.columns = columns;
+        this.columnValues = columnValues;
+        this.queriedRows = queriedRows;
+        this.contextRows = contextRows;
+        this.hasSelections = hasSelections;
+        this.doubleFocusExtents = doubleFocusExtents;
+        this.temporalFocusExtents = temporalFocusExtents;
+    }
+
+    // snapshot of an empty table
+    static DataTableSnapshot empty() {
+        return new DataTableSnapshot(0, 0, 0, Collections.emptyList(), Collections.emptyMap(), new BitSet(),
+                new BitSet(), false, Collections.emptyMap(), Collections.emptyMap());
+    }
+
+    // snapshot of the current state of the data table (called on the thread that changes the table), reusing
+    // the value arrays of the previous snapshot for its columns unless rowsChanged
+    static DataTableSnapshot create(DataTable dataTable, DataTableSnapshot previous, boolean rowsChanged) {
+        long version = previous.version + 1;
+        int rowCount = dataTable.getTupleCount();
+        boolean reuseValues = !rowsChanged && previous.rowCount == rowCount;
+        ArrayList<Column> columns = new ArrayList<>(dataTable.getColumns());
+
+        HashMap<Column, Object> columnValues = new HashMap<>();
+        HashMap<Column, double[]> doubleFocusExtents = new HashMap<>();
+        HashMap<Column, Instant[]> temporalFocusExtents = new HashMap<>();
+        for (int icolumn = 0; icolumn < columns.size(); icolumn++) {
+            Column column = columns.get(icolumn);
+
+            Object values = reuseValues ? previous.columnValues.get(column) : null;
+            if (values == null) {
+                values = copyColumnValues(dataTable, column, icolumn, rowCount);
+            }
+            columnValues.put(column, values);
+
+            if (column instanceof DoubleColumn) {
+                DoubleColumn doubleColumn = (DoubleColumn)column;
+                doubleFocusExtents.put(column, new double[] {doubleColumn.getMinimumFocusValue(),
+                        doubleColumn.getMaximumFocusValue()});
+            } else if (column instanceof TemporalColumn) {
+                TemporalColumn temporalColumn = (TemporalColumn)column;
+                temporalFocusExtents.put(column, new Instant[] {temporalColumn.getStartFocusValue(),
+                        temporalColumn.getEndFocusValue()});
+            }
+        }
+
+        Query query = dataTable.getActiveQuery();
+        return new DataTableSnapshot(version, reuseValues ? previous.rowsVersion : version, rowCount, Collections.unmodifiableList(columns),
+                columnValues, (BitSet)query.getQueriedRows().clone(), (BitSet)dataTable.contextRows.clone(),
+                query.hasSelections(), doubleFocusExtents, temporalFocusExtents);
+    }
+
+    private static Object copyColumnValues(DataTable dataTable, Column column, int columnIndex, int rowCount) {
+        if (column instanceof DoubleColumn) {
+            double values[] = new double[rowCount];
+            for (int row = 0; row < rowCount; row++) {
+                Double value = (Double)dataTable.getTuple(row).getElement(columnIndex);
+                values[row] = value == null ? Double.NaN : value;
+            }
+            return values;
+        }
+
+        Object values[] = new Object[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            values[row] = dataTable.getTuple(row).getElement(columnIndex);
+        }
+        return values;
+    }
+
+    // increases by one with every snapshot built for the table
+    public long getVersion() { return version; }
+
+    // changes only when the rows change, so values computed from the rows of an earlier snapshot with the same
+    // rows version are still current
+    public long getRowsVersion() { return rowsVersion; }
+
+    public int getRowCount() { return rowCount; }
+
+    public int getColumnCount() { return columns.size(); }
+
+    // enabled columns in display order (unmodifiable)
+    public List<Column> getColumns() { return columns; }
+
+    public Column getColumn(int columnIndex) { return columns.get(columnIndex); }
+
+    public int getColumnIndex(Column column) { return columns.indexOf(column); }
+
+    public boolean hasColumn(Column column) { return columnValues.containsKey(column); }
+
+    public double getDoubleValue(Column column, int row) {
+        return ((double[])getColumnValues(column))[row];
+    }
+
+    // value as stored in the tuples (a Double for double columns)
+    public Object getValue(Column column, int row) {
+        Object values = getColumnValues(column);
+        if (values instanceof double[]) {
+            return ((double[])values)[row];
+        }
+        return ((Object[])values)[row];
+    }
+
+    // copy of the values of a double column
+    public double[] getDoubleValues(Column column) {
+        return ((double[])getColumnValues(column)).clone();
+    }
+
+    // shared value array of a column (read only), used by filter kernels
+    Object getColumnValues(Column column) {
+        Object values = columnValues.get(column);
+        if (values == null) {
+            throw new IllegalArgumentException("Column " + column.getName() + " is not in snapshot version " + version);
+        }
+        return values;
+    }
+
+    public boolean hasSelections() { return hasSelections; }
+
+    public boolean isRowQueried(int row) { return queriedRows.get(row); }
+
+    public int getQueriedRowCount() { return queriedRows.cardinality(); }
+
+    // copy of the queried rows
+    public BitSet getQueriedRows() { return (BitSet)queriedRows.clone(); }
+
+    public boolean isRowInContext(int row) { return contextRows.get(row); }
+
+    public double getMinimumFocusValue(DoubleColumn column) { return doubleFocusExtents.get(column)[0]; }
+
+    public double getMaximumFocusValue(DoubleColumn column) { return doubleFocusExtents.get(column)[1]; }
+
+    public Instant getStartFocusValue(TemporalColumn column) { return temporalFocusExtents.get(column)[0]; }
+
+    public Instant getEndFocusValue(TemporalColumn column) { return temporalFocusExtents.get(column)[1]; }
+}
@@ -0,0 +1,32 @@
+package gov.ornl.datatable;
+
+import java.util.List;
+
+/**
+ * Double column whose values are computed from other columns of the data table
+ * with a DerivedColumnExpression (see DataTable.addDerivedColumn()).
+ *
+ * The values are stored in the tuples like those of a loaded column, so queries,
+ * filters, statistics and axes treat the column like any other double column. The
+ * table computes values only for tuples that don't have them yet: tuples added
+ * while the column is disabled are computed when it is enabled again.
+ */
+public class DerivedColumn extends DoubleColumn {
+    private final DerivedColumnExpression expression;
+
+    // first row of all the data table tuples (including removed ones) without a computed value
+    private int firstStaleRow = 0;
+
+    public DerivedColumn(String name, DerivedColumnExpression expression) {
+        super(name);
+        this.expression = expression;
+    }
+
+    public DerivedColumnExpression getExpression() { return expression; }
+
+    public List<Column> getInputColumns() { return expression.getInputColumns(); }
+
+    int getFirstStaleRow() { return firstStaleRow; }
+
+    void setFirstStaleRow(int row) { firstStaleRow = row; }
+}
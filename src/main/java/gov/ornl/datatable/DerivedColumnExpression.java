@@ -0,0 +1,424 @@
+package gov.ornl.datatable;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Arithmetic expression over the double and temporal columns of a data table that
+ * gives the values of a DerivedColumn, for example
+ *
+ *     log10(population)
+ *     (high - low) / close * 100
+ *     end_time - "start time"
+ *
+ * Expressions use numbers, column names (quoted like in a FilterExpression), the
+ * operators + - * / % and ^ (power), and the functions abs, sqrt, exp, log, log10,
+ * log2, log1p, floor, ceil, round, min, max and pow. Temporal columns are read as
+ * seconds since 1970-01-01T00:00:00Z, so the difference of two times is in seconds.
+ * Missing values are NaN and make the result NaN.
+ *
+ * The expression tree is compiled into one kernel per operation that works on a
+ * block of rows at a time: the operands are primitive arrays of the block and each
+ * operation is a plain loop over them, with blocks evaluated in parallel. Parts of
+ * the expression without columns are folded into constants when parsing.
+ */
+public final class DerivedColumnExpression {
+    private static final int BLOCK_ROWS = 4096;
+
+    private enum Function { NEGATE, ABS, SQRT, EXP, LOG, LOG10, LOG2, LOG1P, FLOOR, CEIL, ROUND }
+
+    private enum Operator { ADD, SUBTRACT, MULTIPLY, DIVIDE, MODULO, POWER, MIN, MAX }
+
+    private static final double LN_2 = Math.log(2.);
+
+    private final String text;
+    private final Node root;
+    private final List<Column> inputColumns;
+
+    private DerivedColumnExpression(String text, Node root, List<Column> inputColumns) {
+        this.text = text;
+        this.root = root;
+        this.inputColumns = Collections.unmodifiableList(inputColumns);
+    }
+
+    // parses the expression against the enabled double and temporal columns of the data table
+    public static DerivedColumnExpression parse(String text, DataTable dataTable) throws ParseException {
+        Parser parser = new Parser(text, dataTable);
+        Node root = parser.parse();
+        return new DerivedColumnExpression(text, root, new ArrayList<>(parser.inputColumns));
+    }
+
+    public String getText() { return text; }
+
+    // columns the expression reads (unmodifiable)
+    public List<Column> getInputColumns() { return inputColumns; }
+
+    @Override
+    public String toString() { return text; }
+
+    // expression values for rows [0, rowCount) of the input column values (temporal columns in seconds)
+    double[] evaluate(Map<Column, double[]> inputValues, int rowCount) {
+        Kernel kernel = root.compile(inputValues);
+        double values[] = new double[rowCount];
+
+        int blockCount = (rowCount + BLOCK_ROWS - 1) / BLOCK_ROWS;
+        IntStream.range(0, blockCount).parallel().forEach(block -> {
+            int fromRow = block * BLOCK_ROWS;
+            int toRow = Math.min(rowCount, fromRow + BLOCK_ROWS);
+            double blockValues[] = new double[toRow - fromRow];
+            kernel.evaluate(fromRow, toRow, blockValues);
+            System.arraycopy(blockValues, 0, values, fromRow, blockValues.length);
+        });
+
+        return values;
+    }
+
+    private interface Kernel {
+        // writes the values of rows [fromRow, toRow) to values[0 .. toRow - fromRow)
+        void evaluate(int fromRow, int toRow, double values[]);
+    }
+
+    private static abstract class Node {
+        abstract Kernel compile(Map<Column, double[]> inputValues);
+    }
+
+    private static class Constant extends Node {
+        private final double value;
+
+        private Constant(double value) {
+            this.value = value;
+        }
+
+        @Override
+        Kernel compile(Map<Column, double[]> inputValues) {
+            return (fromRow, toRow, values) -> Arrays.fill(values, 0, toRow - fromRow, value);
+        }
+    }
+
+    private static class ColumnValue extends Node {
+        private final Column column;
+
+        private ColumnValue(Column column) {
+            this.column = column;
+        }
+
+        @Override
+        Kernel compile(Map<Column, double[]> inputValues) {
+            double columnValues[] = inputValues.get(column);
+            return (fromRow, toRow, values) -> System.arraycopy(columnValues, fromRow, values, 0, toRow - fromRow);
+        }
+    }
+
+    private static class FunctionCall extends Node {
+        private final Function function;
+        private final Node argument;
+
+        private FunctionCall(Function function, Node argument) {
+            this.function = function;
+            this.argument = argument;
+        }
+
+        @Override
+        Kernel compile(Map<Column, double[]> inputValues) {
+            Kernel argumentKernel = argument.compile(inputValues);
+            return (fromRow, toRow, values) -> {
+                argumentKernel.evaluate(fromRow, toRow, values);
+                apply(function, values, toRow - fromRow);
+            };
+        }
+    }
+
+    private static class Operation extends Node {
+        private final Operator operator;
+        private final Node left;
+        private final Node right;
+
+        private Operation(Operator operator, Node left, Node right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Kernel compile(Map<Column, double[]> inputValues) {
+            Kernel leftKernel = left.compile(inputValues);
+            if (right instanceof Constant) {
+                double rightValue = ((Constant)right).value;
+                return (fromRow, toRow, values) -> {
+                    leftKernel.evaluate(fromRow, toRow, values);
+                    apply(operator, values, rightValue, toRow - fromRow);
+                };
+            }
+
+            Kernel rightKernel = right.compile(inputValues);
+            return (fromRow, toRow, values) -> {
+                leftKernel.evaluate(fromRow, toRow, values);
+                double rightValues[] = new double[toRow - fromRow];
+                rightKernel.evaluate(fromRow, toRow, rightValues);
+                apply(operator, values, rightValues, toRow - fromRow);
+            };
+        }
+    }
+
+    // one loop per function so each loop body stays simple enough for the JIT to unroll and vectorize
+    private static void apply(Function function, double values[], int count) {
+        switch (function) {
+            case NEGATE:
+                for (int i = 0; i < count; i++) values[i] = -values[i];
+                break;
+            case ABS:
+                for (int i = 0; i < count; i++) values[i] = Math.abs(values[i]);
+                break;
+            case SQRT:
+                for (int i = 0; i < count; i++) values[i] = Math.sqrt(values[i]);
+                break;
+            case EXP:
+                for (int i = 0; i < count; i++) values[i] = Math.exp(values[i]);
+                break;
+            case LOG:
+                for (int i = 0; i < count; i++) values[i] = Math.log(values[i]);
+                break;
+            case LOG10:
+                for (int i = 0; i < count; i++) values[i] = Math.log10(values[i]);
+                break;
+            case LOG2:
+                for (int i = 0; i < count; i++) values[i] = Math.log(values[i]) / LN_2;
+                break;
+            case LOG1P:
+                for (int i = 0; i < count; i++) values[i] = Math.log1p(values[i]);
+                break;
+            case FLOOR:
+                for (int i = 0; i < count; i++) values[i] = Math.floor(values[i]);
+                break;
+            case CEIL:
+                for (int i = 0; i < count; i++) values[i] = Math.ceil(values[i]);
+                break;
+            case ROUND:
+                for (int i = 0; i < count; i++) values[i] = Math.rint(values[i]);
+                break;
+        }
+    }
+
+    private static void apply(Operator operator, double values[], double rightValue, int count) {
+        switch (operator) {
+            case ADD:
+                for (int i = 0; i < count; i++) values[i] += rightValue;
+                break;
+            case SUBTRACT:
+                for (int i = 0; i < count; i++) values[i] -= rightValue;
+                break;
+            case MULTIPLY:
+                for (int i = 0; i < count; i++) values[i] *= rightValue;
+                break;
+            case DIVIDE:
+                for (int i = 0; i < count; i++) values[i] /= rightValue;
+                break;
+            case MODULO:
+                for (int i = 0; i < count; i++) values[i] %= rightValue;
+                break;
+            case POWER:
+                for (int i = 0; i < count; i++) values[i] = Math.pow(values[i], rightValue);
+                break;
+            case MIN:
+                for (int i = 0; i < count; i++) values[i] = Math.min(values[i], rightValue);
+                break;
+            case MAX:
+                for (int i = 0; i < count; i++) values[i] = Math.max(values[i], rightValue);
+                break;
+        }
+    }
+
+    private static void apply(Operator operator, double values[], double rightValues[], int count) {
+        switch (operator) {
+            case ADD:
+                for (int i = 0; i < count; i++) values[i] += rightValues[i];
+                break;
+            case SUBTRACT:
+                for (int i = 0; i < count; i++) values[i] -= rightValues[i];
+                break;
+            case MULTIPLY:
+                for (int i = 0; i < count; i++) values[i] *= rightValues[i];
+                break;
+            case DIVIDE:
+                for (int i = 0; i < count; i++) values[i] /= rightValues[i];
+                break;
+            case MODULO:
+                for (int i = 0; i < count; i++) values[i] %= rightValues[i];
+                break;
+            case POWER:
+                for (int i = 0; i < count; i++) values[i] = Math.pow(values[i], rightValues[i]);
+                break;
+            case MIN:
+                for (int i = 0; i < count; i++) values[i] = Math.min(values[i], rightValues[i]);
+                break;
+            case MAX:
+                for (int i = 0; i < count; i++) values[i] = Math.max(values[i], rightValues[i]);
+                break;
+        }
+    }
+
+    // recursive descent parser; + and - bind looser than * / %, then unary minus, then ^ (right associative)
+    private static final class Parser {
+        private final DataTable dataTable;
+        private final List<ExpressionToken> tokens;
+        private final LinkedHashSet<Column> inputColumns = new LinkedHashSet<>();
+        private int position = 0;
+
+        private Parser(String text, DataTable dataTable) throws ParseException {
+            this.dataTable = dataTable;
+            tokens = ExpressionToken.tokenize(text);
+        }
+
+        private Node parse() throws ParseException {
+            Node node = parseSum();
+            if (peek().type != ExpressionToken.Type.END) {
+                throw peek().error("Unexpected '" + peek().text + "'");
+            }
+            return node;
+        }
+
+        private Node parseSum() throws ParseException {
+            Node node = parseProduct();
+            while (peek().isSymbol("+", "-")) {
+                Operator operator = next().text.equals("+") ? Operator.ADD : Operator.SUBTRACT;
+                node = operation(operator, node, parseProduct());
+            }
+            return node;
+        }
+
+        private Node parseProduct() throws ParseException {
+            Node node = parseUnary();
+            while (peek().isSymbol("*", "/", "%")) {
+                String symbol = next().text;
+                Operator operator = symbol.equals("*") ? Operator.MULTIPLY :
+                        symbol.equals("/") ? Operator.DIVIDE : Operator.MODULO;
+                node = operation(operator, node, parseUnary());
+            }
+            return node;
+        }
+
+        private Node parseUnary() throws ParseException {
+            if (peek().isSymbol("-")) {
+                position++;
+                return function(Function.NEGATE, parseUnary());
+            } else if (peek().isSymbol("+")) {
+                position++;
+                return parseUnary();
+            }
+            return parsePower();
+        }
+
+        private Node parsePower() throws ParseException {
+            Node node = parsePrimary();
+            if (peek().isSymbol("^")) {
+                position++;
+                return operation(Operator.POWER, node, parseUnary());
+            }
+            return node;
+        }
+
+        private Node parsePrimary() throws ParseException {
+            ExpressionToken token = next();
+
+            if (token.isSymbol("(")) {
+                Node node = parseSum();
+                expectSymbol(")");
+                return node;
+            } else if (token.type == ExpressionToken.Type.NUMBER) {
+                return new Constant(Double.parseDouble(token.text));
+            } else if (token.type == ExpressionToken.Type.NAME && peek().isSymbol("(")) {
+                return parseFunction(token);
+            } else if (token.type == ExpressionToken.Type.NAME || token.type == ExpressionToken.Type.QUOTED_NAME) {
+                Column column = token.findColumn(dataTable);
+                if (column == null) {
+                    throw token.error("No enabled column named '" + token.text + "'");
+                } else if (!(column instanceof DoubleColumn) && !(column instanceof TemporalColumn)) {
+                    throw token.error("Column '" + column.getName() + "' is not a number or time column");
+                }
+                inputColumns.add(column);
+                return new ColumnValue(column);
+            }
+            throw token.error("Expected a number, column or function");
+        }
+
+        private Node parseFunction(ExpressionToken nameToken) throws ParseException {
+            expectSymbol("(");
+            ArrayList<Node> arguments = new ArrayList<>();
+            arguments.add(parseSum());
+            while (peek().isSymbol(",")) {
+                position++;
+                arguments.add(parseSum());
+            }
+            expectSymbol(")");
+
+            String name = nameToken.text.toLowerCase();
+            if (name.equals("min") || name.equals("max") || name.equals("pow")) {
+                if (arguments.size() != 2) {
+                    throw nameToken.error(name + "() takes two arguments");
+                }
+                Operator operator = name.equals("min") ? Operator.MIN :
+                        name.equals("max") ? Operator.MAX : Operator.POWER;
+                return operation(operator, arguments.get(0), arguments.get(1));
+            }
+
+            Function function;
+            try {
+                function = Function.valueOf(name.toUpperCase());
+            } catch (IllegalArgumentException ex) {
+                function = null;
+            }
+            if (function == null || function == Function.NEGATE) {
+                throw nameToken.error("Unknown function '" + nameToken.text + "'");
+            } else if (arguments.size() != 1) {
+                throw nameToken.error(name + "() takes one argument");
+            }
+            return function(function, arguments.get(0));
+        }
+
+        // function call, folded if the argument is a constant
+        private Node function(Function function, Node argument) {
+            if (argument instanceof Constant) {
+                double value[] = {((Constant)argument).value};
+                apply(function, value, 1);
+                return new Constant(value[0]);
+            }
+            return new FunctionCall(function, argument);
+        }
+
+        // operation, folded if both operands are constants
+        private Node operation(Operator operator, Node left, Node right) {
+            if (left instanceof Constant && right instanceof Constant) {
+                double value[] = {((Constant)left).value};
+                apply(operator, value, ((Constant)right).value, 1);
+                return new Constant(value[0]);
+            }
+            return new Operation(operator, left, right);
+        }
+
+        private ExpressionToken peek() {
+            return tokens.get(position);
+        }
+
+        private ExpressionToken next() throws ParseException {
+            ExpressionToken token = peek();
+            if (token.type == ExpressionToken.Type.END) {
+                throw token.error("Unexpected end of expression");
+            }
+            position++;
+            return token;
+        }
+
+        private void expectSymbol(String symbol) throws ParseException {
+            if (!peek().isSymbol(symbol)) {
+                throw peek().error("Expected '" + symbol + "'");
+            }
+            position++;
+        }
+    }
+}
@@ -19,15 +19,14 @@ public class DoubleColumn extends Column {
         super(name);
     }
 
-    public boolean setFocusContext(Tuple tuple, int elementIdx) {
+    public boolean setFocusContext(Tuple tuple, int elementIdx, int row) {
         if (((Double)tuple.getElement(elementIdx)) > getMaximumFocusValue()) {
-            getUpperContextTuples().add(tuple);
+            setFocusContextState(row, UPPER_CONTEXT);
             return false;
         } else if (((Double)tuple.getElement(elementIdx)) < getMinimumFocusValue()) {
-            getLowerContextTuples().add(tuple);
+            setFocusContextState(row, LOWER_CONTEXT);
             return false;
         }
-        getFocusTuples().add(tuple);
         return true;
     }
 
@@ -89,36 +88,25 @@ public class DoubleColumn extends Column {
     public ReadOnlyDoubleProperty maximumScaleValueProperty() { return maximumScaleValue; }
 
     public double[] getValues() {
-        int columnIndex = getDataTable().getColumnIndex(this);
-        if (columnIndex == -1) {
-            columnIndex = getDataTable().getDisabledColumns().indexOf(this);
-            double values[] = new double[getDataTable().getTupleCount()];
-            for (int i = 0; i < getDataTable().getTupleCount(); i++) {
-                values[i] = (double) getDataTable().getDisabledTuple(i).getElement(columnIndex);
-            }
-
-            return values;
-        } else {
-            double values[] = new double[getDataTable().getTupleCount()];
-            for (int i = 0; i < getDataTable().getTupleCount(); i++) {
-                values[i] = (double) getDataTable().getTuple(i).getElement(columnIndex);
-            }
-
-            return values;
+        // the stored element index also covers disabled columns
+        int elementIndex = getDataTable().getElementIndex(this);
+        double values[] = new double[getDataTable().getTupleCount()];
+        for (int i = 0; i < getDataTable().getTupleCount(); i++) {
+            values[i] = (double) getDataTable().getTuple(i).getStoredElement(elementIndex);
         }
+
+        return values;
     }
 
     public double[] getFocusValues() {
-        int columnIndex = getDataTable().getColumnIndex(this);
-        if (columnIndex == -1) {
-            columnIndex = getDataTable().getDisabledColumns().indexOf(this);
-
-        }
+        int elementIndex = getDataTable().getElementIndex(this);
 
-        double values[] = new double[getFocusTuples().size()];
+        double values[] = new double[getFocusRowCount()];
         int counter = 0;
-        for (Tuple focusTuple : getFocusTuples()) {
-            values[counter++] = (double)focusTuple.getElement(columnIndex);
+        for (int i = 0; i < getDataTable().getTupleCount(); i++) {
+            if (isRowInFocus(i)) {
+                values[counter++] = (double)getDataTable().getTuple(i).getStoredElement(elementIndex);
+            }
         }
 
         return values;
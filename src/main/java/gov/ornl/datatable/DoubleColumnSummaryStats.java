@@ -33,6 +33,10 @@ public class DoubleColumnSummaryStats extends ColumnSummaryStats {
 
     private ObjectProperty<DoubleHistogram> histogram;
 
+    // lazily computed for rank correlation and mutual information, reset when values or histogram change
+    private double ranks[];
+    private int histogramBinIndices[];
+
     public DoubleColumnSummaryStats(Column column, int numHistogramBins, Query query) {
         super(column, numHistogramBins, query);
 
@@ -55,6 +59,7 @@ public class DoubleColumnSummaryStats extends ColumnSummaryStats {
 
     public void setValues(double[] values, int numHistogramBins) {
         this.values = values;
+        ranks = null;
 
         this.numHistogramBins = numHistogramBins;
 
@@ -63,6 +68,7 @@ public class DoubleColumnSummaryStats extends ColumnSummaryStats {
 
     public void setValues(double[] values) {
         this.values = values;
+        ranks = null;
 
 //        numHistogramBins = (int)Math.floor(Math.sqrt(values.length));
 //        if (numHistogramBins > MAX_NUM_HISTOGRAM_BINS) {
@@ -157,8 +163,53 @@ public class DoubleColumnSummaryStats extends ColumnSummaryStats {
         return (DoubleColumn)getColumn();
     }
 
+    // rank of each value (1 based, ties get their average rank)
+    public synchronized double[] getRanks() {
+        if (ranks == null && values != null) {
+            long keys[] = new long[values.length];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = RowSorter.getDoubleKey(values[i]);
+            }
+            int order[] = RowSorter.sortRows(keys);
+
+            double newRanks[] = new double[values.length];
+            int start = 0;
+            while (start < order.length) {
+                int end = start + 1;
+                while (end < order.length && values[order[end]] == values[order[start]]) {
+                    end++;
+                }
+                double averageRank = ((start + 1) + end) / 2.;
+                for (int i = start; i < end; i++) {
+                    newRanks[order[i]] = averageRank;
+                }
+                start = end;
+            }
+            ranks = newRanks;
+        }
+        return ranks;
+    }
+
+    // histogram bin of each value
+    public synchronized int[] getHistogramBinIndices() {
+        if (histogramBinIndices == null && values != null && getHistogram() != null) {
+            DoubleHistogram doubleHistogram = getHistogram();
+            int numBins = doubleHistogram.getNumBins();
+            double binSize = (doubleHistogram.getMaxValue() - doubleHistogram.getMinValue()) / numBins;
+
+            int binIndices[] = new int[values.length];
+            for (int i = 0; i < values.length; i++) {
+                int binIndex = binSize > 0. ? (int)((values[i] - doubleHistogram.getMinValue()) / binSize) : 0;
+                binIndices[i] = Math.max(0, Math.min(numBins - 1, binIndex));
+            }
+            histogramBinIndices = binIndices;
+        }
+        return histogramBinIndices;
+    }
+
     @Override
     public void calculateHistogram() {
+        histogramBinIndices = null;
         setHistogram(new DoubleHistogram(column.getName(), values, numHistogramBins,
                 doubleColumn().getStatistics().getMinValue(),
                 doubleColumn().getStatistics().getMaxValue()));
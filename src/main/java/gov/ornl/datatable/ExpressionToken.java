@@ -0,0 +1,148 @@
+package gov.ornl.datatable;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Token of the filter and derived column expressions.
+ *
+ * Names are plain words (letters, digits, underscores and dots) or are quoted with
+ * double quotes or backticks, strings are in single quotes, and times are strings
+ * prefixed with t, as in t'2019-06-01'. A doubled quote inside quotes stands for
+ * itself. Numbers are unsigned; the parsers read a leading minus as an operator.
+ */
+final class ExpressionToken {
+    enum Type { NAME, QUOTED_NAME, STRING, TIME, NUMBER, SYMBOL, END }
+
+    private static final Pattern NUMBER_PATTERN = Pattern.compile("(\\d+\\.?\\d*|\\.\\d+)([eE][-+]?\\d+)?");
+    private static final String TWO_CHAR_SYMBOLS[] = {"<=", ">=", "!=", "<>", "==", "&&", "||"};
+    private static final String SYMBOLS = "=<>!(),+-*/%^";
+
+    final Type type;
+    final String text;
+    final int offset;
+
+    ExpressionToken(Type type, String text, int offset) {
+        this.type = type;
+        this.text = text;
+        this.offset = offset;
+    }
+
+    boolean isKeyword(String keyword) {
+        return type == Type.NAME && text.equalsIgnoreCase(keyword);
+    }
+
+    boolean isSymbol(String... symbols) {
+        if (type == Type.SYMBOL) {
+            for (String symbol : symbols) {
+                if (text.equals(symbol)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    ParseException error(String message) {
+        return new ParseException(message + " at position " + (offset + 1), offset);
+    }
+
+    // enabled column named by the token (a plain name may differ in case), or null
+    Column findColumn(DataTable dataTable) {
+        if (type != Type.NAME && type != Type.QUOTED_NAME) {
+            return null;
+        }
+
+        Column column = dataTable.getColumn(text);
+        if (column == null && type == Type.NAME) {
+            for (Column enabledColumn : dataTable.getColumns()) {
+                if (enabledColumn.getName().equalsIgnoreCase(text)) {
+                    return enabledColumn;
+                }
+            }
+        }
+        return column;
+    }
+
+    // tokens of the text, ending with an END token
+    static List<ExpressionToken> tokenize(String text) throws ParseException {
+        ArrayList<ExpressionToken> tokens = new ArrayList<>();
+        Matcher numberMatcher = NUMBER_PATTERN.matcher(text);
+        int position = 0;
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            char nextChar = position + 1 < text.length() ? text.charAt(position + 1) : 0;
+
+            if (Character.isWhitespace(c)) {
+                position++;
+            } else if ((c == 't' || c == 'T') && nextChar == '\'') {
+                int end = quotedEnd(text, position + 1);
+                tokens.add(new ExpressionToken(Type.TIME, unquote(text, position + 1, end), position));
+                position = end;
+            } else if (c == '\'') {
+                int end = quotedEnd(text, position);
+                tokens.add(new ExpressionToken(Type.STRING, unquote(text, position, end), position));
+                position = end;
+            } else if (c == '"' || c == '`') {
+                int end = quotedEnd(text, position);
+                tokens.add(new ExpressionToken(Type.QUOTED_NAME, unquote(text, position, end), position));
+                position = end;
+            } else if (numberMatcher.region(position, text.length()).lookingAt()) {
+                tokens.add(new ExpressionToken(Type.NUMBER, numberMatcher.group(), position));
+                position = numberMatcher.end();
+            } else if (Character.isLetter(c) || c == '_') {
+                int end = position + 1;
+                while (end < text.length() && (Character.isLetterOrDigit(text.charAt(end)) ||
+                        text.charAt(end) == '_' || text.charAt(end) == '.')) {
+                    end++;
+                }
+                tokens.add(new ExpressionToken(Type.NAME, text.substring(position, end), position));
+                position = end;
+            } else {
+                String twoChars = text.substring(position, Math.min(text.length(), position + 2));
+                boolean twoCharSymbol = false;
+                for (String symbol : TWO_CHAR_SYMBOLS) {
+                    twoCharSymbol |= symbol.equals(twoChars);
+                }
+
+                if (twoCharSymbol) {
+                    tokens.add(new ExpressionToken(Type.SYMBOL, twoChars, position));
+                    position += 2;
+                } else if (SYMBOLS.indexOf(c) != -1) {
+                    tokens.add(new ExpressionToken(Type.SYMBOL, String.valueOf(c), position));
+                    position++;
+                } else {
+                    throw new ParseException("Unexpected character '" + c + "' at position " + (position + 1),
+                            position);
+                }
+            }
+        }
+        tokens.add(new ExpressionToken(Type.END, "end of expression", text.length()));
+        return tokens;
+    }
+
+    // position after the quote closing the one at start
+    private static int quotedEnd(String text, int start) throws ParseException {
+        char quote = text.charAt(start);
+        int position = start + 1;
+        while (position < text.length()) {
+            if (text.charAt(position) == quote) {
+                if (position + 1 < text.length() && text.charAt(position + 1) == quote) {
+                    position += 2;
+                    continue;
+                }
+                return position + 1;
+            }
+            position++;
+        }
+        throw new ParseException("Unclosed " + quote + " at position " + (start + 1), start);
+    }
+
+    private static String unquote(String text, int start, int end) {
+        String quote = text.substring(start, start + 1);
+        return text.substring(start + 1, end - 1).replace(quote + quote, quote);
+    }
+}
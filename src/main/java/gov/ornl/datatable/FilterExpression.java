@@ -0,0 +1,792 @@
+package gov.ornl.datatable;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Row filter written as text over the column names of a data table, for example
+ *
+ *     petal_length > 2.5 and species in ('versicolor', 'virginica')
+ *     "wind speed" between 2 and 10 or not (time < t'2019-06-01')
+ *
+ * Comparisons (=, !=, <, <=, >, >=), in (...), not in (...) and between ... and ...
+ * are combined with and, or, not and parentheses. Column names that are not plain
+ * words are quoted with double quotes or backticks, strings with single quotes, and
+ * times are written t'2019-06-01', t'2019-06-01T12:00' or t'2019-06-01T12:00:00Z'
+ * (UTC). A missing value never satisfies a comparison, negated or not.
+ *
+ * Negations are pushed down to the comparisons while parsing, and every comparison
+ * becomes a sorted set of disjoint intervals (or a set of categories) for its column.
+ * Evaluating the filter on a DataTableSnapshot runs one kernel per comparison over
+ * the column value arrays, packing 64 rows into a word and working on blocks of rows
+ * in parallel, and returns the matching rows. A filter that is an and over distinct
+ * columns of ors over one column means the same as a query, and toColumnSelections()
+ * gives the column selections for it.
+ */
+public final class FilterExpression {
+    private static final int BLOCK_ROWS = 1 << 16;
+
+    private static final Domain<Double> DOUBLE_DOMAIN = new Domain<>(Double.NEGATIVE_INFINITY,
+            Double.POSITIVE_INFINITY, Math::nextUp, Math::nextDown);
+    private static final Domain<Instant> INSTANT_DOMAIN = new Domain<>(Instant.MIN, Instant.MAX,
+            instant -> instant.plusNanos(1), instant -> instant.minusNanos(1));
+
+    private final String text;
+    private final Node root;
+
+    private FilterExpression(String text, Node root) {
+        this.text = text;
+        this.root = root;
+    }
+
+    // parses the filter against the enabled columns of the data table
+    public static FilterExpression parse(String text, DataTable dataTable) throws ParseException {
+        return new FilterExpression(text, new Parser(text, dataTable).parse());
+    }
+
+    public String getText() { return text; }
+
+    // rows of the snapshot that pass the filter
+    public BitSet evaluate(DataTableSnapshot snapshot) {
+        Kernel kernel = root.compile(snapshot);
+        int rowCount = snapshot.getRowCount();
+        long words[] = new long[wordCount(0, rowCount)];
+
+        int blockCount = (rowCount + BLOCK_ROWS - 1) / BLOCK_ROWS;
+        IntStream.range(0, blockCount).parallel().forEach(block -> {
+            int fromRow = block * BLOCK_ROWS;
+            int toRow = Math.min(rowCount, fromRow + BLOCK_ROWS);
+            long blockWords[] = new long[wordCount(fromRow, toRow)];
+            kernel.evaluate(fromRow, toRow, blockWords);
+            System.arraycopy(blockWords, 0, words, fromRow >>> 6, blockWords.length);
+        });
+
+        return BitSet.valueOf(words);
+    }
+
+    // column selections that select the same rows as the filter, or null if a query can't express it
+    public List<ColumnSelection> toColumnSelections() {
+        Map<Column, List<ColumnSelection>> columnSelections = root.toColumnSelections();
+        if (columnSelections == null) {
+            return null;
+        }
+
+        ArrayList<ColumnSelection> selections = new ArrayList<>();
+        for (List<ColumnSelection> selectionList : columnSelections.values()) {
+            selections.addAll(selectionList);
+        }
+        return selections;
+    }
+
+    @Override
+    public String toString() { return text; }
+
+    private static int wordCount(int fromRow, int toRow) {
+        return (toRow - fromRow + 63) >>> 6;
+    }
+
+    private interface Kernel {
+        // sets bit (row - fromRow) of words for every row in [fromRow, toRow) that passes, clearing the others
+        void evaluate(int fromRow, int toRow, long words[]);
+    }
+
+    private static abstract class Node {
+        abstract Node negate();
+
+        abstract Kernel compile(DataTableSnapshot snapshot);
+
+        // selections by column that select the same rows, or null if a query can't express them
+        abstract Map<Column, List<ColumnSelection>> toColumnSelections();
+    }
+
+    // and (or or) of two or more nodes
+    private static class Junction extends Node {
+        private final boolean and;
+        private final List<Node> children;
+
+        private Junction(boolean and, List<Node> children) {
+            this.and = and;
+            this.children = children;
+        }
+
+        // junction of the children with the interval comparisons of each column merged into one, so that
+        // x > 2 and x < 3 is a single range; children that are junctions of the same kind are flattened first
+        // so that (x > 1 and y > 2) and x < 5 merges the comparisons of x as well
+        private static Node create(boolean and, List<Node> children) {
+            ArrayList<Node> mergedChildren = new ArrayList<>();
+            LinkedHashMap<Column, Integer> rangeComparisonIndices = new LinkedHashMap<>();
+            for (Node child : flatten(and, children)) {
+                Integer index = child instanceof RangeComparison ?
+                        rangeComparisonIndices.get(((RangeComparison<?>)child).column) : null;
+                if (index == null) {
+                    if (child instanceof RangeComparison) {
+                        rangeComparisonIndices.put(((RangeComparison<?>)child).column, mergedChildren.size());
+                    }
+                    mergedChildren.add(child);
+                } else {
+                    RangeComparison<?> merged = (RangeComparison<?>)mergedChildren.get(index);
+                    mergedChildren.set(index, merged.combine((RangeComparison<?>)child, and));
+                }
+            }
+            return mergedChildren.size() == 1 ? mergedChildren.get(0) : new Junction(and, mergedChildren);
+        }
+
+        private static List<Node> flatten(boolean and, List<Node> children) {
+            ArrayList<Node> flattenedChildren = new ArrayList<>();
+            for (Node child : children) {
+                if (child instanceof Junction && ((Junction)child).and == and) {
+                    flattenedChildren.addAll(flatten(and, ((Junction)child).children));
+                } else {
+                    flattenedChildren.add(child);
+                }
+            }
+            return flattenedChildren;
+        }
+
+        @Override
+        Node negate() {
+            ArrayList<Node> negatedChildren = new ArrayList<>();
+            for (Node child : children) {
+                negatedChildren.add(child.negate());
+            }
+            return create(!and, negatedChildren);
+        }
+
+        @Override
+        Kernel compile(DataTableSnapshot snapshot) {
+            Kernel kernels[] = new Kernel[children.size()];
+            for (int i = 0; i < kernels.length; i++) {
+                kernels[i] = children.get(i).compile(snapshot);
+            }
+
+            return (fromRow, toRow, words) -> {
+                kernels[0].evaluate(fromRow, toRow, words);
+                long childWords[] = new long[words.length];
+                for (int i = 1; i < kernels.length; i++) {
+                    // an and that no row passes so far can't gain any
+                    if (and && isEmpty(words)) {
+                        return;
+                    }
+                    kernels[i].evaluate(fromRow, toRow, childWords);
+                    for (int w = 0; w < words.length; w++) {
+                        words[w] = and ? words[w] & childWords[w] : words[w] | childWords[w];
+                    }
+                }
+            };
+        }
+
+        private static boolean isEmpty(long words[]) {
+            for (long word : words) {
+                if (word != 0L) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        Map<Column, List<ColumnSelection>> toColumnSelections() {
+            LinkedHashMap<Column, List<ColumnSelection>> columnSelections = new LinkedHashMap<>();
+            for (Node child : children) {
+                Map<Column, List<ColumnSelection>> childSelections = child.toColumnSelections();
+                if (childSelections == null) {
+                    return null;
+                }
+                for (Map.Entry<Column, List<ColumnSelection>> entry : childSelections.entrySet()) {
+                    List<ColumnSelection> selections = columnSelections.get(entry.getKey());
+                    if (selections == null) {
+                        columnSelections.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+                    } else if (and) {
+                        // a query ors the selections of one column
+                        return null;
+                    } else {
+                        selections.addAll(entry.getValue());
+                    }
+                }
+            }
+
+            // a query ands the columns
+            if (!and && columnSelections.size() > 1) {
+                return null;
+            }
+            return columnSelections;
+        }
+    }
+
+    // double or temporal column value in a set of intervals
+    private static class RangeComparison<T extends Comparable<T>> extends Node {
+        private final Column column;
+        private final Intervals<T> intervals;
+
+        private RangeComparison(Column column, Intervals<T> intervals) {
+            this.column = column;
+            this.intervals = intervals;
+        }
+
+        @Override
+        Node negate() {
+            return new RangeComparison<>(column, intervals.complement());
+        }
+
+        // comparison passing values that pass both (or either) of this and another comparison on the column
+        // (comparisons on one column always have the value type of the column)
+        @SuppressWarnings("unchecked")
+        private RangeComparison<T> combine(RangeComparison<?> otherComparison, boolean and) {
+            RangeComparison<T> other = (RangeComparison<T>)otherComparison;
+            if (and) {
+                // not (not a or not b)
+                return new RangeComparison<>(column, Intervals.union(intervals.domain,
+                        Arrays.asList(intervals.complement(), other.intervals.complement())).complement());
+            }
+            return new RangeComparison<>(column, Intervals.union(intervals.domain,
+                    Arrays.asList(intervals, other.intervals)));
+        }
+
+        @Override
+        Kernel compile(DataTableSnapshot snapshot) {
+            if (column instanceof DoubleColumn) {
+                double values[] = (double[])snapshot.getColumnValues(column);
+                double lows[] = new double[intervals.size()];
+                double highs[] = new double[intervals.size()];
+                for (int i = 0; i < lows.length; i++) {
+                    lows[i] = (Double)intervals.lows.get(i);
+                    highs[i] = (Double)intervals.highs.get(i);
+                }
+                return lows.length == 1 ? doubleRangeKernel(values, lows[0], highs[0]) :
+                        doubleIntervalsKernel(values, lows, highs);
+            }
+
+            Object values[] = (Object[])snapshot.getColumnValues(column);
+            List<T> lows = intervals.lows;
+            List<T> highs = intervals.highs;
+            return (fromRow, toRow, words) -> {
+                for (int w = 0, row = fromRow; row < toRow; w++) {
+                    int endRow = Math.min(toRow, row + 64);
+                    long word = 0L;
+                    for (int bit = 0; row < endRow; row++, bit++) {
+                        @SuppressWarnings("unchecked")
+                        T value = (T)values[row];
+                        if (value != null) {
+                            int found = floorInterval(lows, value);
+                            if (found != -1 && value.compareTo(highs.get(found)) <= 0) {
+                                word |= 1L << bit;
+                            }
+                        }
+                    }
+                    words[w] = word;
+                }
+            };
+        }
+
+        private static Kernel doubleRangeKernel(double values[], double low, double high) {
+            return (fromRow, toRow, words) -> {
+                for (int w = 0, row = fromRow; row < toRow; w++) {
+                    int endRow = Math.min(toRow, row + 64);
+                    long word = 0L;
+                    for (int bit = 0; row < endRow; row++, bit++) {
+                        double value = values[row];
+                        // missing values are NaN and fail both tests
+                        word |= (value >= low & value <= high ? 1L : 0L) << bit;
+                    }
+                    words[w] = word;
+                }
+            };
+        }
+
+        private static Kernel doubleIntervalsKernel(double values[], double lows[], double highs[]) {
+            return (fromRow, toRow, words) -> {
+                for (int w = 0, row = fromRow; row < toRow; w++) {
+                    int endRow = Math.min(toRow, row + 64);
+                    long word = 0L;
+                    for (int bit = 0; row < endRow; row++, bit++) {
+                        double value = values[row];
+
+                        // last interval starting at or below the value
+                        int low = 0;
+                        int high = lows.length - 1;
+                        int found = -1;
+                        while (low <= high) {
+                            int middle = (low + high) >>> 1;
+                            if (lows[middle] <= value) {
+                                found = middle;
+                                low = middle + 1;
+                            } else {
+                                high = middle - 1;
+                            }
+                        }
+                        if (found != -1 && value <= highs[found]) {
+                            word |= 1L << bit;
+                        }
+                    }
+                    words[w] = word;
+                }
+            };
+        }
+
+        @Override
+        Map<Column, List<ColumnSelection>> toColumnSelections() {
+            ArrayList<ColumnSelection> selections = new ArrayList<>();
+            if (column instanceof DoubleColumn) {
+                DoubleColumn doubleColumn = (DoubleColumn)column;
+                double minValue = doubleColumn.getStatistics().getMinValue();
+                double maxValue = doubleColumn.getStatistics().getMaxValue();
+                for (int i = 0; i < intervals.size(); i++) {
+                    // open ends stop at the column extents
+                    double low = Math.max((Double)intervals.lows.get(i), minValue);
+                    double high = Math.min((Double)intervals.highs.get(i), maxValue);
+                    if (low <= high) {
+                        selections.add(new DoubleColumnSelectionRange(doubleColumn, low, high));
+                    }
+                }
+            } else {
+                TemporalColumn temporalColumn = (TemporalColumn)column;
+                Instant startInstant = temporalColumn.getStatistics().getStartInstant();
+                Instant endInstant = temporalColumn.getStatistics().getEndInstant();
+                for (int i = 0; i < intervals.size(); i++) {
+                    Instant start = (Instant)intervals.lows.get(i);
+                    Instant end = (Instant)intervals.highs.get(i);
+                    start = start.isBefore(startInstant) ? startInstant : start;
+                    end = end.isAfter(endInstant) ? endInstant : end;
+                    if (!start.isAfter(end)) {
+                        selections.add(new TemporalColumnSelectionRange(temporalColumn, start, end));
+                    }
+                }
+            }
+
+            // no selections on a column means every row passes, not none
+            if (selections.isEmpty()) {
+                return null;
+            }
+            return Collections.singletonMap(column, selections);
+        }
+    }
+
+    // categorical column value in (or not in) a set of categories
+    private static class CategoryComparison extends Node {
+        private final CategoricalColumn column;
+        private final Set<String> categories;
+        private final boolean negated;
+
+        private CategoryComparison(CategoricalColumn column, Set<String> categories, boolean negated) {
+            this.column = column;
+            this.categories = categories;
+            this.negated = negated;
+        }
+
+        @Override
+        Node negate() {
+            return new CategoryComparison(column, categories, !negated);
+        }
+
+        @Override
+        Kernel compile(DataTableSnapshot snapshot) {
+            Object values[] = (Object[])snapshot.getColumnValues(column);
+            return (fromRow, toRow, words) -> {
+                for (int w = 0, row = fromRow; row < toRow; w++) {
+                    int endRow = Math.min(toRow, row + 64);
+                    long word = 0L;
+                    for (int bit = 0; row < endRow; row++, bit++) {
+                        Object value = values[row];
+                        if (value != null && categories.contains(value) != negated) {
+                            word |= 1L << bit;
+                        }
+                    }
+                    words[w] = word;
+                }
+            };
+        }
+
+        @Override
+        Map<Column, List<ColumnSelection>> toColumnSelections() {
+            HashSet<String> selectedCategories = new HashSet<>();
+            if (negated) {
+                selectedCategories.addAll(column.getCategories());
+                selectedCategories.removeAll(categories);
+            } else {
+                selectedCategories.addAll(categories);
+                selectedCategories.retainAll(column.getCategories());
+            }
+
+            if (selectedCategories.isEmpty()) {
+                return null;
+            }
+            return Collections.singletonMap(column,
+                    Collections.singletonList(new CategoricalColumnSelection(column, selectedCategories)));
+        }
+    }
+
+    // index of the last interval starting at or before the value, or -1
+    private static <T extends Comparable<T>> int floorInterval(List<T> lows, T value) {
+        int low = 0;
+        int high = lows.size() - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (lows.get(middle).compareTo(value) <= 0) {
+                found = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return found;
+    }
+
+    // ordered values with their extremes and the neighbouring values, to turn strict comparisons into closed intervals
+    private static final class Domain<T extends Comparable<T>> {
+        private final T min;
+        private final T max;
+        private final UnaryOperator<T> next;
+        private final UnaryOperator<T> previous;
+
+        private Domain(T min, T max, UnaryOperator<T> next, UnaryOperator<T> previous) {
+            this.min = min;
+            this.max = max;
+            this.next = next;
+            this.previous = previous;
+        }
+    }
+
+    // sorted, disjoint closed intervals [lows[i], highs[i]]
+    private static final class Intervals<T extends Comparable<T>> {
+        private final Domain<T> domain;
+        private final List<T> lows = new ArrayList<>();
+        private final List<T> highs = new ArrayList<>();
+
+        private Intervals(Domain<T> domain) {
+            this.domain = domain;
+        }
+
+        private static <T extends Comparable<T>> Intervals<T> between(Domain<T> domain, T low, T high) {
+            Intervals<T> intervals = new Intervals<>(domain);
+            if (low.compareTo(high) <= 0) {
+                intervals.lows.add(low);
+                intervals.highs.add(high);
+            }
+            return intervals;
+        }
+
+        private static <T extends Comparable<T>> Intervals<T> comparison(Domain<T> domain, String operator, T value) {
+            switch (operator) {
+                case "<":
+                    return value.compareTo(domain.min) <= 0 ? new Intervals<>(domain) :
+                            between(domain, domain.min, domain.previous.apply(value));
+                case "<=":
+                    return between(domain, domain.min, value);
+                case ">":
+                    return value.compareTo(domain.max) >= 0 ? new Intervals<>(domain) :
+                            between(domain, domain.next.apply(value), domain.max);
+                case ">=":
+                    return between(domain, value, domain.max);
+                case "!=":
+                    return between(domain, value, value).complement();
+                default:
+                    return between(domain, value, value);
+            }
+        }
+
+        private static <T extends Comparable<T>> Intervals<T> union(Domain<T> domain, List<Intervals<T>> intervalsList) {
+            ArrayList<List<T>> ranges = new ArrayList<>();
+            for (Intervals<T> intervals : intervalsList) {
+                for (int i = 0; i < intervals.size(); i++) {
+                    ranges.add(new ArrayList<>(Arrays.asList(intervals.lows.get(i), intervals.highs.get(i))));
+                }
+            }
+            ranges.sort((range1, range2) -> range1.get(0).compareTo(range2.get(0)));
+
+            // merge overlapping and touching ranges
+            Intervals<T> union = new Intervals<>(domain);
+            for (List<T> range : ranges) {
+                int last = union.size() - 1;
+                if (last >= 0 && (union.highs.get(last).compareTo(domain.max) >= 0 ||
+                        range.get(0).compareTo(domain.next.apply(union.highs.get(last))) <= 0)) {
+                    if (range.get(1).compareTo(union.highs.get(last)) > 0) {
+                        union.highs.set(last, range.get(1));
+                    }
+                } else {
+                    union.lows.add(range.get(0));
+                    union.highs.add(range.get(1));
+                }
+            }
+            return union;
+        }
+
+        private Intervals<T> complement() {
+            Intervals<T> complement = new Intervals<>(domain);
+            T start = domain.min;
+            for (int i = 0; i < size(); i++) {
+                if (lows.get(i).compareTo(start) > 0) {
+                    complement.lows.add(start);
+                    complement.highs.add(domain.previous.apply(lows.get(i)));
+                }
+                if (highs.get(i).compareTo(domain.max) >= 0) {
+                    return complement;
+                }
+                start = domain.next.apply(highs.get(i));
+            }
+            complement.lows.add(start);
+            complement.highs.add(domain.max);
+            return complement;
+        }
+
+        private int size() { return lows.size(); }
+    }
+
+    // recursive descent parser; or binds looser than and, which binds looser than not
+    private static final class Parser {
+        private static final String COMPARISON_OPERATORS[] = {"=", "==", "!=", "<>", "<", "<=", ">", ">="};
+
+        private final DataTable dataTable;
+        private final List<ExpressionToken> tokens;
+        private int position = 0;
+
+        private Parser(String text, DataTable dataTable) throws ParseException {
+            this.dataTable = dataTable;
+            tokens = ExpressionToken.tokenize(text);
+        }
+
+        private Node parse() throws ParseException {
+            Node node = parseOr();
+            if (peek().type != ExpressionToken.Type.END) {
+                throw peek().error("Unexpected '" + peek().text + "'");
+            }
+            return node;
+        }
+
+        private Node parseOr() throws ParseException {
+            ArrayList<Node> children = new ArrayList<>();
+            children.add(parseAnd());
+            while (peek().isKeyword("or") || peek().isSymbol("||")) {
+                position++;
+                children.add(parseAnd());
+            }
+            return children.size() == 1 ? children.get(0) : Junction.create(false, children);
+        }
+
+        private Node parseAnd() throws ParseException {
+            ArrayList<Node> children = new ArrayList<>();
+            children.add(parseNot());
+            while (peek().isKeyword("and") || peek().isSymbol("&&")) {
+                position++;
+                children.add(parseNot());
+            }
+            return children.size() == 1 ? children.get(0) : Junction.create(true, children);
+        }
+
+        private Node parseNot() throws ParseException {
+            if (peek().isKeyword("not") || peek().isSymbol("!")) {
+                position++;
+                return parseNot().negate();
+            }
+            if (peek().isSymbol("(")) {
+                position++;
+                Node node = parseOr();
+                expectSymbol(")");
+                return node;
+            }
+            return parseComparison();
+        }
+
+        private Node parseComparison() throws ParseException {
+            ExpressionToken columnToken = next();
+            Column column = findColumn(columnToken);
+
+            boolean negated = false;
+            if (peek().isKeyword("not")) {
+                position++;
+                negated = true;
+                if (!peek().isKeyword("in") && !peek().isKeyword("between")) {
+                    throw peek().error("Expected 'in' or 'between' after 'not'");
+                }
+            }
+
+            Node node;
+            if (peek().isKeyword("between")) {
+                ExpressionToken operatorToken = next();
+                ExpressionToken lowToken = nextValue();
+                expectKeyword("and");
+                ExpressionToken highToken = nextValue();
+                node = rangeComparison(column, operatorToken, lowToken, highToken);
+            } else if (peek().isKeyword("in")) {
+                position++;
+                expectSymbol("(");
+                ArrayList<ExpressionToken> valueTokens = new ArrayList<>();
+                valueTokens.add(nextValue());
+                while (peek().isSymbol(",")) {
+                    position++;
+                    valueTokens.add(nextValue());
+                }
+                expectSymbol(")");
+                node = inComparison(column, valueTokens);
+            } else if (peek().isSymbol(COMPARISON_OPERATORS)) {
+                ExpressionToken operatorToken = next();
+                node = comparison(column, operatorToken, nextValue());
+            } else {
+                throw peek().error("Expected a comparison after column '" + column.getName() + "'");
+            }
+            return negated ? node.negate() : node;
+        }
+
+        private Node comparison(Column column, ExpressionToken operatorToken, ExpressionToken valueToken) throws ParseException {
+            String operator = operatorToken.text.equals("==") ? "=" :
+                    operatorToken.text.equals("<>") ? "!=" : operatorToken.text;
+
+            if (column instanceof CategoricalColumn) {
+                if (!operator.equals("=") && !operator.equals("!=")) {
+                    throw operatorToken.error("Categorical column '" + column.getName() + "' only supports =, != and in");
+                }
+                return new CategoryComparison((CategoricalColumn)column,
+                        Collections.singleton(categoryValue(column, valueToken)), operator.equals("!="));
+            } else if (column instanceof DoubleColumn) {
+                return new RangeComparison<>(column,
+                        Intervals.comparison(DOUBLE_DOMAIN, operator, doubleValue(column, valueToken)));
+            } else {
+                return new RangeComparison<>(column,
+                        Intervals.comparison(INSTANT_DOMAIN, operator, instantValue(column, valueToken)));
+            }
+        }
+
+        private Node rangeComparison(Column column, ExpressionToken operatorToken, ExpressionToken lowToken, ExpressionToken highToken) throws ParseException {
+            if (column instanceof CategoricalColumn) {
+                throw operatorToken.error("Categorical column '" + column.getName() + "' only supports =, != and in");
+            } else if (column instanceof DoubleColumn) {
+                double low = doubleValue(column, lowToken);
+                double high = doubleValue(column, highToken);
+                return new RangeComparison<>(column, Intervals.between(DOUBLE_DOMAIN, Math.min(low, high),
+                        Math.max(low, high)));
+            } else {
+                Instant low = instantValue(column, lowToken);
+                Instant high = instantValue(column, highToken);
+                return low.isAfter(high) ? new RangeComparison<>(column, Intervals.between(INSTANT_DOMAIN, high, low)) :
+                        new RangeComparison<>(column, Intervals.between(INSTANT_DOMAIN, low, high));
+            }
+        }
+
+        private Node inComparison(Column column, List<ExpressionToken> valueTokens) throws ParseException {
+            if (column instanceof CategoricalColumn) {
+                HashSet<String> categories = new HashSet<>();
+                for (ExpressionToken valueToken : valueTokens) {
+                    categories.add(categoryValue(column, valueToken));
+                }
+                return new CategoryComparison((CategoricalColumn)column, categories, false);
+            } else if (column instanceof DoubleColumn) {
+                ArrayList<Intervals<Double>> points = new ArrayList<>();
+                for (ExpressionToken valueToken : valueTokens) {
+                    double value = doubleValue(column, valueToken);
+                    points.add(Intervals.between(DOUBLE_DOMAIN, value, value));
+                }
+                return new RangeComparison<>(column, Intervals.union(DOUBLE_DOMAIN, points));
+            } else {
+                ArrayList<Intervals<Instant>> points = new ArrayList<>();
+                for (ExpressionToken valueToken : valueTokens) {
+                    Instant value = instantValue(column, valueToken);
+                    points.add(Intervals.between(INSTANT_DOMAIN, value, value));
+                }
+                return new RangeComparison<>(column, Intervals.union(INSTANT_DOMAIN, points));
+            }
+        }
+
+        private Column findColumn(ExpressionToken token) throws ParseException {
+            if (token.type != ExpressionToken.Type.NAME && token.type != ExpressionToken.Type.QUOTED_NAME) {
+                throw token.error("Expected a column name");
+            }
+
+            Column column = token.findColumn(dataTable);
+            if (column == null) {
+                throw token.error("No enabled column named '" + token.text + "'");
+            } else if (!(column instanceof DoubleColumn) && !(column instanceof TemporalColumn) &&
+                    !(column instanceof CategoricalColumn)) {
+                throw token.error("Column '" + column.getName() + "' can't be filtered");
+            }
+            return column;
+        }
+
+        private double doubleValue(Column column, ExpressionToken token) throws ParseException {
+            if (token.type != ExpressionToken.Type.NUMBER) {
+                throw token.error("Expected a number for column '" + column.getName() + "'");
+            }
+            return Double.parseDouble(token.text);
+        }
+
+        private String categoryValue(Column column, ExpressionToken token) throws ParseException {
+            if (token.type != ExpressionToken.Type.STRING && token.type != ExpressionToken.Type.NUMBER) {
+                throw token.error("Expected a quoted category for column '" + column.getName() + "'");
+            }
+            return token.text;
+        }
+
+        // ISO instant, or a local date and time or date taken as UTC
+        private Instant instantValue(Column column, ExpressionToken token) throws ParseException {
+            if (token.type != ExpressionToken.Type.TIME && token.type != ExpressionToken.Type.STRING) {
+                throw token.error("Expected a time like t'2019-06-01T12:00:00Z' for column '" + column.getName() + "'");
+            }
+            try {
+                return Instant.parse(token.text);
+            } catch (DateTimeParseException ex) {
+                // not an instant
+            }
+            try {
+                return LocalDateTime.parse(token.text).toInstant(ZoneOffset.UTC);
+            } catch (DateTimeParseException ex) {
+                // not a local date and time
+            }
+            try {
+                return LocalDate.parse(token.text).atStartOfDay(ZoneOffset.UTC).toInstant();
+            } catch (DateTimeParseException ex) {
+                throw token.error("Can't read '" + token.text + "' as a time");
+            }
+        }
+
+        private ExpressionToken peek() {
+            return tokens.get(position);
+        }
+
+        private ExpressionToken next() throws ParseException {
+            ExpressionToken token = peek();
+            if (token.type == ExpressionToken.Type.END) {
+                throw token.error("Unexpected end of filter");
+            }
+            position++;
+            return token;
+        }
+
+        // next token, with a sign in front of a number folded into it
+        private ExpressionToken nextValue() throws ParseException {
+            ExpressionToken token = next();
+            if (token.isSymbol("-", "+") && peek().type == ExpressionToken.Type.NUMBER) {
+                ExpressionToken numberToken = next();
+                return new ExpressionToken(ExpressionToken.Type.NUMBER, token.text + numberToken.text, token.offset);
+            }
+            return token;
+        }
+
+        private void expectSymbol(String symbol) throws ParseException {
+            if (!peek().isSymbol(symbol)) {
+                throw peek().error("Expected '" + symbol + "'");
+            }
+            position++;
+        }
+
+        private void expectKeyword(String keyword) throws ParseException {
+            if (!peek().isKeyword(keyword)) {
+                throw peek().error("Expected '" + keyword + "'");
+            }
+            position++;
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package gov.ornl.datatable;
 
-import javafx.scene.image.Image;
-import javafx.util.Pair;
 
 import java.io.*;
 import java.time.Instant;
@@ -466,14 +464,13 @@ public class IOUtilities {
                 }
 
                 if ((imageFilenameColumnIndex != -1) && (tokenCounter == imageFilenameColumnIndex)) {
+                    // only the file is stored; images are decoded on demand through ImageCache
                     File imageFile = new File(imageFileDirectoryPath, token.trim());
-                    Image image = new Image(new FileInputStream(imageFile));
-                    Pair<File,Image> imagePair = new Pair<>(imageFile, image);
 //					Object imageInfo[] = new Object[2];
 //					imageInfo[0] = imageFile;
 //					imageInfo[1] = image;
 //					tuple.addElement(imageInfo);
-                    tuple.addElement(imagePair);
+                    tuple.addElement(imageFile);
                     tokenCounter++;
                     continue;
                 }
@@ -1,7 +1,5 @@
 package gov.ornl.datatable;
 
-import javafx.scene.image.Image;
-import javafx.util.Pair;
 
 import java.io.File;
 import java.util.ArrayList;
@@ -15,8 +13,7 @@ public class ImageColumn extends Column {
     }
 
     @Override
-    public boolean setFocusContext(Tuple tuple, int elementIdx) {
-        getFocusTuples().add(tuple);
+    public boolean setFocusContext(Tuple tuple, int elementIdx, int row) {
         return true;
     }
 
@@ -30,54 +27,54 @@ public class ImageColumn extends Column {
         return null;
     }
 
-    public Pair<File, Image>[] getValues() {
+    public File[] getValues() {
         int columnIndex = getDataTable().getColumnIndex(this);
 
-        Pair<File, Image>[] values = new Pair[getDataTable().getTupleCount()];
+        File[] values = new File[getDataTable().getTupleCount()];
 //        Image values[] = new Image[getDataTable().getTupleCount()];
         for (int i = 0; i < getDataTable().getTupleCount(); i++) {
-            values[i] = (Pair<File, Image>)getDataTable().getTuple(i).getElement(columnIndex);
+            values[i] = (File)getDataTable().getTuple(i).getElement(columnIndex);
 //            values[i] = (Image) getDataTable().getTuple(i).getElement(columnIndex);
         }
 
         return values;
     }
 
-    public List<Pair<File, Image>> getValuesAsList() {
+    public List<File> getValuesAsList() {
         int columnIndex = getDataTable().getColumnIndex(this);
-        ArrayList<Pair<File,Image>> valuesList = new ArrayList<>();
+        ArrayList<File> valuesList = new ArrayList<>();
         for (int i = 0; i < getDataTable().getTupleCount(); i++) {
-            valuesList.add((Pair<File, Image>)getDataTable().getTuple(i).getElement(columnIndex));
+            valuesList.add((File)getDataTable().getTuple(i).getElement(columnIndex));
 //            valuesList.add((Image) getDataTable().getTuple(i).getElement(columnIndex));
         }
         return valuesList;
     }
 
-    public Pair<File,Image>[] getQueriedValues() {
+    public File[] getQueriedValues() {
         int columnIndex = getDataTable().getColumnIndex(this);
 
         Set<Tuple> queriedTuples = getDataTable().getActiveQuery().getQueriedTuples();
-        Pair<File,Image> values[] = new Pair[queriedTuples.size()];
+        File values[] = new File[queriedTuples.size()];
 //        Image values[] = new Image[queriedTuples.size()];
 
         int counter = 0;
         for (Tuple tuple : queriedTuples) {
-            values[counter++] = (Pair<File, Image>)tuple.getElement(columnIndex);
+            values[counter++] = (File)tuple.getElement(columnIndex);
 //            values[counter++] = (Image)tuple.getElement(columnIndex);
         }
 
         return values;
     }
 
-    public Pair<File,Image>[] getNonqueriedValues() {
+    public File[] getNonqueriedValues() {
         int columnIndex = getDataTable().getColumnIndex(this);
 
         Set<Tuple> nonqueriedTuples = getDataTable().getActiveQuery().getNonQueriedTuples();
-        Pair<File,Image> values[] = new Pair[nonqueriedTuples.size()];
+        File values[] = new File[nonqueriedTuples.size()];
 
         int counter = 0;
         for (Tuple tuple : nonqueriedTuples) {
-            values[counter++] = (Pair<File, Image>)tuple.getElement(columnIndex);
+            values[counter++] = (File)tuple.getElement(columnIndex);
 //            values[counter++] = (Image)tuple.getElement(columnIndex);
         }
 
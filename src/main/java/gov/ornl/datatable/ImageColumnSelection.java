@@ -3,37 +3,35 @@ package gov.ornl.datatable;
 import javafx.beans.property.SetProperty;
 import javafx.beans.property.SimpleSetProperty;
 import javafx.collections.FXCollections;
-import javafx.scene.image.Image;
-import javafx.util.Pair;
 
 import java.io.File;
 import java.util.HashSet;
 import java.util.Set;
 
 public class ImageColumnSelection extends ColumnSelection {
-    private SetProperty<Pair<File, Image>> selectedImagePairSet;
+    private SetProperty<File> selectedImageFileSet;
 
-    public ImageColumnSelection(Column column, Set<Pair<File, Image>> imagePairs) {
+    public ImageColumnSelection(Column column, Set<File> imageFiles) {
         super(column);
-        selectedImagePairSet = new SimpleSetProperty<>(FXCollections.observableSet(imagePairs));
+        selectedImageFileSet = new SimpleSetProperty<>(FXCollections.observableSet(imageFiles));
     }
 
-    public SetProperty<Pair<File,Image>> selectedImagePairSetProperty() { return selectedImagePairSet; }
+    public SetProperty<File> selectedImageFileSetProperty() { return selectedImageFileSet; }
 
-    public void setSelectedImagePairs (Set<Pair<File, Image>> imagePairs) {
-        selectedImagePairSet.set(FXCollections.observableSet(imagePairs));
+    public void setSelectedImageFiles (Set<File> imageFiles) {
+        selectedImageFileSet.set(FXCollections.observableSet(imageFiles));
     }
 
-    public Set<Pair<File,Image>> getSelectedImagePairs() { return selectedImagePairSet.get(); }
+    public Set<File> getSelectedImageFiles() { return selectedImageFileSet.get(); }
 
-    public void removeImagePair(Pair<File,Image> imagePair) { selectedImagePairSet.remove(imagePair); }
+    public void removeImageFile(File imageFile) { selectedImageFileSet.remove(imageFile); }
 
-    public void removeImagePairs(Set<Pair<File,Image>> imagePairsToRemove) {
-        for (Pair<File,Image> imagePairToRemove : imagePairsToRemove) {
-            selectedImagePairSet.remove(imagePairToRemove);
+    public void removeImageFiles(Set<File> imageFilesToRemove) {
+        for (File imageFileToRemove : imageFilesToRemove) {
+            selectedImageFileSet.remove(imageFileToRemove);
         }
 //        selectedImagePairSet.remove(imagePairsToRemove);
     }
 
-    public void addImagePair(Pair<File, Image> imagePair) { selectedImagePairSet.add(imagePair); }
+    public void addImageFile(File imageFile) { selectedImageFileSet.add(imageFile); }
 }
@@ -22,6 +22,23 @@ public class Query {
     private HashSet<Tuple> queriedTuples;
     private HashSet<Tuple> nonQueriedTuples;
 
+    // Bit i is set when the tuple at row index i in the data table is queried
+    private BitSet queriedRows;
+
+    // rows picked directly by each source (e.g., the lasso of a scatterplot); a tuple must be in the row selection
+    // of every source, so selections from different views combine like column selections of different columns
+    private LinkedHashMap<Object, BitSet> rowSelections = new LinkedHashMap<>();
+
+    // true while queriedRows, the tuple sets, and the summary statistics match the data table
+    private boolean resultsValid = false;
+
+    // rows known to include every row that passes a group of range selections (e.g., the rows a spatial index
+    // finds under a map rectangle), so only those rows are tested
+    private ArrayList<CandidateRows> candidateRowsList = new ArrayList<>();
+
+    // set operations for combining the results of two queries
+    public enum SetOperation { UNION, INTERSECTION, DIFFERENCE }
+
     public Query(String id, DataTable dataModel) {
         this.id = id;
         this.dataModel = dataModel;
@@ -30,6 +47,33 @@ public class Query {
         columnNonquerySummaryStatsMap = new HashMap<>();
         queriedTuples = new HashSet<>();
         nonQueriedTuples = new HashSet<>();
+        queriedRows = new BitSet();
+    }
+
+    public BitSet getQueriedRows() {
+        return queriedRows;
+    }
+
+    // row selection of the source, or null if it has none
+    public BitSet getRowSelection(Object source) {
+        return rowSelections.get(source);
+    }
+
+    // replaces the row selection of the source, leaving those of other sources (null removes it)
+    public void setRowSelection(Object source, BitSet rowSelection) {
+        if (rowSelection == null) {
+            rowSelections.remove(source);
+        } else {
+            rowSelections.put(source, rowSelection);
+        }
+    }
+
+    public boolean hasRowSelection() {
+        return !rowSelections.isEmpty();
+    }
+
+    public boolean hasRowSelection(Object source) {
+        return rowSelections.containsKey(source);
     }
 
     public Set<Tuple> getQueriedTuples() {
@@ -51,62 +95,23 @@ public class Query {
     public void setQueriedTuples() {
         queriedTuples.clear();
         nonQueriedTuples.clear();
+        queriedRows.clear();
 
         if (dataModel.getTupleCount() == 0) {
+            resultsValid = true;
             return;
         }
 
-        if (hasColumnSelections()) {
-            for (Tuple tuple : dataModel.getTuples()) {
-                tuple.setQueryFlag(true);
-
-                for (int icol = 0; icol < dataModel.getColumnCount(); icol++) {
-                    Column column = dataModel.getColumn(icol);
-                    ArrayList<ColumnSelection> columnSelections = getColumnSelections(column);
-                    if (columnSelections != null && (!columnSelections.isEmpty())) {
-                        boolean inSelection = false;
-
-                        if (column instanceof DoubleColumn) {
-                            for (ColumnSelection columnSelection : columnSelections) {
-                                if ((((Double)tuple.getElement(icol)) <= ((DoubleColumnSelectionRange)columnSelection).getMaxValue()) &&
-                                        (((Double)tuple.getElement(icol)) >= ((DoubleColumnSelectionRange)columnSelection).getMinValue())) {
-                                    inSelection = true;
-                                    break;
-                                }
-                            }
-                        } else if (column instanceof TemporalColumn) {
-                            for (ColumnSelection columnSelection : columnSelections) {
-                                if (!((((Instant)tuple.getElement(icol)).isBefore(((TemporalColumnSelectionRange)columnSelection).getStartInstant())) ||
-                                        ((Instant)tuple.getElement(icol)).isAfter(((TemporalColumnSelectionRange)columnSelection).getEndInstant()))) {
-                                    inSelection = true;
-                                    break;
-							    }
-                            }
-                        } else if (column instanceof CategoricalColumn) {
-                            for (ColumnSelection columnSelection : columnSelections) {
-                                if (((CategoricalColumnSelection)columnSelection).getSelectedCategories().contains(tuple.getElement(icol))) {
-                                    inSelection = true;
-                                    break;
-                                }
-                            }
-                        } else if (column instanceof ImageColumn) {
-                            for (ColumnSelection columnSelection : columnSelections) {
-                                if (((ImageColumnSelection)columnSelection).getSelectedImagePairs().contains(tuple.getElement(icol))) {
-                                    inSelection = true;
-                                    break;
-                                }
-                            }
-                        }
-
-                        if (!inSelection) {
-                            tuple.setQueryFlag(false);
-                            break;
-                        }
-                    }
-                }
+        if (hasSelections()) {
+            List<ColumnSelectionFilter> filters = createColumnSelectionFilters();
+            BitSet candidateRows = getCandidateRows();
+            for (int irow = 0; irow < dataModel.getTupleCount(); irow++) {
+                Tuple tuple = dataModel.getTuple(irow);
+                tuple.setQueryFlag((candidateRows == null || candidateRows.get(irow)) && isRowQueried(tuple, irow, filters));
 
                 if (tuple.getQueryFlag()) {
                     queriedTuples.add(tuple);
+                    queriedRows.set(irow);
                 } else {
                     nonQueriedTuples.add(tuple);
                 }
@@ -121,6 +126,114 @@ public class Query {
             columnQuerySummaryStatsMap.clear();
             columnNonquerySummaryStatsMap.clear();
         }
+
+        resultsValid = true;
+    }
+
+    // true if the tuple at the row is in every row selection and passes every column filter
+    private boolean isRowQueried(Tuple tuple, int irow, List<ColumnSelectionFilter> filters) {
+        for (BitSet rowSelection : rowSelections.values()) {
+            if (!rowSelection.get(irow)) {
+                return false;
+            }
+        }
+
+        for (ColumnSelectionFilter filter : filters) {
+            if (!filter.accepts(tuple)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // normalized selections of each column with selections, built once per evaluation
+    private List<ColumnSelectionFilter> createColumnSelectionFilters() {
+        ArrayList<ColumnSelectionFilter> filters = new ArrayList<>();
+        for (int icol = 0; icol < dataModel.getColumnCount(); icol++) {
+            Column column = dataModel.getColumn(icol);
+            ColumnSelectionFilter filter = ColumnSelectionFilter.create(column, icol, getColumnSelections(column));
+            if (filter != null) {
+                filters.add(filter);
+            }
+        }
+        return filters;
+    }
+
+    // rows that can pass the query (null if any row can), from the candidate rows that still hold
+    private BitSet getCandidateRows() {
+        candidateRowsList.removeIf(candidateRows -> !isValid(candidateRows));
+
+        BitSet rows = null;
+        for (CandidateRows candidateRows : candidateRowsList) {
+            if (rows == null) {
+                rows = (BitSet)candidateRows.rows.clone();
+            } else {
+                rows.and(candidateRows.rows);
+            }
+        }
+        return rows;
+    }
+
+    // candidate rows hold while the rows are unchanged, their selections are in the query with the same
+    // bounds, and their columns have no other selections (the selections of a column are or'ed)
+    private boolean isValid(CandidateRows candidateRows) {
+        if (candidateRows.rowCount != dataModel.getTupleCount() || candidateRows.rowsVersion != dataModel.getRowsVersion()) {
+            return false;
+        }
+
+        HashSet<Column> columns = new HashSet<>();
+        for (int i = 0; i < candidateRows.columnSelections.size(); i++) {
+            DoubleColumnSelectionRange columnSelection = candidateRows.columnSelections.get(i);
+            if (!columnSelections.contains(columnSelection) || columnSelection.getMinValue() != candidateRows.minValues[i] ||
+                    columnSelection.getMaxValue() != candidateRows.maxValues[i]) {
+                return false;
+            }
+            columns.add(columnSelection.getColumn());
+        }
+
+        for (ColumnSelection columnSelection : columnSelections) {
+            if (columns.contains(columnSelection.getColumn()) && !candidateRows.columnSelections.contains(columnSelection)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // rows the query selects, from the cached result when it is valid and otherwise evaluated without
+    // touching the tuple query flags (so inactive queries can be evaluated)
+    public BitSet getResultRows() {
+        if (resultsValid) {
+            return (BitSet)queriedRows.clone();
+        }
+
+        BitSet resultRows = new BitSet(dataModel.getTupleCount());
+        if (hasSelections()) {
+            List<ColumnSelectionFilter> filters = createColumnSelectionFilters();
+            BitSet candidateRows = getCandidateRows();
+            for (int irow = 0; irow < dataModel.getTupleCount(); irow++) {
+                if ((candidateRows == null || candidateRows.get(irow)) &&
+                        isRowQueried(dataModel.getTuple(irow), irow, filters)) {
+                    resultRows.set(irow);
+                }
+            }
+        }
+        return resultRows;
+    }
+
+    public boolean isResultsValid() {
+        return resultsValid;
+    }
+
+    // marks the cached rows and statistics as stale after the rows or columns of the data table changed
+    void invalidateResults() {
+        resultsValid = false;
+    }
+
+    // sets the tuple query flags from the cached result rows when the query becomes active again
+    void applyQueryFlags() {
+        for (int irow = 0; irow < dataModel.getTupleCount(); irow++) {
+            dataModel.getTuple(irow).setQueryFlag(queriedRows.get(irow));
+        }
     }
 
     public void setNumHistogramBins(int numBins) {
@@ -133,64 +246,68 @@ public class Query {
         long start = System.currentTimeMillis();
 
         for (int icolumn = 0; icolumn < dataModel.getColumnCount(); icolumn++) {
-            Column column = dataModel.getColumn(icolumn);
-            ColumnSummaryStats queryColumnSummaryStats = columnQuerySummaryStatsMap.get(column);
-            ColumnSummaryStats nonqueryColumnSummaryStats = columnNonquerySummaryStatsMap.get(column);
+            calculateStatistics(dataModel.getColumn(icolumn));
+        }
+        long elapsed = System.currentTimeMillis() - start;
+//        log.info("calculateStatistics() took " + elapsed + "ms");
+    }
 
-            if (column instanceof TemporalColumn) {
-                Instant queriedValues[] = ((TemporalColumn)column).getQueriedValues();
-                if (queryColumnSummaryStats == null) {
-                    queryColumnSummaryStats = new TemporalColumnSummaryStats(column, dataModel.getNumHistogramBins(), this);
-                    columnQuerySummaryStatsMap.put(column, queryColumnSummaryStats);
-                }
-                ((TemporalColumnSummaryStats)queryColumnSummaryStats).setValues(queriedValues);
+    // queried and nonqueried statistics of one column (e.g., a column enabled while the query is unchanged)
+    public void calculateStatistics(Column column) {
+        ColumnSummaryStats queryColumnSummaryStats = columnQuerySummaryStatsMap.get(column);
+        ColumnSummaryStats nonqueryColumnSummaryStats = columnNonquerySummaryStatsMap.get(column);
 
-                Instant nonqueriedValues[] = ((TemporalColumn)column).getNonqueriedValues();
-                if (nonqueryColumnSummaryStats == null) {
-                    nonqueryColumnSummaryStats = new TemporalColumnSummaryStats(column, dataModel.getNumHistogramBins(), this);
-                    columnNonquerySummaryStatsMap.put(column, nonqueryColumnSummaryStats);
-                }
-                ((TemporalColumnSummaryStats)nonqueryColumnSummaryStats).setValues(nonqueriedValues);
-            } else if (column instanceof DoubleColumn) {
-                if (dataModel.getCalculateQueryStatistics()) {
-                    double queriedValues[] = ((DoubleColumn) column).getQueriedValues();
-                    if (queryColumnSummaryStats == null) {
-                        queryColumnSummaryStats = new DoubleColumnSummaryStats(column, dataModel.getNumHistogramBins(), this);
-                        columnQuerySummaryStatsMap.put(column, queryColumnSummaryStats);
-                    }
-                    ((DoubleColumnSummaryStats) queryColumnSummaryStats).setValues(queriedValues);
-                } else {
-                    columnQuerySummaryStatsMap.remove(column);
-                }
+        if (column instanceof TemporalColumn) {
+            Instant queriedValues[] = ((TemporalColumn)column).getQueriedValues();
+            if (queryColumnSummaryStats == null) {
+                queryColumnSummaryStats = new TemporalColumnSummaryStats(column, dataModel.getNumHistogramBins(), this);
+                columnQuerySummaryStatsMap.put(column, queryColumnSummaryStats);
+            }
+            ((TemporalColumnSummaryStats)queryColumnSummaryStats).setValues(queriedValues);
 
-                if (dataModel.getCalculateNonQueryStatistics()) {
-                    double nonqueriedValues[] = ((DoubleColumn) column).getNonqueriedValues();
-                    if (nonqueryColumnSummaryStats == null) {
-                        nonqueryColumnSummaryStats = new DoubleColumnSummaryStats(column, dataModel.getNumHistogramBins(), this);
-                        columnNonquerySummaryStatsMap.put(column, nonqueryColumnSummaryStats);
-                    }
-                    ((DoubleColumnSummaryStats) nonqueryColumnSummaryStats).setValues(nonqueriedValues);
-                } else {
-                    columnNonquerySummaryStatsMap.remove(column);
-                }
-            } else if (column instanceof CategoricalColumn) {
-                String queriedValues[] = ((CategoricalColumn)column).getQueriedValues();
+            Instant nonqueriedValues[] = ((TemporalColumn)column).getNonqueriedValues();
+            if (nonqueryColumnSummaryStats == null) {
+                nonqueryColumnSummaryStats = new TemporalColumnSummaryStats(column, dataModel.getNumHistogramBins(), this);
+                columnNonquerySummaryStatsMap.put(column, nonqueryColumnSummaryStats);
+            }
+            ((TemporalColumnSummaryStats)nonqueryColumnSummaryStats).setValues(nonqueriedValues);
+        } else if (column instanceof DoubleColumn) {
+            if (dataModel.getCalculateQueryStatistics()) {
+                double queriedValues[] = ((DoubleColumn) column).getQueriedValues();
                 if (queryColumnSummaryStats == null) {
-                    queryColumnSummaryStats = new CategoricalColumnSummaryStats(column, this);
+                    queryColumnSummaryStats = new DoubleColumnSummaryStats(column, dataModel.getNumHistogramBins(), this);
                     columnQuerySummaryStatsMap.put(column, queryColumnSummaryStats);
                 }
-                ((CategoricalColumnSummaryStats)queryColumnSummaryStats).setValues(queriedValues);
+                ((DoubleColumnSummaryStats) queryColumnSummaryStats).setValues(queriedValues);
+            } else {
+                columnQuerySummaryStatsMap.remove(column);
+            }
 
-                String nonqueriedValues[] = ((CategoricalColumn)column).getNonqueriedValues();
+            if (dataModel.getCalculateNonQueryStatistics()) {
+                double nonqueriedValues[] = ((DoubleColumn) column).getNonqueriedValues();
                 if (nonqueryColumnSummaryStats == null) {
-                    nonqueryColumnSummaryStats = new CategoricalColumnSummaryStats(column, this);
+                    nonqueryColumnSummaryStats = new DoubleColumnSummaryStats(column, dataModel.getNumHistogramBins(), this);
                     columnNonquerySummaryStatsMap.put(column, nonqueryColumnSummaryStats);
                 }
-                ((CategoricalColumnSummaryStats)nonqueryColumnSummaryStats).setValues(nonqueriedValues);
+                ((DoubleColumnSummaryStats) nonqueryColumnSummaryStats).setValues(nonqueriedValues);
+            } else {
+                columnNonquerySummaryStatsMap.remove(column);
+            }
+        } else if (column instanceof CategoricalColumn) {
+            String queriedValues[] = ((CategoricalColumn)column).getQueriedValues();
+            if (queryColumnSummaryStats == null) {
+                queryColumnSummaryStats = new CategoricalColumnSummaryStats(column, this);
+                columnQuerySummaryStatsMap.put(column, queryColumnSummaryStats);
             }
+            ((CategoricalColumnSummaryStats)queryColumnSummaryStats).setValues(queriedValues);
+
+            String nonqueriedValues[] = ((CategoricalColumn)column).getNonqueriedValues();
+            if (nonqueryColumnSummaryStats == null) {
+                nonqueryColumnSummaryStats = new CategoricalColumnSummaryStats(column, this);
+                columnNonquerySummaryStatsMap.put(column, nonqueryColumnSummaryStats);
+            }
+            ((CategoricalColumnSummaryStats)nonqueryColumnSummaryStats).setValues(nonqueriedValues);
         }
-        long elapsed = System.currentTimeMillis() - start;
-//        log.info("calculateStatistics() took " + elapsed + "ms");
     }
 
     public final ObservableList<ColumnSelection> getColumnSelections() { return columnSelections.get(); }
@@ -204,6 +321,11 @@ public class Query {
         return true;
     }
 
+    // true if the query restricts the tuples by column selections, a row selection, or both
+    public boolean hasSelections() {
+        return hasColumnSelections() || hasRowSelection();
+    }
+
     public ColumnSummaryStats getColumnQuerySummaryStats(Column column) {
         return columnQuerySummaryStatsMap.get(column);
     }
@@ -226,8 +348,12 @@ public class Query {
 
     public void clear () {
         columnSelections.clear();
+        candidateRowsList.clear();
+        rowSelections.clear();
+        queriedRows.clear();
         columnQuerySummaryStatsMap.clear();
         columnNonquerySummaryStatsMap.clear();
+        resultsValid = false;
     }
 
     public ArrayList<ColumnSelection> getColumnSelections(Column column) {
@@ -245,9 +371,14 @@ public class Query {
         return columnSelections;
     }
 
+    // remembers rows that include every row passing the range selections, which must be in the query
+    void setCandidateRows(List<DoubleColumnSelectionRange> columnSelections, BitSet rows) {
+        candidateRowsList.add(new CandidateRows(columnSelections, rows, dataModel.getTupleCount(), dataModel.getRowsVersion()));
+    }
+
     public void addColumnSelection(ColumnSelection columnSelection) {
-        //TODO: See if an identical range selection exists or if this selection overlaps with another
-        // ignore if identical exists and merge if overlapping selection exists
+        // identical and overlapping selections are kept (each has its own graphics in the views) and merged
+        // when the query is evaluated (see ColumnSelectionFilter)
         columnSelections.add(columnSelection);
     }
 
@@ -281,4 +412,27 @@ public class Query {
 
         return null;
     }
+
+    private static class CandidateRows {
+        private final List<DoubleColumnSelectionRange> columnSelections;
+        // bounds of the selections when the rows were found
+        private final double minValues[];
+        private final double maxValues[];
+        private final BitSet rows;
+        private final int rowCount;
+        private final long rowsVersion;
+
+        private CandidateRows(List<DoubleColumnSelectionRange> columnSelections, BitSet rows, int rowCount, long rowsVersion) {
+            this.columnSelections = new ArrayList<>(columnSelections);
+            minValues = new double[columnSelections.size()];
+            maxValues = new double[columnSelections.size()];
+            for (int i = 0; i < columnSelections.size(); i++) {
+                minValues[i] = columnSelections.get(i).getMinValue();
+                maxValues[i] = columnSelections.get(i).getMaxValue();
+            }
+            this.rows = rows;
+            this.rowCount = rowCount;
+            this.rowsVersion = rowsVersion;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,159 @@
+package gov.ornl.datatable;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.BitSet;
+
+/**
+ * Read-only list of the data table tuples in a row set, for table views.
+ *
+ * The list keeps only the words of the row bitset plus a running count for every
+ * block of words, and resolves list positions to row indices when they are asked
+ * for (a binary search over the blocks and a scan of one block). Nothing is copied
+ * per tuple, so a new list can be made on every query change even for tables with
+ * millions of rows. The list is a snapshot and never changes; make a new one when
+ * the rows change.
+ *
+ * A list made with a sorted row order (see RowSorter) lists the rows in that order
+ * instead; it holds one int per listed row.
+ */
+public class QueryTupleList extends ObservableListBase<Tuple> {
+    // words of the row bitset per block of the running count index
+    private final static int WORDS_PER_BLOCK = 64;
+
+    private DataTable dataTable;
+    private int size;
+
+    // rows in list order when the list is sorted, null otherwise
+    private int order[];
+    private boolean descending;
+
+    // null when the list holds every row
+    private long words[];
+    // blockCounts[b] is the number of set bits in the words before block b
+    private int blockCounts[];
+
+    // position and row of the last lookup, so scrolling through neighboring rows steps from there
+    private int lastIndex = -1;
+    private int lastRow = -1;
+
+    // list of every tuple in the data table
+    public QueryTupleList(DataTable dataTable) {
+        this(dataTable, null);
+    }
+
+    // list of the tuples whose rows are set in the bitset (every tuple when rows is null)
+    public QueryTupleList(DataTable dataTable, BitSet rows) {
+        this.dataTable = dataTable;
+
+        if (rows == null) {
+            size = dataTable.getTupleCount();
+            return;
+        }
+
+        words = rows.toLongArray();
+        blockCounts = new int[(words.length + WORDS_PER_BLOCK - 1) / WORDS_PER_BLOCK + 1];
+        int count = 0;
+        for (int i = 0; i < words.length; i++) {
+            if (i % WORDS_PER_BLOCK == 0) {
+                blockCounts[i / WORDS_PER_BLOCK] = count;
+            }
+            count += Long.bitCount(words[i]);
+        }
+        blockCounts[blockCounts.length - 1] = count;
+
+        // rows past the end of the table (e.g., after tuples were removed) are not listed
+        size = Math.min(count, dataTable.getTupleCount());
+    }
+
+    // tuples whose rows are set in the bitset (every tuple when rows is null) in the order of sortedRows,
+    // which holds every row of the table ordered by ascending value, or in the reverse order if descending
+    public QueryTupleList(DataTable dataTable, BitSet rows, int sortedRows[], boolean descending) {
+        this.dataTable = dataTable;
+        this.descending = descending;
+
+        if (rows == null) {
+            order = sortedRows;
+        } else {
+            order = new int[Math.min(rows.cardinality(), sortedRows.length)];
+            int counter = 0;
+            for (int i = 0; i < sortedRows.length && counter < order.length; i++) {
+                if (rows.get(sortedRows[i])) {
+                    order[counter++] = sortedRows[i];
+                }
+            }
+        }
+        size = Math.min(order.length, dataTable.getTupleCount());
+    }
+
+    // row index in the data table of the tuple at the list position
+    public int getRow(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        if (order != null) {
+            return order[descending ? order.length - 1 - index : index];
+        }
+
+        if (words == null) {
+            return index;
+        }
+
+        if (index == lastIndex + 1 && lastIndex != -1) {
+            lastRow = nextSetBit(lastRow + 1);
+        } else if (index != lastIndex) {
+            lastRow = selectRow(index);
+        }
+        lastIndex = index;
+        return lastRow;
+    }
+
+    private int nextSetBit(int fromRow) {
+        int wordIndex = fromRow >> 6;
+        long word = words[wordIndex] & (-1L << fromRow);
+        while (word == 0) {
+            word = words[++wordIndex];
+        }
+        return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    // row of the index-th set bit
+    private int selectRow(int index) {
+        // last block whose running count is at most index
+        int low = 0;
+        int high = blockCounts.length - 2;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (blockCounts[middle] <= index) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        int remaining = index - blockCounts[low];
+        int wordIndex = low * WORDS_PER_BLOCK;
+        int wordCount = Long.bitCount(words[wordIndex]);
+        while (remaining >= wordCount) {
+            remaining -= wordCount;
+            wordCount = Long.bitCount(words[++wordIndex]);
+        }
+
+        long word = words[wordIndex];
+        for (int i = 0; i < remaining; i++) {
+            word &= word - 1;
+        }
+        return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    @Override
+    public Tuple get(int index) {
+        return dataTable.getTuple(getRow(index));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,219 @@
+package gov.ornl.datatable;
+
+
+import java.io.File;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+/**
+ * Row orders of a data table sorted by the values of a column.
+ *
+ * Column values are turned into primitive long keys that sort in value order
+ * (double bits, epoch milliseconds, or category codes in name order). Chunks of
+ * rows are radix sorted by key in parallel and then merged pairwise in parallel,
+ * with ties kept in row order. The order for each column is cached until clear()
+ * is called, which the owner does when the rows of the table change.
+ */
+public class RowSorter {
+    private final static int MIN_CHUNK_SIZE = 1 << 16;
+    private final static int DIGIT_BITS = 16;
+    private final static int DIGIT_COUNT = 1 << DIGIT_BITS;
+
+    private DataTable dataTable;
+    private HashMap<Column, int[]> sortedRowsMap = new HashMap<>();
+
+    public RowSorter(DataTable dataTable) {
+        this.dataTable = dataTable;
+    }
+
+    public void clear() {
+        sortedRowsMap.clear();
+    }
+
+    // every row of the table ordered by ascending column value (missing values last)
+    public int[] getSortedRows(Column column) {
+        int sortedRows[] = sortedRowsMap.get(column);
+        if (sortedRows == null || sortedRows.length != dataTable.getTupleCount()) {
+            sortedRows = sortRows(getKeys(column));
+            sortedRowsMap.put(column, sortedRows);
+        }
+        return sortedRows;
+    }
+
+    private long[] getKeys(Column column) {
+        int columnIndex = dataTable.getColumnIndex(column);
+        long keys[] = new long[dataTable.getTupleCount()];
+        if (columnIndex == -1) {
+            return keys;
+        }
+
+        if (column instanceof DoubleColumn) {
+            IntStream.range(0, keys.length).parallel().forEach(row ->
+                    keys[row] = getDoubleKey((Double)dataTable.getTuple(row).getElement(columnIndex)));
+        } else if (column instanceof TemporalColumn) {
+            IntStream.range(0, keys.length).parallel().forEach(row -> {
+                Instant instant = (Instant)dataTable.getTuple(row).getElement(columnIndex);
+                // epoch milliseconds without the overflow check of toEpochMilli()
+                keys[row] = instant == null ? Long.MAX_VALUE :
+                        (instant.getEpochSecond() * 1000L) + (instant.getNano() / 1000000);
+            });
+        } else {
+            // categories and image file names are sorted by their codes in name order
+            String names[] = new String[keys.length];
+            IntStream.range(0, keys.length).parallel().forEach(row ->
+                    names[row] = getName(dataTable.getTuple(row).getElement(columnIndex)));
+
+            TreeSet<String> sortedNames = new TreeSet<>();
+            for (String name : names) {
+                if (name != null) {
+                    sortedNames.add(name);
+                }
+            }
+            HashMap<String, Integer> codeMap = new HashMap<>();
+            for (String name : sortedNames) {
+                codeMap.put(name, codeMap.size());
+            }
+
+            IntStream.range(0, keys.length).parallel().forEach(row ->
+                    keys[row] = names[row] == null ? Long.MAX_VALUE : codeMap.get(names[row]));
+        }
+
+        return keys;
+    }
+
+    private static String getName(Object element) {
+        if (element instanceof File) {
+            return ((File)element).getName();
+        }
+        return element == null ? null : element.toString();
+    }
+
+    // long that sorts (as a signed value) in the order of the doubles, with NaN after everything else
+    private static long getDoubleKey(Double value) {
+        return value == null ? Long.MAX_VALUE : getDoubleKey(value.doubleValue());
+    }
+
+    static long getDoubleKey(double value) {
+        if (Double.isNaN(value)) {
+            return Long.MAX_VALUE;
+        }
+        long bits = Double.doubleToLongBits(value);
+        return bits >= 0 ? bits : bits ^ Long.MAX_VALUE;
+    }
+
+    // row indices ordered by ascending key (stable)
+    public static int[] sortRows(long keys[]) {
+        int rowCount = keys.length;
+        int chunkRows[] = new int[rowCount];
+        long chunkKeys[] = new long[rowCount];
+
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, rowCount / Runtime.getRuntime().availableProcessors() + 1);
+        int chunkCount = Math.max(1, (rowCount + chunkSize - 1) / chunkSize);
+
+        // radix sort each chunk into rows / sortKeys
+        IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+            int start = chunk * chunkSize;
+            int end = Math.min(rowCount, start + chunkSize);
+            radixSort(keys, start, end, chunkRows, chunkKeys);
+        });
+
+        int rows[] = chunkRows;
+        long sortKeys[] = chunkKeys;
+
+        // merge neighboring sorted runs until one is left
+        int tempRows[] = new int[rowCount];
+        long tempKeys[] = new long[rowCount];
+        for (int runSize = chunkSize; runSize < rowCount; runSize *= 2) {
+            int size = runSize;
+            int mergeCount = (rowCount + (2 * size) - 1) / (2 * size);
+            int sourceRows[] = rows;
+            long sourceKeys[] = sortKeys;
+            int targetRows[] = tempRows;
+            long targetKeys[] = tempKeys;
+            IntStream.range(0, mergeCount).parallel().forEach(merge -> {
+                int start = merge * 2 * size;
+                int middle = Math.min(rowCount, start + size);
+                int end = Math.min(rowCount, start + (2 * size));
+                mergeRuns(sourceRows, sourceKeys, start, middle, end, targetRows, targetKeys);
+            });
+
+            tempRows = rows;
+            tempKeys = sortKeys;
+            rows = targetRows;
+            sortKeys = targetKeys;
+        }
+
+        return rows;
+    }
+
+    // sorts rows start to end (exclusive) by key with least significant digit first radix passes
+    private static void radixSort(long keys[], int start, int end, int rows[], long sortKeys[]) {
+        int length = end - start;
+        int rowBuffer[] = new int[length];
+        long keyBuffer[] = new long[length];
+        int sourceRows[] = new int[length];
+        long sourceKeys[] = new long[length];
+        for (int i = 0; i < length; i++) {
+            sourceRows[i] = start + i;
+            // flipping the sign bit makes signed keys sort as unsigned digits
+            sourceKeys[i] = keys[start + i] ^ Long.MIN_VALUE;
+        }
+
+        int counts[] = new int[DIGIT_COUNT];
+        for (int shift = 0; shift < Long.SIZE; shift += DIGIT_BITS) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < length; i++) {
+                counts[(int)((sourceKeys[i] >>> shift) & (DIGIT_COUNT - 1))]++;
+            }
+
+            // skip passes where every key has the same digit
+            if (length == 0 || counts[(int)((sourceKeys[0] >>> shift) & (DIGIT_COUNT - 1))] == length) {
+                continue;
+            }
+
+            int offset = 0;
+            for (int digit = 0; digit < DIGIT_COUNT; digit++) {
+                int count = counts[digit];
+                counts[digit] = offset;
+                offset += count;
+            }
+
+            for (int i = 0; i < length; i++) {
+                int position = counts[(int)((sourceKeys[i] >>> shift) & (DIGIT_COUNT - 1))]++;
+                rowBuffer[position] = sourceRows[i];
+                keyBuffer[position] = sourceKeys[i];
+            }
+
+            int swapRows[] = sourceRows;
+            sourceRows = rowBuffer;
+            rowBuffer = swapRows;
+            long swapKeys[] = sourceKeys;
+            sourceKeys = keyBuffer;
+            keyBuffer = swapKeys;
+        }
+
+        for (int i = 0; i < length; i++) {
+            rows[start + i] = sourceRows[i];
+            sortKeys[start + i] = sourceKeys[i] ^ Long.MIN_VALUE;
+        }
+    }
+
+    private static void mergeRuns(int rows[], long keys[], int start, int middle, int end,
+                                  int targetRows[], long targetKeys[]) {
+        int left = start;
+        int right = middle;
+        for (int i = start; i < end; i++) {
+            // ties take the left run first to keep the sort stable
+            if (left < middle && (right >= end || keys[left] <= keys[right])) {
+                targetRows[i] = rows[left];
+                targetKeys[i] = keys[left++];
+            } else {
+                targetRows[i] = rows[right];
+                targetKeys[i] = keys[right++];
+            }
+        }
+    }
+}
@@ -17,15 +17,14 @@ public class TemporalColumn extends Column {
         super(name);
     }
 
-    public boolean setFocusContext(Tuple tuple, int elementIdx) {
+    public boolean setFocusContext(Tuple tuple, int elementIdx, int row) {
         if (((Instant)tuple.getElement(elementIdx)).isAfter(getEndFocusValue())) {
-            getUpperContextTuples().add(tuple);
+            setFocusContextState(row, UPPER_CONTEXT);
             return false;
         } else if (((Instant)tuple.getElement(elementIdx)).isBefore(getStartFocusValue())) {
-            getLowerContextTuples().add(tuple);
+            setFocusContextState(row, LOWER_CONTEXT);
             return false;
         }
-        getFocusTuples().add(tuple);
         return true;
     }
 
@@ -89,15 +88,15 @@ public class TemporalColumn extends Column {
     }
 
     public Instant[] getFocusValues() {
-        int columnIndex = getDataTable().getColumnIndex(this);
-        if (columnIndex == -1) {
-            columnIndex = getDataTable().getDisabledColumns().indexOf(this);
-        }
+        // the stored element index also covers disabled columns
+        int elementIndex = getDataTable().getElementIndex(this);
 
-        Instant[] values = new Instant[getFocusTuples().size()];
+        Instant[] values = new Instant[getFocusRowCount()];
         int counter = 0;
-        for (Tuple focusTuple : getFocusTuples()) {
-            values[counter++] = (Instant)focusTuple.getElement(columnIndex);
+        for (int i = 0; i < getDataTable().getTupleCount(); i++) {
+            if (isRowInFocus(i)) {
+                values[counter++] = (Instant)getDataTable().getTuple(i).getStoredElement(elementIndex);
+            }
         }
 
         return values;
@@ -6,6 +6,8 @@ import java.util.ArrayList;
 public class Tuple implements Serializable {
 	private DataTable dataTable;
 	private ArrayList<Object> elements = new ArrayList<>();
+	// enabled column to stored element mapping of the data table (null until the tuple is added to it)
+	private TupleLayout layout;
 	private boolean queryFlag = true;
 	private int orderFactor = 0;
 
@@ -13,18 +15,6 @@ public class Tuple implements Serializable {
 		this.dataTable = dataTable;
 	}
 
-	public boolean isElementInFocus(int elementIndex) {
-		return dataTable.getColumn(elementIndex).getFocusTuples().contains(this);
-	}
-
-	public boolean isElementInLowerContext(int elementIndex) {
-		return dataTable.getColumn(elementIndex).getLowerContextTuples().contains(this);
-	}
-
-	public boolean isElementInUpperContext(int elementIndex) {
-		return dataTable.getColumn(elementIndex).getUpperContextTuples().contains(this);
-	}
-
 //	public Tuple createCopy() {
 //		Tuple copyTuple = new Tuple();
 //		for (Object element : elements) {
@@ -39,12 +29,20 @@ public class Tuple implements Serializable {
         }
     }
 
+	void setLayout(TupleLayout layout) {
+		this.layout = layout;
+	}
+
     public Object[] getElementsAsArray() {
-		Object elementArray [] = new Object[elements.size()];
-        elements.toArray(elementArray);
+		Object elementArray [] = new Object[getElementCount()];
+		for (int i = 0; i < elementArray.length; i++) {
+			elementArray[i] = getElement(i);
+		}
         return elementArray;
     }
 
+	// the methods below that add, remove, or move elements change the stored elements, so they are only
+	// meant for building tuples before they are added to a data table (addElement(value) appends and is safe)
     public void removeAllElements() {
         elements.clear();
     }
@@ -72,7 +70,7 @@ public class Tuple implements Serializable {
 	}
 
 	public void setElement(int idx, Object value) {
-		elements.set(idx, value);
+		elements.set(layout == null ? idx : layout.getElementIndex(idx), value);
 	}
 
 	public void addElement(Object value) {
@@ -95,14 +93,29 @@ public class Tuple implements Serializable {
 		return false;
 	}
 
+	// element of the enabled column at idx
 	public Object getElement(int idx) {
-		return elements.get(idx);
+		return elements.get(layout == null ? idx : layout.getElementIndex(idx));
 	}
 
-	public int getElementCount() {
+	// element at a stored index (see DataTable.getElementIndex()), for enabled and disabled columns
+	Object getStoredElement(int elementIndex) {
+		return elements.get(elementIndex);
+	}
+
+	void setStoredElement(int elementIndex, Object value) {
+		elements.set(elementIndex, value);
+	}
+
+	int getStoredElementCount() {
 		return elements.size();
 	}
 
+	// number of enabled column elements
+	public int getElementCount() {
+		return layout == null ? elements.size() : layout.getColumnCount();
+	}
+
 	public void setQueryFlag(boolean enabled) {
 		queryFlag = enabled;
 	}
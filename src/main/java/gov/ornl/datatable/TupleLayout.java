@@ -0,0 +1,30 @@
+package gov.ornl.datatable;
+
+import java.io.Serializable;
+
+/**
+ * Maps the enabled column indices of a data table to the indices of the elements
+ * stored in its tuples.
+ *
+ * Tuples keep their elements in a fixed stored order (the order the columns were
+ * loaded in, with bivariate columns appended) and all tuples of a data table share
+ * one layout, so reordering, disabling, or enabling columns only replaces the index
+ * array here instead of moving elements in every tuple.
+ */
+class TupleLayout implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private int elementIndices[] = new int[0];
+
+    int getColumnCount() {
+        return elementIndices.length;
+    }
+
+    int getElementIndex(int columnIndex) {
+        return elementIndices[columnIndex];
+    }
+
+    void setElementIndices(int elementIndices[]) {
+        this.elementIndices = elementIndices;
+    }
+}
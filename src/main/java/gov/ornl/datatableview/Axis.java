@@ -62,6 +62,10 @@ public abstract class Axis {
 
     private ArrayList<AxisSelection> axisSelectionList = new ArrayList<>();
 
+    // parts of the axis graphics to redraw on the next update() (resize() redraws everything)
+    private boolean statisticsDirty = true;
+    private boolean selectionsDirty = true;
+
     // dragging variables
     protected Group axisDraggingGraphicsGroup;
     protected Text axisDraggingMessageText;
@@ -437,7 +441,41 @@ public abstract class Axis {
         titleText.setY(bounds.getMinY() + titleText.getLayoutBounds().getHeight());
     }
 
+    // query (or overall) statistics changed, so histograms, summary statistics, and query colors are stale
+    public void invalidateStatistics() { statisticsDirty = true; }
+
+    // column selections of this axis changed
+    public void invalidateSelections() { selectionsDirty = true; }
+
+    // lays the axis out if it was never laid out or its bounds moved, otherwise redraws only the parts
+    // invalidated since the last update (nothing at all if none were)
+    public void update(double left, double top, double width, double height) {
+        if (bounds == null || bounds.getMinX() != left || bounds.getMinY() != top ||
+                bounds.getWidth() != width || bounds.getHeight() != height) {
+            resize(left, top, width, height);
+            return;
+        }
+
+        if (statisticsDirty) {
+            statisticsDirty = false;
+            redrawStatistics();
+        }
+        if (selectionsDirty) {
+            selectionsDirty = false;
+            redrawSelections();
+        }
+    }
+
+    // redraws the graphics that depend on column statistics and the queried rows within the current layout
+    protected void redrawStatistics() { }
+
+    // redraws the graphics of the axis selections within the current layout
+    protected void redrawSelections() { }
+
     public void resize (double left, double top, double width, double height) {
+        statisticsDirty = false;
+        selectionsDirty = false;
+
         bounds = new BoundingBox(left, top, width, height);
         centerX = left + (width / 2.);
         centerY = top + (height / 2.);
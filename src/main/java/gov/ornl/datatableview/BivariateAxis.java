@@ -65,6 +65,12 @@ public class BivariateAxis extends Axis {
         scatterplot.resize(scatterplotLeft, scatterplotTop, scatterplotSize, scatterplotSize);
     }
 
+    @Override
+    protected void redrawStatistics() {
+        scatterplot.fillSelectionPointSets();
+        scatterplot.drawPoints();
+    }
+
     public Rectangle getScatterplotRectangle() {
         return scatterplot.getPlotRectangle();
     }
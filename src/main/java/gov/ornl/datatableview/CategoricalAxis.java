@@ -38,6 +38,14 @@ public class CategoricalAxis extends UnivariateAxis {
     private Group nonQueryCategoriesRectangleGroup;
     private HashMap<String, Rectangle> nonQueryCategoriesRectangleMap = new HashMap<>();
 
+    // recycled category graphics (category rectangles keep their tooltip in their user data)
+    private NodePool<Rectangle> categoryRectanglePool;
+    private NodePool<Rectangle> categoryNameRectanglePool;
+    private NodePool<Text> categoryNamePool;
+    private NodePool<Rectangle> selectionIndicatorPool;
+    private NodePool<Rectangle> queryCategoryRectanglePool;
+    private NodePool<Rectangle> nonQueryCategoryRectanglePool;
+
     private BooleanProperty showCategoryLabels = new SimpleBooleanProperty(false);
     private BooleanProperty categoryHeightProportionalToCount = new SimpleBooleanProperty(true);
 
@@ -54,6 +62,58 @@ public class CategoricalAxis extends UnivariateAxis {
         selectionIndicatorsGroup = new Group();
 
         getGraphicsGroup().getChildren().addAll(selectionIndicatorsGroup, categoriesRectangleGroup, categoriesNameGraphicsGroup);
+
+        categoryRectanglePool = new NodePool<>(categoriesRectangleGroup, () -> {
+            Rectangle rectangle = new Rectangle();
+            rectangle.setFill(DEFAULT_CATEGORY_FILL_COLOR);
+            rectangle.setStrokeWidth(DEFAULT_CATEGORY_STROKE_WIDTH);
+            rectangle.setArcHeight(6);
+            rectangle.setArcWidth(6);
+            Tooltip tooltip = new Tooltip();
+            Tooltip.install(rectangle, tooltip);
+            rectangle.setUserData(tooltip);
+            return rectangle;
+        });
+
+        // category name backgrounds are kept in a group below the names
+        Group categoryNameRectangleGroup = new Group();
+        Group categoryNameGroup = new Group();
+        categoriesNameGraphicsGroup.getChildren().addAll(categoryNameRectangleGroup, categoryNameGroup);
+        categoryNameRectanglePool = new NodePool<>(categoryNameRectangleGroup, () -> {
+            Rectangle rectangle = new Rectangle();
+            rectangle.setFill(Color.GHOSTWHITE.deriveColor(1., 1., 1., 0.7));
+            rectangle.setStroke(Color.TRANSPARENT);
+            rectangle.setMouseTransparent(true);
+            return rectangle;
+        });
+        categoryNamePool = new NodePool<>(categoryNameGroup, () -> {
+            Text text = new Text();
+            text.setFill(DEFAULT_TEXT_COLOR);
+            text.setFont(Font.font(DEFAULT_TEXT_SIZE));
+            text.setMouseTransparent(true);
+            return text;
+        });
+
+        selectionIndicatorPool = new NodePool<>(selectionIndicatorsGroup, () -> {
+            Rectangle rectangle = new Rectangle();
+            rectangle.setFill(DEFAULT_SELECTED_CATEGORY_STROKE_COLOR);
+            rectangle.setStroke(null);
+            rectangle.setMouseTransparent(true);
+            return rectangle;
+        });
+
+        queryCategoryRectanglePool = new NodePool<>(queryCategoriesRectangleGroup, () -> {
+            Rectangle rectangle = new Rectangle();
+            rectangle.setStroke(DEFAULT_QUERY_STROKE_COLOR);
+            rectangle.setMouseTransparent(true);
+            return rectangle;
+        });
+        nonQueryCategoryRectanglePool = new NodePool<>(nonQueryCategoriesRectangleGroup, () -> {
+            Rectangle rectangle = new Rectangle();
+            rectangle.setStroke(DEFAULT_QUERY_STROKE_COLOR);
+            rectangle.setMouseTransparent(true);
+            return rectangle;
+        });
         
         getUpperContextBar().setVisible(false);
         getLowerContextBar().setVisible(false);
@@ -179,7 +239,17 @@ public class CategoricalAxis extends UnivariateAxis {
 
     public void resize(double left, double top, double width, double height) {
         super.resize(left, top, width, height);
+        redrawStatistics();
+    }
+
+    // the category selection indicators are drawn with the category shapes
+    @Override
+    protected void redrawSelections() {
+        redrawStatistics();
+    }
 
+    @Override
+    protected void redrawStatistics() {
         if (!getDataTable().isEmpty()) {
             CategoricalHistogram histogram = categoricalColumn().getStatistics().getHistogram();
 
@@ -188,11 +258,12 @@ public class CategoricalAxis extends UnivariateAxis {
                 selectedCategories.addAll(((CategoricalColumnSelection)axisSelection.getColumnSelection()).getSelectedCategories());
             }
 
-            // remove previously shown category shapes
-            categoriesRectangleGroup.getChildren().clear();
+            // recycle previously shown category shapes
+            categoryRectanglePool.reset();
             categoriesRectangleMap.clear();
-            categoriesNameGraphicsGroup.getChildren().clear();
-            selectionIndicatorsGroup.getChildren().clear();
+            categoryNameRectanglePool.reset();
+            categoryNamePool.reset();
+            selectionIndicatorPool.reset();
 
             double lastRectangleBottomY = getMaxFocusPosition();
 
@@ -210,13 +281,13 @@ public class CategoricalAxis extends UnivariateAxis {
                 }
 
                 double y = lastRectangleBottomY;
-                Rectangle rectangle;
+                Rectangle rectangle = categoryRectanglePool.acquire();
                 if (isCategoryHeightProportionalToCount()) {
                     double categoryHeight = GraphicsUtil.mapValue(categoryCount, 0, histogram.getTotalCount(), 0, getMinFocusPosition() - getMaxFocusPosition());
-                    rectangle = new Rectangle(getAxisBar().getX()+4, y, getAxisBar().getWidth()-8, categoryHeight);
+                    setRectangleBounds(rectangle, getAxisBar().getX()+4, y, getAxisBar().getWidth()-8, categoryHeight);
                 } else {
                     double categoryHeight = (getMinFocusPosition() - getMaxFocusPosition()) / categoricalColumn().getCategories().size();
-                    rectangle = new Rectangle(getAxisBar().getX()+4, y, getAxisBar().getWidth()-8, categoryHeight);
+                    setRectangleBounds(rectangle, getAxisBar().getX()+4, y, getAxisBar().getWidth()-8, categoryHeight);
                 }
 
                 if (rectangle.getHeight() > 6) {
@@ -226,24 +297,17 @@ public class CategoricalAxis extends UnivariateAxis {
                     rectangle.setStroke(DEFAULT_CATEGORY_STROKE_COLOR.deriveColor(1.,1.,1., opacity));
                 }
 
-                rectangle.setFill(DEFAULT_CATEGORY_FILL_COLOR);
                 rectangle.setStrokeWidth(DEFAULT_CATEGORY_STROKE_WIDTH);
-                rectangle.setArcHeight(6);
-                rectangle.setArcWidth(6);
 
-                Text categoryName = new Text(category);
-                categoryName.setFill(DEFAULT_TEXT_COLOR);
-                categoryName.setFont(Font.font(DEFAULT_TEXT_SIZE));
-                categoryName.setMouseTransparent(true);
+                Text categoryName = categoryNamePool.acquire();
+                categoryName.setText(category);
 //                categoryName.setX(getCenterX() - (categoryName.getLayoutBounds().getWidth() / 2.));
                 categoryName.setX(getBarLeftX() - (categoryName.getLayoutBounds().getWidth() + 1.));
                 categoryName.setY(y + categoryName.getLayoutBounds().getHeight() + 2);
 
-                Rectangle categoryNameRectangle = new Rectangle(categoryName.getLayoutBounds().getMinX(), categoryName.getLayoutBounds().getMinY(),
+                Rectangle categoryNameRectangle = categoryNameRectanglePool.acquire();
+                setRectangleBounds(categoryNameRectangle, categoryName.getLayoutBounds().getMinX(), categoryName.getLayoutBounds().getMinY(),
                         categoryName.getLayoutBounds().getWidth(), categoryName.getLayoutBounds().getHeight());
-                categoryNameRectangle.setFill(Color.GHOSTWHITE.deriveColor(1., 1., 1., 0.7));
-                categoryNameRectangle.setStroke(Color.TRANSPARENT);
-                categoryNameRectangle.setMouseTransparent(true);
 
                 rectangle.setOnMouseClicked(event -> {
                     handleCategoryRectangleClicked(rectangle, category);
@@ -256,20 +320,14 @@ public class CategoricalAxis extends UnivariateAxis {
                     rectangle.setStrokeWidth(DEFAULT_CATEGORY_STROKE_WIDTH);
                 });
 
-                Tooltip.install(rectangle, new Tooltip(category + ": " + categoryCount + "/" +
-                        histogram.getTotalCount() + " (" + percentageFormat.format((double) categoryCount / histogram.getTotalCount()) + ") of total"));
+                ((Tooltip)rectangle.getUserData()).setText(category + ": " + categoryCount + "/" +
+                        histogram.getTotalCount() + " (" + percentageFormat.format((double) categoryCount / histogram.getTotalCount()) + ") of total");
 
                 categoriesRectangleMap.put(category, rectangle);
-//                if (categoricalColumn().getCategories().size() < (getAxisBar().getHeight()/4.)) {
-                    categoriesRectangleGroup.getChildren().add(rectangle);
-//                }
 
                 if (selectedCategories.contains(category)) {
-                    Rectangle selectionIndicator = new Rectangle(getAxisBar().getX()+1, y, getAxisBar().getWidth()-2, rectangle.getHeight());
-                    selectionIndicator.setFill(DEFAULT_SELECTED_CATEGORY_STROKE_COLOR);
-                    selectionIndicator.setStroke(null);
-                    selectionIndicator.setMouseTransparent(true);
-                    selectionIndicatorsGroup.getChildren().add(selectionIndicator);
+                    Rectangle selectionIndicator = selectionIndicatorPool.acquire();
+                    setRectangleBounds(selectionIndicator, getAxisBar().getX()+1, y, getAxisBar().getWidth()-2, rectangle.getHeight());
 
 //                    rectangle.setFill(DEFAULT_SELECTED_CATEGORY_STROKE_COLOR);
 //                    Rectangle innerRectangle = new Rectangle(rectangle.getX() + 1, rectangle.getY() + 1,
@@ -283,10 +341,13 @@ public class CategoricalAxis extends UnivariateAxis {
                 }
 
                 lastRectangleBottomY = rectangle.getY() + rectangle.getHeight();
-
-                categoriesNameGraphicsGroup.getChildren().addAll(categoryNameRectangle, categoryName);
             }
 
+            categoryRectanglePool.hideUnused();
+            categoryNameRectanglePool.hideUnused();
+            categoryNamePool.hideUnused();
+            selectionIndicatorPool.hideUnused();
+
             if (getGraphicsGroup().getChildren().contains(queryCategoriesRectangleGroup)) {
                 getGraphicsGroup().getChildren().remove(queryCategoriesRectangleGroup);
             }
@@ -294,12 +355,12 @@ public class CategoricalAxis extends UnivariateAxis {
                 getGraphicsGroup().getChildren().remove(nonQueryCategoriesRectangleGroup);
             }
 
-            queryCategoriesRectangleGroup.getChildren().clear();
+            queryCategoryRectanglePool.reset();
             queryCategoriesRectangleMap.clear();
-            nonQueryCategoriesRectangleGroup.getChildren().clear();
+            nonQueryCategoryRectanglePool.reset();
             nonQueryCategoriesRectangleMap.clear();
 
-            if (getDataTable().getActiveQuery().hasColumnSelections()) {
+            if (getDataTable().getActiveQuery().hasSelections()) {
                 CategoricalColumnSummaryStats queryColumnSummaryStats = (CategoricalColumnSummaryStats)getDataTable().getActiveQuery().getColumnQuerySummaryStats(getColumn());
                 CategoricalHistogram queryHistogram = queryColumnSummaryStats.getHistogram();
 
@@ -311,12 +372,12 @@ public class CategoricalAxis extends UnivariateAxis {
                         int overallCategoryCount = histogram.getCategoryCount(category);
                         int nonQueryCategoryCount = overallCategoryCount - queryCategoryCount;
 
-                        Rectangle queryRectangle = new Rectangle(overallCategoryRectangle.getLayoutBounds().getMinX() + 3,
-                                0, overallCategoryRectangle.getLayoutBounds().getWidth() - 6, 0);
-                        Rectangle nonQueryRectangle = new Rectangle(overallCategoryRectangle.getLayoutBounds().getMinX() + 3,
-                                0, overallCategoryRectangle.getLayoutBounds().getWidth() - 6, 0);
+                        Rectangle queryRectangle = null;
 
                         if (queryCategoryCount > 0) {
+                            queryRectangle = queryCategoryRectanglePool.acquire();
+                            setRectangleBounds(queryRectangle, overallCategoryRectangle.getLayoutBounds().getMinX() + 3,
+                                    0, overallCategoryRectangle.getLayoutBounds().getWidth() - 6, 0);
                             queryRectangle.setY(overallCategoryRectangle.getY() + 2d);
 
                             if (nonQueryCategoryCount > 0) {
@@ -329,19 +390,20 @@ public class CategoricalAxis extends UnivariateAxis {
 
 //                            queryRectangle.setArcHeight(6);
 //                            queryRectangle.setArcWidth(6);
-                            queryRectangle.setStroke(DEFAULT_QUERY_STROKE_COLOR);
                             queryRectangle.setFill(new Color(getDataTableView().getSelectedItemsColor().getRed(),
                                     getDataTableView().getSelectedItemsColor().getGreen(),
                                     getDataTableView().getSelectedItemsColor().getBlue(),
                                     1.0));
-                            queryRectangle.setMouseTransparent(true);
 
                             queryCategoriesRectangleMap.put(category, queryRectangle);
-                            queryCategoriesRectangleGroup.getChildren().add(queryRectangle);
                         }
 
                         if (nonQueryCategoryCount > 0) {
-                            if (queryCategoryCount > 0) {
+                            Rectangle nonQueryRectangle = nonQueryCategoryRectanglePool.acquire();
+                            setRectangleBounds(nonQueryRectangle, overallCategoryRectangle.getLayoutBounds().getMinX() + 3,
+                                    0, overallCategoryRectangle.getLayoutBounds().getWidth() - 6, 0);
+
+                            if (queryRectangle != null) {
                                 double nonQueryRectangleHeight = GraphicsUtil.mapValue(nonQueryCategoryCount, 0,
                                         overallCategoryCount, 0, overallCategoryRectangle.getHeight() - 4);
                                 nonQueryRectangle.setHeight(nonQueryRectangleHeight);
@@ -353,20 +415,16 @@ public class CategoricalAxis extends UnivariateAxis {
 
 //                            nonQueryRectangle.setArcHeight(6);
 //                            nonQueryRectangle.setArcWidth(6);
-                            nonQueryRectangle.setStroke(DEFAULT_QUERY_STROKE_COLOR);
                             nonQueryRectangle.setFill(new Color(getDataTableView().getUnselectedItemsColor().getRed(),
                                     getDataTableView().getUnselectedItemsColor().getGreen(),
                                     getDataTableView().getUnselectedItemsColor().getBlue(),
                                     1.0));
-                            nonQueryRectangle.setMouseTransparent(true);
 
                             nonQueryCategoriesRectangleMap.put(category, nonQueryRectangle);
-                            nonQueryCategoriesRectangleGroup.getChildren().add(nonQueryRectangle);
                         }
 
-                        Tooltip.install(overallCategoryRectangle,
-                                new Tooltip(category + ": " + queryCategoryCount + "/" + overallCategoryCount +
-                                        " (" + percentageFormat.format((double) queryCategoryCount / overallCategoryCount) + ") selected"));
+                        ((Tooltip)overallCategoryRectangle.getUserData()).setText(category + ": " + queryCategoryCount + "/" +
+                                overallCategoryCount + " (" + percentageFormat.format((double) queryCategoryCount / overallCategoryCount) + ") selected");
 //                                new Tooltip(category + " : " + overallCategoryCount + " of " +
 //                                        histogram.getTotalCount() + " (" +
 //                                        percentageFormat.format((double) overallCategoryCount / histogram.getTotalCount()) + " of total)\n" +
@@ -378,6 +436,9 @@ public class CategoricalAxis extends UnivariateAxis {
                 getGraphicsGroup().getChildren().addAll(nonQueryCategoriesRectangleGroup, queryCategoriesRectangleGroup);
             }
 
+            queryCategoryRectanglePool.hideUnused();
+            nonQueryCategoryRectanglePool.hideUnused();
+
             categoriesNameGraphicsGroup.toFront();
         }
     }
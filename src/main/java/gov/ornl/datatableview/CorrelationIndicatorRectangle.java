@@ -1,5 +1,6 @@
 package gov.ornl.datatableview;
 
+import gov.ornl.datatable.CorrelationMeasure;
 import gov.ornl.util.GraphicsUtil;
 import javafx.scene.control.Tooltip;
 import javafx.scene.paint.Color;
@@ -13,6 +14,7 @@ public class CorrelationIndicatorRectangle extends Rectangle {
     private UnivariateAxis axis1;
     private UnivariateAxis axis2;
     private double correlation;
+    private CorrelationMeasure correlationMeasure = CorrelationMeasure.PEARSON;
 
     public CorrelationIndicatorRectangle(UnivariateAxis axis1, UnivariateAxis axis2) {
         this.axis1 = axis1;
@@ -39,6 +41,15 @@ public class CorrelationIndicatorRectangle extends Rectangle {
         return correlation;
     }
 
+    public CorrelationMeasure getCorrelationMeasure() {
+        return correlationMeasure;
+    }
+
+    // set before setCorrelation() so the tooltip names the measure
+    public void setCorrelationMeasure(CorrelationMeasure correlationMeasure) {
+        this.correlationMeasure = correlationMeasure;
+    }
+
     public void setCorrelation(double correlation) {
         this.correlation = correlation;
         if (correlation > 0) {
@@ -50,6 +61,6 @@ public class CorrelationIndicatorRectangle extends Rectangle {
         }
 
         Tooltip.install(this, new Tooltip(axis1.getColumn().getName() + " / " + axis2.getColumn().getName() +
-                " correlation = " + correlation));
+                " " + correlationMeasure.getSymbol() + " = " + correlation));
     }
 }
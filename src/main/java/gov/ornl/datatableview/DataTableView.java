@@ -2,6 +2,7 @@ package gov.ornl.datatableview;
 
 import gov.ornl.datatable.*;
 import gov.ornl.scatterplot.Scatterplot;
+import gov.ornl.scatterplot.ScatterplotCoordinateCache;
 import javafx.beans.property.*;
 import javafx.geometry.BoundingBox;
 import javafx.geometry.Bounds;
@@ -9,6 +10,7 @@ import javafx.geometry.Insets;
 import javafx.scene.Group;
 import javafx.scene.SnapshotParameters;
 import javafx.scene.canvas.Canvas;
+import javafx.scene.control.Tooltip;
 import javafx.scene.image.WritableImage;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
@@ -17,6 +19,9 @@ import javafx.scene.transform.Scale;
 
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -37,6 +42,8 @@ public class DataTableView extends Region implements DataTableListener {
     private final static int DEFAULT_CORRELATION_RECTANGLE_HEIGHT = 14;
     private final static int DEFAULT_CORRELATION_RECTANGLE_WIDTH = 24;
     private final static double DEFAULT_POLYLINE_WIDTH = 1.5;
+    // maximum vertical distance in pixels between the mouse and a polyline for the polyline to be picked
+    private final static double POLYLINE_PICK_DISTANCE = 3.;
 
     private static final DecimalFormat percentageFormat = new DecimalFormat("0.0#%");
 
@@ -68,6 +75,7 @@ public class DataTableView extends Region implements DataTableListener {
     private DataTable dataTable;
     private ArrayList<Axis> axisList = new ArrayList<>();
     private ArrayList<Scatterplot> scatterplotList = new ArrayList<>();
+    private ScatterplotCoordinateCache scatterplotCoordinateCache = new ScatterplotCoordinateCache();
     private ArrayList<CorrelationIndicatorRectangle> correlationRectangleList = new ArrayList<>();
     private Group correlationRectangleGroup = new Group();
 
@@ -79,7 +87,22 @@ public class DataTableView extends Region implements DataTableListener {
     private HashSet<TuplePolyline> unselectedTuplePolylines = new HashSet<>();
     private HashSet<TuplePolyline> selectedTuplePolylines = new HashSet<>();
 
+    // rows currently in selectedTuplePolylines (used to find rows that flip on a query change)
+    private BitSet selectedTupleRows = new BitSet();
+
+    // segment index for each axis gap, built on the first pick after the polylines are drawn (null when stale)
+    private ArrayList<PolylineSegmentIndex> polylineSegmentIndexList;
+
+    // queried rows at the last query change, to skip the row-dependent graphics when a change moves no rows
+    private BitSet lastQueriedRows;
+    private boolean lastHadSelections;
+    private Tooltip polylineTooltip = new Tooltip();
+
+    private PolylineDensityBuffer selectedDensityBuffer;
+    private PolylineDensityBuffer unselectedDensityBuffer;
+
     private ObjectProperty<STATISTICS_DISPLAY_MODE> summaryStatisticsDisplayMode = new SimpleObjectProperty<>(STATISTICS_DISPLAY_MODE.MEAN_BOXPLOT);
+    private ObjectProperty<CorrelationMeasure> correlationMeasure = new SimpleObjectProperty<>(CorrelationMeasure.PEARSON);
 
     private BooleanProperty showSelectedItems = new SimpleBooleanProperty(true);
     private BooleanProperty showUnselectedItems = new SimpleBooleanProperty(true);
@@ -90,6 +113,8 @@ public class DataTableView extends Region implements DataTableListener {
     private BooleanProperty showCorrelations = new SimpleBooleanProperty(true);
     private BooleanProperty showContextPolylineSegments = new SimpleBooleanProperty(true);
     private BooleanProperty showScatterplotMarginValues = new SimpleBooleanProperty(true);
+    private BooleanProperty showPolylineDensity = new SimpleBooleanProperty(false);
+    private BooleanProperty showScatterplotDensity = new SimpleBooleanProperty(false);
 
     private BooleanProperty fitToWidth = new SimpleBooleanProperty(true);
     private DoubleProperty nameTextRotation;
@@ -130,6 +155,26 @@ public class DataTableView extends Region implements DataTableListener {
 
     public BooleanProperty showScatterplotMarginValuesProperty() { return showScatterplotMarginValues; }
 
+    public boolean isShowingPolylineDensity() { return showPolylineDensity.get(); }
+
+    public void setShowPolylineDensity(boolean show) {
+        if (isShowingPolylineDensity() != show) {
+            showPolylineDensity.set(show);
+        }
+    }
+
+    public BooleanProperty showPolylineDensityProperty() { return showPolylineDensity; }
+
+    public boolean isShowingScatterplotDensity() { return showScatterplotDensity.get(); }
+
+    public void setShowScatterplotDensity(boolean show) {
+        if (isShowingScatterplotDensity() != show) {
+            showScatterplotDensity.set(show);
+        }
+    }
+
+    public BooleanProperty showScatterplotDensityProperty() { return showScatterplotDensity; }
+
     public boolean isShowingCorrelations() { return showCorrelations.get(); }
 
     public void setShowCorrelations(boolean show) {
@@ -140,6 +185,16 @@ public class DataTableView extends Region implements DataTableListener {
 
     public BooleanProperty showCorrelationsProperty() { return showCorrelations; }
 
+    public CorrelationMeasure getCorrelationMeasure() { return correlationMeasure.get(); }
+
+    public void setCorrelationMeasure(CorrelationMeasure measure) {
+        if (getCorrelationMeasure() != measure) {
+            correlationMeasure.set(measure);
+        }
+    }
+
+    public ObjectProperty<CorrelationMeasure> correlationMeasureProperty() { return correlationMeasure; }
+
     public WritableImage getSnapshot(int scaleFactor) {
         SnapshotParameters snapshotParameters = new SnapshotParameters();
         snapshotParameters.setTransform(new Scale(scaleFactor, scaleFactor));
@@ -246,6 +301,12 @@ public class DataTableView extends Region implements DataTableListener {
             }
         });
 
+        showScatterplotDensity.addListener(observable -> {
+            for (Scatterplot scatterplot : scatterplotList) {
+                scatterplot.setShowDensity(isShowingScatterplotDensity());
+            }
+        });
+
         backgroundColor.addListener((observable, oldValue, newValue) -> {
             pane.setBackground(new Background(new BackgroundFill(backgroundColor.get(), new CornerRadii(0), Insets.EMPTY)));
         });
@@ -329,6 +390,10 @@ public class DataTableView extends Region implements DataTableListener {
             redrawView();
         });
 
+        showPolylineDensity.addListener(observable -> {
+            redrawView();
+        });
+
         showUnselectedItems.addListener(((observable, oldValue, newValue) -> {
             if (!scatterplotList.isEmpty()) {
                 for (Scatterplot scatterplot : scatterplotList) {
@@ -397,6 +462,8 @@ public class DataTableView extends Region implements DataTableListener {
             resizeView();
         });
 
+        correlationMeasure.addListener(observable -> setCorrelationRectangleValues());
+
         highlightedAxis.addListener((observable, oldValue, newValue) -> {
             if (oldValue != newValue) {
                 if (oldValue != null) {
@@ -413,9 +480,10 @@ public class DataTableView extends Region implements DataTableListener {
     private void fillTupleSets() {
         unselectedTuplePolylines.clear();
         selectedTuplePolylines.clear();
+        selectedTupleRows = new BitSet();
 
         if ((tuplePolylines != null) && (!tuplePolylines.isEmpty())) {
-            if (dataTable.getActiveQuery().hasColumnSelections()) {
+            if (dataTable.getActiveQuery().hasSelections()) {
                 for (TuplePolyline pcpTuple : tuplePolylines) {
                     if (pcpTuple.getTuple().getQueryFlag()) {
                         selectedTuplePolylines.add(pcpTuple);
@@ -426,9 +494,48 @@ public class DataTableView extends Region implements DataTableListener {
             } else {
                 selectedTuplePolylines.addAll(tuplePolylines);
             }
+            selectedTupleRows = getCurrentSelectedTupleRows();
         }
     }
 
+    // rows drawn as selected for the current query (all rows when nothing is queried)
+    private BitSet getCurrentSelectedTupleRows() {
+        if (dataTable.getActiveQuery().hasSelections()) {
+            return (BitSet)dataTable.getActiveQuery().getQueriedRows().clone();
+        }
+
+        BitSet rows = new BitSet(tuplePolylines.size());
+        rows.set(0, tuplePolylines.size());
+        return rows;
+    }
+
+    // moves only the rows whose query membership changed between the tuple sets
+    // and returns those rows
+    private BitSet updateTupleSets() {
+        if (tuplePolylines == null || tuplePolylines.size() != dataTable.getTupleCount()) {
+            fillTupleSets();
+            return null;
+        }
+
+        BitSet currentSelectedRows = getCurrentSelectedTupleRows();
+        BitSet changedRows = (BitSet)selectedTupleRows.clone();
+        changedRows.xor(currentSelectedRows);
+
+        for (int irow = changedRows.nextSetBit(0); irow >= 0; irow = changedRows.nextSetBit(irow + 1)) {
+            TuplePolyline tuplePolyline = tuplePolylines.get(irow);
+            if (currentSelectedRows.get(irow)) {
+                unselectedTuplePolylines.remove(tuplePolyline);
+                selectedTuplePolylines.add(tuplePolyline);
+            } else {
+                selectedTuplePolylines.remove(tuplePolyline);
+                unselectedTuplePolylines.add(tuplePolyline);
+            }
+        }
+
+        selectedTupleRows = currentSelectedRows;
+        return changedRows;
+    }
+
     private void initialize() {
         nameTextRotation = new SimpleDoubleProperty(0.0);
         selectedItemsColor = new SimpleObjectProperty<>(DEFAULT_SELECTED_ITEMS_COLOR);
@@ -473,6 +580,19 @@ public class DataTableView extends Region implements DataTableListener {
         pane = new Pane();
         pane.setBackground(new Background(new BackgroundFill(backgroundColor.get(), new CornerRadii(0), Insets.EMPTY)));
         pane.getChildren().addAll(unselectedCanvas, selectedCanvas, correlationRectangleGroup);
+        pane.setOnMouseMoved(event -> {
+            TuplePolyline tuplePolyline = null;
+            if (event.getTarget() == pane || event.getTarget() == selectedCanvas || event.getTarget() == unselectedCanvas) {
+                tuplePolyline = getTuplePolylineAt(event.getX(), event.getY());
+            }
+
+            if (tuplePolyline == null) {
+                Tooltip.uninstall(pane, polylineTooltip);
+            } else {
+                polylineTooltip.setText(getTupleDescription(tuplePolyline.getTuple()));
+                Tooltip.install(pane, polylineTooltip);
+            }
+        });
 //        pane.getChildren().addAll(plotRegionRectangle, pcpRegionRectangle);
         getChildren().add(pane);
     }
@@ -491,6 +611,8 @@ public class DataTableView extends Region implements DataTableListener {
     public final int getAxisCount() { return axisList.size(); }
 
     private void drawTuplePolylines() {
+        polylineSegmentIndexList = null;
+
         selectedCanvas.getGraphicsContext2D().setLineCap(StrokeLineCap.BUTT);
         selectedCanvas.getGraphicsContext2D().clearRect(0, 0, getWidth(), getHeight());
         selectedCanvas.getGraphicsContext2D().setLineWidth(getPolylineWidth());
@@ -501,6 +623,12 @@ public class DataTableView extends Region implements DataTableListener {
         unselectedCanvas.getGraphicsContext2D().setLineWidth(getPolylineWidth());
         unselectedCanvas.getGraphicsContext2D().setLineDashes(null);
 
+        if (isShowingPolylineDensity()) {
+            fillDensityBuffers();
+            renderDensityBuffers();
+            return;
+        }
+
         if ((isShowingUnselectedItems()) && (unselectedTuplePolylines != null) && (!unselectedTuplePolylines.isEmpty())) {
             if (unselectedTuplesTimer != null && unselectedTuplesTimer.isRunning()) {
                 unselectedTuplesTimer.stop();
@@ -526,6 +654,64 @@ public class DataTableView extends Region implements DataTableListener {
         }
     }
 
+    private void fillDensityBuffers() {
+        int width = (int)Math.ceil(selectedCanvas.getWidth());
+        int height = (int)Math.ceil(selectedCanvas.getHeight());
+
+        if (selectedDensityBuffer == null || selectedDensityBuffer.getWidth() != width ||
+                selectedDensityBuffer.getHeight() != height) {
+            selectedDensityBuffer = new PolylineDensityBuffer(width, height);
+            unselectedDensityBuffer = new PolylineDensityBuffer(width, height);
+        } else {
+            selectedDensityBuffer.clear();
+            unselectedDensityBuffer.clear();
+        }
+
+        selectedDensityBuffer.addPolylines(selectedTuplePolylines, axisList, isShowingContextPolylineSegments());
+        unselectedDensityBuffer.addPolylines(unselectedTuplePolylines, axisList, isShowingContextPolylineSegments());
+    }
+
+    private void renderDensityBuffers() {
+        if (isShowingUnselectedItems()) {
+            unselectedDensityBuffer.render(unselectedCanvas, getUnselectedItemsColor());
+        } else {
+            unselectedCanvas.getGraphicsContext2D().clearRect(0, 0, unselectedCanvas.getWidth(), unselectedCanvas.getHeight());
+        }
+
+        if (isShowingSelectedItems()) {
+            selectedDensityBuffer.render(selectedCanvas, getSelectedItemsColor());
+        } else {
+            selectedCanvas.getGraphicsContext2D().clearRect(0, 0, selectedCanvas.getWidth(), selectedCanvas.getHeight());
+        }
+    }
+
+    // moves the changed rows between the density buffers; if most rows changed a full
+    // redraw is cheaper than the delta
+    private void redrawChangedTuplePolylines(BitSet changedRows) {
+        if (!isShowingPolylineDensity() || selectedDensityBuffer == null || changedRows == null ||
+                changedRows.cardinality() > (tuplePolylines.size() / 2)) {
+            redrawView();
+            return;
+        }
+
+        if (changedRows.isEmpty()) {
+            return;
+        }
+
+        for (int irow = changedRows.nextSetBit(0); irow >= 0; irow = changedRows.nextSetBit(irow + 1)) {
+            TuplePolyline tuplePolyline = tuplePolylines.get(irow);
+            if (selectedTupleRows.get(irow)) {
+                unselectedDensityBuffer.subtractPolyline(tuplePolyline, axisList, isShowingContextPolylineSegments());
+                selectedDensityBuffer.addPolyline(tuplePolyline, axisList, isShowingContextPolylineSegments());
+            } else {
+                selectedDensityBuffer.subtractPolyline(tuplePolyline, axisList, isShowingContextPolylineSegments());
+                unselectedDensityBuffer.addPolyline(tuplePolyline, axisList, isShowingContextPolylineSegments());
+            }
+        }
+
+        renderDensityBuffers();
+    }
+
     public boolean isShowingContextPolylineSegments() { return showContextPolylineSegments.get(); }
 
     public void setShowContextPolylineSegments(boolean show) {
@@ -620,6 +806,16 @@ public class DataTableView extends Region implements DataTableListener {
         }
     }
 
+    // same as resizeAxes() but each axis redraws only its invalidated parts when its bounds did not move
+    private void updateAxes() {
+        double axisLeft = plotRegionBounds.getMinX();
+        for (Axis axis : axisList) {
+            double axisWidth = axis instanceof BivariateAxis ? axisSpacing * 2. : axisSpacing;
+            axis.update(axisLeft, pcpRegionBounds.getMinY(), axisWidth, pcpRegionBounds.getHeight());
+            axisLeft += axisWidth;
+        }
+    }
+
     protected void resizeView() {
         if (dataTable != null && !dataTable.isEmpty()) {
             plotRegionBounds = new BoundingBox(getInsets().getLeft(),
@@ -919,6 +1115,9 @@ public class DataTableView extends Region implements DataTableListener {
 //    public ObjectProperty<Axis> highlightedAxisProperty() { return highlightedAxis; }
 
     protected void initView() {
+        // everything is drawn from the current query here, so the next query change redraws everything
+        lastQueriedRows = null;
+
         if (axisList.isEmpty()) {
             for (int i = 0; i < dataTable.getColumnCount(); i++) {
                 Axis axis = null;
@@ -963,7 +1162,7 @@ public class DataTableView extends Region implements DataTableListener {
         tuplePolylines = new ArrayList<>();
         for (int iTuple = 0; iTuple < dataTable.getTupleCount(); iTuple++) {
             Tuple tuple = dataTable.getTuple(iTuple);
-            TuplePolyline tuplePolyline = new TuplePolyline(tuple);
+            TuplePolyline tuplePolyline = new TuplePolyline(tuple, iTuple);
             tuplePolylines.add(tuplePolyline);
         }
 
@@ -989,6 +1188,8 @@ public class DataTableView extends Region implements DataTableListener {
                             !(currentAxis instanceof ImageAxis)) {
                         Scatterplot scatterplot = new Scatterplot(highlightedAxis.getColumn(), currentAxis.getColumn(), getSelectedItemsColor(),
                                 getUnselectedItemsColor(), getDataItemsOpacity());
+                        scatterplot.setCoordinateCache(scatterplotCoordinateCache);
+                        scatterplot.setShowDensity(isShowingScatterplotDensity());
                         scatterplot.setShowMarginValues(isShowingScatterplotMarginValues());
 //                        scatterplot.setShowYAxisMarginValues(true);
 //                        scatterplot.setShowXAxisMarginValues(true);
@@ -1005,6 +1206,8 @@ public class DataTableView extends Region implements DataTableListener {
                         Scatterplot scatterplot = new Scatterplot(xAxis.getColumn(), yAxis.getColumn(), getSelectedItemsColor(),
                                 getUnselectedItemsColor(), getDataItemsOpacity());
                         scatterplotList.add(scatterplot);
+                        scatterplot.setCoordinateCache(scatterplotCoordinateCache);
+                        scatterplot.setShowDensity(isShowingScatterplotDensity());
                         scatterplot.setShowMarginValues(isShowingScatterplotMarginValues());
 //                        scatterplot.setShowYAxisMarginValues(true);
 //                        scatterplot.setShowXAxisMarginValues(true);
@@ -1061,13 +1264,23 @@ public class DataTableView extends Region implements DataTableListener {
                 if (corrRect.getAxis2().getColumn().getName().equals("Pressure")) {
                     log.info("Pressure correlation");
                 }
+                boolean useQueryStatistics = dataTable.getActiveQuery().hasSelections() && dataTable.getCalculateQueryStatistics();
                 double corr;
-                if (dataTable.getActiveQuery().hasColumnSelections() && dataTable.getCalculateQueryStatistics()) {
+                if (getCorrelationMeasure() != CorrelationMeasure.PEARSON) {
+                    DoubleColumnSummaryStats stats1 = (DoubleColumnSummaryStats)(useQueryStatistics ?
+                            dataTable.getActiveQuery().getColumnQuerySummaryStats(corrRect.getAxis1().getColumn()) :
+                            corrRect.getAxis1().getColumn().getStatistics());
+                    DoubleColumnSummaryStats stats2 = (DoubleColumnSummaryStats)(useQueryStatistics ?
+                            dataTable.getActiveQuery().getColumnQuerySummaryStats(corrRect.getAxis2().getColumn()) :
+                            corrRect.getAxis2().getColumn().getStatistics());
+                    corr = CorrelationCalculator.compute(stats1, stats2, getCorrelationMeasure());
+                } else if (useQueryStatistics) {
                     corr = ((DoubleColumnSummaryStats)dataTable.getActiveQuery().getColumnQuerySummaryStats(corrRect.getAxis1().getColumn())).getCorrelationCoefficientList().get(axis2ColumnIndex);
                 } else {
                     corr = ((DoubleColumnSummaryStats)corrRect.getAxis1().getColumn().getStatistics()).getCorrelationCoefficientList().get(axis2ColumnIndex);
                 }
 
+                corrRect.setCorrelationMeasure(getCorrelationMeasure());
                 corrRect.setCorrelation(corr);
             }
         }
@@ -1146,13 +1359,36 @@ public class DataTableView extends Region implements DataTableListener {
     }
 
     private void handleQueryChange() {
-        resizeAxes();
-//        for (int iaxis = 0; iaxis < axisList.size(); iaxis++) {
-//            Axis pcpAxis = axisList.get(iaxis);
-//
-//            double axisLeft = plotRegionBounds.getMinX() + (iaxis * axisSpacing);
-//            pcpAxis.resize(axisLeft, pcpRegionBounds.getMinY(), axisSpacing, pcpRegionBounds.getHeight());
-//        }
+        handleQueryChange(null);
+    }
+
+    // redraws the selection graphics of the axes for the changed columns (every axis if changedColumns is null)
+    // and, only if the queried rows changed, the query statistics, scatterplots, correlations, and polylines
+    private void handleQueryChange(Collection<Column> changedColumns) {
+        if (plotRegionBounds == null || pcpRegionBounds == null) {
+            return;
+        }
+
+        BitSet queriedRows = dataTable.getActiveQuery().getQueriedRows();
+        boolean hasSelections = dataTable.getActiveQuery().hasSelections();
+        boolean queriedRowsChanged = changedColumns == null || lastQueriedRows == null ||
+                hasSelections != lastHadSelections || !queriedRows.equals(lastQueriedRows);
+        lastQueriedRows = (BitSet)queriedRows.clone();
+        lastHadSelections = hasSelections;
+
+        for (Axis axis : axisList) {
+            if (changedColumns == null || changedColumns.contains(axis.getColumn())) {
+                axis.invalidateSelections();
+            }
+            if (queriedRowsChanged) {
+                axis.invalidateStatistics();
+            }
+        }
+        updateAxes();
+
+        if (!queriedRowsChanged) {
+            return;
+        }
 
         if (isShowingScatterplots()) {
             for (Scatterplot scatterplot : scatterplotList) {
@@ -1166,9 +1402,54 @@ public class DataTableView extends Region implements DataTableListener {
         }
 
         if (isShowingPolylines()) {
-            fillTupleSets();
-            redrawView();
+            polylineSegmentIndexList = null;
+            redrawChangedTuplePolylines(updateTupleSets());
+        }
+    }
+
+    private ArrayList<PolylineSegmentIndex> getPolylineSegmentIndexList() {
+        if (polylineSegmentIndexList == null) {
+            ArrayList<TuplePolyline> visiblePolylines = new ArrayList<>();
+            if (isShowingSelectedItems()) {
+                visiblePolylines.addAll(selectedTuplePolylines);
+            }
+            if (isShowingUnselectedItems()) {
+                visiblePolylines.addAll(unselectedTuplePolylines);
+            }
+
+            polylineSegmentIndexList = new ArrayList<>();
+            for (int iaxis = 1; iaxis < axisList.size(); iaxis++) {
+                polylineSegmentIndexList.add(new PolylineSegmentIndex(visiblePolylines, axisList, iaxis,
+                        isShowingContextPolylineSegments()));
+            }
+        }
+        return polylineSegmentIndexList;
+    }
+
+    // returns the visible polyline passing closest to (x, y) in pane coordinates or null if there is none
+    public TuplePolyline getTuplePolylineAt(double x, double y) {
+        if (!isShowingPolylines() || tuplePolylines == null || tuplePolylines.isEmpty()) {
+            return null;
+        }
+
+        for (PolylineSegmentIndex segmentIndex : getPolylineSegmentIndexList()) {
+            if (x >= segmentIndex.getLeftX() && x <= segmentIndex.getRightX()) {
+                return segmentIndex.getNearestPolyline(x, y, POLYLINE_PICK_DISTANCE);
+            }
+        }
+        return null;
+    }
+
+    private String getTupleDescription(Tuple tuple) {
+        StringBuilder description = new StringBuilder();
+        for (int icolumn = 0; icolumn < dataTable.getColumnCount(); icolumn++) {
+            if (icolumn > 0) {
+                description.append("\n");
+            }
+            Object value = tuple.getElement(icolumn);
+            description.append(dataTable.getColumn(icolumn).getName()).append(": ").append(value);
         }
+        return description.toString();
     }
 
     private void clearView() {
@@ -1188,6 +1469,7 @@ public class DataTableView extends Region implements DataTableListener {
             pane.getChildren().remove(scatterplot.getGraphicsGroup());
         }
         scatterplotList.clear();
+        scatterplotCoordinateCache.clear();
     }
 
     @Override
@@ -1282,7 +1564,7 @@ public class DataTableView extends Region implements DataTableListener {
             axis.addAxisSelection(columnSelection);
         }
 
-        handleQueryChange();
+        handleQueryChange(Collections.singletonList(columnSelection.getColumn()));
     }
 
     @Override
@@ -1293,19 +1575,21 @@ public class DataTableView extends Region implements DataTableListener {
             axis.removeAxisSelection(columnSelection);
         }
 
-        handleQueryChange();
+        handleQueryChange(Collections.singletonList(columnSelection.getColumn()));
     }
 
     @Override
     public void dataTableColumnSelectionsRemoved(DataTable dataTable, List<ColumnSelection> removedColumnSelections) {
+        HashSet<Column> changedColumns = new HashSet<>();
         for (ColumnSelection columnSelection : removedColumnSelections) {
             Axis axis = getAxisForColumn(columnSelection.getColumn());
             if (axis != null) {
                 axis.removeAxisSelection(columnSelection);
             }
+            changedColumns.add(columnSelection.getColumn());
         }
 
-        handleQueryChange();
+        handleQueryChange(changedColumns);
     }
 
     @Override
@@ -1324,12 +1608,18 @@ public class DataTableView extends Region implements DataTableListener {
             axis.removeAllAxisSelections();
         }
 
-        handleQueryChange();
+        handleQueryChange(Collections.singletonList(column));
     }
 
     @Override
     public void dataTableColumnSelectionChanged(DataTable dataModel, ColumnSelection columnSelectionRange) {
-        handleQueryChange();
+        handleQueryChange(Collections.singletonList(columnSelectionRange.getColumn()));
+    }
+
+    @Override
+    public void dataTableRowSelectionChanged(DataTable dataModel) {
+        // a row selection has no axis graphics
+        handleQueryChange(Collections.emptyList());
     }
 
     @Override
@@ -1404,7 +1694,7 @@ public class DataTableView extends Region implements DataTableListener {
                 tuplePolylines = new ArrayList<>();
                 for (int iTuple = 0; iTuple < dataModel.getTupleCount(); iTuple++) {
                     Tuple tuple = dataModel.getTuple(iTuple);
-                    TuplePolyline pcpTuple = new TuplePolyline(tuple);
+                    TuplePolyline pcpTuple = new TuplePolyline(tuple, iTuple);
                     tuplePolylines.add(pcpTuple);
                 }
                 fillTupleSets();
@@ -1432,7 +1722,7 @@ public class DataTableView extends Region implements DataTableListener {
         tuplePolylines = new ArrayList<>();
         for (int iTuple = 0; iTuple < dataModel.getTupleCount(); iTuple++) {
             Tuple tuple = dataModel.getTuple(iTuple);
-            TuplePolyline pcpTuple = new TuplePolyline(tuple);
+            TuplePolyline pcpTuple = new TuplePolyline(tuple, iTuple);
             tuplePolylines.add(pcpTuple);
         }
 
@@ -1452,7 +1742,7 @@ public class DataTableView extends Region implements DataTableListener {
         tuplePolylines = new ArrayList<>();
         for (int iTuple = 0; iTuple < dataTable.getTupleCount(); iTuple++) {
             Tuple tuple = dataTable.getTuple(iTuple);
-            TuplePolyline pcpTuple = new TuplePolyline(tuple);
+            TuplePolyline pcpTuple = new TuplePolyline(tuple, iTuple);
             tuplePolylines.add(pcpTuple);
         }
 
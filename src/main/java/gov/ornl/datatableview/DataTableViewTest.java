@@ -37,14 +37,14 @@ public class DataTableViewTest extends Application {
 
             Button deleteSelectedDataButton = new Button("Delete Selected");
             deleteSelectedDataButton.setOnAction(event -> {
-                if (dataTableView.getDataTable().getActiveQuery().hasColumnSelections()) {
+                if (dataTableView.getDataTable().getActiveQuery().hasSelections()) {
                     dataTableView.getDataTable().removeSelectedTuples();
                 }
             });
 
             Button deleteUnselectedDataButton = new Button("Delete Unselected");
             deleteUnselectedDataButton.setOnAction(event -> {
-                if (dataTableView.getDataTable().getActiveQuery().hasColumnSelections()) {
+                if (dataTableView.getDataTable().getActiveQuery().hasSelections()) {
                     dataTableView.getDataTable().removeUnselectedTuples();
                 }
             });
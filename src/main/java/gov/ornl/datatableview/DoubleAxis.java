@@ -46,6 +46,9 @@ public class DoubleAxis extends UnivariateAxis {
     // histogram bin rectangles
     private Group overallHistogramGroup = new Group();
     private Group queryHistogramGroup = new Group();
+    private NodePool<Line> overallHistogramAccentLinePool;
+    private NodePool<Rectangle> overallHistogramRectanglePool;
+    private NodePool<Rectangle> queryHistogramRectanglePool;
 
     private Text minValueText;
     private Text maxValueText;
@@ -145,6 +148,28 @@ public class DoubleAxis extends UnivariateAxis {
         overallHistogramGroup.setMouseTransparent(true);
         queryHistogramGroup.setMouseTransparent(true);
 
+        // accent lines are kept in a group below the bin rectangles
+        Group overallHistogramAccentLineGroup = new Group();
+        Group overallHistogramRectangleGroup = new Group();
+        overallHistogramGroup.getChildren().addAll(overallHistogramAccentLineGroup, overallHistogramRectangleGroup);
+        overallHistogramAccentLinePool = new NodePool<>(overallHistogramAccentLineGroup, () -> {
+            Line line = new Line();
+            line.setStrokeWidth(1.);
+            return line;
+        });
+        overallHistogramRectanglePool = new NodePool<>(overallHistogramRectangleGroup, () -> {
+            Rectangle rectangle = new Rectangle();
+            rectangle.strokeProperty().bind(overallHistogramStroke);
+            rectangle.fillProperty().bind(overallHistogramFill);
+            return rectangle;
+        });
+        queryHistogramRectanglePool = new NodePool<>(queryHistogramGroup, () -> {
+            Rectangle rectangle = new Rectangle();
+            rectangle.strokeProperty().bind(queryHistogramStroke);
+            rectangle.fillProperty().bind(queryHistogramFill);
+            return rectangle;
+        });
+
         getGraphicsGroup().getChildren().add(0, overallHistogramGroup);
         getGraphicsGroup().getChildren().add(1, queryHistogramGroup);
         getGraphicsGroup().getChildren().addAll(minValueText,
@@ -497,19 +522,25 @@ public class DoubleAxis extends UnivariateAxis {
         maxFocusValueText.setX(getBounds().getMinX() + ((width - maxFocusValueText.getLayoutBounds().getWidth()) / 2.));
         maxFocusValueText.setY(getAxisBar().getY());
 
+        redrawStatistics();
+    }
+
+    @Override
+    protected void redrawStatistics() {
         if (!getDataTable().isEmpty()) {
             if (getDataTableView().isShowingHistograms()) {
                 DoubleHistogram histogram = doubleColumn().getStatistics().getHistogram();
                 DoubleHistogram queryHistogram = null;
-                if (getDataTable().getActiveQuery().hasColumnSelections()) {
+                if (getDataTable().getActiveQuery().hasSelections()) {
                     DoubleColumnSummaryStats stats = (DoubleColumnSummaryStats)getDataTable().getActiveQuery().getColumnQuerySummaryStats(doubleColumn());
                     if (stats != null) {
                         queryHistogram = stats.getHistogram();
                     }
                 }
 
-                overallHistogramGroup.getChildren().clear();
-                queryHistogramGroup.getChildren().clear();
+                overallHistogramAccentLinePool.reset();
+                overallHistogramRectanglePool.reset();
+                queryHistogramRectanglePool.reset();
 
                 for (int i = 0; i < histogram.getNumBins(); i++) {
                     if (histogram.getBinCount(i) > 0) {
@@ -525,33 +556,33 @@ public class DoubleAxis extends UnivariateAxis {
                             double binWidth = GraphicsUtil.mapValue(histogram.getBinCount(i),
                                     0, histogram.getMaxBinCount(),
                                     getAxisBar().getWidth() + 4, getAxisBar().getWidth() + 4 + maxHistogramBinWidth);
-                            double x = getBounds().getMinX() + ((width - binWidth) / 2.);
-                            Rectangle rectangle = new Rectangle(x, binUpperY, binWidth, binLowerY - binUpperY);
-                            rectangle.strokeProperty().bind(overallHistogramStroke);
-                            rectangle.fillProperty().bind(overallHistogramFill);
-                            Line accentLineLeft = new Line(rectangle.getX() - 0.5, rectangle.getY(), rectangle.getX() - 0.5, rectangle.getY() + rectangle.getHeight() - 1);
+                            double x = getBounds().getMinX() + ((getBounds().getWidth() - binWidth) / 2.);
+                            Rectangle rectangle = overallHistogramRectanglePool.acquire();
+                            setRectangleBounds(rectangle, x, binUpperY, binWidth, binLowerY - binUpperY);
+                            Line accentLineLeft = overallHistogramAccentLinePool.acquire();
+                            setLinePoints(accentLineLeft, rectangle.getX() - 0.5, rectangle.getY(), rectangle.getX() - 0.5, rectangle.getY() + rectangle.getHeight() - 1);
                             accentLineLeft.setStroke(getDataTableView().getBackgroundColor());
-                            accentLineLeft.setStrokeWidth(1.);
-                            Line accentLineRight = new Line(rectangle.getLayoutBounds().getMaxX(), rectangle.getY(), rectangle.getLayoutBounds().getMaxX(), rectangle.getY() + rectangle.getHeight() - 1);
+                            Line accentLineRight = overallHistogramAccentLinePool.acquire();
+                            setLinePoints(accentLineRight, rectangle.getLayoutBounds().getMaxX(), rectangle.getY(), rectangle.getLayoutBounds().getMaxX(), rectangle.getY() + rectangle.getHeight() - 1);
                             accentLineRight.setStroke(getDataTableView().getBackgroundColor());
-                            accentLineRight.setStrokeWidth(1.);
-                            overallHistogramGroup.getChildren().addAll(accentLineLeft, accentLineRight, rectangle);
 
                             if (queryHistogram != null) {
                                 if (queryHistogram.getBinCount(i) > 0) {
                                     binWidth = GraphicsUtil.mapValue(queryHistogram.getBinCount(i),
                                             0, histogram.getMaxBinCount(),
                                             getAxisBar().getWidth() + 4, getAxisBar().getWidth() + 4 + maxHistogramBinWidth);
-                                    x = getBounds().getMinX() + ((width - binWidth) / 2.);
-                                    Rectangle queryRectangle = new Rectangle(x, binUpperY, binWidth, binLowerY - binUpperY);
-                                    queryRectangle.strokeProperty().bind(queryHistogramStroke);
-                                    queryRectangle.fillProperty().bind(queryHistogramFill);
-                                    queryHistogramGroup.getChildren().add(queryRectangle);
+                                    x = getBounds().getMinX() + ((getBounds().getWidth() - binWidth) / 2.);
+                                    Rectangle queryRectangle = queryHistogramRectanglePool.acquire();
+                                    setRectangleBounds(queryRectangle, x, binUpperY, binWidth, binLowerY - binUpperY);
                                 }
                             }
                         }
                     }
                 }
+
+                overallHistogramAccentLinePool.hideUnused();
+                overallHistogramRectanglePool.hideUnused();
+                queryHistogramRectanglePool.hideUnused();
             }
 
             if (getDataTableView().isShowingSummaryStatistics()) {
@@ -601,7 +632,7 @@ public class DoubleAxis extends UnivariateAxis {
                 querySummaryStatisticsGroup.setVisible(false);
                 nonquerySummaryStatisticsGroup.setVisible(false);
 
-                if (getDataTable().getActiveQuery().hasColumnSelections()) {
+                if (getDataTable().getActiveQuery().hasSelections()) {
                     DoubleColumnSummaryStats queryColumnSummaryStats = (DoubleColumnSummaryStats)getDataTable().getActiveQuery().getColumnQuerySummaryStats(getColumn());
 
                     double queryDispersionRectangleWidth = doubleAxis().getAxisBar().getWidth() / 4.;
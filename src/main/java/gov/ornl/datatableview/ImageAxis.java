@@ -4,14 +4,13 @@ import gov.ornl.datatable.ColumnSelection;
 import gov.ornl.datatable.ImageColumn;
 import gov.ornl.datatable.ImageColumnSelection;
 import gov.ornl.util.GraphicsUtil;
+import gov.ornl.util.ImageCache;
 import javafx.geometry.Point2D;
 import javafx.scene.Group;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Line;
 import javafx.scene.shape.Rectangle;
-import javafx.util.Pair;
 
 import java.io.File;
 import java.util.*;
@@ -21,22 +20,22 @@ public class ImageAxis extends UnivariateAxis {
             Color.ORANGE.getBlue(), 1.0);
 
 //    HashMap<Pair<File,Image>, Double> imageAxisPositions = new HashMap<>();
-    private ArrayList<Pair<File,Image>> imagePairs = new ArrayList<>();
+    private ArrayList<File> imageFiles = new ArrayList<>();
 
     private ImageAxisSelection draggingSelection;
 
     private Group imageTickLineGroup = new Group();
-    private HashMap<Pair<File,Image>, Line> imagePairToTickLineMap = new HashMap<>();
+    private HashMap<File, Line> imageFileToTickLineMap = new HashMap<>();
 
     private ImageView hoverImageView;
-    private Line hoverImagePairTickLine;
+    private Line hoverImageTickLine;
 
     private boolean draggingToRemove = false;
 
     public ImageAxis(DataTableView dataTableView, ImageColumn column) {
         super(dataTableView, column);
 
-        imagePairs.addAll(imageColumn().getValuesAsList());
+        imageFiles.addAll(imageColumn().getValuesAsList());
 
         hoverImageView = new ImageView();
         hoverImageView.setPreserveRatio(true);
@@ -45,16 +44,16 @@ public class ImageAxis extends UnivariateAxis {
         hoverImageView.setCache(true);
         hoverImageView.setMouseTransparent(true);
 
-        hoverImagePairTickLine = new Line();
-        hoverImagePairTickLine.setStrokeWidth(3.);
-        hoverImagePairTickLine.setMouseTransparent(true);
+        hoverImageTickLine = new Line();
+        hoverImageTickLine.setStrokeWidth(3.);
+        hoverImageTickLine.setMouseTransparent(true);
 
         getUpperContextBar().setVisible(false);
         getLowerContextBar().setVisible(false);
         getUpperContextBarHandle().setVisible(false);
         getLowerContextBarHandle().setVisible(false);
 
-        getGraphicsGroup().getChildren().addAll(imageTickLineGroup, hoverImageView, hoverImagePairTickLine);
+        getGraphicsGroup().getChildren().addAll(imageTickLineGroup, hoverImageView, hoverImageTickLine);
 
         registerListeners();
     }
@@ -66,13 +65,13 @@ public class ImageAxis extends UnivariateAxis {
 
         getAxisBar().setOnMouseExited(event -> {
             hoverImageView.setVisible(false);
-            hoverImagePairTickLine.setVisible(false);
+            hoverImageTickLine.setVisible(false);
         });
 
         getAxisBar().setOnMouseMoved(event -> {
-            Pair<File,Image> imagePair = (Pair<File,Image>)getValueForAxisPosition(event.getY());
-            if (imagePair != null) {
-                hoverImageView.setImage(imagePair.getValue());
+            File imageFile = (File)getValueForAxisPosition(event.getY());
+            if (imageFile != null) {
+                hoverImageView.setImage(ImageCache.getSharedCache().getThumbnail(imageFile));
                 hoverImageView.setX(getBounds().getMinX() - 2.);
                 double hoverImageY = event.getY() - (hoverImageView.getLayoutBounds().getHeight() / 2.);
                 if (hoverImageY < getMaxFocusPosition()) {
@@ -82,19 +81,19 @@ public class ImageAxis extends UnivariateAxis {
                 }
                 hoverImageView.setY(hoverImageY);
 
-                Line imagePairTickLine = imagePairToTickLineMap.get(imagePair);
-                hoverImagePairTickLine.setStartX(imagePairTickLine.getStartX());
-                hoverImagePairTickLine.setStartY(imagePairTickLine.getStartY());
-                hoverImagePairTickLine.setEndX(imagePairTickLine.getEndX());
-                hoverImagePairTickLine.setEndY(imagePairTickLine.getEndY());
-                hoverImagePairTickLine.setStroke(imagePairTickLine.getStroke());
+                Line imageTickLine = imageFileToTickLineMap.get(imageFile);
+                hoverImageTickLine.setStartX(imageTickLine.getStartX());
+                hoverImageTickLine.setStartY(imageTickLine.getStartY());
+                hoverImageTickLine.setEndX(imageTickLine.getEndX());
+                hoverImageTickLine.setEndY(imageTickLine.getEndY());
+                hoverImageTickLine.setStroke(imageTickLine.getStroke());
                 if (!hoverImageView.isVisible()) {
                     hoverImageView.setVisible(true);
-                    hoverImagePairTickLine.setVisible(true);
+                    hoverImageTickLine.setVisible(true);
                 }
             } else {
                 hoverImageView.setVisible(false);
-                hoverImagePairTickLine.setVisible(false);
+                hoverImageTickLine.setVisible(false);
             }
         });
 
@@ -120,18 +119,18 @@ public class ImageAxis extends UnivariateAxis {
             selectionMaxY = selectionMaxY < getMaxFocusPosition() ? getMaxFocusPosition() : selectionMaxY;
             selectionMinY = selectionMinY > getMinFocusPosition() ? getMinFocusPosition() : selectionMinY;
 
-            int selectionMaxImagePairIndex = getImagePairIndexForAxisPosition(selectionMaxY);
-            int selectionMinImagePairIndex = getImagePairIndexForAxisPosition(selectionMinY);
-            HashSet<Pair<File, Image>> selectedImagePairs = new HashSet<>(imagePairs.subList(selectionMinImagePairIndex,
-                    selectionMaxImagePairIndex + 1));
+            int selectionMaxImageIndex = getImageIndexForAxisPosition(selectionMaxY);
+            int selectionMinImageIndex = getImageIndexForAxisPosition(selectionMinY);
+            HashSet<File> selectedImageFiles = new HashSet<>(imageFiles.subList(selectionMinImageIndex,
+                    selectionMaxImageIndex + 1));
 
             if (draggingSelection == null) {
-                ImageColumnSelection columnSelection = new ImageColumnSelection(imageColumn(), selectedImagePairs);
+                ImageColumnSelection columnSelection = new ImageColumnSelection(imageColumn(), selectedImageFiles);
                 draggingSelection = new ImageAxisSelection(this, columnSelection, selectionMinY, selectionMaxY);
                 axisSelectionGraphicsGroup.getChildren().add(draggingSelection.getGraphicsGroup());
                 axisSelectionGraphicsGroup.toFront();
             } else {
-                draggingSelection.update(selectedImagePairs, selectionMinY, selectionMaxY);
+                draggingSelection.update(selectedImageFiles, selectionMinY, selectionMaxY);
             }
         });
 
@@ -142,11 +141,11 @@ public class ImageAxis extends UnivariateAxis {
                 if (draggingToRemove && getDataTable().getActiveQuery().hasColumnSelections()) {
                     List<ColumnSelection> columnSelections = getDataTable().getActiveQuery().getColumnSelections(imageColumn());
                     if (columnSelections != null && !columnSelections.isEmpty()) {
-                        Set<Pair<File,Image>> imagePairsToRemove = ((ImageColumnSelection)draggingSelection.getColumnSelection()).getSelectedImagePairs();
+                        Set<File> imageFilesToRemove = ((ImageColumnSelection)draggingSelection.getColumnSelection()).getSelectedImageFiles();
 
                         for (ColumnSelection columnSelection : columnSelections) {
                             ImageColumnSelection imageColumnSelection = (ImageColumnSelection)columnSelection;
-                            imageColumnSelection.removeImagePairs(imagePairsToRemove);
+                            imageColumnSelection.removeImageFiles(imageFilesToRemove);
                         }
                     }
                     updateImageTickLines();
@@ -164,9 +163,9 @@ public class ImageAxis extends UnivariateAxis {
 
     @Override
     protected Object getValueForAxisPosition(double axisPosition) {
-        int index = getImagePairIndexForAxisPosition(axisPosition);
+        int index = getImageIndexForAxisPosition(axisPosition);
         if (index != -1) {
-            return imagePairs.get(index);
+            return imageFiles.get(index);
         }
 
         return null;
@@ -179,10 +178,10 @@ public class ImageAxis extends UnivariateAxis {
 //        }
     }
 
-    protected int getImagePairIndexForAxisPosition(double axisPosition) {
+    protected int getImageIndexForAxisPosition(double axisPosition) {
         int index = (int)Math.round(GraphicsUtil.mapValue(axisPosition, getMinFocusPosition() - 2., getMaxFocusPosition() + 2.,
-                0, imagePairs.size() - 1));
-        if (index >= 0 && index < imagePairs.size()) {
+                0, imageFiles.size() - 1));
+        if (index >= 0 && index < imageFiles.size()) {
             return index;
         }
 
@@ -206,10 +205,10 @@ public class ImageAxis extends UnivariateAxis {
         return imageAxisSelection;
     }
 
-    protected double getAxisPositionForValue(Pair<File,Image> imagePair) {
-        int pairIndex = imagePairs.indexOf(imagePair);
-        if (pairIndex >= 0 && pairIndex < imagePairs.size()) {
-            return GraphicsUtil.mapValue(pairIndex, 0, imagePairs.size() - 1,
+    protected double getAxisPositionForValue(File imageFile) {
+        int imageIndex = imageFiles.indexOf(imageFile);
+        if (imageIndex >= 0 && imageIndex < imageFiles.size()) {
+            return GraphicsUtil.mapValue(imageIndex, 0, imageFiles.size() - 1,
                     getMinFocusPosition() - 2., getMaxFocusPosition() + 2.);
         }
         return Double.NaN;
@@ -222,11 +221,11 @@ public class ImageAxis extends UnivariateAxis {
         hoverImageView.setFitWidth((getBounds().getWidth() - getAxisBar().getWidth()) / 2.);
 
         imageTickLineGroup.getChildren().clear();
-        imagePairToTickLineMap.clear();
-        for (int i = 0; i < imagePairs.size(); i++) {
-            double y = getAxisPositionForValue(imagePairs.get(i));
+        imageFileToTickLineMap.clear();
+        for (int i = 0; i < imageFiles.size(); i++) {
+            double y = getAxisPositionForValue(imageFiles.get(i));
             Line line = new Line(getAxisBar().getLayoutBounds().getMinX() + 4., y, getAxisBar().getLayoutBounds().getMaxX() - 4., y);
-            if (getDataTable().getActiveQuery().hasColumnSelections()) {
+            if (getDataTable().getActiveQuery().hasSelections()) {
                 if (getDataTable().getTuple(i).getQueryFlag()) {
                     line.strokeProperty().bind(getDataTableView().selectedItemsColorProperty());
                 } else {
@@ -238,27 +237,37 @@ public class ImageAxis extends UnivariateAxis {
             line.setStrokeWidth(1.);
             line.setMouseTransparent(true);
             imageTickLineGroup.getChildren().add(line);
-            imagePairToTickLineMap.put(imagePairs.get(i), line);
+            imageFileToTickLineMap.put(imageFiles.get(i), line);
 //            imageTickLineToImagePairMap.put(line, imagePairs.get(i));
         }
 
         updateAxisSelectionIndicators();
     }
 
+    @Override
+    protected void redrawStatistics() {
+        updateImageTickLines();
+    }
+
+    @Override
+    protected void redrawSelections() {
+        updateAxisSelectionIndicators();
+    }
+
     private void updateAxisSelectionIndicators() {
         axisSelectionGraphicsGroup.getChildren().clear();
         ArrayList<ColumnSelection> columnSelections = getDataTable().getActiveQuery().getColumnSelections(imageColumn());
         if (columnSelections != null && !columnSelections.isEmpty()) {
-            for (Pair<File,Image> imagePair : imagePairs) {
+            for (File imageFile : imageFiles) {
                 for (ColumnSelection columnSelection : columnSelections) {
-                    if (((ImageColumnSelection)columnSelection).getSelectedImagePairs().contains(imagePair)) {
-                        Line imagePairTickLine = imagePairToTickLineMap.get(imagePair);
-                        Line leftIndicatorLine = new Line(imagePairTickLine.getStartX() - 1.5, imagePairTickLine.getStartY() - 1.,
-                                imagePairTickLine.getStartX() - 1.5, imagePairTickLine.getEndY() + 1.);
+                    if (((ImageColumnSelection)columnSelection).getSelectedImageFiles().contains(imageFile)) {
+                        Line imageTickLine = imageFileToTickLineMap.get(imageFile);
+                        Line leftIndicatorLine = new Line(imageTickLine.getStartX() - 1.5, imageTickLine.getStartY() - 1.,
+                                imageTickLine.getStartX() - 1.5, imageTickLine.getEndY() + 1.);
                         leftIndicatorLine.setStrokeWidth(2.);
                         leftIndicatorLine.setStroke(DEFAULT_SELECTION_FILL_COLOR);
-                        Line rightIndicatorLine = new Line(imagePairTickLine.getEndX() + 1.5, imagePairTickLine.getStartY() - 1.,
-                                imagePairTickLine.getEndX() + 1.5, imagePairTickLine.getEndY() + 1.);
+                        Line rightIndicatorLine = new Line(imageTickLine.getEndX() + 1.5, imageTickLine.getStartY() - 1.,
+                                imageTickLine.getEndX() + 1.5, imageTickLine.getEndY() + 1.);
                         rightIndicatorLine.setStrokeWidth(2.);
                         rightIndicatorLine.setStroke(DEFAULT_SELECTION_FILL_COLOR);
                         axisSelectionGraphicsGroup.getChildren().addAll(leftIndicatorLine, rightIndicatorLine);
@@ -270,16 +279,16 @@ public class ImageAxis extends UnivariateAxis {
     }
 
     private void updateImageTickLines() {
-        if (getDataTable().getActiveQuery().hasColumnSelections()) {
-            for (int i = 0; i < imagePairs.size(); i++) {
+        if (getDataTable().getActiveQuery().hasSelections()) {
+            for (int i = 0; i < imageFiles.size(); i++) {
                 if (getDataTable().getTuple(i).getQueryFlag()) {
-                    imagePairToTickLineMap.get(imagePairs.get(i)).strokeProperty().bind(getDataTableView().selectedItemsColorProperty());
+                    imageFileToTickLineMap.get(imageFiles.get(i)).strokeProperty().bind(getDataTableView().selectedItemsColorProperty());
                 } else {
-                    imagePairToTickLineMap.get(imagePairs.get(i)).strokeProperty().bind(getDataTableView().unselectedItemsColorProperty());
+                    imageFileToTickLineMap.get(imageFiles.get(i)).strokeProperty().bind(getDataTableView().unselectedItemsColorProperty());
                 }
             }
         } else {
-            for (Line line : imagePairToTickLineMap.values()) {
+            for (Line line : imageFileToTickLineMap.values()) {
                 line.strokeProperty().bind(getDataTableView().selectedItemsColorProperty());
             }
         }
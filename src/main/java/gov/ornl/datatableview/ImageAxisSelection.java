@@ -1,9 +1,7 @@
 package gov.ornl.datatableview;
 
 import gov.ornl.datatable.ImageColumnSelection;
-import javafx.scene.image.Image;
 import javafx.scene.input.MouseEvent;
-import javafx.util.Pair;
 
 import java.io.File;
 import java.util.Set;
@@ -17,7 +15,7 @@ public class ImageAxisSelection extends UnivariateAxisSelection {
     }
 
     private void registerListeners() {
-        imageColumnSelection().selectedImagePairSetProperty().addListener((observable, oldValue, newValue) -> {
+        imageColumnSelection().selectedImageFileSetProperty().addListener((observable, oldValue, newValue) -> {
             if (newValue != null) {
                 resize();
             }
@@ -30,8 +28,8 @@ public class ImageAxisSelection extends UnivariateAxisSelection {
 
     private ImageAxis imageAxis() { return (ImageAxis)getAxis(); }
 
-    protected void update(Set<Pair<File, Image>> selectedImagePairs, double minValueY, double maxValueY) {
-        imageColumnSelection().setSelectedImagePairs(selectedImagePairs);
+    protected void update(Set<File> selectedImageFiles, double minValueY, double maxValueY) {
+        imageColumnSelection().setSelectedImageFiles(selectedImageFiles);
         layoutGraphics(minValueY, maxValueY);
     }
 
@@ -0,0 +1,52 @@
+package gov.ornl.datatableview;
+
+import javafx.scene.Group;
+import javafx.scene.Node;
+
+import java.util.ArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Recycled set of nodes in a group for axis graphics that are rebuilt on every resize
+ * (histogram bins, category bars, etc.).
+ *
+ * Call reset() before laying out, acquire() for each node needed, and hideUnused()
+ * when done. Nodes are only created when more are needed than in any earlier layout,
+ * so resizing and query changes reposition existing nodes instead of replacing them.
+ */
+public class NodePool<T extends Node> {
+    private Group group;
+    private Supplier<T> nodeFactory;
+    private ArrayList<T> nodes = new ArrayList<>();
+    private int usedCount = 0;
+
+    // nodeFactory should apply the settings shared by every node (bindings, mouse transparency, etc.)
+    public NodePool(Group group, Supplier<T> nodeFactory) {
+        this.group = group;
+        this.nodeFactory = nodeFactory;
+    }
+
+    public void reset() {
+        usedCount = 0;
+    }
+
+    public T acquire() {
+        T node;
+        if (usedCount < nodes.size()) {
+            node = nodes.get(usedCount);
+            node.setVisible(true);
+        } else {
+            node = nodeFactory.get();
+            nodes.add(node);
+            group.getChildren().add(node);
+        }
+        usedCount++;
+        return node;
+    }
+
+    public void hideUnused() {
+        for (int i = usedCount; i < nodes.size(); i++) {
+            nodes.get(i).setVisible(false);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package gov.ornl.datatableview;
+
+import gov.ornl.util.GraphicsUtil;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Per-pixel accumulation of polyline segments for the density rendering mode.
+ *
+ * Polylines are rasterized into an integer count buffer so they can be added and
+ * subtracted individually. This lets a small query change be applied by moving only
+ * the rows that flipped between the selected and unselected buffers instead of
+ * redrawing every polyline.
+ */
+public class PolylineDensityBuffer {
+    private int width;
+    private int height;
+    private int counts[];
+    private int pixels[];
+    private WritableImage image;
+
+    public PolylineDensityBuffer(int width, int height) {
+        this.width = Math.max(width, 1);
+        this.height = Math.max(height, 1);
+        counts = new int[this.width * this.height];
+        pixels = new int[counts.length];
+        image = new WritableImage(this.width, this.height);
+    }
+
+    public int getWidth() { return width; }
+
+    public int getHeight() { return height; }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+    }
+
+    public void addPolylines(Collection<TuplePolyline> tuplePolylines, ArrayList<Axis> axisList,
+                             boolean drawContextPolylineSegments) {
+        for (TuplePolyline tuplePolyline : tuplePolylines) {
+            accumulate(tuplePolyline, axisList, drawContextPolylineSegments, 1);
+        }
+    }
+
+    public void addPolyline(TuplePolyline tuplePolyline, ArrayList<Axis> axisList, boolean drawContextPolylineSegments) {
+        accumulate(tuplePolyline, axisList, drawContextPolylineSegments, 1);
+    }
+
+    public void subtractPolyline(TuplePolyline tuplePolyline, ArrayList<Axis> axisList, boolean drawContextPolylineSegments) {
+        accumulate(tuplePolyline, axisList, drawContextPolylineSegments, -1);
+    }
+
+    private void accumulate(TuplePolyline tuplePolyline, ArrayList<Axis> axisList, boolean drawContextPolylineSegments,
+                            int delta) {
+        double yPoints[] = tuplePolyline.getYPoints();
+        if (yPoints == null) {
+            return;
+        }
+
+        for (int i = 1; i < yPoints.length; i++) {
+            if (!drawContextPolylineSegments) {
+                if (!axisList.get(i - 1).getColumn().isRowInFocus(tuplePolyline.getRow()) ||
+                        !axisList.get(i).getColumn().isRowInFocus(tuplePolyline.getRow())) {
+                    continue;
+                }
+            }
+
+            double x0 = TuplePolylineRenderer.getSegmentStartX(axisList.get(i - 1));
+            double x1 = TuplePolylineRenderer.getSegmentEndX(axisList.get(i));
+            accumulateSegment(x0, yPoints[i - 1], x1, yPoints[i], delta);
+        }
+    }
+
+    // DDA rasterization of a single segment, one count per pixel touched
+    private void accumulateSegment(double x0, double y0, double x1, double y1, int delta) {
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        int steps = (int)Math.ceil(Math.max(Math.abs(dx), Math.abs(dy)));
+        if (steps == 0) {
+            steps = 1;
+        }
+
+        double xIncrement = dx / steps;
+        double yIncrement = dy / steps;
+        double x = x0;
+        double y = y0;
+
+        for (int i = 0; i <= steps; i++) {
+            int px = (int)x;
+            int py = (int)y;
+            if (px >= 0 && px < width && py >= 0 && py < height) {
+                counts[py * width + px] += delta;
+            }
+            x += xIncrement;
+            y += yIncrement;
+        }
+    }
+
+    // draws the buffer on the canvas using log scaled opacity of the given color
+    public void render(Canvas canvas, Color color) {
+        canvas.getGraphicsContext2D().clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        if (!GraphicsUtil.densityToPixels(counts, 0, pixels, color)) {
+            return;
+        }
+
+        image.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        canvas.getGraphicsContext2D().drawImage(image, 0, 0);
+    }
+}
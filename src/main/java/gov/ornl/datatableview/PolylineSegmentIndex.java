@@ -0,0 +1,134 @@
+package gov.ornl.datatableview;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Bucket index of the polyline segments drawn between two adjacent axes.
+ *
+ * Segments are bucketed by the y position of both end points. For a point between
+ * the axes, a segment passes through it when y0 * (1 - t) + y1 * t equals the point's
+ * y position, so a query only visits, for each bucket on one axis, the narrow range
+ * of buckets on the other axis that can satisfy the equation.
+ */
+public class PolylineSegmentIndex {
+    private static final int BUCKET_COUNT = 64;
+
+    private double leftX;
+    private double rightX;
+    private double minY;
+    private double bucketHeight;
+
+    private TuplePolyline segmentPolylines[];
+    private double segmentY0[];
+    private double segmentY1[];
+
+    // segments in cell (b0 * BUCKET_COUNT) + b1 are cellSegments[cellOffsets[cell]] up to cellSegments[cellOffsets[cell + 1]]
+    private int cellOffsets[];
+    private int cellSegments[];
+
+    // axisIndex is the index of the right axis of the gap in axisList
+    public PolylineSegmentIndex(Collection<TuplePolyline> tuplePolylines, ArrayList<Axis> axisList, int axisIndex,
+                                boolean includeContextSegments) {
+        Axis leftAxis = axisList.get(axisIndex - 1);
+        Axis rightAxis = axisList.get(axisIndex);
+        leftX = TuplePolylineRenderer.getSegmentStartX(leftAxis);
+        rightX = TuplePolylineRenderer.getSegmentEndX(rightAxis);
+
+        ArrayList<TuplePolyline> polylines = new ArrayList<>();
+        for (TuplePolyline tuplePolyline : tuplePolylines) {
+            if (tuplePolyline.getYPoints() == null) {
+                continue;
+            }
+            if (!includeContextSegments && (!leftAxis.getColumn().isRowInFocus(tuplePolyline.getRow()) ||
+                    !rightAxis.getColumn().isRowInFocus(tuplePolyline.getRow()))) {
+                continue;
+            }
+            polylines.add(tuplePolyline);
+        }
+
+        segmentPolylines = polylines.toArray(new TuplePolyline[polylines.size()]);
+        segmentY0 = new double[segmentPolylines.length];
+        segmentY1 = new double[segmentPolylines.length];
+
+        minY = Double.POSITIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < segmentPolylines.length; i++) {
+            segmentY0[i] = segmentPolylines[i].getYPoints()[axisIndex - 1];
+            segmentY1[i] = segmentPolylines[i].getYPoints()[axisIndex];
+            minY = Math.min(minY, Math.min(segmentY0[i], segmentY1[i]));
+            maxY = Math.max(maxY, Math.max(segmentY0[i], segmentY1[i]));
+        }
+        if (segmentPolylines.length == 0) {
+            minY = maxY = 0.;
+        }
+        bucketHeight = Math.max((maxY - minY) / BUCKET_COUNT, 1.);
+
+        int segmentCells[] = new int[segmentPolylines.length];
+        cellOffsets = new int[(BUCKET_COUNT * BUCKET_COUNT) + 1];
+        for (int i = 0; i < segmentPolylines.length; i++) {
+            segmentCells[i] = (getBucket(segmentY0[i]) * BUCKET_COUNT) + getBucket(segmentY1[i]);
+            cellOffsets[segmentCells[i] + 1]++;
+        }
+        for (int i = 1; i < cellOffsets.length; i++) {
+            cellOffsets[i] += cellOffsets[i - 1];
+        }
+
+        cellSegments = new int[segmentPolylines.length];
+        int cellFill[] = new int[BUCKET_COUNT * BUCKET_COUNT];
+        for (int i = 0; i < segmentPolylines.length; i++) {
+            cellSegments[cellOffsets[segmentCells[i]] + cellFill[segmentCells[i]]++] = i;
+        }
+    }
+
+    public double getLeftX() { return leftX; }
+
+    public double getRightX() { return rightX; }
+
+    private int getBucket(double y) {
+        return Math.max(0, Math.min(BUCKET_COUNT - 1, (int)((y - minY) / bucketHeight)));
+    }
+
+    // returns the polyline whose segment passes closest to (x, y) within maxDistance pixels or null if there is none
+    public TuplePolyline getNearestPolyline(double x, double y, double maxDistance) {
+        if (segmentPolylines.length == 0 || x < leftX || x > rightX) {
+            return null;
+        }
+
+        double t = rightX > leftX ? (x - leftX) / (rightX - leftX) : 0.;
+
+        TuplePolyline nearestPolyline = null;
+        double nearestDistance = maxDistance;
+        for (int fixedBucket = 0; fixedBucket < BUCKET_COUNT; fixedBucket++) {
+            // solve for the bucket range on the axis with the larger weight at t to keep the range narrow
+            double fixedLow = minY + (fixedBucket * bucketHeight);
+            double fixedHigh = fixedLow + bucketHeight;
+            int startBucket;
+            int endBucket;
+            if (t <= .5) {
+                // fixed bucket is on the right axis, solve for the left axis
+                startBucket = getBucket((y - (t * fixedHigh) - maxDistance) / (1. - t));
+                endBucket = getBucket((y - (t * fixedLow) + maxDistance) / (1. - t));
+            } else {
+                // fixed bucket is on the left axis, solve for the right axis
+                startBucket = getBucket((y - ((1. - t) * fixedHigh) - maxDistance) / t);
+                endBucket = getBucket((y - ((1. - t) * fixedLow) + maxDistance) / t);
+            }
+
+            for (int bucket = startBucket; bucket <= endBucket; bucket++) {
+                int cell = t <= .5 ? (bucket * BUCKET_COUNT) + fixedBucket : (fixedBucket * BUCKET_COUNT) + bucket;
+                for (int i = cellOffsets[cell]; i < cellOffsets[cell + 1]; i++) {
+                    int segment = cellSegments[i];
+                    double segmentY = segmentY0[segment] + (t * (segmentY1[segment] - segmentY0[segment]));
+                    double distance = Math.abs(segmentY - y);
+                    if (distance <= nearestDistance) {
+                        nearestDistance = distance;
+                        nearestPolyline = segmentPolylines[segment];
+                    }
+                }
+            }
+        }
+
+        return nearestPolyline;
+    }
+}
@@ -32,6 +32,9 @@ public class TemporalAxis extends UnivariateAxis {
 
     private Group overallInteriorHistogramRectangleGroup = new Group();
     private Group queryInteriorHistogramRectangleGroup = new Group();
+    private Line histogramZeroLine;
+    private NodePool<Rectangle> overallHistogramRectanglePool;
+    private NodePool<Rectangle> queryHistogramRectanglePool;
 
     public TemporalAxis(DataTableView dataTableView, TemporalColumn column) {
         super(dataTableView, column);
@@ -79,6 +82,22 @@ public class TemporalAxis extends UnivariateAxis {
         overallInteriorHistogramRectangleGroup.setMouseTransparent(true);
         queryInteriorHistogramRectangleGroup.setMouseTransparent(true);
 
+        histogramZeroLine = new Line();
+        histogramZeroLine.strokeProperty().bind(overallHistogramStroke);
+        overallInteriorHistogramRectangleGroup.getChildren().add(histogramZeroLine);
+        overallHistogramRectanglePool = new NodePool<>(overallInteriorHistogramRectangleGroup, () -> {
+            Rectangle rectangle = new Rectangle();
+            rectangle.fillProperty().bind(overallHistogramFill);
+            rectangle.strokeProperty().bind(overallHistogramStroke);
+            return rectangle;
+        });
+        queryHistogramRectanglePool = new NodePool<>(queryInteriorHistogramRectangleGroup, () -> {
+            Rectangle rectangle = new Rectangle();
+            rectangle.strokeProperty().bind(queryHistogramStroke);
+            rectangle.fillProperty().bind(queryHistogramFill);
+            return rectangle;
+        });
+
         registerListeners();
     }
 
@@ -366,23 +385,25 @@ public class TemporalAxis extends UnivariateAxis {
         focusEndInstantText.setX(getBounds().getMinX() + ((width - focusEndInstantText.getLayoutBounds().getWidth()) / 2.));
         focusEndInstantText.setY(getAxisBar().getY());
 
+        redrawStatistics();
+    }
+
+    @Override
+    protected void redrawStatistics() {
         if (!getDataTable().isEmpty()) {
             TemporalHistogram histogram = temporalColumn().getStatistics().getHistogram();
             TemporalHistogram queryHistogram = null;
-            if (getDataTable().getActiveQuery().hasColumnSelections()) {
+            if (getDataTable().getActiveQuery().hasSelections()) {
                 TemporalColumnSummaryStats stats = (TemporalColumnSummaryStats) getDataTable().getActiveQuery().getColumnQuerySummaryStats(temporalColumn());
                 if (stats != null) {
                     queryHistogram = stats.getHistogram();
                 }
             }
 
-            overallInteriorHistogramRectangleGroup.getChildren().clear();
-            queryInteriorHistogramRectangleGroup.getChildren().clear();
+            overallHistogramRectanglePool.reset();
+            queryHistogramRectanglePool.reset();
 
-            Line zeroLine = new Line(getCenterX(), getMaxFocusPosition(), getCenterX(), getMinFocusPosition());
-            zeroLine.strokeProperty().bind(overallHistogramStroke);
-
-            overallInteriorHistogramRectangleGroup.getChildren().add(zeroLine);
+            setLinePoints(histogramZeroLine, getCenterX(), getMaxFocusPosition(), getCenterX(), getMinFocusPosition());
 
             for (int i = 0; i < histogram.getNumBins(); i++) {
                 Instant binLowerBound = histogram.getBinLowerBound(i);
@@ -398,10 +419,8 @@ public class TemporalAxis extends UnivariateAxis {
                         double binWidth = GraphicsUtil.mapValue(histogram.getBinCount(i), 0,
                                 histogram.getMaxBinCount(), 1, getAxisBar().getWidth());
                         double x = getCenterX() - (binWidth / 2.);
-                        Rectangle rectangle = new Rectangle(x, binUpperY, binWidth, binLowerY - binUpperY);
-                        rectangle.fillProperty().bind(overallHistogramFill);
-                        rectangle.strokeProperty().bind(overallHistogramStroke);
-                        overallInteriorHistogramRectangleGroup.getChildren().add(rectangle);
+                        Rectangle rectangle = overallHistogramRectanglePool.acquire();
+                        setRectangleBounds(rectangle, x, binUpperY, binWidth, binLowerY - binUpperY);
 
                         if (queryHistogram != null) {
                             if (queryHistogram.getBinCount(i) > 0) {
@@ -409,15 +428,16 @@ public class TemporalAxis extends UnivariateAxis {
                                         0, histogram.getMaxBinCount(), 1.,
                                         getAxisBar().getWidth());
                                 x = getCenterX() - (binWidth / 2.);
-                                rectangle = new Rectangle(x, binUpperY, binWidth, binLowerY - binUpperY);
-                                rectangle.strokeProperty().bind(queryHistogramStroke);
-                                rectangle.fillProperty().bind(queryHistogramFill);
-                                queryInteriorHistogramRectangleGroup.getChildren().add(rectangle);
+                                rectangle = queryHistogramRectanglePool.acquire();
+                                setRectangleBounds(rectangle, x, binUpperY, binWidth, binLowerY - binUpperY);
                             }
                         }
                     }
                 }
             }
+
+            overallHistogramRectanglePool.hideUnused();
+            queryHistogramRectanglePool.hideUnused();
         }
     }
 }
@@ -2,9 +2,7 @@ package gov.ornl.datatableview;
 
 import gov.ornl.datatable.*;
 import gov.ornl.util.GraphicsUtil;
-import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
-import javafx.util.Pair;
 
 import java.io.File;
 import java.time.Instant;
@@ -16,6 +14,7 @@ public class TuplePolyline {
     public static Logger log = Logger.getLogger(TuplePolyline.class.getName());
 
     private Tuple tuple;
+    private int row;
     private Color color;
 //    private ArrayList<Double> xPoints = new ArrayList<>();
 //    private ArrayList<Double> yPoints = new ArrayList<>();
@@ -23,8 +22,9 @@ public class TuplePolyline {
     private double xPoints[];
     private double yPoints[];
 
-    public TuplePolyline(Tuple tuple) {
+    public TuplePolyline(Tuple tuple, int row) {
         this.tuple = tuple;
+        this.row = row;
     }
 
 //    public boolean isInContext() { return inContext; }
@@ -35,6 +35,9 @@ public class TuplePolyline {
 
     public Tuple getTuple() { return tuple; }
 
+    // index of the tuple in the data table
+    public int getRow() { return row; }
+
     public void layout(ArrayList<Axis> axisList) {
 //        xPoints = new double[tuple.getElementCount()];
 //        yPoints = new double[tuple.getElementCount()];
@@ -173,9 +176,9 @@ public class TuplePolyline {
                 }
             } else if (axis instanceof ImageAxis) {
                 ImageAxis imageAxis = (ImageAxis)axis;
-                Pair<File,Image> imagePair = (Pair<File,Image>)tuple.getElement(i);
+                File imageFile = (File)tuple.getElement(i);
                 xPoints[i] = axis.getCenterX();
-                yPoints[i] = imageAxis.getAxisPositionForValue(imagePair);
+                yPoints[i] = imageAxis.getAxisPositionForValue(imageFile);
             } else {
 //                double x = axis.getCenterX();
 //                double y = axis.getCenterY();
@@ -60,25 +60,14 @@ public class TuplePolylineRenderer extends AnimationTimer {
 //                        if (tuplePolyline.getInContext()[i-1] || tuplePolyline.getInContext()[i]) {
 //                            continue;
 //                        }
-                        if (!tuplePolyline.getTuple().isElementInFocus(i - 1) ||
-                                !tuplePolyline.getTuple().isElementInFocus(i)) {
+                        if (!axisList.get(i - 1).getColumn().isRowInFocus(tuplePolyline.getRow()) ||
+                                !axisList.get(i).getColumn().isRowInFocus(tuplePolyline.getRow())) {
                             continue;
                         }
                     }
 
-                    double x0, x1;
-
-                    if (axisList.get(i - 1) instanceof BivariateAxis) {
-                        x0 = ((BivariateAxis) axisList.get(i - 1)).getScatterplot().plotBounds.getMaxX();
-                    } else {
-                        x0 = ((UnivariateAxis) axisList.get(i - 1)).getBarRightX();
-                    }
-
-                    if (axisList.get(i) instanceof BivariateAxis) {
-                        x1 = ((BivariateAxis) axisList.get(i)).getScatterplot().plotBounds.getMinX();
-                    } else {
-                        x1 = ((UnivariateAxis) axisList.get(i)).getBarLeftX();
-                    }
+                    double x0 = getSegmentStartX(axisList.get(i - 1));
+                    double x1 = getSegmentEndX(axisList.get(i));
 
                     canvas.getGraphicsContext2D().strokeLine(x0, tuplePolyline.getYPoints()[i - 1],
                             x1, tuplePolyline.getYPoints()[i]);
@@ -87,6 +76,22 @@ public class TuplePolylineRenderer extends AnimationTimer {
         }
     }
 
+    // x position where a polyline segment leaves the given axis
+    static double getSegmentStartX(Axis axis) {
+        if (axis instanceof BivariateAxis) {
+            return ((BivariateAxis) axis).getScatterplot().plotBounds.getMaxX();
+        }
+        return ((UnivariateAxis) axis).getBarRightX();
+    }
+
+    // x position where a polyline segment enters the given axis
+    static double getSegmentEndX(Axis axis) {
+        if (axis instanceof BivariateAxis) {
+            return ((BivariateAxis) axis).getScatterplot().plotBounds.getMinX();
+        }
+        return ((UnivariateAxis) axis).getBarLeftX();
+    }
+
     @Override
     public void start() {
         super.start();
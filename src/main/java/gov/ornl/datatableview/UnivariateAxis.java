@@ -138,10 +138,17 @@ public abstract class UnivariateAxis extends Axis {
         lowerContextBarHandle.setStartY(getAxisBar().getY() + getAxisBar().getHeight() + 2.);
         lowerContextBarHandle.setEndY(lowerContextBarHandle.getStartY());
 
-        if (!getAxisSelectionList().isEmpty()) {
-            for (AxisSelection axisSelection : getAxisSelectionList()) {
-                axisSelection.resize();
-            }
+        resizeAxisSelections();
+    }
+
+    @Override
+    protected void redrawSelections() {
+        resizeAxisSelections();
+    }
+
+    private void resizeAxisSelections() {
+        for (AxisSelection axisSelection : getAxisSelectionList()) {
+            axisSelection.resize();
         }
     }
 
@@ -152,4 +159,18 @@ public abstract class UnivariateAxis extends Axis {
         line.setStrokeWidth(DEFAULT_STROKE_WIDTH);
         return line;
     }
+
+    protected static void setRectangleBounds(Rectangle rectangle, double x, double y, double width, double height) {
+        rectangle.setX(x);
+        rectangle.setY(y);
+        rectangle.setWidth(width);
+        rectangle.setHeight(height);
+    }
+
+    protected static void setLinePoints(Line line, double startX, double startY, double endX, double endY) {
+        line.setStartX(startX);
+        line.setStartY(startY);
+        line.setEndX(endX);
+        line.setEndY(endY);
+    }
 }
@@ -0,0 +1,437 @@
+package gov.ornl.geoview;
+
+import gov.ornl.datatable.*;
+import gov.ornl.util.GraphicsUtil;
+import gov.ornl.util.PointGridIndex;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * Density heatmap of data table rows positioned by a latitude and a longitude column.
+ *
+ * Rows are binned into one count per screen pixel of the map (in parallel chunks,
+ * like the scatterplot density mode) and drawn with log scaled opacity, queried rows
+ * over the others. The map selection rectangle becomes latitude and longitude range
+ * selections in the active query, so it is linked with the parallel coordinates
+ * brushes. A grid index over the row positions, built once per data load, gives the
+ * rows under the rectangle without scanning every row, both while it is dragged and
+ * as the only rows the query tests against its range selections.
+ */
+public class GeoPointLayer implements DataTableListener {
+    private final static Logger log = Logger.getLogger(GeoPointLayer.class.getName());
+
+    public final static Color DEFAULT_SELECTED_POINT_COLOR = Color.STEELBLUE;
+    public final static Color DEFAULT_UNSELECTED_POINT_COLOR = Color.DARKGRAY;
+
+    // size of the index cells in degrees
+    private final static double INDEX_CELL_SIZE = 1.;
+    private final static int MIN_DENSITY_CHUNK_SIZE = 10000;
+
+    private DataTable dataTable;
+    private DoubleColumn latitudeColumn;
+    private DoubleColumn longitudeColumn;
+    private MapView mapView;
+
+    private Canvas canvas = new Canvas();
+
+    // normalized positions of the rows (longitude in [-180, 180]); NaN for rows without a valid location
+    private double latitudes[] = new double[0];
+    private double longitudes[] = new double[0];
+    private PointGridIndex pointIndex;
+    // snapshot rows version the positions and the index were read from
+    private long pointsRowsVersion = -1;
+
+    private int densityWidth;
+    private int densityHeight;
+    private int densityPixels[];
+    private WritableImage selectedDensityImage;
+    private WritableImage unselectedDensityImage;
+
+    // rows under the rectangle being dragged; null when not dragging
+    private BitSet dragRows;
+
+    // the range selections made from the current map rectangle
+    private ArrayList<ColumnSelection> geoSelections = new ArrayList<>();
+    private boolean updatingSelections = false;
+
+    private ObjectProperty<Color> selectedPointColor = new SimpleObjectProperty<>(DEFAULT_SELECTED_POINT_COLOR);
+    private ObjectProperty<Color> unselectedPointColor = new SimpleObjectProperty<>(DEFAULT_UNSELECTED_POINT_COLOR);
+
+    public GeoPointLayer(DataTable dataTable, DoubleColumn latitudeColumn, DoubleColumn longitudeColumn) {
+        this.dataTable = dataTable;
+        this.latitudeColumn = latitudeColumn;
+        this.longitudeColumn = longitudeColumn;
+
+        canvas.setMouseTransparent(true);
+        selectedPointColor.addListener(observable -> redraw());
+        unselectedPointColor.addListener(observable -> redraw());
+
+        dataTable.addDataTableListener(this);
+        loadPoints();
+    }
+
+    public Canvas getCanvas() { return canvas; }
+
+    public DataTable getDataTable() { return dataTable; }
+
+    public DoubleColumn getLatitudeColumn() { return latitudeColumn; }
+
+    public DoubleColumn getLongitudeColumn() { return longitudeColumn; }
+
+    public Color getSelectedPointColor() { return selectedPointColor.get(); }
+
+    public void setSelectedPointColor(Color color) { selectedPointColor.set(color); }
+
+    public ObjectProperty<Color> selectedPointColorProperty() { return selectedPointColor; }
+
+    public Color getUnselectedPointColor() { return unselectedPointColor.get(); }
+
+    public void setUnselectedPointColor(Color color) { unselectedPointColor.set(color); }
+
+    public ObjectProperty<Color> unselectedPointColorProperty() { return unselectedPointColor; }
+
+    protected void setMapView(MapView mapView) {
+        this.mapView = mapView;
+    }
+
+    // places the layer over the map image (x, y, width, and height of the map in map view coordinates)
+    protected void setMapBounds(double x, double y, double width, double height) {
+        canvas.relocate(x, y);
+        canvas.setWidth(Math.max(width, 0.));
+        canvas.setHeight(Math.max(height, 0.));
+        redraw();
+    }
+
+    // reads the row locations and rebuilds the grid index
+    private void loadPoints() {
+        dragRows = null;
+
+        // columns are replaced when the data table is reset, so look them up again by name
+        if (dataTable.getColumnIndex(latitudeColumn) == -1) {
+            Column column = dataTable.getColumn(latitudeColumn.getName());
+            latitudeColumn = column instanceof DoubleColumn ? (DoubleColumn)column : latitudeColumn;
+        }
+        if (dataTable.getColumnIndex(longitudeColumn) == -1) {
+            Column column = dataTable.getColumn(longitudeColumn.getName());
+            longitudeColumn = column instanceof DoubleColumn ? (DoubleColumn)column : longitudeColumn;
+        }
+
+        DataTableSnapshot snapshot = dataTable.getSnapshot();
+        pointsRowsVersion = snapshot.getRowsVersion();
+        if (!snapshot.hasColumn(latitudeColumn) || !snapshot.hasColumn(longitudeColumn)) {
+            latitudes = new double[0];
+            longitudes = new double[0];
+        } else {
+            latitudes = snapshot.getDoubleValues(latitudeColumn);
+            longitudes = snapshot.getDoubleValues(longitudeColumn);
+        }
+
+        int pointCount = 0;
+        for (int i = 0; i < latitudes.length; i++) {
+            if (Double.isNaN(latitudes[i]) || latitudes[i] < -90. || latitudes[i] > 90. || Double.isNaN(longitudes[i]) ||
+                    Double.isInfinite(longitudes[i])) {
+                latitudes[i] = Double.NaN;
+            } else {
+                longitudes[i] = normalizeLongitude(longitudes[i]);
+                pointCount++;
+            }
+        }
+
+        double x[] = new double[pointCount];
+        double y[] = new double[pointCount];
+        int rows[] = new int[pointCount];
+        int counter = 0;
+        for (int i = 0; i < latitudes.length; i++) {
+            if (!Double.isNaN(latitudes[i])) {
+                x[counter] = longitudes[i];
+                y[counter] = latitudes[i];
+                rows[counter++] = i;
+            }
+        }
+        pointIndex = new PointGridIndex(x, y, rows, INDEX_CELL_SIZE);
+
+        redraw();
+    }
+
+    private static double normalizeLongitude(double longitude) {
+        if (longitude >= -180. && longitude <= 180.) {
+            return longitude;
+        }
+        return (((longitude + 180.) % 360.) + 360.) % 360. - 180.;
+    }
+
+    // longitude intervals covered by a rectangle whose longitudes run past -180 or 180 when it wraps
+    private static List<double[]> getLongitudeRanges(GeoRectangle geoRectangle) {
+        ArrayList<double[]> ranges = new ArrayList<>();
+        double left = Math.min(geoRectangle.leftLongitude, geoRectangle.rightLongitude);
+        double right = Math.max(geoRectangle.leftLongitude, geoRectangle.rightLongitude);
+
+        if (right - left >= 360.) {
+            ranges.add(new double[] {-180., 180.});
+        } else if (left < -180.) {
+            ranges.add(new double[] {left + 360., 180.});
+            ranges.add(new double[] {-180., right});
+        } else if (right > 180.) {
+            ranges.add(new double[] {left, 180.});
+            ranges.add(new double[] {-180., right - 360.});
+        } else {
+            ranges.add(new double[] {left, right});
+        }
+        return ranges;
+    }
+
+    // rows inside the rectangle, answered from the grid index
+    public BitSet getRowsInGeoRectangle(GeoRectangle geoRectangle) {
+        double bottom = Math.min(geoRectangle.bottomLatitude, geoRectangle.topLatitude);
+        double top = Math.max(geoRectangle.bottomLatitude, geoRectangle.topLatitude);
+
+        BitSet rows = new BitSet();
+        for (double range[] : getLongitudeRanges(geoRectangle)) {
+            rows.or(pointIndex.getRowsInRectangle(range[0], bottom, range[1], top));
+        }
+        return rows;
+    }
+
+    // highlights the rows under the rectangle being dragged (null when the drag ends)
+    protected void setDragGeoRectangle(GeoRectangle geoRectangle) {
+        dragRows = geoRectangle == null ? null : getRowsInGeoRectangle(geoRectangle);
+        redraw();
+    }
+
+    // replaces the map selection in the active query with range selections for the rectangle (null removes it)
+    protected void setSelectionGeoRectangle(GeoRectangle geoRectangle) {
+        if (updatingSelections) {
+            return;
+        }
+        updatingSelections = true;
+
+        if (!geoSelections.isEmpty()) {
+            ArrayList<ColumnSelection> oldSelections = new ArrayList<>(geoSelections);
+            geoSelections.clear();
+            dataTable.removeColumnSelectionsFromActiveQuery(oldSelections);
+        }
+
+        if (geoRectangle != null && dataTable.getColumnIndex(latitudeColumn) != -1 &&
+                dataTable.getColumnIndex(longitudeColumn) != -1) {
+            // several ranges on one column are combined with or, so a rectangle across 180 degrees is two ranges;
+            // the latitudes are kept valid so that the rows from the index include every row passing the ranges
+            ArrayList<DoubleColumnSelectionRange> rangeSelections = new ArrayList<>();
+            rangeSelections.add(new DoubleColumnSelectionRange(latitudeColumn,
+                    Math.max(Math.min(geoRectangle.bottomLatitude, geoRectangle.topLatitude), -90.),
+                    Math.min(Math.max(geoRectangle.bottomLatitude, geoRectangle.topLatitude), 90.)));
+            for (double range[] : getLongitudeRanges(geoRectangle)) {
+                rangeSelections.add(new DoubleColumnSelectionRange(longitudeColumn, range[0], range[1]));
+            }
+            geoSelections.addAll(rangeSelections);
+
+            // the index only answers for the rows it was built from
+            BitSet candidateRows = pointsRowsVersion == dataTable.getSnapshot().getRowsVersion() ?
+                    getRowsInGeoRectangle(geoRectangle) : null;
+            dataTable.addColumnSelectionsToActiveQuery(rangeSelections, candidateRows);
+        }
+
+        updatingSelections = false;
+    }
+
+    // drops the map rectangle once any of its range selections is removed elsewhere (e.g., in the axis view)
+    private void checkGeoSelections() {
+        if (updatingSelections || geoSelections.isEmpty()) {
+            return;
+        }
+
+        List<ColumnSelection> activeSelections = dataTable.getActiveQuery().getColumnSelections();
+        for (ColumnSelection columnSelection : geoSelections) {
+            if (!activeSelections.contains(columnSelection)) {
+                ArrayList<ColumnSelection> remainingSelections = new ArrayList<>(geoSelections);
+                remainingSelections.retainAll(activeSelections);
+                geoSelections.clear();
+
+                updatingSelections = true;
+                if (!remainingSelections.isEmpty()) {
+                    dataTable.removeColumnSelectionsFromActiveQuery(remainingSelections);
+                }
+                if (mapView != null) {
+                    mapView.clearSelection();
+                }
+                updatingSelections = false;
+                return;
+            }
+        }
+    }
+
+    private void redraw() {
+        canvas.getGraphicsContext2D().clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        int width = (int)canvas.getWidth();
+        int height = (int)canvas.getHeight();
+        if (width < 1 || height < 1 || latitudes.length == 0) {
+            return;
+        }
+
+        if (densityPixels == null || width != densityWidth || height != densityHeight) {
+            densityWidth = width;
+            densityHeight = height;
+            densityPixels = new int[width * height];
+            selectedDensityImage = new WritableImage(width, height);
+            unselectedDensityImage = new WritableImage(width, height);
+        }
+
+        // the binning threads read the queried rows of the snapshot instead of the active query
+        BitSet selectedRows = dragRows;
+        DataTableSnapshot snapshot = dataTable.getSnapshot();
+        if (selectedRows == null && snapshot.hasSelections()) {
+            selectedRows = snapshot.getQueriedRows();
+        }
+
+        int densityCounts[] = binPoints(width, height, selectedRows);
+        int binCount = width * height;
+
+        if (GraphicsUtil.densityToPixels(densityCounts, binCount, densityPixels, getUnselectedPointColor())) {
+            unselectedDensityImage.getPixelWriter().setPixels(0, 0, width, height,
+                    PixelFormat.getIntArgbInstance(), densityPixels, 0, width);
+            canvas.getGraphicsContext2D().drawImage(unselectedDensityImage, 0, 0);
+        }
+
+        if (GraphicsUtil.densityToPixels(densityCounts, 0, densityPixels, getSelectedPointColor())) {
+            selectedDensityImage.getPixelWriter().setPixels(0, 0, width, height,
+                    PixelFormat.getIntArgbInstance(), densityPixels, 0, width);
+            canvas.getGraphicsContext2D().drawImage(selectedDensityImage, 0, 0);
+        }
+    }
+
+    // per pixel counts of selected rows followed by per pixel counts of the other rows
+    // (all rows count as selected when selectedRows is null)
+    private int[] binPoints(int width, int height, BitSet selectedRows) {
+        double rowLatitudes[] = latitudes;
+        double rowLongitudes[] = longitudes;
+        int binCount = width * height;
+
+        // each task bins a contiguous chunk of rows into its own counts which are then summed
+        int chunkSize = Math.max(MIN_DENSITY_CHUNK_SIZE,
+                rowLatitudes.length / Runtime.getRuntime().availableProcessors() + 1);
+        int chunkCount = (rowLatitudes.length + chunkSize - 1) / chunkSize;
+        return IntStream.range(0, chunkCount).parallel().mapToObj(chunk -> {
+            int counts[] = new int[binCount * 2];
+            int end = Math.min(rowLatitudes.length, (chunk + 1) * chunkSize);
+            for (int row = chunk * chunkSize; row < end; row++) {
+                if (Double.isNaN(rowLatitudes[row])) {
+                    continue;
+                }
+                int px = Math.min((int)(((rowLongitudes[row] + 180.) / 360.) * width), width - 1);
+                int py = Math.min((int)(((90. - rowLatitudes[row]) / 180.) * height), height - 1);
+                int offset = selectedRows == null || selectedRows.get(row) ? 0 : binCount;
+                counts[offset + (py * width) + px]++;
+            }
+            return counts;
+        }).reduce((counts, partialCounts) -> {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += partialCounts[i];
+            }
+            return counts;
+        }).orElse(new int[binCount * 2]);
+    }
+
+    @Override
+    public void dataTableReset(DataTable dataTable) {
+        geoSelections.clear();
+        if (mapView != null) {
+            updatingSelections = true;
+            mapView.clearSelection();
+            updatingSelections = false;
+        }
+        loadPoints();
+    }
+
+    @Override
+    public void dataTableStatisticsChanged(DataTable dataTable) { }
+
+    @Override
+    public void dataTableColumnExtentsChanged(DataTable dataTable) { }
+
+    @Override
+    public void dataTableColumnFocusExtentsChanged(DataTable dataTable) { }
+
+    @Override
+    public void dataTableNumHistogramBinsChanged(DataTable dataTable) { }
+
+    @Override
+    public void dataTableAllColumnSelectionsRemoved(DataTable dataTable) {
+        checkGeoSelections();
+        redraw();
+    }
+
+    @Override
+    public void dataTableAllColumnSelectionsForColumnRemoved(DataTable dataTable, Column column) {
+        checkGeoSelections();
+        redraw();
+    }
+
+    @Override
+    public void dataTableColumnSelectionAdded(DataTable dataTable, ColumnSelection columnSelectionRange) {
+        redraw();
+    }
+
+    @Override
+    public void dataTableColumnSelectionRemoved(DataTable dataTable, ColumnSelection columnSelectionRange) {
+        checkGeoSelections();
+        redraw();
+    }
+
+    @Override
+    public void dataTableColumnSelectionsRemoved(DataTable dataTable, List<ColumnSelection> removedColumnSelections) {
+        checkGeoSelections();
+        redraw();
+    }
+
+    @Override
+    public void dataTableColumnSelectionChanged(DataTable dataTable, ColumnSelection columnSelectionRange) {
+        redraw();
+    }
+
+    @Override
+    public void dataTableRowSelectionChanged(DataTable dataTable) {
+        redraw();
+    }
+
+    @Override
+    public void dataTableHighlightedColumnChanged(DataTable dataTable, Column oldHighlightedColumn, Column newHighlightedColumn) { }
+
+    @Override
+    public void dataTableTuplesAdded(DataTable dataTable, ArrayList<Tuple> newTuples) {
+        loadPoints();
+    }
+
+    @Override
+    public void dataTableTuplesRemoved(DataTable dataTable, int numTuplesRemoved) {
+        checkGeoSelections();
+        loadPoints();
+    }
+
+    @Override
+    public void dataTableColumnDisabled(DataTable dataTable, Column disabledColumn) { }
+
+    @Override
+    public void dataTableColumnsDisabled(DataTable dataTable, ArrayList<Column> disabledColumns) { }
+
+    @Override
+    public void dataTableColumnEnabled(DataTable dataTable, Column enabledColumn) { }
+
+    @Override
+    public void dataTableBivariateColumnAdded(DataTable dataTable, BivariateColumn bivariateColumn, int index) { }
+
+    @Override
+    public void dataTableColumnOrderChanged(DataTable dataTable) { }
+
+    @Override
+    public void dataTableColumnNameChanged(DataTable dataTable, Column column) { }
+}
@@ -0,0 +1,359 @@
+package gov.ornl.geoview;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Properties;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Basemap image sliced into a pyramid of fixed size tiles.
+ *
+ * Level 0 covers the world (equirectangular, -180 to 180 longitude and 90 to -90
+ * latitude) with two tiles and each following level doubles the resolution, up to
+ * the resolution of the source image. The pyramid is generated once on a background
+ * thread into a cache directory under the user's home, and later runs read only the
+ * tiles they draw. Loaded tiles are kept in a least recently used cache of fixed size
+ * and tiles that are not loaded yet are drawn from the small level 0 overview.
+ */
+public class MapTilePyramid {
+    private final static Logger log = Logger.getLogger(MapTilePyramid.class.getName());
+
+    public final static int TILE_SIZE = 256;
+    public final static int DEFAULT_MAX_CACHED_TILES = 256;
+
+    private final static String OVERVIEW_FILE_NAME = "overview.png";
+    private final static String INFO_FILE_NAME = "pyramid.properties";
+    private final static String LEVEL_COUNT_KEY = "levels";
+    private final static String SOURCE_SIZE_KEY = "sourceSize";
+
+    private static HashMap<String, MapTilePyramid> pyramidMap = new HashMap<>();
+
+    private String resourcePath;
+    private File cacheDirectory;
+
+    // number of levels whose tiles are in the cache directory
+    private volatile int levelCount = 0;
+    private volatile Image overviewImage;
+
+    private int maxCachedTiles = DEFAULT_MAX_CACHED_TILES;
+    private LinkedHashMap<TileKey, Image> tileMap = new LinkedHashMap<>(16, 0.75f, true);
+
+    // incremented whenever new tiles can be drawn
+    private ReadOnlyIntegerWrapper revision = new ReadOnlyIntegerWrapper(0);
+
+    private MapTilePyramid(String resourcePath) {
+        this.resourcePath = resourcePath;
+
+        String name = new File(resourcePath).getName();
+        if (name.lastIndexOf('.') > 0) {
+            name = name.substring(0, name.lastIndexOf('.'));
+        }
+        cacheDirectory = new File(new File(System.getProperty("user.home"), ".crossvis" + File.separator + "map-tiles"), name);
+
+        if (!readInfo()) {
+            Thread thread = new Thread(this::generate, "MapTilePyramid generator");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    public static synchronized MapTilePyramid getPyramid(String resourcePath) {
+        MapTilePyramid pyramid = pyramidMap.get(resourcePath);
+        if (pyramid == null) {
+            pyramid = new MapTilePyramid(resourcePath);
+            pyramidMap.put(resourcePath, pyramid);
+        }
+        return pyramid;
+    }
+
+    public File getCacheDirectory() { return cacheDirectory; }
+
+    public int getLevelCount() { return levelCount; }
+
+    public int getRevision() { return revision.get(); }
+
+    public ReadOnlyIntegerProperty revisionProperty() { return revision.getReadOnlyProperty(); }
+
+    public synchronized int getMaxCachedTiles() { return maxCachedTiles; }
+
+    public synchronized void setMaxCachedTiles(int maxCachedTiles) {
+        this.maxCachedTiles = maxCachedTiles;
+        evict();
+    }
+
+    private static int getLevelWidth(int level) { return 2 * TILE_SIZE << level; }
+
+    private static int getLevelHeight(int level) { return TILE_SIZE << level; }
+
+    private File getTileFile(int level, int column, int row) {
+        return new File(new File(cacheDirectory, String.valueOf(level)), column + "_" + row + ".png");
+    }
+
+    // uses a pyramid generated by an earlier run if it is complete and made from the same source image
+    private boolean readInfo() {
+        File infoFile = new File(cacheDirectory, INFO_FILE_NAME);
+        File overviewFile = new File(cacheDirectory, OVERVIEW_FILE_NAME);
+        if (!infoFile.exists() || !overviewFile.exists()) {
+            return false;
+        }
+
+        try (InputStream input = new FileInputStream(infoFile)) {
+            Properties properties = new Properties();
+            properties.load(input);
+            if (!String.valueOf(getResourceSize()).equals(properties.getProperty(SOURCE_SIZE_KEY))) {
+                return false;
+            }
+            int levels = Integer.parseInt(properties.getProperty(LEVEL_COUNT_KEY, "0"));
+            if (levels < 1) {
+                return false;
+            }
+
+            overviewImage = new Image(overviewFile.toURI().toString());
+            if (overviewImage.isError()) {
+                return false;
+            }
+            levelCount = levels;
+            return true;
+        } catch (IOException | NumberFormatException e) {
+            log.log(Level.WARNING, "Unable to read map tile pyramid " + infoFile.getAbsolutePath(), e);
+            return false;
+        }
+    }
+
+    // size of the source image resource, used to notice a replaced basemap
+    private long getResourceSize() {
+        URL resource = getClass().getClassLoader().getResource(resourcePath);
+        if (resource == null) {
+            return -1;
+        }
+        try {
+            return resource.openConnection().getContentLengthLong();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private void generate() {
+        byte sourceBytes[];
+        try (InputStream input = getClass().getClassLoader().getResourceAsStream(resourcePath)) {
+            if (input == null) {
+                log.warning("Basemap image resource " + resourcePath + " not found");
+                return;
+            }
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte buffer[] = new byte[64 * 1024];
+            int count;
+            while ((count = input.read(buffer)) != -1) {
+                output.write(buffer, 0, count);
+            }
+            sourceBytes = output.toByteArray();
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Unable to read basemap image resource " + resourcePath, e);
+            return;
+        }
+
+        try {
+            // the finest level is the last one that is no wider than the source image
+            int sourceWidth = readImageWidth(sourceBytes);
+            int levels = 1;
+            while (getLevelWidth(levels) <= sourceWidth) {
+                levels++;
+            }
+
+            long start = System.currentTimeMillis();
+            new File(cacheDirectory, INFO_FILE_NAME).delete();
+
+            for (int level = 0; level < levels; level++) {
+                Image levelImage = new Image(new ByteArrayInputStream(sourceBytes), getLevelWidth(level),
+                        getLevelHeight(level), false, true);
+                if (levelImage.isError() || levelImage.getPixelReader() == null) {
+                    log.warning("Unable to decode basemap image resource " + resourcePath);
+                    return;
+                }
+
+                File levelDirectory = new File(cacheDirectory, String.valueOf(level));
+                if (!levelDirectory.isDirectory() && !levelDirectory.mkdirs()) {
+                    throw new IOException("Unable to create " + levelDirectory.getAbsolutePath());
+                }
+
+                int pixels[] = new int[TILE_SIZE * TILE_SIZE];
+                for (int row = 0; row < getLevelHeight(level) / TILE_SIZE; row++) {
+                    for (int column = 0; column < getLevelWidth(level) / TILE_SIZE; column++) {
+                        writeImage(levelImage.getPixelReader(), column * TILE_SIZE, row * TILE_SIZE, TILE_SIZE,
+                                TILE_SIZE, pixels, getTileFile(level, column, row));
+                    }
+                }
+
+                if (level == 0) {
+                    File overviewFile = new File(cacheDirectory, OVERVIEW_FILE_NAME);
+                    writeImage(levelImage.getPixelReader(), 0, 0, getLevelWidth(0), getLevelHeight(0),
+                            new int[getLevelWidth(0) * getLevelHeight(0)], overviewFile);
+                    overviewImage = levelImage;
+                }
+
+                levelCount = level + 1;
+                Platform.runLater(() -> revision.set(revision.get() + 1));
+            }
+
+            // the info file is written last so an interrupted run is generated again
+            Properties properties = new Properties();
+            properties.setProperty(LEVEL_COUNT_KEY, String.valueOf(levels));
+            properties.setProperty(SOURCE_SIZE_KEY, String.valueOf(getResourceSize()));
+            try (OutputStream output = new FileOutputStream(new File(cacheDirectory, INFO_FILE_NAME))) {
+                properties.store(output, "CrossVis map tile pyramid for " + resourcePath);
+            }
+
+            log.info("Generated " + levels + " map tile levels in " + (System.currentTimeMillis() - start) + "ms");
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Unable to write map tile pyramid in " + cacheDirectory.getAbsolutePath(), e);
+        }
+    }
+
+    private static int readImageWidth(byte imageBytes[]) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(imageBytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported basemap image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input);
+                return reader.getWidth(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static void writeImage(PixelReader pixelReader, int x, int y, int width, int height, int pixels[],
+                                   File file) throws IOException {
+        pixelReader.getPixels(x, y, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, width, height, pixels, 0, width);
+        ImageIO.write(image, "png", file);
+    }
+
+    // tile image that may still be loading in the background or null if the level is not generated yet
+    private synchronized Image getTile(int level, int column, int row) {
+        if (level >= levelCount) {
+            return null;
+        }
+
+        TileKey key = new TileKey(level, column, row);
+        Image tile = tileMap.get(key);
+        if (tile == null || tile.isError()) {
+            tile = new Image(getTileFile(level, column, row).toURI().toString(), true);
+            Image loadingTile = tile;
+            tile.progressProperty().addListener((observable, oldValue, newValue) -> {
+                if (newValue.doubleValue() >= 1. && !loadingTile.isError()) {
+                    revision.set(revision.get() + 1);
+                }
+            });
+            tileMap.put(key, tile);
+            evict();
+        }
+        return tile;
+    }
+
+    private void evict() {
+        Iterator<Image> iterator = tileMap.values().iterator();
+        while (tileMap.size() > maxCachedTiles && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    // draws the part of the world between the given longitudes and latitudes into the rectangle (x, y, width, height)
+    // using the coarsest level that is at least as detailed as the rectangle
+    public void render(GraphicsContext gc, double x, double y, double width, double height,
+                       double westLongitude, double eastLongitude, double southLatitude, double northLatitude) {
+        if (overviewImage == null || levelCount == 0 || width <= 0. || height <= 0. ||
+                eastLongitude <= westLongitude || northLatitude <= southLatitude) {
+            return;
+        }
+
+        double worldWidth = width * (360. / (eastLongitude - westLongitude));
+        int level = 0;
+        while (level < levelCount - 1 && getLevelWidth(level) < worldWidth) {
+            level++;
+        }
+
+        int levelWidth = getLevelWidth(level);
+        int levelHeight = getLevelHeight(level);
+        double left = ((westLongitude + 180.) / 360.) * levelWidth;
+        double right = ((eastLongitude + 180.) / 360.) * levelWidth;
+        double top = ((90. - northLatitude) / 180.) * levelHeight;
+        double bottom = ((90. - southLatitude) / 180.) * levelHeight;
+        double scaleX = width / (right - left);
+        double scaleY = height / (bottom - top);
+
+        int firstColumn = Math.max(0, (int)Math.floor(left / TILE_SIZE));
+        int lastColumn = Math.min((levelWidth / TILE_SIZE) - 1, (int)Math.ceil(right / TILE_SIZE) - 1);
+        int firstRow = Math.max(0, (int)Math.floor(top / TILE_SIZE));
+        int lastRow = Math.min((levelHeight / TILE_SIZE) - 1, (int)Math.ceil(bottom / TILE_SIZE) - 1);
+
+        // scale from this level to the overview image
+        double overviewScale = overviewImage.getWidth() / levelWidth;
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            // tile edges are snapped to whole pixels so neighboring tiles do not leave seams
+            double tileTop = Math.floor(y + ((row * TILE_SIZE) - top) * scaleY);
+            double tileBottom = Math.ceil(y + (((row + 1) * TILE_SIZE) - top) * scaleY);
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                double tileLeft = Math.floor(x + ((column * TILE_SIZE) - left) * scaleX);
+                double tileRight = Math.ceil(x + (((column + 1) * TILE_SIZE) - left) * scaleX);
+
+                Image tile = getTile(level, column, row);
+                if (tile != null && tile.getProgress() >= 1. && !tile.isError()) {
+                    gc.drawImage(tile, tileLeft, tileTop, tileRight - tileLeft, tileBottom - tileTop);
+                } else {
+                    gc.drawImage(overviewImage, column * TILE_SIZE * overviewScale, row * TILE_SIZE * overviewScale,
+                            TILE_SIZE * overviewScale, TILE_SIZE * overviewScale,
+                            tileLeft, tileTop, tileRight - tileLeft, tileBottom - tileTop);
+                }
+            }
+        }
+    }
+
+    private static class TileKey {
+        private int level;
+        private int column;
+        private int row;
+
+        private TileKey(int level, int column, int row) {
+            this.level = level;
+            this.column = column;
+            this.row = row;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof TileKey)) {
+                return false;
+            }
+            TileKey other = (TileKey)object;
+            return level == other.level && column == other.column && row == other.row;
+        }
+
+        @Override
+        public int hashCode() {
+            return (((level * 31) + column) * 31) + row;
+        }
+    }
+}
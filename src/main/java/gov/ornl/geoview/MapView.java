@@ -9,7 +9,6 @@ import javafx.geometry.Point2D;
 import javafx.scene.Group;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.effect.BlendMode;
-import javafx.scene.image.Image;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.Region;
 import javafx.scene.paint.Color;
@@ -23,7 +22,9 @@ import java.util.logging.Logger;
 public class MapView extends Region {
     private static final Logger log = Logger.getLogger(MapView.class.getName());
 
-    private Image mapImage;
+    public final static String BASEMAP_RESOURCE = "gov/ornl/geoview/HYP_50M_SR_W.png";
+
+    private MapTilePyramid mapTilePyramid;
     private Canvas mapImageCanvas;
     private Pane pane = new Pane();
     private BoundingBox mapBounds;
@@ -50,10 +51,12 @@ public class MapView extends Region {
 
     private SelectionMask selectionMask;
 
+    private GeoPointLayer pointLayer;
+
     private Color selectionRectangleFillColor = Color.BLUE.deriveColor(1.,1.,1.,.25);
 
     public MapView() {
-        mapImage = new Image(getClass().getClassLoader().getResourceAsStream("gov/ornl/geoview/HYP_50M_SR_W.png"));
+        mapTilePyramid = MapTilePyramid.getPyramid(BASEMAP_RESOURCE);
         mapImageCanvas = new Canvas();
 
         setMinSize(180, 90);
@@ -185,6 +188,23 @@ public class MapView extends Region {
         pane.getChildren().add(selectionMask.getGraphicsGroup());
     }
 
+    // shows the point layer over the map and links the selection rectangle to its data table (null removes it)
+    public void setPointLayer(GeoPointLayer layer) {
+        if (pointLayer != null) {
+            pane.getChildren().remove(pointLayer.getCanvas());
+            pointLayer.setMapView(null);
+        }
+
+        pointLayer = layer;
+        if (pointLayer != null) {
+            pointLayer.setMapView(this);
+            pane.getChildren().add(pane.getChildren().indexOf(mapImageCanvas) + 1, pointLayer.getCanvas());
+            resizeView();
+        }
+    }
+
+    public GeoPointLayer getPointLayer() { return pointLayer; }
+
     public void clearSelectionMask() {
         if (selectionMask != null) {
             pane.getChildren().remove(selectionMask.getGraphicsGroup());
@@ -219,6 +239,15 @@ public class MapView extends Region {
     }
 
     private void registerListeners() {
+        selectionGeoRectangle.addListener((observable, oldValue, newValue) -> {
+            if (pointLayer != null) {
+                pointLayer.setSelectionGeoRectangle(newValue);
+            }
+        });
+
+        // redraw as tiles finish loading or the tile pyramid is generated
+        mapTilePyramid.revisionProperty().addListener(observable -> drawBasemap());
+
         widthProperty().addListener(observable -> { resizeView(); });
         heightProperty().addListener(observable -> { resizeView(); });
 
@@ -237,6 +266,9 @@ public class MapView extends Region {
         mapImageCanvas.setOnMouseReleased(event -> {
             if (dragging) {
                 dragging = false;
+                if (pointLayer != null) {
+                    pointLayer.setDragGeoRectangle(null);
+                }
 
                 selectionRectangle = dragRectangle;
                 selectionRectangle.setFill(selectionRectangleFillColor);
@@ -414,9 +446,26 @@ public class MapView extends Region {
             dragRectangle.setY(selectionTop);
             dragRectangle.setWidth(selectionRight - selectionLeft);
             dragRectangle.setHeight(selectionBottom - selectionTop);
+
+            if (pointLayer != null) {
+                // longitudes past -180 or 180 mean the rectangle wraps around the map
+                double dragLeft = Math.min(dragStartPoint.getX(), dragEndPoint.getX());
+                double dragRight = Math.max(dragStartPoint.getX(), dragEndPoint.getX());
+                pointLayer.setDragGeoRectangle(new GeoRectangle(
+                        GraphicsUtil.mapValue(dragLeft, 0, mapImageCanvas.getWidth(), -180., 180.),
+                        GraphicsUtil.mapValue(dragRight, 0, mapImageCanvas.getWidth(), -180., 180.),
+                        GraphicsUtil.mapValue(selectionBottom, 0, mapImageCanvas.getHeight(), 90., -90.),
+                        GraphicsUtil.mapValue(selectionTop, 0, mapImageCanvas.getHeight(), 90., -90.)));
+            }
         });
     }
 
+    private void drawBasemap() {
+        mapImageCanvas.getGraphicsContext2D().clearRect(0, 0, mapImageCanvas.getWidth(), mapImageCanvas.getHeight());
+        mapTilePyramid.render(mapImageCanvas.getGraphicsContext2D(), 0, 0, mapImageCanvas.getWidth(),
+                mapImageCanvas.getHeight(), -180., 180., -90., 90.);
+    }
+
     private void resizeView() {
         double mapWidth = getWidth() - (getInsets().getLeft() + getInsets().getRight());
         double mapHeight = getHeight() - (getInsets().getBottom() + getInsets().getTop());
@@ -439,9 +488,13 @@ public class MapView extends Region {
 
         mapImageCanvas.setWidth(mapBounds.getWidth() - 2);
         mapImageCanvas.setHeight(mapBounds.getHeight() - 2);
-        mapImageCanvas.getGraphicsContext2D().clearRect(0, 0, mapImageCanvas.getWidth(), mapImageCanvas.getHeight());
         mapImageCanvas.relocate(mapBounds.getMinX() + 1, mapBounds.getMinY() + 1);
-        mapImageCanvas.getGraphicsContext2D().drawImage(mapImage, 0, 0, mapImageCanvas.getWidth(), mapImageCanvas.getHeight());
+        drawBasemap();
+
+        if (pointLayer != null) {
+            pointLayer.setMapBounds(mapImageCanvas.getLayoutX(), mapImageCanvas.getLayoutY(),
+                    mapImageCanvas.getWidth(), mapImageCanvas.getHeight());
+        }
 
         if (selectionMask != null) {
             double maskLeft = GraphicsUtil.mapValue(selectionMask.getWestLongitude(), -180, 180, 0, mapImageCanvas.getWidth());
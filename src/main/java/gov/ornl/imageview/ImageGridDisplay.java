@@ -2,38 +2,50 @@ package gov.ornl.imageview;
 
 import gov.ornl.datatable.*;
 import gov.ornl.datatableview.DataTableView;
+import gov.ornl.datatableview.NodePool;
+import gov.ornl.util.ImageCache;
 import javafx.beans.property.*;
 import javafx.scene.Group;
+import javafx.scene.control.ScrollPane;
 import javafx.scene.control.Tooltip;
 import javafx.scene.effect.Bloom;
 import javafx.scene.effect.DropShadow;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.scene.layout.TilePane;
+import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
-import javafx.util.Pair;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.logging.Logger;
 
-public class ImageGridDisplay implements DataTableListener {
+/**
+ * Grid of the images in a data table's image column, selected images first.
+ *
+ * The grid is virtualized: tile positions are computed from the image scale and
+ * column count, and ImageViews are only created for the tiles in the scroll pane
+ * viewport. They are recycled as the grid scrolls, and thumbnails are requested
+ * from the ImageCache as their tiles come into view.
+ */
+public class ImageGridDisplay implements DataTableBatchListener {
     private static final Logger log = Logger.getLogger(ImageGridDisplay.class.getName());
 
     private static final double ELEMENT_SIZE = 100;
     private static final double GAP = ELEMENT_SIZE / 10;
 
-    private TilePane tilePane = new TilePane();
-    private Group display = new Group(tilePane);
+    private Group tileGroup = new Group();
+    private Pane display = new Pane(tileGroup);
+    private NodePool<ImageView> tilePool;
+    private ScrollPane scrollPane;
     private DataTable dataTable;
+    private int prefColumns = 1;
 
-    private double maxImageViewWidth = 500;
+    private double maxImageViewWidth = ImageCache.DEFAULT_THUMBNAIL_SIZE;
     private double minImageViewWidth = 20;
-    private double maxImageViewHeight = 500;
+    private double maxImageViewHeight = ImageCache.DEFAULT_THUMBNAIL_SIZE;
     private double minImageViewHeight = 20;
 
     private DoubleProperty imageScale = new SimpleDoubleProperty(0.5);
@@ -43,9 +55,12 @@ public class ImageGridDisplay implements DataTableListener {
     private BooleanProperty showSelectedImages = new SimpleBooleanProperty(true);
     private BooleanProperty showUnselectedImages = new SimpleBooleanProperty(true);
 
-    private ArrayList<ImageView> imageViewList = new ArrayList<>();
-    private HashMap<Pair<File,Image>,ImageView> pairToImageViewMap = new HashMap<>();
-    private HashMap<ImageView, Pair<File,Image>> imageViewToPairMap = new HashMap<>();
+    // image files in grid order and the number of them (at the start of the list) that are selected
+    private ArrayList<File> tileImageFiles = new ArrayList<>();
+    private int selectedTileCount = 0;
+    private int imageCount = 0;
+
+    private HashMap<ImageView, File> imageViewToFileMap = new HashMap<>();
 
     private DropShadow selectedDropShadow;
     private DropShadow unselectedDropShadow;
@@ -61,17 +76,27 @@ public class ImageGridDisplay implements DataTableListener {
         unselectedDropShadow.setColor(getUnselectedImagesColor());
 //        unselectedDropShadow.colorProperty().bind(unselectedImagesColorProperty());
 
-//        tilePane.setStyle("-fx-background-color: rgba(255, 215, 0, 0.1);");
-        tilePane.setHgap(GAP);
-        tilePane.setVgap(GAP);
-
-        imageScale.addListener(observable -> {
-            for (ImageView imageView : imageViewList) {
-                imageView.setFitHeight(minImageViewHeight + (getImageScale() * (maxImageViewHeight - minImageViewHeight)));
-                imageView.setFitWidth(minImageViewWidth + (getImageScale() * (maxImageViewWidth - minImageViewWidth)));
-            }
+        tilePool = new NodePool<>(tileGroup, () -> {
+            ImageView imageView = new ImageView();
+            imageView.setPreserveRatio(true);
+            Tooltip tooltip = new Tooltip();
+            Tooltip.install(imageView, tooltip);
+            imageView.setUserData(tooltip);
+            imageView.setOnMouseClicked(event -> {
+                try {
+                    ImageViewWindow imageViewWindow = new ImageViewWindow(imageViewToFileMap.get(imageView));
+                    Stage imageViewWindowStage = new Stage();
+                    imageViewWindow.start(imageViewWindowStage);
+                    imageViewWindowStageSet.add(imageViewWindowStage);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            });
+            return imageView;
         });
 
+        imageScale.addListener(observable -> layoutTiles());
+
         registerListeners();
     }
 
@@ -98,7 +123,7 @@ public class ImageGridDisplay implements DataTableListener {
 
     public void setDataTable(DataTable dataTable) {
         this.dataTable = dataTable;
-        this.dataTable.addDataTableListener(this);
+        this.dataTable.addDataTableBatchListener(this);
         initView();
     }
 
@@ -122,6 +147,15 @@ public class ImageGridDisplay implements DataTableListener {
         });
     }
 
+    // the grid only creates tiles for the viewport of this scroll pane (the display must be its content)
+    public void setScrollPane(ScrollPane scrollPane) {
+        this.scrollPane = scrollPane;
+        scrollPane.viewportBoundsProperty().addListener(observable -> layoutTiles());
+        scrollPane.vvalueProperty().addListener(observable -> layoutTiles());
+        scrollPane.hvalueProperty().addListener(observable -> layoutTiles());
+        layoutTiles();
+    }
+
     public Color getSelectedImagesColor() { return selectedImagesColor.get(); }
 
     public void setSelectedImagesColor(Color color) { selectedImagesColor.set(color); }
@@ -136,68 +170,24 @@ public class ImageGridDisplay implements DataTableListener {
 
     private void initView() {
         clearView();
-        if (dataTable != null && !dataTable.isEmpty()) {
-            ImageColumn imageColumn = dataTable.getImageColumn();
-            if (imageColumn != null) {
-                setImages(imageColumn.getValuesAsList());
-            } else {
-                tilePane.getChildren().clear();
-                imageViewList.clear();
-            }
+        if (dataTable != null && !dataTable.isEmpty() && dataTable.getImageColumn() != null) {
+            imageCount = dataTable.getTupleCount();
+            setQueriedImageViews();
         }
     }
 
     private void clearView() {
-        tilePane.getChildren().clear();
-        imageViewList.clear();
-        pairToImageViewMap.clear();
+        tileImageFiles.clear();
+        selectedTileCount = 0;
+        imageCount = 0;
+        imageViewToFileMap.clear();
+        layoutTiles();
     }
 
-    public Group getDisplay() {
+    public Pane getDisplay() {
         return display;
     }
 
-    private void setImages(List<Pair<File,Image>> imagePairList) {
-        clearView();
-
-        boolean firstImage = true;
-        for (Pair<File,Image> imagePair : imagePairList) {
-            if (firstImage) {
-                maxImageViewWidth = imagePair.getValue().getWidth();
-                maxImageViewHeight = imagePair.getValue().getHeight();
-            }
-        }
-
-        for (Pair<File,Image> imagePair : imagePairList) {
-            ImageView imageView = new ImageView(imagePair.getValue());
-            Tooltip tooltip = new Tooltip(imagePair.getKey().getName());
-            Tooltip.install(imageView, tooltip);
-            imageView.setPreserveRatio(true);
-            imageView.setFitHeight(minImageViewHeight + (getImageScale() * (maxImageViewHeight - minImageViewHeight)));
-            imageView.setFitWidth(minImageViewWidth + (getImageScale() * (maxImageViewWidth - minImageViewWidth)));
-//            imageView.setEffect(new DropShadow(10, Color.STEELBLUE));
-//                ColorAdjust grayscale = new ColorAdjust();
-//                grayscale.setSaturation(-1);
-//                imageView.setEffect(grayscale);
-            imageView.setOnMouseClicked(event -> {
-                try {
-                    ImageViewWindow imageViewWindow = new ImageViewWindow(imageViewToPairMap.get(imageView).getKey());
-                    Stage imageViewWindowStage = new Stage();
-                    imageViewWindow.start(imageViewWindowStage);
-                    imageViewWindowStageSet.add(imageViewWindowStage);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                }
-            });
-
-            imageViewList.add(imageView);
-            pairToImageViewMap.put(imagePair, imageView);
-            imageViewToPairMap.put(imageView, imagePair);
-        }
-
-        setQueriedImageViews();
-    }
-
     public double getImageScale() { return imageScale.get(); }
 
     public void setImageScale(double scale) { imageScale.set(scale); }
@@ -205,161 +195,111 @@ public class ImageGridDisplay implements DataTableListener {
     public DoubleProperty imageScaleProperty() { return imageScale; }
 
     public int getImageCount() {
-        return imageViewList.size();
+        return imageCount;
     }
 
     public double getPrefTileWidth() {
-        return tilePane.getPrefTileWidth();
+        return getImageWidth();
     }
 
     public double getImageWidth() {
         return minImageViewWidth + (getImageScale() * (maxImageViewWidth - minImageViewWidth));
     }
 
+    public double getImageHeight() {
+        return minImageViewHeight + (getImageScale() * (maxImageViewHeight - minImageViewHeight));
+    }
+
     public void setPrefColumns(int nCols) {
-        tilePane.setPrefColumns(nCols);
+        prefColumns = Math.max(1, nCols);
+        layoutTiles();
     }
 
     private void setQueriedImageViews() {
-        Pair<File,Image> queriedImagePairs [] = dataTable.getImageColumn().getQueriedValues();
-        Pair<File,Image> nonqueriedImagePairs [] = dataTable.getImageColumn().getNonqueriedValues();
-
-        ArrayList<ImageView> queryImageViewList = new ArrayList<>();
-        ArrayList<ImageView> nonqueryImageViewList = new ArrayList<>();
-
-        tilePane.getChildren().clear();
-
-        if (isShowingSelectedImages() && queriedImagePairs != null) {
-            for (Pair<File,Image> queryImagePair : queriedImagePairs) {
-//                ImageView imageView = getImageViewForImage(queryImage.);
-                ImageView imageView = pairToImageViewMap.get(queryImagePair);
-//                imageView.setEffect(selectedBloom);
-                imageView.setEffect(selectedDropShadow);
-//                dropShadow.colorProperty().bind(selectedImagesColor);
-//                imageView.setEffect(dropShadow);
-                queryImageViewList.add(imageView);
+        tileImageFiles.clear();
+        selectedTileCount = 0;
+
+        if (dataTable != null && dataTable.getImageColumn() != null) {
+            if (isShowingSelectedImages()) {
+                File queriedImageFiles[] = dataTable.getImageColumn().getQueriedValues();
+                if (queriedImageFiles != null) {
+                    tileImageFiles.addAll(Arrays.asList(queriedImageFiles));
+                    selectedTileCount = queriedImageFiles.length;
+                }
             }
-            tilePane.getChildren().addAll(queryImageViewList);
-        }
 
-        if (isShowingUnselectedImages() && nonqueriedImagePairs != null) {
-            for (Pair<File,Image> nonqueryImagePair : nonqueriedImagePairs) {
-//                ImageView imageView = getImageViewForImage(nonqueryImagePair);
-                ImageView imageView = pairToImageViewMap.get(nonqueryImagePair);
-                imageView.setEffect(unselectedDropShadow);
-//                imageView.setEffect(null);
-                nonqueryImageViewList.add(imageView);
+            if (isShowingUnselectedImages()) {
+                File nonqueriedImageFiles[] = dataTable.getImageColumn().getNonqueriedValues();
+                if (nonqueriedImageFiles != null) {
+                    tileImageFiles.addAll(Arrays.asList(nonqueriedImageFiles));
+                }
             }
-            tilePane.getChildren().addAll(nonqueryImageViewList);
         }
-    }
-
-//    private ImageView getImageViewForImage(Image image) {
-//        for (ImageView imageView : imageViewList) {
-//            if (imageView.getImage() == image) {
-//                return imageView;
-//            }
-//        }
-//        return null;
-//    }
-
-    @Override
-    public void dataTableReset(DataTable dataTable) {
-        initView();
-    }
-
-    @Override
-    public void dataTableStatisticsChanged(DataTable dataTable) {
 
+        layoutTiles();
     }
 
-    @Override
-    public void dataTableColumnExtentsChanged(DataTable dataTable) {
-
-    }
-
-    @Override
-    public void dataTableColumnFocusExtentsChanged(DataTable dataTable) {
-
-    }
-
-    @Override
-    public void dataTableNumHistogramBinsChanged(DataTable dataTable) {
-
-    }
-
-    @Override
-    public void dataTableAllColumnSelectionsRemoved(DataTable dataTable) {
-        setQueriedImageViews();
-    }
-
-    @Override
-    public void dataTableAllColumnSelectionsForColumnRemoved(DataTable dataTable, Column column) {
-        setQueriedImageViews();
-    }
-
-    @Override
-    public void dataTableColumnSelectionAdded(DataTable dataTable, ColumnSelection columnSelectionRange) {
-        setQueriedImageViews();
-    }
-
-    @Override
-    public void dataTableColumnSelectionRemoved(DataTable dataTable, ColumnSelection columnSelectionRange) {
-        setQueriedImageViews();
-    }
-
-    @Override
-    public void dataTableColumnSelectionsRemoved(DataTable dataTable, List<ColumnSelection> removedColumnSelections) {
-        setQueriedImageViews();
-    }
-
-    @Override
-    public void dataTableColumnSelectionChanged(DataTable dataTable, ColumnSelection columnSelectionRange) {
-        setQueriedImageViews();
-    }
-
-    @Override
-    public void dataTableHighlightedColumnChanged(DataTable dataTable, Column oldHighlightedColumn, Column newHighlightedColumn) {
-
-    }
-
-    @Override
-    public void dataTableTuplesAdded(DataTable dataTable, ArrayList<Tuple> newTuples) {
-        initView();
-    }
-
-    @Override
-    public void dataTableTuplesRemoved(DataTable dataTable, int numTuplesRemoved) {
-        initView();
-    }
-
-    @Override
-    public void dataTableColumnDisabled(DataTable dataTable, Column disabledColumn) {
-
-    }
-
-    @Override
-    public void dataTableColumnsDisabled(DataTable dataTable, ArrayList<Column> disabledColumns) {
-
-    }
-
-    @Override
-    public void dataTableColumnEnabled(DataTable dataTable, Column enabledColumn) {
-
-    }
-
-    @Override
-    public void dataTableBivariateColumnAdded(DataTable dataTable, BivariateColumn bivariateColumn, int index) {
+    // sizes the display for the whole grid and positions recycled image views over the visible tiles
+    private void layoutTiles() {
+        if (tilePool == null) {
+            return;
+        }
 
-    }
+        double tileWidth = getImageWidth();
+        double tileHeight = getImageHeight();
+        int columns = Math.max(1, Math.min(prefColumns, tileImageFiles.size()));
+        int rows = (tileImageFiles.size() + columns - 1) / columns;
+
+        double gridWidth = columns == 0 ? 0. : (columns * tileWidth) + ((columns - 1) * GAP);
+        double gridHeight = rows == 0 ? 0. : (rows * tileHeight) + ((rows - 1) * GAP);
+        display.setMinSize(gridWidth, gridHeight);
+        display.setPrefSize(gridWidth, gridHeight);
+
+        // visible region of the grid, or the whole grid when there is no scroll pane
+        double viewTop = 0.;
+        double viewHeight = gridHeight;
+        if (scrollPane != null && scrollPane.getViewportBounds() != null) {
+            viewHeight = scrollPane.getViewportBounds().getHeight();
+            double scrollRange = scrollPane.getVmax() - scrollPane.getVmin();
+            double scrollFraction = scrollRange > 0. ? (scrollPane.getVvalue() - scrollPane.getVmin()) / scrollRange : 0.;
+            viewTop = Math.max(0., gridHeight - viewHeight) * scrollFraction;
+        }
 
-    @Override
-    public void dataTableColumnOrderChanged(DataTable dataTable) {
+        int firstRow = Math.max(0, (int)(viewTop / (tileHeight + GAP)));
+        int lastRow = Math.min(rows - 1, (int)((viewTop + viewHeight) / (tileHeight + GAP)));
+
+        tilePool.reset();
+        imageViewToFileMap.clear();
+        ImageCache imageCache = ImageCache.getSharedCache();
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = 0; column < columns; column++) {
+                int tileIndex = (row * columns) + column;
+                if (tileIndex >= tileImageFiles.size()) {
+                    break;
+                }
 
+                File imageFile = tileImageFiles.get(tileIndex);
+                ImageView imageView = tilePool.acquire();
+                imageView.setImage(imageCache.getThumbnail(imageFile));
+                imageView.setFitWidth(tileWidth);
+                imageView.setFitHeight(tileHeight);
+                imageView.setLayoutX(column * (tileWidth + GAP));
+                imageView.setLayoutY(row * (tileHeight + GAP));
+                imageView.setEffect(tileIndex < selectedTileCount ? selectedDropShadow : unselectedDropShadow);
+                ((Tooltip)imageView.getUserData()).setText(imageFile.getName());
+                imageViewToFileMap.put(imageView, imageFile);
+            }
+        }
+        tilePool.hideUnused();
     }
 
+    // changes are batched per pulse so a dragged selection reorders the tiles once per frame
     @Override
-    public void dataTableColumnNameChanged(DataTable dataTable, Column column) {
-
+    public void dataTableChanged(DataTable dataTable, DataTableChange change) {
+        if (change.isReset() || change.isTuplesChanged()) {
+            initView();
+        } else if (change.isQueryChanged()) {
+            setQueriedImageViews();
+        }
     }
 }
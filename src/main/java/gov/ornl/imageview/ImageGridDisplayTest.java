@@ -28,6 +28,7 @@ public class ImageGridDisplayTest extends Application {
     @Override
     public void start(Stage primaryStage) throws Exception {
         ScrollPane imageGridDisplayScrollPane = new ScrollPane(imageGridDisplay.getDisplay());
+        imageGridDisplay.setScrollPane(imageGridDisplayScrollPane);
 
         imageGridDisplayScrollPane.viewportBoundsProperty().addListener(observable -> {
             double viewPortWidth = imageGridDisplayScrollPane.getViewportBounds().getWidth();
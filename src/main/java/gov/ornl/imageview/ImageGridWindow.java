@@ -61,6 +61,7 @@ public class ImageGridWindow extends Application {
 
         imageGridDisplay = new ImageGridDisplay();
         ScrollPane scrollPane = new ScrollPane(imageGridDisplay.getDisplay());
+        imageGridDisplay.setScrollPane(scrollPane);
         scrollPane.viewportBoundsProperty().addListener(observable -> {
             double viewPortWidth = scrollPane.getViewportBounds().getWidth();
             int preferredColumns = Math.min(imageGridDisplay.getImageCount(),
@@ -1,5 +1,6 @@
 package gov.ornl.imageview;
 
+import gov.ornl.util.ImageCache;
 import javafx.application.Application;
 import javafx.beans.property.DoubleProperty;
 import javafx.geometry.Insets;
@@ -16,7 +17,6 @@ import javafx.stage.Stage;
 import javafx.util.Pair;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.util.logging.Logger;
 
@@ -35,15 +35,31 @@ public class ImageViewWindow extends Application {
     public ImageViewWindow() { }
 
     public ImageViewWindow(File file) throws FileNotFoundException {
-        this.image = new Image(new FileInputStream(file));
+        if (!file.exists()) {
+            throw new FileNotFoundException(file.getAbsolutePath());
+        }
+        this.image = ImageCache.getSharedCache().getImage(file, 0);
         this.file = file;
     }
 
     public void setImage(File file) throws FileNotFoundException {
-        this.image = new Image(new FileInputStream(file));
+        if (!file.exists()) {
+            throw new FileNotFoundException(file.getAbsolutePath());
+        }
+        this.image = ImageCache.getSharedCache().getImage(file, 0);
         this.file = file;
         imageView.setImage(image);
         scaleImageView();
+
+        // the full resolution image loads in the background, so its size may not be known yet
+        if (image.getProgress() < 1.) {
+            Image loadingImage = image;
+            loadingImage.progressProperty().addListener((observable, oldValue, newValue) -> {
+                if (newValue.doubleValue() >= 1. && image == loadingImage) {
+                    scaleImageView();
+                }
+            });
+        }
     }
 
     private void scaleImageView() {
@@ -2,6 +2,7 @@ package gov.ornl.scatterplot;
 
 import gov.ornl.datatable.*;
 import gov.ornl.util.GraphicsUtil;
+import gov.ornl.util.PointGridIndex;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.geometry.BoundingBox;
@@ -11,7 +12,10 @@ import javafx.geometry.VPos;
 import javafx.scene.Group;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.control.*;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
+import javafx.scene.shape.Polygon;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Font;
 import javafx.scene.text.Text;
@@ -20,6 +24,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.logging.Logger;
+import java.util.stream.IntStream;
 
 public class Scatterplot {
     private static final Logger log = Logger.getLogger(Scatterplot.class.getName());
@@ -32,6 +37,10 @@ public class Scatterplot {
             Color.STEELBLUE.getGreen(), Color.STEELBLUE.getBlue(), DEFAULT_POINT_STROKE_OPACITY);
     private static final Color DEFAULT_UNSELECTED_POINT_COLOR = new Color(Color.LIGHTGRAY.getRed(),
             Color.LIGHTGRAY.getGreen(), Color.LIGHTGRAY.getBlue(), DEFAULT_POINT_STROKE_OPACITY);
+    // smallest number of rows binned by a single task when computing the density image
+    private static final int MIN_DENSITY_CHUNK_SIZE = 10000;
+    // maximum distance in pixels between the mouse and a point for the point to be picked
+    private static final double POINT_PICK_DISTANCE = 4.;
 
     private Column xColumn;
     private Column yColumn;
@@ -57,7 +66,8 @@ public class Scatterplot {
     private ArrayList<double[]> points = new ArrayList<>();
     private HashSet<double[]> selectedPoints = new HashSet<>();
     private HashSet<double[]> unselectedPoints = new HashSet<>();
-    private HashMap<double[], Tuple> pointTupleMap = new HashMap<>();
+    private HashMap<double[], Integer> pointRowMap = new HashMap<>();
+    private PointGridIndex pointIndex;
 
     private Color axisStrokeColor = DEFAULT_AXIS_STROKE_COLOR;
     private Color axisTextColor = DEFAULT_AXIS_TEXT_COLOR;
@@ -77,6 +87,9 @@ public class Scatterplot {
     private Point2D dragEndPoint;
     private Rectangle dragRectangle;
     private BoundingBox dragBounds;
+    private boolean lassoing = false;
+    private Polygon lassoPolygon;
+    private Tooltip pointTooltip = new Tooltip();
 
     private Bounds dataBounds;
 
@@ -96,6 +109,16 @@ public class Scatterplot {
 
     private BooleanProperty showXAxisMarginValues = new SimpleBooleanProperty(false);
     private BooleanProperty showYAxisMarginValues = new SimpleBooleanProperty(false);
+    private BooleanProperty showDensity = new SimpleBooleanProperty(false);
+
+    // density mode state; selected bin counts are followed by unselected bin counts in densityCounts
+    private ScatterplotCoordinateCache coordinateCache;
+    private int densityWidth;
+    private int densityHeight;
+    private int densityCounts[];
+    private int densityPixels[];
+    private WritableImage selectedDensityImage;
+    private WritableImage unselectedDensityImage;
 
     public Scatterplot(Column xColumn, Column yColumn, Color selectedPointStrokeColor, Color unselectedPointStrokeColor,
                        double pointStrokeOpacity) {
@@ -140,6 +163,11 @@ public class Scatterplot {
         dragRectangle.setFill(Color.gray(0.7, 0.2));
         dragRectangle.setMouseTransparent(true);
 
+        lassoPolygon = new Polygon();
+        lassoPolygon.setStroke(Color.DARKGRAY);
+        lassoPolygon.setFill(Color.gray(0.7, 0.2));
+        lassoPolygon.setMouseTransparent(true);
+
         registerListeners();
     }
 
@@ -155,6 +183,30 @@ public class Scatterplot {
 
     public BooleanProperty showXAxisMarginValuesProperty() { return showXAxisMarginValues; }
 
+    public boolean isShowingDensity() { return showDensity.get(); }
+
+    public void setShowDensity(boolean show) { showDensity.set(show); }
+
+    public BooleanProperty showDensityProperty() { return showDensity; }
+
+    public ScatterplotCoordinateCache getCoordinateCache() {
+        if (coordinateCache == null) {
+            coordinateCache = new ScatterplotCoordinateCache();
+        }
+        return coordinateCache;
+    }
+
+    // lets scatterplots that share columns reuse the same normalized coordinates
+    public void setCoordinateCache(ScatterplotCoordinateCache coordinateCache) {
+        this.coordinateCache = coordinateCache;
+    }
+
+    // density rendering is only used when both axes are continuous
+    private boolean isDensityActive() {
+        return isShowingDensity() && ScatterplotCoordinateCache.isSupported(xColumn) &&
+                ScatterplotCoordinateCache.isSupported(yColumn);
+    }
+
     public void setShowMarginValues(boolean show) {
         setShowXAxisMarginValues(show);
         setShowYAxisMarginValues(show);
@@ -229,6 +281,10 @@ public class Scatterplot {
             resize(bounds.getMinX(), bounds.getMinY(), bounds.getWidth(), bounds.getHeight());
         });
 
+        showDensity.addListener(observable -> {
+            resize(bounds.getMinX(), bounds.getMinY(), bounds.getWidth(), bounds.getHeight());
+        });
+
 //        pointStrokeOpacity.addListener((observable, oldValue, newValue) -> {
 //            if (newValue != oldValue) {
 //                setSelectedPointStrokeColor(new Color(getSelectedPointStrokeColor().getRed(), getSelectedPointStrokeColor().getGreen(),
@@ -271,14 +327,34 @@ public class Scatterplot {
 //            }
 //        });
 
+        plotRectangle.setOnMouseMoved(event -> {
+            int row = getRowAt(event.getX(), event.getY());
+            if (row == -1) {
+                Tooltip.uninstall(plotRectangle, pointTooltip);
+            } else {
+                pointTooltip.setText(getRowDescription(row));
+                Tooltip.install(plotRectangle, pointTooltip);
+            }
+        });
+
         plotRectangle.setOnMousePressed(event -> {
             if (event.isPrimaryButtonDown()) {
                 dragStartPoint = new Point2D(event.getX(), event.getY());
+                lassoing = event.isShiftDown();
             }
         });
 
         plotRectangle.setOnMouseDragged(event -> {
-            if (event.isPrimaryButtonDown()) {
+            if (event.isPrimaryButtonDown() && lassoing) {
+                if (!dragging) {
+                    dragging = true;
+                    lassoPolygon.getPoints().setAll(dragStartPoint.getX(), dragStartPoint.getY());
+                    graphicsGroup.getChildren().add(lassoPolygon);
+                }
+
+                lassoPolygon.getPoints().addAll(GraphicsUtil.constrain(event.getX(), plotBounds.getMinX(), plotBounds.getMaxX()),
+                        GraphicsUtil.constrain(event.getY(), plotBounds.getMinY(), plotBounds.getMaxY()));
+            } else if (event.isPrimaryButtonDown()) {
                 if (!dragging) {
                     dragging = true;
                     graphicsGroup.getChildren().add(dragRectangle);
@@ -327,49 +403,33 @@ public class Scatterplot {
         });
 
         plotRectangle.setOnMouseReleased(event -> {
-            if (dragging) {
+            if (dragging && lassoing) {
                 dragging = false;
-                graphicsGroup.getChildren().remove(dragRectangle);
-
-                ColumnSelection xColumnSelection = null;
-                if (xColumn instanceof DoubleColumn) {
-                    // get x column min and max values
-                    double minXValue = GraphicsUtil.mapValue(dragBounds.getMinX(), plotBounds.getMinX(), plotBounds.getMaxX(),
-                            xAxisMinDoubleValue, xAxisMaxDoubleValue);
-                    double maxXValue = GraphicsUtil.mapValue(dragBounds.getMaxX(), plotBounds.getMinX(), plotBounds.getMaxX(),
-                            xAxisMinDoubleValue, xAxisMaxDoubleValue);
-                    xColumnSelection = new DoubleColumnSelectionRange((DoubleColumn) xColumn, minXValue, maxXValue);
-                } else if (xColumn instanceof TemporalColumn) {
-                    Instant startInstant = GraphicsUtil.mapValue(dragBounds.getMinX(), plotBounds.getMinX(), plotBounds.getMaxX(),
-                            xAxisStartInstant, xAxisEndInstant);
-                    Instant endInstant = GraphicsUtil.mapValue(dragBounds.getMaxX(), plotBounds.getMinX(), plotBounds.getMaxX(),
-                            xAxisStartInstant, xAxisEndInstant);
-                    xColumnSelection = new TemporalColumnSelectionRange((TemporalColumn)xColumn,
-                            startInstant, endInstant);
-                }
-
-                if (xColumnSelection != null) { dataTable.addColumnSelectionToActiveQuery(xColumnSelection); }
-
-                ColumnSelection yColumnSelection = null;
-                if (yColumn instanceof DoubleColumn) {
-                    // get y column min and max values
-                    double minYValue = GraphicsUtil.mapValue(dragBounds.getMaxY(), plotBounds.getMinY(), plotBounds.getMaxY(),
-                            yAxisMaxDoubleValue, yAxisMinDoubleValue);
-                    double maxYValue = GraphicsUtil.mapValue(dragBounds.getMinY(), plotBounds.getMinY(), plotBounds.getMaxY(),
-                            yAxisMaxDoubleValue, yAxisMinDoubleValue);
-                    yColumnSelection = new DoubleColumnSelectionRange((DoubleColumn) yColumn, minYValue, maxYValue);
-                } else if (yColumn instanceof TemporalColumn) {
-                    Instant startInstant = GraphicsUtil.mapValue(dragBounds.getMaxY(), plotBounds.getMinY(), plotBounds.getMaxY(),
-                            yAxisEndInstant, yAxisStartInstant);
-                    Instant endInstant = GraphicsUtil.mapValue(dragBounds.getMinY(), plotBounds.getMinY(), plotBounds.getMaxY(),
-                            yAxisEndInstant, yAxisStartInstant);
-                    yColumnSelection = new TemporalColumnSelectionRange((TemporalColumn)yColumn, startInstant, endInstant);
+                lassoing = false;
+                graphicsGroup.getChildren().remove(lassoPolygon);
+
+                int vertexCount = lassoPolygon.getPoints().size() / 2;
+                double lassoX[] = new double[vertexCount];
+                double lassoY[] = new double[vertexCount];
+                for (int i = 0; i < vertexCount; i++) {
+                    lassoX[i] = lassoPolygon.getPoints().get(i * 2);
+                    lassoY[i] = lassoPolygon.getPoints().get((i * 2) + 1);
                 }
+                dataTable.setActiveQueryRowSelection(this, getRowsInPolygon(lassoX, lassoY));
+            } else if (dragging) {
+                dragging = false;
+                graphicsGroup.getChildren().remove(dragRectangle);
 
-                if (yColumnSelection != null) { dataTable.addColumnSelectionToActiveQuery(yColumnSelection); }
+                // the rows of the points in the rectangle are found through the point index; they replace the
+                // previous rectangle or lasso of this scatterplot only
+                dataTable.setActiveQueryRowSelection(this, getRowsInBounds(dragBounds));
             } else {
 //                log.info("Removing x and y column selections");
-                // if there are column selections for either the x or y column, remove them
+                // remove the row selection of this scatterplot's rectangle or lasso (not those of other views) and
+                // any column selections for the x or y column
+                if (dataTable.getActiveQuery().hasRowSelection(this)) {
+                    dataTable.setActiveQueryRowSelection(this, null);
+                }
                 if (dataTable.getActiveQuery().hasColumnSelections()) {
                     dataTable.removeColumnSelectionsFromActiveQuery(xColumn);
                     dataTable.removeColumnSelectionsFromActiveQuery(yColumn);
@@ -458,18 +518,33 @@ public class Scatterplot {
 //            unselectedCanvas.setLayoutX(plotBounds.getMinX());
 //            unselectedCanvas.setLayoutY(plotBounds.getMinY());
 
-            calculatePoints();
+            if (isDensityActive()) {
+                points.clear();
+                pointRowMap.clear();
+                selectedPoints.clear();
+                unselectedPoints.clear();
+                binDensity();
+            } else {
+                calculatePoints();
+            }
             drawPoints();
         }
     }
 
     public void fillSelectionPointSets() {
+        if (isDensityActive()) {
+            if (plotBounds != null) {
+                binDensity();
+            }
+            return;
+        }
+
         selectedPoints.clear();
         unselectedPoints.clear();
 
-        if (xColumn.getDataTable().getActiveQuery().hasColumnSelections()) {
+        if (xColumn.getDataTable().getActiveQuery().hasSelections()) {
             for (double point[] : points) {
-                if (pointTupleMap.get(point).getQueryFlag()) {
+                if (dataTable.getTuple(pointRowMap.get(point)).getQueryFlag()) {
                     selectedPoints.add(point);
                 } else {
                     unselectedPoints.add(point);
@@ -487,8 +562,9 @@ public class Scatterplot {
     }
 
     private void calculatePoints() {
+        pointIndex = null;
         points.clear();
-        pointTupleMap.clear();
+        pointRowMap.clear();
 
         double xMinValuePosition = 0;
         double xMaxValuePosition = 0;
@@ -605,7 +681,7 @@ public class Scatterplot {
                     point[1] = GraphicsUtil.mapValue(yValues[i], yAxisMinDoubleValue, yAxisMaxDoubleValue,
                             plotBounds.getHeight(), 0.);
                     points.add(point);
-                    pointTupleMap.put(point, dataTable.getTuple(i));
+                    pointRowMap.put(point, i);
                 }
             }
         } else if (xColumn instanceof TemporalColumn && yColumn instanceof TemporalColumn) {
@@ -621,7 +697,7 @@ public class Scatterplot {
                     point[1] = GraphicsUtil.mapValue(yValues[i], yAxisStartInstant, yAxisEndInstant,
                             plotBounds.getHeight(), 0.);
                     points.add(point);
-                    pointTupleMap.put(point, dataTable.getTuple(i));
+                    pointRowMap.put(point, i);
                 }
             }
         } else if (xColumn instanceof DoubleColumn && yColumn instanceof TemporalColumn) {
@@ -639,7 +715,7 @@ public class Scatterplot {
                     point[1] = GraphicsUtil.mapValue(yValues[i], yAxisStartInstant, yAxisEndInstant,
                             plotBounds.getHeight(), 0.);
                     points.add(point);
-                    pointTupleMap.put(point, dataTable.getTuple(i));
+                    pointRowMap.put(point, i);
                 }
             }
         } else if (xColumn instanceof TemporalColumn && yColumn instanceof DoubleColumn) {
@@ -655,7 +731,7 @@ public class Scatterplot {
                     point[1] = GraphicsUtil.mapValue(yValues[i], yAxisMinDoubleValue, yAxisMaxDoubleValue,
                             plotBounds.getHeight(), 0.);
                     points.add(point);
-                    pointTupleMap.put(point, dataTable.getTuple(i));
+                    pointRowMap.put(point, i);
                 }
             }
         } else if (xColumn instanceof CategoricalColumn && yColumn instanceof DoubleColumn) {
@@ -676,7 +752,7 @@ public class Scatterplot {
                     point[1] = GraphicsUtil.mapValue(yValues[i], yAxisMinDoubleValue, yAxisMaxDoubleValue,
                             plotBounds.getHeight(), 0.);
                     points.add(point);
-                    pointTupleMap.put(point, dataTable.getTuple(i));
+                    pointRowMap.put(point, i);
                 }
             }
         } else if (xColumn instanceof CategoricalColumn && yColumn instanceof TemporalColumn) {
@@ -698,7 +774,7 @@ public class Scatterplot {
                     point[1] = GraphicsUtil.mapValue(yValues[i], yAxisStartInstant, yAxisEndInstant,
                             plotBounds.getHeight(), 0);
                     points.add(point);
-                    pointTupleMap.put(point, dataTable.getTuple(i));
+                    pointRowMap.put(point, i);
                 }
             }
         }  else if (xColumn instanceof DoubleColumn && yColumn instanceof CategoricalColumn) {
@@ -722,7 +798,7 @@ public class Scatterplot {
 //                point[0] = GraphicsUtil.mapValue(xValues[i], xAxisMinDoubleValue, xAxisMaxDoubleValue,
 //                        plotBounds.getWidth(), 0.);
                     points.add(point);
-                    pointTupleMap.put(point, dataTable.getTuple(i));
+                    pointRowMap.put(point, i);
                 }
             }
         }  else if (xColumn instanceof TemporalColumn && yColumn instanceof CategoricalColumn) {
@@ -745,7 +821,7 @@ public class Scatterplot {
 //                point[0] = GraphicsUtil.mapValue(xValues[i], xAxisStartInstant, xAxisEndInstant,
 //                        0, plotBounds.getWidth());
                     points.add(point);
-                    pointTupleMap.put(point, dataTable.getTuple(i));
+                    pointRowMap.put(point, i);
                 }
             }
         }  else if (xColumn instanceof CategoricalColumn && yColumn instanceof CategoricalColumn) {
@@ -773,13 +849,182 @@ public class Scatterplot {
                 point[0] = yAxisBounds.getWidth() + categoryCenter + jitter;
 
                 points.add(point);
-                pointTupleMap.put(point, dataTable.getTuple(i));
+                pointRowMap.put(point, i);
             }
         }
 
         fillSelectionPointSets();
     }
 
+    // counts the rows falling in each pixel of the plot area using the shared normalized coordinates
+    private void binDensity() {
+        pointIndex = null;
+
+        // the worker threads read the snapshot instead of the data table
+        DataTableSnapshot snapshot = dataTable.getSnapshot();
+        ScatterplotCoordinateCache.Coordinates xCoordinates = getCoordinateCache().getCoordinates(snapshot, xColumn);
+        ScatterplotCoordinateCache.Coordinates yCoordinates = getCoordinateCache().getCoordinates(snapshot, yColumn);
+
+        // axis ranges are still needed to map drag selections back to column values
+        if (xColumn instanceof DoubleColumn) {
+            xAxisMinDoubleValue = xCoordinates.getAxisMinValue();
+            xAxisMaxDoubleValue = xCoordinates.getAxisMaxValue();
+        } else {
+            xAxisStartInstant = Instant.ofEpochMilli((long)xCoordinates.getAxisMinValue());
+            xAxisEndInstant = Instant.ofEpochMilli((long)xCoordinates.getAxisMaxValue());
+        }
+        if (yColumn instanceof DoubleColumn) {
+            yAxisMinDoubleValue = yCoordinates.getAxisMinValue();
+            yAxisMaxDoubleValue = yCoordinates.getAxisMaxValue();
+        } else {
+            yAxisStartInstant = Instant.ofEpochMilli((long)yCoordinates.getAxisMinValue());
+            yAxisEndInstant = Instant.ofEpochMilli((long)yCoordinates.getAxisMaxValue());
+        }
+
+        int width = Math.max((int)plotBounds.getWidth(), 1);
+        int height = Math.max((int)plotBounds.getHeight(), 1);
+        if (densityPixels == null || width != densityWidth || height != densityHeight) {
+            densityWidth = width;
+            densityHeight = height;
+            densityPixels = new int[width * height];
+            selectedDensityImage = new WritableImage(width, height);
+            unselectedDensityImage = new WritableImage(width, height);
+        }
+
+        float xValues[] = xCoordinates.getValues();
+        float yValues[] = yCoordinates.getValues();
+        BitSet queriedRows = snapshot.hasSelections() ? snapshot.getQueriedRows() : null;
+        int binCount = width * height;
+
+        // each task bins a contiguous chunk of rows into its own counts which are then summed
+        int chunkSize = Math.max(MIN_DENSITY_CHUNK_SIZE,
+                xValues.length / Runtime.getRuntime().availableProcessors() + 1);
+        int chunkCount = (xValues.length + chunkSize - 1) / chunkSize;
+        densityCounts = IntStream.range(0, chunkCount).parallel().mapToObj(chunk -> {
+            int counts[] = new int[binCount * 2];
+            int end = Math.min(xValues.length, (chunk + 1) * chunkSize);
+            for (int row = chunk * chunkSize; row < end; row++) {
+                if (Float.isNaN(xValues[row]) || Float.isNaN(yValues[row])) {
+                    continue;
+                }
+                int px = Math.min((int)(xValues[row] * width), width - 1);
+                int py = Math.min((int)((1f - yValues[row]) * height), height - 1);
+                int offset = queriedRows == null || queriedRows.get(row) ? 0 : binCount;
+                counts[offset + (py * width) + px]++;
+            }
+            return counts;
+        }).reduce((counts, partialCounts) -> {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += partialCounts[i];
+            }
+            return counts;
+        }).orElse(new int[binCount * 2]);
+    }
+
+    private void drawDensity() {
+        if (densityCounts == null) {
+            return;
+        }
+
+        int binCount = densityWidth * densityHeight;
+        if (getShowUnselectedPoints() &&
+                GraphicsUtil.densityToPixels(densityCounts, binCount, densityPixels, getUnselectedPointStrokeColor())) {
+            unselectedDensityImage.getPixelWriter().setPixels(0, 0, densityWidth, densityHeight,
+                    PixelFormat.getIntArgbInstance(), densityPixels, 0, densityWidth);
+            unselectedCanvas.getGraphicsContext2D().drawImage(unselectedDensityImage, yAxisBounds.getWidth(), 0);
+        }
+
+        if (getShowSelectedPoints() &&
+                GraphicsUtil.densityToPixels(densityCounts, 0, densityPixels, getSelectedPointStrokeColor())) {
+            selectedDensityImage.getPixelWriter().setPixels(0, 0, densityWidth, densityHeight,
+                    PixelFormat.getIntArgbInstance(), densityPixels, 0, densityWidth);
+            selectedCanvas.getGraphicsContext2D().drawImage(selectedDensityImage, yAxisBounds.getWidth(), 0);
+        }
+    }
+
+    // grid index over the current point positions in canvas coordinates, built on the first pick after a layout
+    private PointGridIndex getPointIndex() {
+        if (pointIndex != null) {
+            return pointIndex;
+        }
+
+        if (isDensityActive()) {
+            DataTableSnapshot snapshot = dataTable.getSnapshot();
+            float xValues[] = getCoordinateCache().getCoordinates(snapshot, xColumn).getValues();
+            float yValues[] = getCoordinateCache().getCoordinates(snapshot, yColumn).getValues();
+            int pointCount = 0;
+            for (int i = 0; i < xValues.length; i++) {
+                if (!Float.isNaN(xValues[i]) && !Float.isNaN(yValues[i])) {
+                    pointCount++;
+                }
+            }
+
+            double x[] = new double[pointCount];
+            double y[] = new double[pointCount];
+            int rows[] = new int[pointCount];
+            int counter = 0;
+            for (int i = 0; i < xValues.length; i++) {
+                if (!Float.isNaN(xValues[i]) && !Float.isNaN(yValues[i])) {
+                    x[counter] = yAxisBounds.getWidth() + (xValues[i] * plotBounds.getWidth());
+                    y[counter] = (1. - yValues[i]) * plotBounds.getHeight();
+                    rows[counter++] = i;
+                }
+            }
+            pointIndex = new PointGridIndex(x, y, rows);
+        } else {
+            double x[] = new double[points.size()];
+            double y[] = new double[points.size()];
+            int rows[] = new int[points.size()];
+            for (int i = 0; i < points.size(); i++) {
+                x[i] = points.get(i)[0];
+                y[i] = points.get(i)[1];
+                rows[i] = pointRowMap.get(points.get(i));
+            }
+            pointIndex = new PointGridIndex(x, y, rows);
+        }
+
+        return pointIndex;
+    }
+
+    // returns the data table row of the point nearest to (x, y) in graphics group coordinates or -1 if there is none
+    public int getRowAt(double x, double y) {
+        if (plotBounds == null || !plotBounds.contains(x, y)) {
+            return -1;
+        }
+        return getPointIndex().getNearestRow(x - bounds.getMinX(), y - bounds.getMinY(), POINT_PICK_DISTANCE);
+    }
+
+    // rows of the points inside the rectangle given in graphics group coordinates
+    public BitSet getRowsInBounds(Bounds selectionBounds) {
+        if (plotBounds == null) {
+            return new BitSet();
+        }
+        return getPointIndex().getRowsInRectangle(selectionBounds.getMinX() - bounds.getMinX(),
+                selectionBounds.getMinY() - bounds.getMinY(), selectionBounds.getMaxX() - bounds.getMinX(),
+                selectionBounds.getMaxY() - bounds.getMinY());
+    }
+
+    // rows of the points inside the polygon whose vertices are given in graphics group coordinates
+    public BitSet getRowsInPolygon(double polygonX[], double polygonY[]) {
+        if (plotBounds == null) {
+            return new BitSet();
+        }
+
+        double x[] = new double[polygonX.length];
+        double y[] = new double[polygonY.length];
+        for (int i = 0; i < polygonX.length; i++) {
+            x[i] = polygonX[i] - bounds.getMinX();
+            y[i] = polygonY[i] - bounds.getMinY();
+        }
+        return getPointIndex().getRowsInPolygon(x, y);
+    }
+
+    private String getRowDescription(int row) {
+        Tuple tuple = dataTable.getTuple(row);
+        return xColumn.getName() + ": " + tuple.getElement(dataTable.getColumnIndex(xColumn)) + "\n" +
+                yColumn.getName() + ": " + tuple.getElement(dataTable.getColumnIndex(yColumn));
+    }
+
     private boolean valueInColumnFocusRange(double value, DoubleColumn column) {
         if (value < column.getMinimumFocusValue() || value > column.getMaximumFocusValue()) {
             return false;
@@ -802,6 +1047,11 @@ public class Scatterplot {
         selectedCanvas.getGraphicsContext2D().clearRect(0, 0, selectedCanvas.getWidth(), selectedCanvas.getHeight());
         selectedCanvas.getGraphicsContext2D().setLineWidth(getPointStrokeWidth());
 
+        if (isDensityActive()) {
+            drawDensity();
+            return;
+        }
+
         if (getShowUnselectedPoints()) {
             Color color = new Color(getUnselectedPointStrokeColor().getRed(), getUnselectedPointStrokeColor().getGreen(),
                     getUnselectedPointStrokeColor().getBlue(), getPointStrokeOpacity());
@@ -0,0 +1,115 @@
+package gov.ornl.scatterplot;
+
+import gov.ornl.datatable.Column;
+import gov.ornl.datatable.DataTableSnapshot;
+import gov.ornl.datatable.DoubleColumn;
+import gov.ornl.datatable.TemporalColumn;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Normalized scatterplot axis positions for each row of a column.
+ *
+ * Positions are computed once per column from a data table snapshot and shared by
+ * every scatterplot that shows the column, so a highlighted axis with n other axes
+ * computes n + 1 columns of coordinates instead of 2n. They are computed again once
+ * a later snapshot has other rows or focus extents for the column.
+ */
+public class ScatterplotCoordinateCache {
+    // fraction of the focus range added on each side of a scatterplot axis
+    public static final double AXIS_RANGE_PADDING = .05;
+
+    private HashMap<Column, Coordinates> coordinatesMap = new HashMap<>();
+
+    public static boolean isSupported(Column column) {
+        return column instanceof DoubleColumn || column instanceof TemporalColumn;
+    }
+
+    public synchronized Coordinates getCoordinates(DataTableSnapshot snapshot, Column column) {
+        Coordinates coordinates = coordinatesMap.get(column);
+        if (coordinates == null || !coordinates.isCurrent(snapshot)) {
+            coordinates = new Coordinates(snapshot, column);
+            coordinatesMap.put(column, coordinates);
+        }
+        return coordinates;
+    }
+
+    public synchronized void clear() {
+        coordinatesMap.clear();
+    }
+
+    public static class Coordinates {
+        private Column column;
+        private long rowsVersion;
+        private double focusMinValue;
+        private double focusMaxValue;
+        private double axisMinValue;
+        private double axisMaxValue;
+
+        // position in [0, 1] along the padded axis range or NaN if the value is outside the focus range
+        private float values[];
+
+        private Coordinates(DataTableSnapshot snapshot, Column column) {
+            this.column = column;
+            rowsVersion = snapshot.getRowsVersion();
+            focusMinValue = getFocusMinValue(snapshot, column);
+            focusMaxValue = getFocusMaxValue(snapshot, column);
+
+            double padding = (focusMaxValue - focusMinValue) * AXIS_RANGE_PADDING;
+            axisMinValue = focusMinValue - padding;
+            axisMaxValue = focusMaxValue + padding;
+
+            double rawValues[];
+            if (column instanceof DoubleColumn) {
+                rawValues = snapshot.getDoubleValues(column);
+            } else {
+                rawValues = new double[snapshot.getRowCount()];
+                for (int i = 0; i < rawValues.length; i++) {
+                    rawValues[i] = ((Instant)snapshot.getValue(column, i)).toEpochMilli();
+                }
+            }
+
+            values = new float[rawValues.length];
+            double range = axisMaxValue - axisMinValue;
+            IntStream.range(0, rawValues.length).parallel().forEach(i -> {
+                if (rawValues[i] < focusMinValue || rawValues[i] > focusMaxValue) {
+                    values[i] = Float.NaN;
+                } else {
+                    values[i] = range == 0. ? .5f : (float)((rawValues[i] - axisMinValue) / range);
+                }
+            });
+        }
+
+        private static double getFocusMinValue(DataTableSnapshot snapshot, Column column) {
+            if (column instanceof DoubleColumn) {
+                return snapshot.getMinimumFocusValue((DoubleColumn)column);
+            }
+            return snapshot.getStartFocusValue((TemporalColumn)column).toEpochMilli();
+        }
+
+        private static double getFocusMaxValue(DataTableSnapshot snapshot, Column column) {
+            if (column instanceof DoubleColumn) {
+                return snapshot.getMaximumFocusValue((DoubleColumn)column);
+            }
+            return snapshot.getEndFocusValue((TemporalColumn)column).toEpochMilli();
+        }
+
+        // false if the rows or focus extents of the column changed since the coordinates were computed
+        private boolean isCurrent(DataTableSnapshot snapshot) {
+            return rowsVersion == snapshot.getRowsVersion() && focusMinValue == getFocusMinValue(snapshot, column) &&
+                    focusMaxValue == getFocusMaxValue(snapshot, column);
+        }
+
+        public Column getColumn() { return column; }
+
+        public float[] getValues() { return values; }
+
+        // axis minimum value (epoch milliseconds for temporal columns)
+        public double getAxisMinValue() { return axisMinValue; }
+
+        // axis maximum value (epoch milliseconds for temporal columns)
+        public double getAxisMaxValue() { return axisMaxValue; }
+    }
+}
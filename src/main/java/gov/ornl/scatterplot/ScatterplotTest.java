@@ -86,6 +86,12 @@ public class ScatterplotTest extends Application {
                 scatterplot.drawPoints();
             }
 
+            @Override
+            public void dataTableRowSelectionChanged(DataTable dataTable) {
+                scatterplot.fillSelectionPointSets();
+                scatterplot.drawPoints();
+            }
+
             @Override
             public void dataTableHighlightedColumnChanged(DataTable dataTable, Column oldHighlightedColumn, Column newHighlightedColumn) {
 
@@ -74,6 +74,47 @@ public class GraphicsUtil {
         return javafx.scene.paint.Color.rgb(r, g, b, opacity);
     }
 
+    // fills ARGB pixels from bin counts using the color with log scaled opacity
+    // returns false if all counts are zero
+    public static boolean densityToPixels(int counts[], int countsOffset, int pixels[], Color color) {
+        int maxCount = 0;
+        for (int i = 0; i < pixels.length; i++) {
+            if (counts[countsOffset + i] > maxCount) {
+                maxCount = counts[countsOffset + i];
+            }
+        }
+
+        if (maxCount == 0) {
+            return false;
+        }
+
+        int red = (int)Math.round(color.getRed() * 255.);
+        int green = (int)Math.round(color.getGreen() * 255.);
+        int blue = (int)Math.round(color.getBlue() * 255.);
+        int rgb = (red << 16) | (green << 8) | blue;
+        double logMaxCount = Math.log1p(maxCount);
+
+        for (int i = 0; i < pixels.length; i++) {
+            int count = counts[countsOffset + i];
+            if (count <= 0) {
+                pixels[i] = 0;
+            } else {
+                int alpha = (int)Math.round(255. * (Math.log1p(count) / logMaxCount));
+                pixels[i] = (alpha << 24) | rgb;
+            }
+        }
+
+        return true;
+    }
+
+    public static int toArgb(Color color) {
+        int alpha = (int)Math.round(color.getOpacity() * 255.);
+        int red = (int)Math.round(color.getRed() * 255.);
+        int green = (int)Math.round(color.getGreen() * 255.);
+        int blue = (int)Math.round(color.getBlue() * 255.);
+        return (alpha << 24) | (red << 16) | (green << 8) | blue;
+    }
+
     static public final double lerp(double start, double stop, double amt) {
         return start + (stop-start) * amt;
     }
@@ -93,4 +134,16 @@ public class GraphicsUtil {
     static public final int constrain(int amt, int low, int high) {
         return (amt < low) ? low : ((amt > high) ? high : amt);
     }
+
+    // even-odd point in polygon test
+    public static boolean polygonContains(double polygonX[], double polygonY[], double px, double py) {
+        boolean inside = false;
+        for (int i = 0, j = polygonX.length - 1; i < polygonX.length; j = i++) {
+            if ((polygonY[i] > py) != (polygonY[j] > py) &&
+                    px < (polygonX[j] - polygonX[i]) * (py - polygonY[i]) / (polygonY[j] - polygonY[i]) + polygonX[i]) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
 }
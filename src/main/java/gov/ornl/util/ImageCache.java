@@ -0,0 +1,176 @@
+package gov.ornl.util;
+
+import javafx.scene.image.Image;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.logging.Logger;
+
+/**
+ * Shared cache of images decoded from files on demand.
+ *
+ * Images are created with JavaFX background loading, so decoding happens on loader
+ * threads and callers get an Image that fills in when it is done (ImageViews update
+ * automatically). Decoded images are kept in least recently used order and the
+ * oldest are dropped once the total pixel bytes pass the cache limit. Thumbnails
+ * are also saved to the ThumbnailStore of their directory and read back from it
+ * instead of decoding the image file again.
+ */
+public class ImageCache {
+    private final static Logger log = Logger.getLogger(ImageCache.class.getName());
+
+    public final static int DEFAULT_THUMBNAIL_SIZE = 200;
+    public final static long DEFAULT_MAX_CACHE_BYTES = 256L * 1024L * 1024L;
+
+    // bytes per decoded pixel (32 bit ARGB)
+    private final static int BYTES_PER_PIXEL = 4;
+
+    private static ImageCache sharedCache;
+
+    private long maxCacheBytes;
+    private long cachedBytes = 0;
+    private LinkedHashMap<ImageKey, CachedImage> imageMap = new LinkedHashMap<>(16, 0.75f, true);
+
+    public ImageCache(long maxCacheBytes) {
+        this.maxCacheBytes = maxCacheBytes;
+    }
+
+    public static synchronized ImageCache getSharedCache() {
+        if (sharedCache == null) {
+            sharedCache = new ImageCache(DEFAULT_MAX_CACHE_BYTES);
+        }
+        return sharedCache;
+    }
+
+    public synchronized long getCachedBytes() { return cachedBytes; }
+
+    public synchronized long getMaxCacheBytes() { return maxCacheBytes; }
+
+    public synchronized void setMaxCacheBytes(long maxCacheBytes) {
+        this.maxCacheBytes = maxCacheBytes;
+        evict();
+    }
+
+    public Image getThumbnail(File file) {
+        return getImage(file, DEFAULT_THUMBNAIL_SIZE);
+    }
+
+    // image scaled to fit in a size x size square (keeping its aspect ratio) or full resolution if size is 0
+    public synchronized Image getImage(File file, int size) {
+        ImageKey key = new ImageKey(file, size);
+        CachedImage cachedImage = imageMap.get(key);
+        if (cachedImage != null && !cachedImage.image.isError()) {
+            return cachedImage.image;
+        }
+
+        ThumbnailStore thumbnailStore = size > 0 && file.getParentFile() != null ?
+                ThumbnailStore.getStore(file.getParentFile()) : null;
+        if (thumbnailStore != null) {
+            Image storedImage = thumbnailStore.getThumbnail(file, size);
+            if (storedImage != null) {
+                cachedImage = new CachedImage(storedImage,
+                        (long)storedImage.getWidth() * (long)storedImage.getHeight() * BYTES_PER_PIXEL);
+                putImage(key, cachedImage);
+                evict();
+                return storedImage;
+            }
+        }
+
+        Image image = new Image(file.toURI().toString(), size, size, true, true, true);
+        cachedImage = new CachedImage(image, estimateBytes(size));
+        putImage(key, cachedImage);
+
+        // replace the estimate with the decoded size once loading finishes and save new thumbnails
+        CachedImage loadingImage = cachedImage;
+        image.progressProperty().addListener((observable, oldValue, newValue) -> {
+            if (newValue.doubleValue() >= 1.) {
+                updateBytes(key, loadingImage);
+                if (thumbnailStore != null && !image.isError()) {
+                    thumbnailStore.addThumbnail(file, size, image);
+                }
+            }
+        });
+        image.errorProperty().addListener(observable -> {
+            if (image.isError()) {
+                log.warning("Unable to load image " + file.getAbsolutePath());
+            }
+        });
+
+        evict();
+        return image;
+    }
+
+    public synchronized void clear() {
+        imageMap.clear();
+        cachedBytes = 0;
+    }
+
+    // adds the image to the cache, replacing (and no longer counting) an earlier image for the key such as one that failed
+    private void putImage(ImageKey key, CachedImage cachedImage) {
+        CachedImage replacedImage = imageMap.put(key, cachedImage);
+        if (replacedImage != null) {
+            cachedBytes -= replacedImage.bytes;
+        }
+        cachedBytes += cachedImage.bytes;
+    }
+
+    private synchronized void updateBytes(ImageKey key, CachedImage cachedImage) {
+        long bytes = (long)cachedImage.image.getWidth() * (long)cachedImage.image.getHeight() * BYTES_PER_PIXEL;
+        if (imageMap.get(key) == cachedImage) {
+            cachedBytes += bytes - cachedImage.bytes;
+        }
+        cachedImage.bytes = bytes;
+        evict();
+    }
+
+    private long estimateBytes(int size) {
+        int side = size > 0 ? size : DEFAULT_THUMBNAIL_SIZE;
+        return (long)side * side * BYTES_PER_PIXEL;
+    }
+
+    // drops the least recently used images until the cache fits (the most recent image is always kept)
+    private void evict() {
+        Iterator<Map.Entry<ImageKey, CachedImage>> iterator = imageMap.entrySet().iterator();
+        while (cachedBytes > maxCacheBytes && imageMap.size() > 1 && iterator.hasNext()) {
+            cachedBytes -= iterator.next().getValue().bytes;
+            iterator.remove();
+        }
+    }
+
+    private static class CachedImage {
+        private Image image;
+        private long bytes;
+
+        private CachedImage(Image image, long bytes) {
+            this.image = image;
+            this.bytes = bytes;
+        }
+    }
+
+    private static class ImageKey {
+        private File file;
+        private int size;
+
+        private ImageKey(File file, int size) {
+            this.file = file;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof ImageKey)) {
+                return false;
+            }
+            ImageKey other = (ImageKey)object;
+            return size == other.size && file.equals(other.file);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(file, size);
+        }
+    }
+}
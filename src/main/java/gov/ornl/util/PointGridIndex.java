@@ -0,0 +1,170 @@
+package gov.ornl.util;
+
+import java.util.BitSet;
+
+/**
+ * Uniform grid over a set of 2D screen points for fast picking.
+ *
+ * Points are bucketed into square cells in compressed row storage (one offsets
+ * array and one array of point indices ordered by cell), so nearest point and
+ * rectangle / polygon queries only visit the cells that overlap the query region.
+ */
+public class PointGridIndex {
+    private static final double DEFAULT_CELL_SIZE = 8.;
+
+    private double x[];
+    private double y[];
+    private int rows[];
+
+    private double minX;
+    private double minY;
+    private double cellSize;
+    private int cellColumnCount;
+    private int cellRowCount;
+
+    // points in cell c are cellPoints[cellOffsets[c]] up to cellPoints[cellOffsets[c + 1]]
+    private int cellOffsets[];
+    private int cellPoints[];
+
+    public PointGridIndex(double x[], double y[], int rows[]) {
+        this(x, y, rows, DEFAULT_CELL_SIZE);
+    }
+
+    // x and y hold the screen position for each point and rows holds the data table row for each point
+    public PointGridIndex(double x[], double y[], int rows[], double cellSize) {
+        this.x = x;
+        this.y = y;
+        this.rows = rows;
+        this.cellSize = cellSize;
+
+        minX = Double.POSITIVE_INFINITY;
+        minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < x.length; i++) {
+            minX = Math.min(minX, x[i]);
+            maxX = Math.max(maxX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+
+        if (x.length == 0) {
+            minX = minY = maxX = maxY = 0.;
+        }
+
+        cellColumnCount = (int)((maxX - minX) / cellSize) + 1;
+        cellRowCount = (int)((maxY - minY) / cellSize) + 1;
+
+        int pointCells[] = new int[x.length];
+        cellOffsets = new int[(cellColumnCount * cellRowCount) + 1];
+        for (int i = 0; i < x.length; i++) {
+            pointCells[i] = getCellIndex(getCellColumn(x[i]), getCellRow(y[i]));
+            cellOffsets[pointCells[i] + 1]++;
+        }
+        for (int i = 1; i < cellOffsets.length; i++) {
+            cellOffsets[i] += cellOffsets[i - 1];
+        }
+
+        cellPoints = new int[x.length];
+        int cellFill[] = new int[cellColumnCount * cellRowCount];
+        for (int i = 0; i < x.length; i++) {
+            cellPoints[cellOffsets[pointCells[i]] + cellFill[pointCells[i]]++] = i;
+        }
+    }
+
+    public int getPointCount() { return x.length; }
+
+    private int getCellColumn(double px) {
+        return Math.max(0, Math.min(cellColumnCount - 1, (int)((px - minX) / cellSize)));
+    }
+
+    private int getCellRow(double py) {
+        return Math.max(0, Math.min(cellRowCount - 1, (int)((py - minY) / cellSize)));
+    }
+
+    private int getCellIndex(int cellColumn, int cellRow) {
+        return (cellRow * cellColumnCount) + cellColumn;
+    }
+
+    // returns the row of the point nearest to (px, py) within maxDistance or -1 if there is none
+    public int getNearestRow(double px, double py, double maxDistance) {
+        int startColumn = getCellColumn(px - maxDistance);
+        int endColumn = getCellColumn(px + maxDistance);
+        int startRow = getCellRow(py - maxDistance);
+        int endRow = getCellRow(py + maxDistance);
+
+        int nearestPoint = -1;
+        double nearestDistanceSquared = maxDistance * maxDistance;
+        for (int cellRow = startRow; cellRow <= endRow; cellRow++) {
+            for (int cellColumn = startColumn; cellColumn <= endColumn; cellColumn++) {
+                int cell = getCellIndex(cellColumn, cellRow);
+                for (int i = cellOffsets[cell]; i < cellOffsets[cell + 1]; i++) {
+                    int point = cellPoints[i];
+                    double dx = x[point] - px;
+                    double dy = y[point] - py;
+                    double distanceSquared = (dx * dx) + (dy * dy);
+                    if (distanceSquared <= nearestDistanceSquared) {
+                        nearestDistanceSquared = distanceSquared;
+                        nearestPoint = point;
+                    }
+                }
+            }
+        }
+
+        return nearestPoint == -1 ? -1 : rows[nearestPoint];
+    }
+
+    public BitSet getRowsInRectangle(double left, double top, double right, double bottom) {
+        BitSet rowSet = new BitSet();
+        if (x.length == 0) {
+            return rowSet;
+        }
+
+        for (int cellRow = getCellRow(top); cellRow <= getCellRow(bottom); cellRow++) {
+            for (int cellColumn = getCellColumn(left); cellColumn <= getCellColumn(right); cellColumn++) {
+                int cell = getCellIndex(cellColumn, cellRow);
+                for (int i = cellOffsets[cell]; i < cellOffsets[cell + 1]; i++) {
+                    int point = cellPoints[i];
+                    if (x[point] >= left && x[point] <= right && y[point] >= top && y[point] <= bottom) {
+                        rowSet.set(rows[point]);
+                    }
+                }
+            }
+        }
+
+        return rowSet;
+    }
+
+    // rows of the points inside the closed polygon with the given vertices (even-odd rule)
+    public BitSet getRowsInPolygon(double polygonX[], double polygonY[]) {
+        BitSet rowSet = new BitSet();
+        if (x.length == 0 || polygonX.length < 3) {
+            return rowSet;
+        }
+
+        double left = Double.POSITIVE_INFINITY;
+        double right = Double.NEGATIVE_INFINITY;
+        double top = Double.POSITIVE_INFINITY;
+        double bottom = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < polygonX.length; i++) {
+            left = Math.min(left, polygonX[i]);
+            right = Math.max(right, polygonX[i]);
+            top = Math.min(top, polygonY[i]);
+            bottom = Math.max(bottom, polygonY[i]);
+        }
+
+        for (int cellRow = getCellRow(top); cellRow <= getCellRow(bottom); cellRow++) {
+            for (int cellColumn = getCellColumn(left); cellColumn <= getCellColumn(right); cellColumn++) {
+                int cell = getCellIndex(cellColumn, cellRow);
+                for (int i = cellOffsets[cell]; i < cellOffsets[cell + 1]; i++) {
+                    int point = cellPoints[i];
+                    if (GraphicsUtil.polygonContains(polygonX, polygonY, x[point], y[point])) {
+                        rowSet.set(rows[point]);
+                    }
+                }
+            }
+        }
+
+        return rowSet;
+    }
+}
@@ -0,0 +1,296 @@
+package gov.ornl.util;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+
+import java.io.*;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Persistent thumbnails for the images in one directory.
+ *
+ * Thumbnail pixels are appended to a single atlas file and their positions to an
+ * index file, both kept in a per-user cache directory (named by a digest of the
+ * image directory path) so image directories are never written to. An entry is
+ * keyed by file name and thumbnail size and is only used while the image file's
+ * size and modification time match, so edited images are decoded again. Thumbnails
+ * are read by memory mapping their region of the atlas, so reopening a dataset
+ * creates thumbnails without decoding the original images. Once the atlas would pass
+ * MAX_ATLAS_BYTES the store is cleared and starts over.
+ */
+public class ThumbnailStore {
+    private final static Logger log = Logger.getLogger(ThumbnailStore.class.getName());
+
+    public final static File CACHE_DIRECTORY = new File(System.getProperty("user.home"),
+            ".crossvis" + File.separator + "thumbnails");
+    public final static long MAX_ATLAS_BYTES = 512L * 1024L * 1024L;
+
+    private final static int BYTES_PER_PIXEL = 4;
+
+    private static HashMap<File, ThumbnailStore> storeMap = new HashMap<>();
+
+    // appends run on one thread so the atlas and index stay in step
+    private static ExecutorService writeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ThumbnailStore writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private File directory;
+    private File atlasFile;
+    private File indexFile;
+    private boolean writable;
+
+    private HashMap<EntryKey, Entry> entryMap = new HashMap<>();
+    private long atlasLength = 0;
+    private FileChannel atlasChannel;
+
+    private ThumbnailStore(File directory) {
+        this.directory = directory;
+        String storeName = getStoreName(directory);
+        atlasFile = new File(CACHE_DIRECTORY, storeName + ".atlas");
+        indexFile = new File(CACHE_DIRECTORY, storeName + ".index");
+        writable = (CACHE_DIRECTORY.isDirectory() || CACHE_DIRECTORY.mkdirs()) && CACHE_DIRECTORY.canWrite() &&
+                (!atlasFile.exists() || atlasFile.canWrite());
+        if (!writable) {
+            log.warning("Thumbnails will not be saved since " + CACHE_DIRECTORY.getAbsolutePath() + " is not writable");
+        }
+        atlasLength = atlasFile.exists() ? atlasFile.length() : 0;
+        readIndex();
+    }
+
+    public static synchronized ThumbnailStore getStore(File directory) {
+        ThumbnailStore store = storeMap.get(directory);
+        if (store == null) {
+            store = new ThumbnailStore(directory);
+            storeMap.put(directory, store);
+        }
+        return store;
+    }
+
+    public File getDirectory() { return directory; }
+
+    // hex SHA-1 digest of the absolute directory path
+    private static String getStoreName(File directory) {
+        try {
+            byte digest[] = MessageDigest.getInstance("SHA-1").digest(
+                    directory.getAbsolutePath().getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder();
+            for (byte b : digest) {
+                name.append(String.format("%02x", b));
+            }
+            return name.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-1
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // reads index entries in order; later entries replace earlier ones and entries past the end of the atlas are skipped
+    private void readIndex() {
+        if (!indexFile.exists() || !atlasFile.exists()) {
+            return;
+        }
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            while (true) {
+                String name;
+                try {
+                    name = input.readUTF();
+                } catch (EOFException e) {
+                    break;
+                }
+                int size = input.readInt();
+                long fileLength = input.readLong();
+                long lastModified = input.readLong();
+                int width = input.readInt();
+                int height = input.readInt();
+                long offset = input.readLong();
+
+                if (offset + ((long)width * height * BYTES_PER_PIXEL) <= atlasLength) {
+                    entryMap.put(new EntryKey(name, size), new Entry(fileLength, lastModified, width, height, offset));
+                }
+            }
+        } catch (EOFException e) {
+            // a partially written last entry is ignored
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Unable to read thumbnail index " + indexFile.getAbsolutePath(), e);
+        }
+    }
+
+    // stored thumbnail for the image file or null if there is none for its current size and modification time
+    public synchronized Image getThumbnail(File imageFile, int size) {
+        Entry entry = entryMap.get(new EntryKey(imageFile.getName(), size));
+        if (entry == null || entry.fileLength != imageFile.length() || entry.lastModified != imageFile.lastModified()) {
+            return null;
+        }
+
+        try {
+            if (atlasChannel == null) {
+                atlasChannel = FileChannel.open(atlasFile.toPath(), StandardOpenOption.READ);
+            }
+
+            // each thumbnail is mapped on its own so atlases larger than 2 GB can be read
+            IntBuffer pixels = atlasChannel.map(FileChannel.MapMode.READ_ONLY, entry.offset,
+                    (long)entry.width * entry.height * BYTES_PER_PIXEL).order(ByteOrder.BIG_ENDIAN).asIntBuffer();
+
+            WritableImage image = new WritableImage(entry.width, entry.height);
+            image.getPixelWriter().setPixels(0, 0, entry.width, entry.height, PixelFormat.getIntArgbInstance(),
+                    pixels, entry.width);
+            return image;
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Unable to map thumbnail atlas " + atlasFile.getAbsolutePath(), e);
+            return null;
+        }
+    }
+
+    // copies the pixels of a loaded thumbnail and appends them to the store in the background
+    public void addThumbnail(File imageFile, int size, Image image) {
+        if (!writable || image.isError() || image.getProgress() < 1.) {
+            return;
+        }
+
+        PixelReader pixelReader = image.getPixelReader();
+        int width = (int)image.getWidth();
+        int height = (int)image.getHeight();
+        if (pixelReader == null || width == 0 || height == 0) {
+            return;
+        }
+
+        int pixels[] = new int[width * height];
+        pixelReader.getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        String name = imageFile.getName();
+        long fileLength = imageFile.length();
+        long lastModified = imageFile.lastModified();
+
+        // failures are logged here since nothing waits on the task
+        writeExecutor.execute(() -> {
+            try {
+                append(name, size, fileLength, lastModified, width, height, pixels);
+            } catch (RuntimeException e) {
+                log.log(Level.WARNING, "Unable to save thumbnail of " + name + " in " + atlasFile.getAbsolutePath(), e);
+            }
+        });
+    }
+
+    private void append(String name, int size, long fileLength, long lastModified, int width, int height, int pixels[]) {
+        long thumbnailBytes = (long)pixels.length * BYTES_PER_PIXEL;
+        if (thumbnailBytes > MAX_ATLAS_BYTES) {
+            return;
+        }
+
+        long offset;
+        synchronized (this) {
+            if (atlasLength + thumbnailBytes > MAX_ATLAS_BYTES && !clear()) {
+                writable = false;
+                return;
+            }
+            offset = atlasLength;
+        }
+
+        try {
+            try (DataOutputStream atlasOutput = new DataOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(atlasFile, true)))) {
+                for (int pixel : pixels) {
+                    atlasOutput.writeInt(pixel);
+                }
+            }
+
+            // the index entry is written after its pixels so a reader never sees an entry without data
+            try (DataOutputStream indexOutput = new DataOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(indexFile, true)))) {
+                indexOutput.writeUTF(name);
+                indexOutput.writeInt(size);
+                indexOutput.writeLong(fileLength);
+                indexOutput.writeLong(lastModified);
+                indexOutput.writeInt(width);
+                indexOutput.writeInt(height);
+                indexOutput.writeLong(offset);
+            }
+
+            synchronized (this) {
+                atlasLength = offset + thumbnailBytes;
+                entryMap.put(new EntryKey(name, size), new Entry(fileLength, lastModified, width, height, offset));
+            }
+        } catch (IOException e) {
+            log.log(Level.WARNING, "Unable to write thumbnail store " + atlasFile.getAbsolutePath(), e);
+            synchronized (this) {
+                writable = false;
+            }
+        }
+    }
+
+    // drops every stored thumbnail and deletes the atlas and index files, returning false if they can't be deleted
+    private synchronized boolean clear() {
+        log.info("Thumbnail atlas " + atlasFile.getAbsolutePath() + " is full, starting over");
+        if (atlasChannel != null) {
+            try {
+                atlasChannel.close();
+            } catch (IOException e) {
+                log.log(Level.WARNING, "Unable to close thumbnail atlas " + atlasFile.getAbsolutePath(), e);
+            }
+            atlasChannel = null;
+        }
+        entryMap.clear();
+        atlasLength = 0;
+        if ((indexFile.exists() && !indexFile.delete()) || (atlasFile.exists() && !atlasFile.delete())) {
+            log.warning("Unable to delete thumbnail store " + atlasFile.getAbsolutePath());
+            return false;
+        }
+        return true;
+    }
+
+    private static class Entry {
+        private long fileLength;
+        private long lastModified;
+        private int width;
+        private int height;
+        private long offset;
+
+        private Entry(long fileLength, long lastModified, int width, int height, long offset) {
+            this.fileLength = fileLength;
+            this.lastModified = lastModified;
+            this.width = width;
+            this.height = height;
+            this.offset = offset;
+        }
+    }
+
+    private static class EntryKey {
+        private String name;
+        private int size;
+
+        private EntryKey(String name, int size) {
+            this.name = name;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof EntryKey)) {
+                return false;
+            }
+            EntryKey other = (EntryKey)object;
+            return size == other.size && name.equals(other.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, size);
+        }
+    }
+}